@@ -17,10 +17,12 @@
 package io.jmix.gradle;
 
 import javassist.*;
+import javassist.bytecode.AccessFlag;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.util.*;
 
 import static io.jmix.gradle.MetaModelUtil.*;
 
@@ -107,9 +109,106 @@ public class EntityEntryEnhancingStep extends BaseEnhancingStep {
             nestedCtClass.addMethod(setIdMethod);
         }
 
+        makeAttributeAccessMethods(ctClass, nestedCtClass);
+
         nestedCtClass.writeFile(outputDir);
     }
 
+    /**
+     * Generates methods accessing entity attributes by ordinal with direct calls of getters and setters,
+     * see {@code BaseEntityEntry.getCompiledAttributeValue(int)}. Ordinals are indexes in the alphabetically sorted
+     * array of names of properties having public getters, as in {@code MethodsCache}.
+     */
+    protected void makeAttributeAccessMethods(CtClass ctClass, CtClass nestedCtClass) throws CannotCompileException, NotFoundException {
+        Map<String, CtMethod> getters = new TreeMap<>();
+        Map<String, List<CtMethod>> setters = new HashMap<>();
+        for (CtMethod ctMethod : ctClass.getMethods()) {
+            int modifiers = ctMethod.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)
+                    || (ctMethod.getMethodInfo().getAccessFlags() & AccessFlag.BRIDGE) != 0) {
+                continue;
+            }
+            String name = ctMethod.getName();
+            int paramCount = ctMethod.getParameterTypes().length;
+            boolean getter = paramCount == 0 && ctMethod.getReturnType() != CtClass.voidType;
+            if (name.startsWith("get") && name.length() > 3 && getter && !"getClass".equals(name)) {
+                getters.put(StringUtils.uncapitalize(name.substring(3)), ctMethod);
+            } else if (name.startsWith("is") && name.length() > 2 && getter) {
+                // Kotlin property which name starts with "is" has the getter with the same name
+                getters.put(hasField(ctClass, name) ? name : StringUtils.uncapitalize(name.substring(2)), ctMethod);
+            } else if (name.startsWith("set") && name.length() > 3 && paramCount == 1) {
+                String isName = "is" + name.substring(3);
+                String propertyName = hasField(ctClass, isName) ? isName : StringUtils.uncapitalize(name.substring(3));
+                setters.computeIfAbsent(propertyName, k -> new ArrayList<>()).add(ctMethod);
+            }
+        }
+
+        List<String> names = new ArrayList<>(getters.keySet());
+        StringBuilder namesInitializer = new StringBuilder();
+        StringBuilder getBody = new StringBuilder();
+        StringBuilder setBody = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            namesInitializer.append(i > 0 ? ", " : "").append('"').append(name).append('"');
+
+            CtMethod getter = getters.get(name);
+            getBody.append(String.format("case %d: return %s;",
+                    i, wrapValue("entity." + getter.getName() + "()", getter.getReturnType())));
+
+            // overloaded and inherited non-public setters are resolved by MethodsCache
+            List<CtMethod> propertySetters = setters.get(name);
+            if (propertySetters != null && propertySetters.size() == 1) {
+                CtMethod setter = propertySetters.get(0);
+                setBody.append(String.format("case %d: entity.%s(%s); return;",
+                        i, setter.getName(), unwrapValue("value", setter.getParameterTypes()[0])));
+            }
+        }
+
+        nestedCtClass.addField(CtField.make(String.format("private static final String[] ATTRIBUTE_NAMES = new String[]{%s};",
+                namesInitializer), nestedCtClass));
+
+        nestedCtClass.addMethod(CtNewMethod.make(
+                "protected String[] getAttributeNames() { return ATTRIBUTE_NAMES; }", nestedCtClass));
+
+        nestedCtClass.addMethod(CtNewMethod.make(String.format(
+                "protected Object getCompiledAttributeValue(int ordinal) {" +
+                        " %s entity = (%s) getSource();" +
+                        " switch (ordinal) { %s default: return %s.getOrCreate(entity.getClass()).getGetter(ATTRIBUTE_NAMES[ordinal]).apply(entity); }" +
+                        " }",
+                ctClass.getName(), ctClass.getName(), getBody, METHODS_CACHE_TYPE), nestedCtClass));
+
+        nestedCtClass.addMethod(CtNewMethod.make(String.format(
+                "protected void setCompiledAttributeValue(int ordinal, Object value) {" +
+                        " %s entity = (%s) getSource();" +
+                        " switch (ordinal) { %s default: %s.getOrCreate(entity.getClass()).getSetter(ATTRIBUTE_NAMES[ordinal]).accept(entity, value); }" +
+                        " }",
+                ctClass.getName(), ctClass.getName(), setBody, METHODS_CACHE_TYPE), nestedCtClass));
+    }
+
+    protected String wrapValue(String value, CtClass type) {
+        if (type.isPrimitive()) {
+            return String.format("%s.valueOf(%s)", ((CtPrimitiveType) type).getWrapperName(), value);
+        }
+        return value;
+    }
+
+    protected String unwrapValue(String value, CtClass type) {
+        if (type.isPrimitive()) {
+            CtPrimitiveType primitiveType = (CtPrimitiveType) type;
+            return String.format("((%s) %s).%s()", primitiveType.getWrapperName(), value, primitiveType.getGetMethodName());
+        }
+        return String.format("(%s) %s", type.getName(), value);
+    }
+
+    protected boolean hasField(CtClass ctClass, String fieldName) {
+        try {
+            ctClass.getField(fieldName);
+            return true;
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
     protected void makeEntityEntryField(CtClass ctClass) throws CannotCompileException, NotFoundException {
         CtField ctField = new CtField(classPool.get(ENTITY_ENTRY_TYPE), GEN_ENTITY_ENTRY_VAR_NAME, ctClass);
         ctField.setModifiers(Modifier.PROTECTED);
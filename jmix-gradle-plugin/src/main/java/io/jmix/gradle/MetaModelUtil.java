@@ -31,6 +31,7 @@ public class MetaModelUtil {
 
     public static final String SETTERS_ENHANCED_TYPE = "io.jmix.core.entity.JmixSettersEnhanced";
     public static final String ENTITY_ENTRY_ENHANCED_TYPE = "io.jmix.core.entity.JmixEntityEntryEnhanced";
+    public static final String METHODS_CACHE_TYPE = "io.jmix.core.metamodel.model.utils.MethodsCache";
 
     public static final String TRANSIENT_ANNOTATION_TYPE = "javax.persistence.Transient";
     public static final String MODEL_PROPERTY_ANNOTATION_TYPE = "io.jmix.core.metamodel.annotation.ModelProperty";
@@ -24,16 +24,52 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 @ConstructorBinding
 public class AuditProperties {
 
+    /**
+     * Defines what {@link EntityLogAsyncWriter} does when its queue is full.
+     */
+    public enum AsyncOverflowPolicy {
+        /**
+         * Wait for free space in the queue.
+         */
+        BLOCK,
+        /**
+         * Write the items synchronously in the calling thread.
+         */
+        CALLER_RUNS,
+        /**
+         * Drop the items and log a warning.
+         */
+        DISCARD
+    }
+
     boolean enabled;
     //ToDo: make system user name globally configurable?
     String systemUserLogin;
+    boolean asyncWriting;
+    int asyncQueueCapacity;
+    int asyncBatchSize;
+    long asyncFlushIntervalMs;
+    AsyncOverflowPolicy asyncOverflowPolicy;
+    long asyncShutdownTimeoutMs;
 
     public AuditProperties(
             @DefaultValue("true") boolean enabled,
-            @DefaultValue("system") String systemUserLogin
+            @DefaultValue("system") String systemUserLogin,
+            boolean asyncWriting,
+            @DefaultValue("10000") int asyncQueueCapacity,
+            @DefaultValue("500") int asyncBatchSize,
+            @DefaultValue("1000") long asyncFlushIntervalMs,
+            @DefaultValue("BLOCK") AsyncOverflowPolicy asyncOverflowPolicy,
+            @DefaultValue("30000") long asyncShutdownTimeoutMs
     ) {
         this.enabled = enabled;
         this.systemUserLogin = systemUserLogin;
+        this.asyncWriting = asyncWriting;
+        this.asyncQueueCapacity = asyncQueueCapacity;
+        this.asyncBatchSize = asyncBatchSize;
+        this.asyncFlushIntervalMs = asyncFlushIntervalMs;
+        this.asyncOverflowPolicy = asyncOverflowPolicy;
+        this.asyncShutdownTimeoutMs = asyncShutdownTimeoutMs;
     }
 
     public boolean isEnabled() {
@@ -43,4 +79,47 @@ public class AuditProperties {
     public String getSystemUserLogin() {
         return systemUserLogin;
     }
+
+    /**
+     * Whether entity log items are written by a background thread after the business transaction is committed.
+     */
+    public boolean isAsyncWriting() {
+        return asyncWriting;
+    }
+
+    /**
+     * Maximum number of entity log items waiting to be written in async mode.
+     */
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    /**
+     * Maximum number of entity log items written in one transaction in async mode.
+     */
+    public int getAsyncBatchSize() {
+        return asyncBatchSize;
+    }
+
+    /**
+     * Maximum time in milliseconds an incomplete batch waits for more items in async mode.
+     */
+    public long getAsyncFlushIntervalMs() {
+        return asyncFlushIntervalMs;
+    }
+
+    /**
+     * What to do when the async queue is full.
+     */
+    public AsyncOverflowPolicy getAsyncOverflowPolicy() {
+        return asyncOverflowPolicy;
+    }
+
+    /**
+     * Maximum time in milliseconds to wait on shutdown for the async writer to write the queued items. Items that
+     * are still queued after this time are written by the thread that shuts the application down.
+     */
+    public long getAsyncShutdownTimeoutMs() {
+        return asyncShutdownTimeoutMs;
+    }
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.audit;
+
+import io.jmix.audit.entity.EntityLogItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes entity log items in a background thread if {@link AuditProperties#isAsyncWriting()} is enabled.
+ * <p>
+ * Items are put to a bounded queue by {@link EntityLogImpl} after the business transaction is committed. The writer
+ * thread takes up to {@link AuditProperties#getAsyncBatchSize()} items, waiting for the batch to fill at most
+ * {@link AuditProperties#getAsyncFlushIntervalMs()}, and persists them in one transaction. If the transaction fails,
+ * the items of the batch are written one by one, so that only the failing items are lost.
+ * <p>
+ * On shutdown the writer stops accepting items, so they are written synchronously by the caller, and waits at most
+ * {@link AuditProperties#getAsyncShutdownTimeoutMs()} for the writer thread to write the queued items.
+ * <p>
+ * Exposes the following metrics: {@code jmix.audit.async.queue} (current queue depth), {@code jmix.audit.async.lag}
+ * (time from enqueueing to writing), {@code jmix.audit.async.written}, {@code jmix.audit.async.discarded} and
+ * {@code jmix.audit.async.failed} (number of items).
+ */
+@Component(EntityLogAsyncWriter.NAME)
+public class EntityLogAsyncWriter {
+
+    public static final String NAME = "audit_EntityLogAsyncWriter";
+
+    private static final Logger log = LoggerFactory.getLogger(EntityLogAsyncWriter.class);
+
+    @Autowired
+    protected AuditProperties properties;
+    @Autowired
+    protected MeterRegistry meterRegistry;
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    protected TransactionTemplate transaction;
+
+    // put to the queue on shutdown to stop waiting for a batch to fill
+    protected static final QueuedItem STOP = new QueuedItem(null, 0);
+
+    protected BlockingQueue<QueuedItem> queue;
+    protected Thread writerThread;
+    protected volatile boolean running;
+    // guards the check of the running flag and putting to the queue against shutdown
+    protected ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    protected Timer lagTimer;
+    protected Counter writtenCounter;
+    protected Counter discardedCounter;
+    protected Counter failedCounter;
+
+    @Autowired
+    protected void setTransactionManager(PlatformTransactionManager transactionManager) {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    protected void init() {
+        if (!properties.isAsyncWriting()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getAsyncQueueCapacity());
+
+        meterRegistry.gaugeCollectionSize("jmix.audit.async.queue", Collections.emptyList(), queue);
+        lagTimer = meterRegistry.timer("jmix.audit.async.lag");
+        writtenCounter = meterRegistry.counter("jmix.audit.async.written");
+        discardedCounter = meterRegistry.counter("jmix.audit.async.discarded");
+        failedCounter = meterRegistry.counter("jmix.audit.async.failed");
+
+        running = true;
+        writerThread = new Thread(this::run, "EntityLogAsyncWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+        stopAccepting();
+        // the writer thread exits when the queue is empty, if the queue is full the thread is not waiting anyway
+        queue.offer(STOP);
+        try {
+            writerThread.join(properties.getAsyncShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<QueuedItem> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.remove(STOP);
+        if (!remaining.isEmpty()) {
+            log.warn("EntityLogAsyncWriter has not written {} items in {} ms, writing them on shutdown",
+                    remaining.size(), properties.getAsyncShutdownTimeoutMs());
+            write(remaining);
+        }
+    }
+
+    /**
+     * Makes {@link #enqueue(Collection)} write the items in the calling thread.
+     */
+    protected void stopAccepting() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the async mode is enabled and the writer is running
+     */
+    public boolean isActive() {
+        return running;
+    }
+
+    /**
+     * Puts items to the queue. If the queue is full, applies {@link AuditProperties#getAsyncOverflowPolicy()}.
+     */
+    public void enqueue(Collection<EntityLogItem> items) {
+        List<QueuedItem> overflow = new ArrayList<>();
+        runningLock.readLock().lock();
+        try {
+            for (EntityLogItem item : items) {
+                QueuedItem queuedItem = new QueuedItem(item, System.nanoTime());
+                if (!running) {
+                    overflow.add(queuedItem);
+                } else {
+                    offer(queuedItem, overflow);
+                }
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        if (!overflow.isEmpty()) {
+            write(overflow);
+        }
+    }
+
+    protected void offer(QueuedItem queuedItem, List<QueuedItem> overflow) {
+        EntityLogItem item = queuedItem.item;
+        switch (properties.getAsyncOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    queue.put(queuedItem);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    overflow.add(queuedItem);
+                }
+                break;
+            case CALLER_RUNS:
+                if (!queue.offer(queuedItem)) {
+                    overflow.add(queuedItem);
+                }
+                break;
+            case DISCARD:
+                if (!queue.offer(queuedItem)) {
+                    discardedCounter.increment();
+                    log.warn("Entity log queue is full, item is discarded: {} {} id={}",
+                            item.getType(), item.getEntity(), item.getObjectEntityId());
+                }
+                break;
+        }
+    }
+
+    protected void run() {
+        int batchSize = properties.getAsyncBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAsyncFlushIntervalMs());
+        List<QueuedItem> batch = new ArrayList<>(batchSize);
+        // after shutdown the remaining items are written before the thread exits
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedItem first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == STOP) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.remove(STOP)) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    QueuedItem next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null || next == STOP) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                log.warn("EntityLogAsyncWriter is interrupted, writing the queued items and stopping");
+                // not under the lock: a caller can hold it while waiting for free space in the queue,
+                // items it puts afterwards are written on shutdown
+                running = false;
+                queue.drainTo(batch);
+                batch.remove(STOP);
+                write(batch);
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    protected void write(List<QueuedItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            persist(items);
+        } catch (RuntimeException e) {
+            if (items.size() == 1) {
+                EntityLogItem item = items.get(0).item;
+                failedCounter.increment();
+                log.error("Unable to write entity log item {} {} id={}",
+                        item.getType(), item.getEntity(), item.getObjectEntityId(), e);
+                return;
+            }
+            log.warn("Unable to write {} entity log items in one transaction, writing them one by one",
+                    items.size(), e);
+            for (QueuedItem queuedItem : items) {
+                write(Collections.singletonList(queuedItem));
+            }
+        }
+    }
+
+    protected void persist(List<QueuedItem> items) {
+        transaction.executeWithoutResult(status -> {
+            for (QueuedItem queuedItem : items) {
+                entityManager.persist(queuedItem.item);
+            }
+        });
+        long now = System.nanoTime();
+        for (QueuedItem queuedItem : items) {
+            lagTimer.record(now - queuedItem.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        writtenCounter.increment(items.size());
+    }
+
+    protected static class QueuedItem {
+        protected final EntityLogItem item;
+        protected final long enqueuedAt;
+
+        protected QueuedItem(EntityLogItem item, long enqueuedAt) {
+            this.item = item;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -107,6 +107,9 @@ public class EntityLogImpl implements EntityLog, OrmLifecycleListener {
     @Autowired
     protected DataManager dataManager;
 
+    @Autowired
+    protected EntityLogAsyncWriter asyncWriter;
+
     protected AuditProperties properties;
 
     protected volatile boolean enabled;
@@ -166,20 +169,26 @@ public class EntityLogImpl implements EntityLog, OrmLifecycleListener {
         if (items == null || items.isEmpty())
             return;
 
-        Set<EntityLogItem> saved = new LinkedHashSet<>();
-        for (EntityLogItem item : items) {
-            List<EntityLogItem> sameEntityList = items.stream()
-                    .filter(entityLogItem -> entityLogItem.getDbGeneratedIdEntity() != null ?
-                            entityLogItem.getDbGeneratedIdEntity().equals(item.getDbGeneratedIdEntity()) :
-                            entityLogItem.getObjectEntityId().equals(item.getObjectEntityId()))
-                    .collect(Collectors.toList());
+        Collection<List<EntityLogItem>> itemsByEntity = groupItemsByEntity(items);
+        List<EntityLogItem> itemsToSave = new ArrayList<>(itemsByEntity.size());
+        for (List<EntityLogItem> sameEntityList : itemsByEntity) {
             EntityLogItem itemToSave = sameEntityList.get(0);
-            if (!saved.contains(itemToSave)) {
-                computeChanges(itemToSave, sameEntityList);
-                saved.add(itemToSave);
-                saveItem(itemToSave);
-            }
+            computeChanges(itemToSave, sameEntityList);
+            itemsToSave.add(itemToSave);
         }
+        saveItems(itemsToSave);
+    }
+
+    /**
+     * Groups items by the logged entity preserving the registration order of entities and of items for each entity.
+     */
+    protected Collection<List<EntityLogItem>> groupItemsByEntity(List<EntityLogItem> items) {
+        Map<Object, List<EntityLogItem>> itemsByEntity = new LinkedHashMap<>();
+        for (EntityLogItem item : items) {
+            Object key = item.getDbGeneratedIdEntity() != null ? item.getDbGeneratedIdEntity() : item.getObjectEntityId();
+            itemsByEntity.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+        }
+        return itemsByEntity.values();
     }
 
     protected void computeChanges(EntityLogItem itemToSave, List<EntityLogItem> sameEntityList) {
@@ -239,20 +248,35 @@ public class EntityLogImpl implements EntityLog, OrmLifecycleListener {
     }
 
     protected void processAttributes(EntityLogItem itemToSave, List<EntityLogItem> sameEntityList, Set<String> attributes) {
+        Map<String, EntityLogAttr> firstItemAttributes = getAttributesByName(sameEntityList.get(0));
+        Map<String, EntityLogAttr> lastItemAttributes = getAttributesByName(sameEntityList.get(sameEntityList.size() - 1));
+        Map<String, EntityLogAttr> attributesToSave = getAttributesByName(itemToSave);
         for (String attributeName : attributes) {
             // old value from the first item
-            sameEntityList.get(0).getAttributes().stream()
-                    .filter(entityLogAttr -> entityLogAttr.getName().equals(attributeName))
-                    .findFirst()
-                    .ifPresent(entityLogAttr -> setAttributeOldValue(entityLogAttr, itemToSave));
+            EntityLogAttr oldValueAttr = firstItemAttributes.get(attributeName);
+            if (oldValueAttr != null) {
+                EntityLogAttr attr = getAttrToSave(oldValueAttr, itemToSave, attributesToSave);
+                attr.setOldValue(oldValueAttr.getOldValue());
+                attr.setOldValueId(oldValueAttr.getOldValueId());
+            }
             // new value from the last item
-            sameEntityList.get(sameEntityList.size() - 1).getAttributes().stream()
-                    .filter(entityLogAttr -> entityLogAttr.getName().equals(attributeName))
-                    .findFirst()
-                    .ifPresent(entityLogAttr -> setAttributeNewValue(entityLogAttr, itemToSave));
+            EntityLogAttr newValueAttr = lastItemAttributes.get(attributeName);
+            if (newValueAttr != null) {
+                EntityLogAttr attr = getAttrToSave(newValueAttr, itemToSave, attributesToSave);
+                attr.setValue(newValueAttr.getValue());
+                attr.setValueId(newValueAttr.getValueId());
+            }
         }
     }
 
+    protected Map<String, EntityLogAttr> getAttributesByName(EntityLogItem item) {
+        Map<String, EntityLogAttr> attributes = new HashMap<>();
+        for (EntityLogAttr attr : item.getAttributes()) {
+            attributes.putIfAbsent(attr.getName(), attr);
+        }
+        return attributes;
+    }
+
     protected void setAttributeOldValue(EntityLogAttr entityLogAttr, EntityLogItem itemToSave) {
         EntityLogAttr attr = getAttrToSave(entityLogAttr, itemToSave);
         attr.setOldValue(entityLogAttr.getOldValue());
@@ -266,36 +290,80 @@ public class EntityLogImpl implements EntityLog, OrmLifecycleListener {
     }
 
     protected EntityLogAttr getAttrToSave(EntityLogAttr entityLogAttr, EntityLogItem itemToSave) {
-        EntityLogAttr attr = itemToSave.getAttributes().stream()
-                .filter(a -> a.getName().equals(entityLogAttr.getName()))
-                .findFirst()
-                .orElse(null);
+        return getAttrToSave(entityLogAttr, itemToSave, getAttributesByName(itemToSave));
+    }
+
+    /**
+     * @param attributesToSave index of {@code itemToSave} attributes by name, updated if a new attribute is created
+     */
+    protected EntityLogAttr getAttrToSave(EntityLogAttr entityLogAttr, EntityLogItem itemToSave,
+                                          Map<String, EntityLogAttr> attributesToSave) {
+        EntityLogAttr attr = attributesToSave.get(entityLogAttr.getName());
         if (attr == null) {
             attr = metadata.create(EntityLogAttr.class);
             attr.setName(entityLogAttr.getName());
             itemToSave.getAttributes().add(attr);
+            attributesToSave.put(attr.getName(), attr);
         }
         return attr;
     }
 
     protected void saveItem(EntityLogItem item) {
-        String storeName = metadataTools.getStoreName(metadata.getClass(item.getEntity()));
-        if (item.getDbGeneratedIdEntity() == null) {
-            if (Stores.isMain(storeName)) {
+        saveItems(Collections.singletonList(item));
+    }
+
+    /**
+     * Persists items of the main store in the current transaction. Items of additional stores are persisted together
+     * in one new transaction of the main store, items of entities with DB-generated ids are persisted together in one
+     * new transaction after commit, when the ids are known. Inserts are sent in JDBC batches if batch writing
+     * is enabled for the main persistence unit ({@code jmix.data.jdbcBatchWritingSize}).
+     * <p>
+     * If {@link AuditProperties#isAsyncWriting()} is enabled, all items are passed to {@link EntityLogAsyncWriter}
+     * after commit.
+     */
+    protected void saveItems(List<EntityLogItem> items) {
+        if (asyncWriter.isActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    for (EntityLogItem item : items) {
+                        if (item.getDbGeneratedIdEntity() != null) {
+                            Number id = ((IdProxy) EntityValues.getId(item.getDbGeneratedIdEntity())).getNN();
+                            item.setObjectEntityId(id);
+                        }
+                    }
+                    asyncWriter.enqueue(items);
+                }
+            });
+            return;
+        }
+
+        List<EntityLogItem> additionalStoreItems = new ArrayList<>();
+        List<EntityLogItem> dbGeneratedIdItems = new ArrayList<>();
+        for (EntityLogItem item : items) {
+            if (item.getDbGeneratedIdEntity() != null) {
+                dbGeneratedIdItems.add(item);
+            } else if (Stores.isMain(metadataTools.getStoreName(metadata.getClass(item.getEntity())))) {
                 entityManager.persist(item);
             } else {
-                // Create a new transaction in main DB if we are saving an entity from additional data store
-                transaction.executeWithoutResult(transactionStatus -> entityManager.persist(item));
+                additionalStoreItems.add(item);
             }
-        } else {
+        }
+
+        if (!additionalStoreItems.isEmpty()) {
+            // Create a new transaction in main DB if we are saving an entity from additional data store
+            transaction.executeWithoutResult(status -> additionalStoreItems.forEach(entityManager::persist));
+        }
+
+        if (!dbGeneratedIdItems.isEmpty()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
                 @Override
                 public void afterCommit() {
-                    Number id = ((IdProxy) EntityValues.getId(item.getDbGeneratedIdEntity())).getNN();
-                    item.setObjectEntityId(id);
-                    transaction.executeWithoutResult(status -> {
-                        entityManager.persist(item);
-                    });
+                    for (EntityLogItem item : dbGeneratedIdItems) {
+                        Number id = ((IdProxy) EntityValues.getId(item.getDbGeneratedIdEntity())).getNN();
+                        item.setObjectEntityId(id);
+                    }
+                    transaction.executeWithoutResult(status -> dbGeneratedIdItems.forEach(entityManager::persist));
                 }
             });
         }
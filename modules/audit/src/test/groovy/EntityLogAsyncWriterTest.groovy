@@ -0,0 +1,141 @@
+import io.jmix.audit.AuditProperties
+import io.jmix.audit.EntityLogAsyncWriter
+import io.jmix.audit.entity.EntityLogItem
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.transaction.PlatformTransactionManager
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.persistence.EntityManager
+import javax.persistence.PersistenceException
+
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+class EntityLogAsyncWriterTest extends Specification {
+
+    PollingConditions conditions = new PollingConditions(timeout: 10)
+
+    // items persisted in the current transaction
+    List<EntityLogItem> pending = []
+    // items of committed transactions
+    List<List<EntityLogItem>> committed = Collections.synchronizedList([])
+    Set<EntityLogItem> failingItems = []
+
+    EntityLogAsyncWriter writer
+
+    void cleanup() {
+        writer.shutdown()
+    }
+
+    def "items are written in batches"() {
+
+        createWriter(3, 200)
+        def items = createItems(7)
+
+        when:
+
+        writer.enqueue(items)
+
+        then:
+
+        conditions.eventually {
+            assert committed.flatten() == items
+        }
+        committed*.size() == [3, 3, 1]
+    }
+
+    def "queued items are written on shutdown without waiting for the batch to fill"() {
+
+        createWriter(100, 60000)
+        def items = createItems(5)
+
+        when:
+
+        writer.enqueue(items)
+        long start = System.currentTimeMillis()
+        writer.shutdown()
+
+        then:
+
+        System.currentTimeMillis() - start < 10000
+        committed.flatten() == items
+        !writer.active
+
+        when: "an item is enqueued after shutdown"
+
+        def lateItem = createItems(1)
+        writer.enqueue(lateItem)
+
+        then: "it is written in the calling thread"
+
+        committed.last() == lateItem
+    }
+
+    def "failing item does not prevent writing other items of the batch"() {
+
+        createWriter(3, 200)
+        def items = createItems(3)
+        failingItems << items[1]
+
+        when:
+
+        writer.enqueue(items)
+
+        then:
+
+        conditions.eventually {
+            assert committed.flatten() == [items[0], items[2]]
+        }
+        writer.meterRegistry.counter('jmix.audit.async.failed').count() == 1
+
+        when: "the writer keeps working after the failure"
+
+        def nextItems = createItems(2)
+        writer.enqueue(nextItems)
+
+        then:
+
+        conditions.eventually {
+            assert committed.flatten() == [items[0], items[2]] + nextItems
+        }
+    }
+
+    private void createWriter(int batchSize, long flushIntervalMs) {
+        writer = new EntityLogAsyncWriter()
+        writer.properties = new AuditProperties(true, 'system', true, 100, batchSize, flushIntervalMs,
+                AuditProperties.AsyncOverflowPolicy.BLOCK, 5000)
+        writer.meterRegistry = new SimpleMeterRegistry()
+        writer.entityManager = [
+                persist: { EntityLogItem item ->
+                    if (failingItems.contains(item)) {
+                        throw new PersistenceException("Cannot persist $item.entity")
+                    }
+                    pending << item
+                }
+        ] as EntityManager
+        writer.setTransactionManager([
+                getTransaction: { definition -> pending.clear(); null },
+                commit        : { status -> committed << new ArrayList<>(pending) },
+                rollback      : { status -> pending.clear() }
+        ] as PlatformTransactionManager)
+        writer.init()
+    }
+
+    private static List<EntityLogItem> createItems(int count) {
+        return (1..count).collect { new EntityLogItem(type: EntityLogItem.Type.CREATE, entity: "test\$Entity$it") }
+    }
+}
@@ -215,6 +215,137 @@ class EntityLogTest extends AbstractEntityLogTest {
 
     }
 
+    def "Create and modify of an entity in one transaction are logged as one create item"() {
+
+        given:
+
+        def stringKeyEntity = new StringKeyEntity(code: 'code1', name: 'test1', description: 'description1')
+
+        when:
+
+        withTransaction {
+            em.persist(stringKeyEntity)
+            entityLog.registerCreate(stringKeyEntity, false)
+
+            stringKeyEntity.name = 'test2'
+
+            EntityAttributeChanges changes = new EntityAttributeChanges()
+            changes.addChange('name', 'test1')
+            entityLog.registerModify(stringKeyEntity, false, changes)
+        }
+
+        then:
+
+        def items = getEntityLogItems('test$StringKeyEntity', 'code1')
+        items.size() == 1
+
+        def item = items.first()
+        item.type == EntityLogItem.Type.CREATE
+        item.attributes*.name as Set == ['name', 'description'] as Set
+
+        loggedValueMatches(item, 'name', 'test2')
+        loggedOldValueMatches(item, 'name', null)
+        loggedValueMatches(item, 'description', 'description1')
+        loggedOldValueMatches(item, 'description', null)
+
+        cleanup:
+
+        clearEntityByCode(stringKeyEntity, 'TEST_STRING_KEY')
+    }
+
+    def "Several modifications of an entity in one transaction are logged as one modify item"() {
+
+        given:
+
+        def stringKeyEntity = new StringKeyEntity(code: 'code1', name: 'test1', description: 'description1')
+
+        and:
+
+        withTransaction {
+            em.persist(stringKeyEntity)
+            entityLog.registerCreate(stringKeyEntity, false)
+        }
+
+        when:
+
+        withTransaction {
+            StringKeyEntity e = em.find(StringKeyEntity, 'code1')
+
+            e.name = 'test2'
+            EntityAttributeChanges changes1 = new EntityAttributeChanges()
+            changes1.addChange('name', 'test1')
+            entityLog.registerModify(e, false, changes1)
+
+            e.name = 'test3'
+            e.description = 'description2'
+            EntityAttributeChanges changes2 = new EntityAttributeChanges()
+            changes2.addChange('name', 'test2')
+            changes2.addChange('description', 'description1')
+            entityLog.registerModify(e, false, changes2)
+        }
+
+        then:
+
+        def items = getEntityLogItems('test$StringKeyEntity', 'code1')
+        items.size() == 2
+        items.count { it.type == EntityLogItem.Type.CREATE } == 1
+
+        def item = items.find { it.type == EntityLogItem.Type.MODIFY }
+        item.attributes*.name as Set == ['name', 'description'] as Set
+
+        // old value of the first change and new value of the last one
+        loggedValueMatches(item, 'name', 'test3')
+        loggedOldValueMatches(item, 'name', 'test1')
+        loggedValueMatches(item, 'description', 'description2')
+
+        cleanup:
+
+        clearEntityByCode(stringKeyEntity, 'TEST_STRING_KEY')
+    }
+
+    def "Deletion of several entities in one transaction is logged as one item per entity"() {
+
+        given:
+
+        def stringKeyEntity1 = new StringKeyEntity(code: 'code1', name: 'test1', description: 'description1')
+        def stringKeyEntity2 = new StringKeyEntity(code: 'code2', name: 'test2', description: 'description2')
+
+        and:
+
+        withTransaction {
+            em.persist(stringKeyEntity1)
+            em.persist(stringKeyEntity2)
+        }
+
+        when:
+
+        withTransaction {
+            [em.find(StringKeyEntity, 'code1'), em.find(StringKeyEntity, 'code2')].each {
+                em.remove(it)
+                entityLog.registerDelete(it, false)
+            }
+        }
+
+        then:
+
+        def items1 = getEntityLogItems('test$StringKeyEntity', 'code1')
+        items1.size() == 1
+        items1.first().type == EntityLogItem.Type.DELETE
+        loggedValueMatches(items1.first(), 'name', 'test1')
+        loggedValueMatches(items1.first(), 'description', 'description1')
+
+        def items2 = getEntityLogItems('test$StringKeyEntity', 'code2')
+        items2.size() == 1
+        items2.first().type == EntityLogItem.Type.DELETE
+        loggedValueMatches(items2.first(), 'name', 'test2')
+        loggedValueMatches(items2.first(), 'description', 'description2')
+
+        cleanup:
+
+        clearEntityByCode(stringKeyEntity1, 'TEST_STRING_KEY')
+        clearEntityByCode(stringKeyEntity2, 'TEST_STRING_KEY')
+    }
+
     protected saveEntity(Entity entity) {
         withTransaction {
             em.persist(entity)
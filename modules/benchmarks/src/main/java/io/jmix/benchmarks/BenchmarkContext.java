@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks;
+
+import io.jmix.benchmarks.entity.BenchCustomer;
+import io.jmix.benchmarks.entity.BenchOrder;
+import io.jmix.benchmarks.entity.BenchOrderLine;
+import io.jmix.benchmarks.entity.BenchProduct;
+import io.jmix.core.*;
+import io.jmix.data.DataConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Starts the application context for benchmarks and populates the in-memory database with an entity graph
+ * of the requested size.
+ */
+public class BenchmarkContext implements AutoCloseable {
+
+    public static final String GRAPH_FETCH_PLAN = "graph";
+
+    protected static final int SAVE_BATCH_SIZE = 500;
+
+    protected final AnnotationConfigApplicationContext applicationContext;
+
+    public BenchmarkContext() {
+        applicationContext = new AnnotationConfigApplicationContext(
+                CoreConfiguration.class, DataConfiguration.class, BenchmarkConfiguration.class);
+        AppBeans.setApplicationContext(applicationContext);
+    }
+
+    public <T> T getBean(Class<T> beanClass) {
+        return applicationContext.getBean(beanClass);
+    }
+
+    /**
+     * Creates {@code orderCount} orders, each with {@code linesPerOrder} lines. Customers are shared by ten orders,
+     * products are shared by all orders.
+     */
+    public void generateOrders(int orderCount, int linesPerOrder) {
+        DataManager dataManager = getBean(DataManager.class);
+
+        List<BenchProduct> products = new ArrayList<>(linesPerOrder);
+        for (int i = 0; i < linesPerOrder; i++) {
+            BenchProduct product = dataManager.create(BenchProduct.class);
+            product.setName("product-" + i);
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            products.add(product);
+        }
+        dataManager.save(new SaveContext().saving(products));
+
+        List<Entity> batch = new ArrayList<>();
+        BenchCustomer customer = null;
+        for (int i = 0; i < orderCount; i++) {
+            if (i % 10 == 0) {
+                customer = dataManager.create(BenchCustomer.class);
+                customer.setName("customer-" + i);
+                customer.setEmail("customer-" + i + "@example.com");
+                batch.add(customer);
+            }
+
+            BenchOrder order = dataManager.create(BenchOrder.class);
+            order.setNumber("order-" + i);
+            order.setDate(new Date());
+            order.setCustomer(customer);
+            batch.add(order);
+
+            BigDecimal amount = BigDecimal.ZERO;
+            for (BenchProduct product : products) {
+                BenchOrderLine line = dataManager.create(BenchOrderLine.class);
+                line.setOrder(order);
+                line.setProduct(product);
+                line.setQuantity(i % 7 + 1);
+                line.setPrice(product.getPrice());
+                amount = amount.add(product.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+                batch.add(line);
+            }
+            order.setAmount(amount);
+
+            if (batch.size() >= SAVE_BATCH_SIZE && i % 10 == 9) {
+                dataManager.save(new SaveContext().saving(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            dataManager.save(new SaveContext().saving(batch));
+        }
+    }
+
+    /**
+     * Returns a fetch plan for {@link BenchOrder} by name. Besides the standard plan names, supports
+     * {@link #GRAPH_FETCH_PLAN} which includes customer and order lines with products.
+     */
+    public FetchPlan getOrderFetchPlan(String name) {
+        if (GRAPH_FETCH_PLAN.equals(name)) {
+            return FetchPlanBuilder.of(BenchOrder.class)
+                    .addFetchPlan(FetchPlan.LOCAL)
+                    .add("customer", FetchPlan.LOCAL)
+                    .add("orderLines", builder -> builder
+                            .addFetchPlan(FetchPlan.LOCAL)
+                            .add("product", FetchPlan.LOCAL))
+                    .build();
+        }
+        return getBean(FetchPlanRepository.class).getFetchPlan(BenchOrder.class, name);
+    }
+
+    public List<BenchOrder> loadOrders(FetchPlan fetchPlan) {
+        return getBean(DataManager.class).load(BenchOrder.class)
+                .query("select e from bench_Order e order by e.number")
+                .fetchPlan(fetchPlan)
+                .list();
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks;
+
+import io.jmix.benchmarks.entity.BenchOrder;
+import io.jmix.core.DataManager;
+import io.jmix.core.FetchPlan;
+import io.jmix.core.LoadContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code DataManagerImpl.loadList()} for entity graphs of different size and depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataManagerBenchmark {
+
+    @Param({"100", "1000"})
+    public int orderCount;
+
+    @Param({"5"})
+    public int linesPerOrder;
+
+    @Param({FetchPlan.LOCAL, FetchPlan.BASE, BenchmarkContext.GRAPH_FETCH_PLAN})
+    public String fetchPlanName;
+
+    protected BenchmarkContext context;
+    protected DataManager dataManager;
+    protected FetchPlan fetchPlan;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new BenchmarkContext();
+        context.generateOrders(orderCount, linesPerOrder);
+        dataManager = context.getBean(DataManager.class);
+        fetchPlan = context.getOrderFetchPlan(fetchPlanName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BenchOrder> loadList() {
+        LoadContext<BenchOrder> loadContext = new LoadContext<>(BenchOrder.class)
+                .setQuery(new LoadContext.Query("select e from bench_Order e"))
+                .setFetchPlan(fetchPlan);
+        return dataManager.loadList(loadContext);
+    }
+
+    @Benchmark
+    public List<BenchOrder> loadPage() {
+        return dataManager.load(BenchOrder.class)
+                .query("select e from bench_Order e order by e.number")
+                .fetchPlan(fetchPlan)
+                .firstResult(orderCount / 2)
+                .maxResults(50)
+                .list();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks;
+
+import io.jmix.benchmarks.entity.BenchOrder;
+import io.jmix.core.EntitySerialization;
+import io.jmix.core.EntitySerializationOption;
+import io.jmix.core.FetchPlan;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code EntitySerializationImpl.toJson()} for loaded entity graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntitySerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int orderCount;
+
+    @Param({"5"})
+    public int linesPerOrder;
+
+    @Param({FetchPlan.LOCAL, BenchmarkContext.GRAPH_FETCH_PLAN})
+    public String fetchPlanName;
+
+    protected BenchmarkContext context;
+    protected EntitySerialization entitySerialization;
+    protected FetchPlan fetchPlan;
+    protected List<BenchOrder> orders;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new BenchmarkContext();
+        context.generateOrders(orderCount, linesPerOrder);
+        entitySerialization = context.getBean(EntitySerialization.class);
+        fetchPlan = context.getOrderFetchPlan(fetchPlanName);
+        orders = context.loadOrders(fetchPlan);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return entitySerialization.toJson(orders, fetchPlan);
+    }
+
+    @Benchmark
+    public String toJsonCompact() {
+        return entitySerialization.toJson(orders, fetchPlan, EntitySerializationOption.COMPACT_REPEATED_ENTITIES);
+    }
+
+    @Benchmark
+    public String toJsonSingle() {
+        return entitySerialization.toJson(orders.get(0), fetchPlan);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks;
+
+import io.jmix.benchmarks.entity.BenchOrder;
+import io.jmix.benchmarks.entity.BenchOrderLine;
+import io.jmix.core.entity.EntityValues;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures property access through {@link EntityValues} on loaded entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityValuesBenchmark {
+
+    @Param({"100"})
+    public int orderCount;
+
+    @Param({"5"})
+    public int linesPerOrder;
+
+    protected BenchmarkContext context;
+    protected List<BenchOrder> orders;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new BenchmarkContext();
+        context.generateOrders(orderCount, linesPerOrder);
+        orders = context.loadOrders(context.getOrderFetchPlan(BenchmarkContext.GRAPH_FETCH_PLAN));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void getValue(Blackhole blackhole) {
+        for (BenchOrder order : orders) {
+            blackhole.consume(EntityValues.<Object>getValue(order, "number"));
+            blackhole.consume(EntityValues.<Object>getValue(order, "amount"));
+            blackhole.consume(EntityValues.<Object>getValue(order, "customer"));
+        }
+    }
+
+    @Benchmark
+    public void getValueEx(Blackhole blackhole) {
+        for (BenchOrder order : orders) {
+            blackhole.consume(EntityValues.<Object>getValueEx(order, "customer.name"));
+            for (BenchOrderLine line : order.getOrderLines()) {
+                blackhole.consume(EntityValues.<Object>getValueEx(line, "product.name"));
+                blackhole.consume(EntityValues.<Object>getValueEx(line, "order.customer.email"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void setValue() {
+        for (BenchOrder order : orders) {
+            EntityValues.setValue(order, "number", order.getNumber());
+        }
+    }
+}
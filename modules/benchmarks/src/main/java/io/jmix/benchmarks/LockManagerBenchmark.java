@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.benchmarks;
+
+import io.jmix.core.pessimisticlocking.LockInfo;
+import io.jmix.core.pessimisticlocking.LockManager;
+import io.jmix.core.security.Authenticator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LockManager} under contention: all threads lock and unlock objects drawn from a shared pool while
+ * a number of other locks is held. A small pool makes threads compete for the same locks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockManagerBenchmark {
+
+    protected static final String LOCK_NAME = "bench_Order";
+
+    @Param({"16", "100000"})
+    public int objectCount;
+
+    @Param({"10000"})
+    public int heldLockCount;
+
+    protected BenchmarkContext context;
+    protected LockManager lockManager;
+    protected String[] ids;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        protected Authenticator authenticator;
+
+        @Setup(Level.Trial)
+        public void setup(LockManagerBenchmark benchmark) {
+            authenticator = benchmark.context.getBean(Authenticator.class);
+            authenticator.begin();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            authenticator.end();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new BenchmarkContext();
+        lockManager = context.getBean(LockManager.class);
+
+        ids = new String[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            ids[i] = "object-" + i;
+        }
+
+        Authenticator authenticator = context.getBean(Authenticator.class);
+        authenticator.begin();
+        try {
+            for (int i = 0; i < heldLockCount; i++) {
+                lockManager.lock(LOCK_NAME, "held-" + i);
+            }
+        } finally {
+            authenticator.end();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public LockInfo lockUnlock(ThreadState threadState) {
+        String id = ids[ThreadLocalRandom.current().nextInt(objectCount)];
+        LockInfo lockInfo = lockManager.lock(LOCK_NAME, id);
+        if (lockInfo == null) {
+            lockManager.unlock(LOCK_NAME, id);
+        }
+        return lockInfo;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public LockInfo getLockInfo(ThreadState threadState) {
+        return lockManager.getLockInfo(LOCK_NAME, ids[ThreadLocalRandom.current().nextInt(objectCount)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void expireLocks() {
+        lockManager.expireLocks();
+    }
+}
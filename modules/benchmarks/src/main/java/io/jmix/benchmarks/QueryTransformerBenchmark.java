@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks;
+
+import io.jmix.core.QueryParser;
+import io.jmix.core.QueryTransformer;
+import io.jmix.core.QueryTransformerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and transformation of JPQL queries by {@code QueryTransformerAstBased} and
+ * {@code QueryParserAstBased}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryTransformerBenchmark {
+
+    @Param({
+            "select e from bench_Order e",
+            "select e from bench_Order e where e.customer.name like :name order by e.number",
+            "select l from bench_OrderLine l join l.order o join o.customer c where c.name = :name and l.quantity > :qty"
+    })
+    public String query;
+
+    protected BenchmarkContext context;
+    protected QueryTransformerFactory queryTransformerFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new BenchmarkContext();
+        queryTransformerFactory = context.getBean(QueryTransformerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String addWhere() {
+        QueryTransformer transformer = queryTransformerFactory.transformer(query);
+        transformer.addWhere("{E}.createdBy = :createdBy");
+        return transformer.getResult();
+    }
+
+    @Benchmark
+    public String replaceWithCount() {
+        QueryTransformer transformer = queryTransformerFactory.transformer(query);
+        transformer.replaceWithCount();
+        return transformer.getResult();
+    }
+
+    @Benchmark
+    public String parseEntityName() {
+        QueryParser parser = queryTransformerFactory.parser(query);
+        return parser.getEntityName();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.benchmarks.entity;
+
+import io.jmix.core.DeletePolicy;
+import io.jmix.core.entity.annotation.OnDelete;
+import io.jmix.core.metamodel.annotation.Composition;
+import io.jmix.core.metamodel.annotation.InstanceName;
+import io.jmix.core.pessimisticlocking.PessimisticLock;
+import io.jmix.data.entity.StandardEntity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+@Entity(name = "bench_Order")
+@Table(name = "BENCH_ORDER")
+@PessimisticLock
+public class BenchOrder extends StandardEntity {
+    private static final long serialVersionUID = 8713840951536282645L;
+
+    @Column(name = "NUM")
+    @InstanceName
+    private String number;
+
+    @Column(name = "DATE_")
+    private Date date;
+
+    @Column(name = "AMOUNT")
+    private BigDecimal amount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CUSTOMER_ID")
+    private BenchCustomer customer;
+
+    @Composition
+    @OnDelete(DeletePolicy.CASCADE)
+    @OneToMany(mappedBy = "order")
+    private List<BenchOrderLine> orderLines;
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BenchCustomer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(BenchCustomer customer) {
+        this.customer = customer;
+    }
+
+    public List<BenchOrderLine> getOrderLines() {
+        return orderLines;
+    }
+
+    public void setOrderLines(List<BenchOrderLine> orderLines) {
+        this.orderLines = orderLines;
+    }
+}
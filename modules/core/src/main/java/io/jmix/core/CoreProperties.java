@@ -42,9 +42,14 @@ public class CoreProperties {
     Map<String, Locale> availableLocales;
     boolean localeSelectVisible;
     int crossDataStoreReferenceLoadingBatchSize;
+    int crossDataStoreReferenceLoadingThreads;
+    int crossDataStoreReferenceLoadingTimeoutSec;
     boolean idGenerationForEntitiesInAdditionalDataStoresEnabled;
     int dom4jMaxPoolSize;
     int dom4jMaxBorrowWaitMillis;
+    int jpqlParseCacheSize;
+    int entityImportLoadBatchSize;
+    int entitySerializationCacheSize;
 
     public CoreProperties(
             String webContextName,
@@ -57,11 +62,16 @@ public class CoreProperties {
             Map<String, String> availableLocales,
             @DefaultValue("true") boolean localeSelectVisible,
             @DefaultValue("50") int crossDataStoreReferenceLoadingBatchSize,
+            @DefaultValue("4") int crossDataStoreReferenceLoadingThreads,
+            @DefaultValue("120") int crossDataStoreReferenceLoadingTimeoutSec,
             @DefaultValue("true") boolean idGenerationForEntitiesInAdditionalDataStoresEnabled,
             @DefaultValue("100") int dom4jMaxPoolSize,
             @DefaultValue("1000") int dom4jMaxBorrowWaitMillis,
             @DefaultValue("de72c623-6d3d-458c-a187-c526de515ecd") String anonymousAuthenticationTokenKey,
-            String defaultFileStorage
+            String defaultFileStorage,
+            @DefaultValue("1000") int jpqlParseCacheSize,
+            @DefaultValue("500") int entityImportLoadBatchSize,
+            @DefaultValue("1000") int entitySerializationCacheSize
     ) {
         this.webContextName = webContextName;
         this.webHostName = webHostName;
@@ -84,9 +94,14 @@ public class CoreProperties {
 
         this.localeSelectVisible = localeSelectVisible;
         this.crossDataStoreReferenceLoadingBatchSize = crossDataStoreReferenceLoadingBatchSize;
+        this.crossDataStoreReferenceLoadingThreads = crossDataStoreReferenceLoadingThreads;
+        this.crossDataStoreReferenceLoadingTimeoutSec = crossDataStoreReferenceLoadingTimeoutSec;
         this.idGenerationForEntitiesInAdditionalDataStoresEnabled = idGenerationForEntitiesInAdditionalDataStoresEnabled;
         this.dom4jMaxPoolSize = dom4jMaxPoolSize;
         this.dom4jMaxBorrowWaitMillis = dom4jMaxBorrowWaitMillis;
+        this.jpqlParseCacheSize = jpqlParseCacheSize;
+        this.entityImportLoadBatchSize = entityImportLoadBatchSize;
+        this.entitySerializationCacheSize = entitySerializationCacheSize;
     }
 
     /**
@@ -143,6 +158,21 @@ public class CoreProperties {
         return crossDataStoreReferenceLoadingBatchSize;
     }
 
+    /**
+     * Maximum number of threads loading cross-datastore references from different data stores in parallel.
+     * Value 1 disables parallel loading. Default is 4.
+     */
+    public int getCrossDataStoreReferenceLoadingThreads() {
+        return crossDataStoreReferenceLoadingThreads;
+    }
+
+    /**
+     * Maximum time in seconds to wait for cross-datastore references loaded in parallel. Default is 120.
+     */
+    public int getCrossDataStoreReferenceLoadingTimeoutSec() {
+        return crossDataStoreReferenceLoadingTimeoutSec;
+    }
+
     /**
      * Whether to generate identifiers for entities located in additional data stores.
      * Default is true.
@@ -172,4 +202,27 @@ public class CoreProperties {
     public String getAnonymousAuthenticationTokenKey() {
         return anonymousAuthenticationTokenKey;
     }
+
+    /**
+     * Maximum number of parsed JPQL queries kept in cache. 0 disables the cache.
+     */
+    public int getJpqlParseCacheSize() {
+        return jpqlParseCacheSize;
+    }
+
+    /**
+     * Maximum number of ids passed in a single {@link LoadContext} when {@link EntityImportExport} loads existing
+     * instances of imported entities.
+     */
+    public int getEntityImportLoadBatchSize() {
+        return entityImportLoadBatchSize;
+    }
+
+    /**
+     * Maximum number of configured serializers and deserializers kept by {@link EntitySerialization} for
+     * combinations of fetch plans, entities and options. 0 disables the cache.
+     */
+    public int getEntitySerializationCacheSize() {
+        return entitySerializationCacheSize;
+    }
 }
@@ -21,6 +21,7 @@ import io.jmix.core.entity.KeyValueEntity;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Central interface to provide CRUD functionality. Can be used on both middle and client tiers.
@@ -51,6 +52,21 @@ public interface DataManager {
      */
     <E extends Entity> List<E> loadList(LoadContext<E> context);
 
+    /**
+     * Loads entity instances as a stream, reading them from the data store by chunks instead of loading
+     * the whole result list into memory. Intended for processing huge result sets.
+     * <p>The stream holds a database cursor and a connection until it is exhausted, so it must always be
+     * closed, preferably in a try-with-resources block:</p>
+     * <pre>
+     * try (Stream&lt;Customer&gt; stream = dataManager.loadStream(loadContext)) {
+     *     stream.forEach(customer -&gt; ...);
+     * }
+     * </pre>
+     * @param context   {@link LoadContext} object, defining what and how to load
+     * @return          a stream of detached instances
+     */
+    <E extends Entity> Stream<E> loadStream(LoadContext<E> context);
+
     /**
      * Returns the number of entity instances for the given query passed in the {@link LoadContext}.
      * @param context   defines the query
@@ -21,6 +21,7 @@ import io.jmix.core.entity.KeyValueEntity;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Interface defining methods for storing and loading entities in a persistent storage.
@@ -46,6 +47,17 @@ public interface DataStore {
      */
     <E extends Entity> List<E> loadList(LoadContext<E> context);
 
+    /**
+     * Loads entity instances as a stream which reads them from the storage gradually.
+     * <p>
+     * The returned stream holds storage resources and must be closed after use. The default implementation
+     * loads the whole list and streams it.
+     * @return a stream of instances
+     */
+    default <E extends Entity> Stream<E> loadStream(LoadContext<E> context) {
+        return loadList(context).stream();
+    }
+
     /**
      * Returns the number of entity instances for the given query passed in the {@link LoadContext}.
      * @return number of instances in the storage
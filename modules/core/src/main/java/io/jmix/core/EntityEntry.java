@@ -41,6 +41,39 @@ public interface EntityEntry extends Serializable {
 
     void setAttributeValue(String name, @Nullable Object value, boolean checkEquals);
 
+    /**
+     * Returns the ordinal of an attribute for use in {@link #getAttributeValue(int)} and
+     * {@link #setAttributeValue(int, Object, boolean)}. Ordinals are the same for all instances of an entity class,
+     * so they can be resolved once and then used to access attributes without name lookups.
+     *
+     * @param name attribute name
+     * @return attribute ordinal or -1 if the attribute cannot be accessed by ordinal
+     */
+    default int getAttributeOrdinal(String name) {
+        return -1;
+    }
+
+    /**
+     * Returns an attribute value by its ordinal.
+     *
+     * @param ordinal ordinal obtained from {@link #getAttributeOrdinal(String)}
+     */
+    @Nullable
+    default <T> T getAttributeValue(int ordinal) {
+        throw new UnsupportedOperationException("Access to attributes by ordinal is not supported by " + getClass());
+    }
+
+    /**
+     * Sets an attribute value by its ordinal.
+     *
+     * @param ordinal     ordinal obtained from {@link #getAttributeOrdinal(String)}
+     * @param value       attribute value
+     * @param checkEquals if true, the value is set only if it differs from the current one
+     */
+    default void setAttributeValue(int ordinal, @Nullable Object value, boolean checkEquals) {
+        throw new UnsupportedOperationException("Access to attributes by ordinal is not supported by " + getClass());
+    }
+
     default boolean isEmbeddable() {
         return false;
     }
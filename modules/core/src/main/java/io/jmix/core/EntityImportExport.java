@@ -17,6 +17,7 @@
 package io.jmix.core;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Bean that is used for exporting a collection of entities and importing them.
@@ -132,4 +133,19 @@ public interface EntityImportExport {
      * @return a collection of entities that have been imported
      */
     Collection<Entity> importEntities(Collection<? extends Entity> entities, EntityImportView importView, boolean validate, boolean optimisticLocking);
+
+    /**
+     * Persists entities according to the rules, described by the import views they are mapped to, in a single
+     * save operation. Existing instances of the entities imported with the same view are loaded from the database
+     * together by their ids.
+     *
+     * @param entitiesByView    entities to import grouped by {@code EntityImportView} describing how they should be
+     *                          persisted
+     * @param validate          whether the passed entities should be validated by the bean validation
+     *                          mechanism before entities are persisted
+     * @param optimisticLocking whether the passed entities versions should be validated before entities are persisted
+     * @return a collection of entities that have been imported
+     */
+    Collection<Entity> importEntities(Map<EntityImportView, ? extends Collection<? extends Entity>> entitiesByView,
+                                      boolean validate, boolean optimisticLocking);
 }
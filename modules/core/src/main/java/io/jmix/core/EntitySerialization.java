@@ -19,6 +19,7 @@ package io.jmix.core;
 import io.jmix.core.metamodel.model.MetaClass;
 
 import javax.annotation.Nullable;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.Collection;
 
@@ -84,6 +85,36 @@ public interface EntitySerialization {
      */
     String toJson(Collection<? extends Entity> entities);
 
+    /**
+     * Serializes a single entity like the {@link #toJson(Entity, FetchPlan, EntitySerializationOption...)} method,
+     * but writes the JSON object to the given writer instead of creating a string. The writer is neither flushed nor
+     * closed.
+     *
+     * @param entity    an entity to be serialized
+     * @param fetchPlan a fetch plan that defines which entity properties should be added to the result JSON object
+     * @param writer    a writer to append the JSON object to
+     * @param options   options specifying how an entity should be serialized
+     */
+    void toJson(Entity entity,
+                @Nullable FetchPlan fetchPlan,
+                Writer writer,
+                EntitySerializationOption... options);
+
+    /**
+     * Serializes a collection of entities like the {@link #toJson(Collection, FetchPlan, EntitySerializationOption...)}
+     * method, but writes the JSON array to the given writer instead of creating a string. The writer is neither
+     * flushed nor closed.
+     *
+     * @param entities  a collection of entities to be serialized
+     * @param fetchPlan a fetch plan that defines which entity properties should be added to the result JSON object
+     * @param writer    a writer to append the JSON array to
+     * @param options   options specifying how an entity should be serialized
+     */
+    void toJson(Collection<? extends Entity> entities,
+                @Nullable FetchPlan fetchPlan,
+                Writer writer,
+                EntitySerializationOption... options);
+
     /**
      * Serializes any custom POJO or collection of POJOs or JSON. If some field in POJO is an entity then this field
      * will be serialized according to entity serialization rules. Date fields are serialized according to the format of
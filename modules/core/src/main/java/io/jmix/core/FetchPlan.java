@@ -107,6 +107,8 @@ public class FetchPlan implements Serializable {
 
     private boolean loadPartialEntities;
 
+    private transient int modCount;
+
     public FetchPlan(Class<? extends Entity> entityClass) {
         this(entityClass, "", true);
     }
@@ -156,26 +158,31 @@ public class FetchPlan implements Serializable {
             }
 
             for (FetchPlan view : sources) {
-                putProperties(this.properties, view.getProperties());
+                putProperties(this, view.getProperties());
             }
         }
     }
 
-    protected void putProperties(Map<String, FetchPlanProperty> thisProperties, Collection<FetchPlanProperty> sourceProperties) {
+    protected void putProperties(FetchPlan target, Collection<FetchPlanProperty> sourceProperties) {
         for (FetchPlanProperty sourceProperty : sourceProperties) {
             String sourcePropertyName = sourceProperty.getName();
+            FetchPlanProperty targetProperty = target.properties.get(sourcePropertyName);
 
-            if (thisProperties.containsKey(sourcePropertyName)) {
+            if (targetProperty != null) {
                 FetchPlan sourcePropertyView = sourceProperty.getFetchPlan();
 
                 if (sourcePropertyView != null && isNotEmpty(sourcePropertyView.getProperties())) {
-
-                    Map<String, FetchPlanProperty> thisViewProperties = thisProperties.get(sourcePropertyName).getFetchPlan().properties;
-                    putProperties(thisViewProperties, sourcePropertyView.getProperties());
+                    if (targetProperty.getFetchPlan() != null) {
+                        putProperties(targetProperty.getFetchPlan(), sourcePropertyView.getProperties());
+                    } else {
+                        target.properties.put(sourcePropertyName, sourceProperty);
+                        target.modCount++;
+                    }
                 }
 
             } else {
-                thisProperties.put(sourceProperty.getName(), sourceProperty);
+                target.properties.put(sourcePropertyName, sourceProperty);
+                target.modCount++;
             }
         }
     }
@@ -233,12 +240,14 @@ public class FetchPlan implements Serializable {
      */
     public FetchPlan addProperty(String name, @Nullable FetchPlan view, FetchMode fetchMode) {
         properties.put(name, new FetchPlanProperty(name, view, fetchMode));
+        modCount++;
         return this;
     }
 
     @Deprecated
     public FetchPlan addProperty(String name, @Nullable FetchPlan view, boolean lazy) {
         properties.put(name, new FetchPlanProperty(name, view, lazy));
+        modCount++;
         return this;
     }
 
@@ -251,6 +260,7 @@ public class FetchPlan implements Serializable {
      */
     public FetchPlan addProperty(String name, FetchPlan view) {
         properties.put(name, new FetchPlanProperty(name, view));
+        modCount++;
         return this;
     }
 
@@ -262,9 +272,17 @@ public class FetchPlan implements Serializable {
      */
     public FetchPlan addProperty(String name) {
         properties.put(name, new FetchPlanProperty(name, null));
+        modCount++;
         return this;
     }
 
+    /**
+     * Returns the number of modifications of properties, used to invalidate data computed for this instance.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -18,11 +18,13 @@ package io.jmix.core;
 
 import com.google.common.base.Strings;
 import io.jmix.core.common.util.Preconditions;
+import io.jmix.core.entity.EntityValues;
 import io.jmix.core.querycondition.Condition;
 
 import javax.persistence.TemporalType;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class FluentLoader<E extends Entity> {
 
@@ -93,6 +95,15 @@ public class FluentLoader<E extends Entity> {
         return dataManager.loadList(loadContext);
     }
 
+    /**
+     * Loads entities as a stream reading them from the database gradually.
+     * The stream must be closed after use, see {@link DataManager#loadStream(LoadContext)}.
+     */
+    public Stream<E> stream() {
+        LoadContext<E> loadContext = createLoadContext();
+        return dataManager.loadStream(loadContext);
+    }
+
     /**
      * Loads a single instance and wraps it in Optional.
      */
@@ -523,6 +534,8 @@ public class FluentLoader<E extends Entity> {
         private int maxResults;
         private boolean cacheable;
         private Condition condition;
+        private Sort sort;
+        private List<Object> keysetValues;
 
         ByQuery(FluentLoader<E> loader, String queryString) {
             Preconditions.checkNotEmptyString(queryString, "queryString is empty");
@@ -560,6 +573,8 @@ public class FluentLoader<E extends Entity> {
             loadContext.setQuery(query);
 
             loadContext.getQuery().setCondition(condition);
+            loadContext.getQuery().setSort(sort);
+            loadContext.getQuery().setKeysetValues(keysetValues);
             loadContext.getQuery().setFirstResult(firstResult);
             loadContext.getQuery().setMaxResults(maxResults);
             loadContext.getQuery().setCacheable(cacheable);
@@ -575,6 +590,15 @@ public class FluentLoader<E extends Entity> {
             return loader.dataManager.loadList(loadContext);
         }
 
+        /**
+         * Loads entities as a stream reading them from the database gradually.
+         * The stream must be closed after use, see {@link DataManager#loadStream(LoadContext)}.
+         */
+        public Stream<E> stream() {
+            LoadContext<E> loadContext = createLoadContext();
+            return loader.dataManager.loadStream(loadContext);
+        }
+
         /**
          * Loads a single instance and wraps it in Optional.
          */
@@ -738,5 +762,42 @@ public class FluentLoader<E extends Entity> {
             this.cacheable = cacheable;
             return this;
         }
+
+        /**
+         * Sets sorting, for example {@code sort(Sort.by("name"))}
+         */
+        public ByQuery<E> sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        /**
+         * Loads the page following the instance with the given values of keyset properties: the sort properties
+         * followed by the primary key, unless the sort already ends with it.
+         *
+         * @see LoadContext.Query#setKeysetValues(List)
+         */
+        public ByQuery<E> keysetValues(Object... values) {
+            this.keysetValues = Arrays.asList(values);
+            return this;
+        }
+
+        /**
+         * Loads the page following the given instance, which usually is the last instance of the previous page.
+         * Values of keyset properties are taken from the instance, so it must be loaded with the sort properties.
+         *
+         * @see LoadContext.Query#setKeysetValues(List)
+         */
+        public ByQuery<E> after(E lastLoaded) {
+            Preconditions.checkNotNullArgument(lastLoaded, "lastLoaded is null");
+            List<String> properties = AppBeans.get(MetadataTools.class)
+                    .getKeysetProperties(loader.metadata.getClass(loader.entityClass), sort);
+            List<Object> values = new ArrayList<>(properties.size());
+            for (String property : properties) {
+                values.add(EntityValues.getValueEx(lastLoaded, property));
+            }
+            this.keysetValues = values;
+            return this;
+        }
     }
 }
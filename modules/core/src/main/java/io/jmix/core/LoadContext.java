@@ -22,6 +22,7 @@ import io.jmix.core.entity.EntityValues;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.querycondition.Condition;
 
+import javax.annotation.Nullable;
 import javax.persistence.TemporalType;
 import java.io.Serializable;
 import java.util.*;
@@ -326,6 +327,7 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
         private boolean cacheable;
         private Condition condition;
         private Sort sort;
+        private List<Object> keysetValues;
 
         protected Query() {
         }
@@ -440,6 +442,32 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             return this;
         }
 
+        /**
+         * @return values of the last loaded instance for keyset pagination, or null if keyset pagination is not used
+         * @see #setKeysetValues(List)
+         */
+        @Nullable
+        public List<Object> getKeysetValues() {
+            return keysetValues;
+        }
+
+        /**
+         * Enables keyset (seek) pagination: the query returns instances following the one that had the given values
+         * of the keyset properties in the order defined by {@link #getSort()}. Unlike {@link #setFirstResult(int)},
+         * the database does not have to scan all skipped rows, so loading of deep pages is as fast as of the first one.
+         * <p>
+         * Keyset properties are the sort properties followed by the primary key, unless the sort already ends with it,
+         * see {@link MetadataTools#getKeysetProperties(MetaClass, Sort)}. They must be persistent, not null
+         * and sorted in one direction.
+         *
+         * @param keysetValues values of the keyset properties of the last loaded instance, or null to load the first page
+         * @return this query instance for chaining
+         */
+        public Query setKeysetValues(@Nullable List<?> keysetValues) {
+            this.keysetValues = keysetValues == null ? null : new ArrayList<>(keysetValues);
+            return this;
+        }
+
         /**
          * Indicates that the query results should be cached.
          * @return the same query instance
@@ -485,6 +513,7 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             query.cacheable = this.cacheable;
             query.condition = this.condition == null ? null : this.condition.copy();
             query.sort = this.sort;
+            query.keysetValues = this.keysetValues == null ? null : new ArrayList<>(this.keysetValues);
         }
 
         @Override
@@ -497,6 +526,7 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             if (firstResult != query.firstResult) return false;
             if (maxResults != query.maxResults) return false;
             if (!parameters.equals(query.parameters)) return false;
+            if (!Objects.equals(keysetValues, query.keysetValues)) return false;
             return queryString.equals(query.queryString);
         }
 
@@ -506,6 +536,7 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             result = 31 * result + queryString.hashCode();
             result = 31 * result + firstResult;
             result = 31 * result + maxResults;
+            result = 31 * result + (keysetValues != null ? keysetValues.hashCode() : 0);
             return result;
         }
 
@@ -517,6 +548,7 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
                     ", sort=" + sort +
                     ", firstResult=" + firstResult +
                     ", maxResults=" + maxResults +
+                    (keysetValues == null ? "" : ", keysetValues=" + keysetValues) +
                     "}";
             return StringHelper.removeExtraSpaces(stringResult.replace('\n', ' '));
         }
@@ -16,6 +16,8 @@
 
 package io.jmix.core;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import io.jmix.core.entity.*;
 import io.jmix.core.entity.annotation.IgnoreUserTimeZone;
@@ -43,6 +45,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import static io.jmix.core.common.util.Preconditions.checkNotNullArgument;
@@ -99,6 +103,13 @@ public class MetadataTools {
 
     protected volatile Collection<Class> enums;
 
+    protected Map<MetaClass, PropertyPlan> propertyPlans = new ConcurrentHashMap<>();
+
+    // weak keys are compared by identity, so plans are kept for a particular fetch plan instance while it is in use
+    protected Cache<FetchPlan, Map<MetaClass, PropertyPlan>> fetchPlanPropertyPlans = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
     /**
      * Default constructor used by container at runtime and in server-side integration tests.
      */
@@ -256,6 +267,29 @@ public class MetadataTools {
         return primaryKeyProperty != null && primaryKeyProperty.getAnnotatedElement().isAnnotationPresent(EmbeddedId.class);
     }
 
+    /**
+     * Returns properties which values identify a position in the results sorted by the given sort when using keyset
+     * pagination: the sort properties followed by the primary key, unless the sort already ends with it.
+     *
+     * @see LoadContext.Query#setKeysetValues(List)
+     */
+    public List<String> getKeysetProperties(MetaClass metaClass, @Nullable Sort sort) {
+        String pkName = getPrimaryKeyName(metaClass);
+        if (pkName == null) {
+            throw new IllegalArgumentException(String.format("Entity %s has no primary key", metaClass.getName()));
+        }
+        List<String> properties = new ArrayList<>();
+        if (sort != null) {
+            for (Sort.Order order : sort.getOrders()) {
+                properties.add(order.getProperty());
+            }
+        }
+        if (properties.isEmpty() || !pkName.equals(properties.get(properties.size() - 1))) {
+            properties.add(pkName);
+        }
+        return properties;
+    }
+
     /**
      * @return true if passed MetaClass has a db generated primary key
      */
@@ -876,14 +910,28 @@ public class MetadataTools {
         checkNotNullArgument(source, "source is null");
         checkNotNullArgument(dest, "dest is null");
 
-        MetaClass sourceMetaClass = metadata.getClass(source.getClass());
         MetaClass destMetaClass = metadata.getClass(dest.getClass());
-        for (MetaProperty srcProperty : sourceMetaClass.getProperties()) {
-            String name = srcProperty.getName();
-            MetaProperty dstProperty = destMetaClass.findProperty(name);
-            if (dstProperty != null && !dstProperty.isReadOnly() && persistentAttributesLoadChecker.isLoaded(source, name)) {
+        PropertyPlan plan = getPropertyPlan(metadata.getClass(source.getClass()), null);
+        int[] ordinals = plan.getOrdinals(source);
+        boolean sameClass = source.getClass() == dest.getClass();
+        for (int i = 0; i < plan.size(); i++) {
+            int ordinal = ordinals[i];
+            String name = plan.getName(i);
+            boolean dstWritable;
+            if (sameClass) {
+                dstWritable = !plan.isReadOnly(i);
+            } else {
+                MetaProperty dstProperty = destMetaClass.findProperty(name);
+                dstWritable = dstProperty != null && !dstProperty.isReadOnly();
+            }
+            if (dstWritable && persistentAttributesLoadChecker.isLoaded(source, name)) {
                 try {
-                    EntityValues.setValue(dest, name, EntityValues.getValue(source, name));
+                    Object value = ordinal >= 0 ? EntityValues.getValue(source, ordinal) : EntityValues.getValue(source, name);
+                    if (sameClass && ordinal >= 0) {
+                        EntityValues.setValue(dest, ordinal, value, true);
+                    } else {
+                        EntityValues.setValue(dest, name, value);
+                    }
                 } catch (RuntimeException e) {
                     Throwable cause = ExceptionUtils.getRootCause(e);
                     if (cause == null)
@@ -902,6 +950,131 @@ public class MetadataTools {
 //        }
     }
 
+    /**
+     * INTERNAL.
+     * Immutable facts about properties of a meta-class flattened into arrays indexed by the property position in the
+     * plan, to avoid recomputing them for each entity when walking object graphs.
+     *
+     * @see #getPropertyPlan(MetaClass, FetchPlan)
+     */
+    public static class PropertyPlan {
+
+        protected final MetaClass metaClass;
+        protected final int fetchPlanModCount;
+
+        protected final MetaProperty[] properties;
+        protected final String[] names;
+        protected final boolean[] persistent;
+        protected final boolean[] embedded;
+        protected final boolean[] readOnly;
+        protected final boolean[] classRange;
+        protected final boolean[] collection;
+        protected final FetchPlanProperty[] fetchPlanProperties;
+        protected final FetchPlan[] fetchPlans;
+
+        protected volatile EntityOrdinals entityOrdinals;
+
+        protected PropertyPlan(MetaClass metaClass, int size, int fetchPlanModCount) {
+            this.metaClass = metaClass;
+            this.fetchPlanModCount = fetchPlanModCount;
+            properties = new MetaProperty[size];
+            names = new String[size];
+            persistent = new boolean[size];
+            embedded = new boolean[size];
+            readOnly = new boolean[size];
+            classRange = new boolean[size];
+            collection = new boolean[size];
+            fetchPlanProperties = new FetchPlanProperty[size];
+            fetchPlans = new FetchPlan[size];
+        }
+
+        public MetaClass getMetaClass() {
+            return metaClass;
+        }
+
+        public int size() {
+            return properties.length;
+        }
+
+        public MetaProperty getProperty(int index) {
+            return properties[index];
+        }
+
+        public String getName(int index) {
+            return names[index];
+        }
+
+        public boolean isPersistent(int index) {
+            return persistent[index];
+        }
+
+        public boolean isEmbedded(int index) {
+            return embedded[index];
+        }
+
+        public boolean isReadOnly(int index) {
+            return readOnly[index];
+        }
+
+        /**
+         * @return true if the property is a reference or a collection of entities
+         */
+        public boolean isClass(int index) {
+            return classRange[index];
+        }
+
+        /**
+         * @return true if the property has a to-many cardinality
+         */
+        public boolean isCollection(int index) {
+            return collection[index];
+        }
+
+        /**
+         * @return fetch plan property or null if the plan is not built for a fetch plan
+         */
+        @Nullable
+        public FetchPlanProperty getFetchPlanProperty(int index) {
+            return fetchPlanProperties[index];
+        }
+
+        /**
+         * @return fetch plan of a reference property or null
+         */
+        @Nullable
+        public FetchPlan getFetchPlan(int index) {
+            return fetchPlans[index];
+        }
+
+        /**
+         * Returns attribute ordinals of the plan properties for the given entity, see
+         * {@link EntityValues#getAttributeOrdinal(Entity, String)}. Properties that cannot be accessed by ordinal
+         * have -1.
+         */
+        public int[] getOrdinals(Entity entity) {
+            EntityOrdinals cached = entityOrdinals;
+            if (cached != null && cached.entityClass == entity.getClass()) {
+                return cached.ordinals;
+            }
+            int[] ordinals = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                ordinals[i] = EntityValues.getAttributeOrdinal(entity, names[i]);
+            }
+            entityOrdinals = new EntityOrdinals(entity.getClass(), ordinals);
+            return ordinals;
+        }
+
+        protected static class EntityOrdinals {
+            protected final Class<?> entityClass;
+            protected final int[] ordinals;
+
+            protected EntityOrdinals(Class<?> entityClass, int[] ordinals) {
+                this.entityClass = entityClass;
+                this.ordinals = ordinals;
+            }
+        }
+    }
+
     /**
      * INTERNAL
      */
@@ -984,21 +1157,22 @@ public class MetadataTools {
      * Copies all property values from source to destination excluding null values.
      */
     public void deepCopy(Entity source, Entity destination, EntitiesHolder entitiesHolder) {
-        for (MetaProperty srcProperty : metadata.getClass(source).getProperties()) {
-            String name = srcProperty.getName();
+        PropertyPlan plan = getPropertyPlan(metadata.getClass(source), null);
+        int[] ordinals = plan.getOrdinals(source);
+        for (int i = 0; i < plan.size(); i++) {
+            String name = plan.getName(i);
 
-            if (srcProperty.isReadOnly() || !persistentAttributesLoadChecker.isLoaded(source, name)) {
+            if (plan.isReadOnly(i) || !persistentAttributesLoadChecker.isLoaded(source, name)) {
                 continue;
             }
 
-            Object value = EntityValues.getValue(source, name);
+            Object value = ordinals[i] >= 0 ? EntityValues.getValue(source, ordinals[i]) : EntityValues.getValue(source, name);
             if (value == null) {
                 continue;
             }
 
-            if (srcProperty.getRange().isClass()) {
-                Class refClass = srcProperty.getRange().asClass().getJavaClass();
-                if (srcProperty.getRange().getCardinality().isMany()) {
+            if (plan.isClass(i)) {
+                if (plan.isCollection(i)) {
                     @SuppressWarnings("unchecked")
                     Collection<Entity> srcCollection = (Collection) value;
                     Collection<Entity> dstCollection = value instanceof List ? new ArrayList<>() : new LinkedHashSet<>();
@@ -1037,14 +1211,19 @@ public class MetadataTools {
             return;
         visited.add(entity);
 
-        for (MetaProperty property : metadata.getClass(entity.getClass()).getProperties()) {
+        PropertyPlan plan = getPropertyPlan(metadata.getClass(entity.getClass()), null);
+        int[] ordinals = plan.getOrdinals(entity);
+        for (int i = 0; i < plan.size(); i++) {
+            MetaProperty property = plan.getProperty(i);
             if (visitor.skip(property))
                 continue;
 
             visitor.visit(entity, property);
-            if (property.getRange().isClass()) {
+            if (plan.isClass(i)) {
                 if (persistentAttributesLoadChecker.isLoaded(entity, property.getName())) {
-                    Object value = EntityValues.getValue(entity, property.getName());
+                    Object value = ordinals[i] >= 0
+                            ? EntityValues.getValue(entity, ordinals[i])
+                            : EntityValues.getValue(entity, property.getName());
                     if (value != null) {
                         if (value instanceof Collection) {
                             for (Object item : ((Collection) value)) {
@@ -1070,21 +1249,23 @@ public class MetadataTools {
         }
         fetchPlans.add(view);
 
-        MetaClass metaClass = metadata.getClass(entity.getClass());
-
-        for (FetchPlanProperty property : view.getProperties()) {
-            MetaProperty metaProperty = metaClass.getProperty(property.getName());
+        PropertyPlan plan = getPropertyPlan(metadata.getClass(entity.getClass()), view);
+        int[] ordinals = plan.getOrdinals(entity);
+        for (int i = 0; i < plan.size(); i++) {
+            MetaProperty metaProperty = plan.getProperty(i);
             if (visitor.skip(metaProperty))
                 continue;
 
             if (checkLoaded && !persistentAttributesLoadChecker.isLoaded(entity, metaProperty.getName()))
                 continue;
 
-            FetchPlan propertyView = property.getFetchPlan();
+            FetchPlan propertyView = plan.getFetchPlan(i);
 
             visitor.visit(entity, metaProperty);
 
-            Object value = EntityValues.getValue(entity, property.getName());
+            Object value = ordinals[i] >= 0
+                    ? EntityValues.getValue(entity, ordinals[i])
+                    : EntityValues.getValue(entity, metaProperty.getName());
 
             if (value != null && propertyView != null) {
                 if (value instanceof Collection) {
@@ -1099,6 +1280,66 @@ public class MetadataTools {
         }
     }
 
+    /**
+     * INTERNAL.
+     * Returns a cached plan of properties of the given meta-class. If a fetch plan is provided, the plan contains
+     * only properties of the fetch plan in its order, otherwise all properties of the meta-class.
+     * <p>
+     * Plans for fetch plans are cached for a fetch plan instance and rebuilt if the fetch plan is modified.
+     */
+    public PropertyPlan getPropertyPlan(MetaClass metaClass, @Nullable FetchPlan fetchPlan) {
+        checkNotNullArgument(metaClass, "metaClass is null");
+
+        if (fetchPlan == null) {
+            return propertyPlans.computeIfAbsent(metaClass, mc -> createPropertyPlan(mc, null));
+        }
+
+        Map<MetaClass, PropertyPlan> plans;
+        try {
+            plans = fetchPlanPropertyPlans.get(fetchPlan, ConcurrentHashMap::new);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to get property plan", e);
+        }
+        PropertyPlan plan = plans.get(metaClass);
+        if (plan == null || plan.fetchPlanModCount != fetchPlan.getModCount()) {
+            plan = createPropertyPlan(metaClass, fetchPlan);
+            plans.put(metaClass, plan);
+        }
+        return plan;
+    }
+
+    protected PropertyPlan createPropertyPlan(MetaClass metaClass, @Nullable FetchPlan fetchPlan) {
+        List<MetaProperty> properties = new ArrayList<>();
+        List<FetchPlanProperty> fetchPlanProperties = new ArrayList<>();
+        if (fetchPlan == null) {
+            properties.addAll(metaClass.getProperties());
+        } else {
+            for (FetchPlanProperty fetchPlanProperty : fetchPlan.getProperties()) {
+                properties.add(metaClass.getProperty(fetchPlanProperty.getName()));
+                fetchPlanProperties.add(fetchPlanProperty);
+            }
+        }
+
+        int size = properties.size();
+        PropertyPlan plan = new PropertyPlan(metaClass, size, fetchPlan != null ? fetchPlan.getModCount() : 0);
+        for (int i = 0; i < size; i++) {
+            MetaProperty property = properties.get(i);
+            Range range = property.getRange();
+            plan.properties[i] = property;
+            plan.names[i] = property.getName();
+            plan.persistent[i] = isPersistent(property);
+            plan.embedded[i] = isEmbedded(property);
+            plan.readOnly[i] = property.isReadOnly();
+            plan.classRange[i] = range.isClass();
+            plan.collection[i] = range.getCardinality().isMany();
+            if (fetchPlan != null) {
+                plan.fetchPlanProperties[i] = fetchPlanProperties.get(i);
+                plan.fetchPlans[i] = fetchPlanProperties.get(i).getFetchPlan();
+            }
+        }
+        return plan;
+    }
+
     protected static <T> T createInstance(Class<T> aClass) {
         try {
             return aClass.newInstance();
@@ -16,107 +16,709 @@
 
 package io.jmix.core.cluster;
 
-import io.jmix.core.cluster.ClusterListener;
-import io.jmix.core.cluster.ClusterManager;
+import io.jmix.core.Events;
+import io.jmix.core.impl.StandardSerialization;
+import org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.io.Serializable;
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Standard implementation of middleware clustering.
+ * <p>
+ * Messages passed to {@link #send(Serializable)} are queued and sent by a background thread every
+ * {@link ClusterProperties#getSendIntervalMs()}: equal messages queued during the interval are coalesced, the rest
+ * are packed into batches which are compressed and passed to {@link ClusterTransport}. {@link #sendSync(Serializable)}
+ * sends a message immediately in the current thread. A message that does not fit the transport payload even alone,
+ * e.g. the shared state, is split into fragments which are reassembled by the receiving nodes.
+ * <p>
+ * Each packet is signed with HMAC using {@link ClusterProperties#getSecret()}, and packets with a wrong signature are
+ * dropped before deserialization. Only registered message classes, standard JDK value and collection classes and
+ * classes matching {@link ClusterProperties#getAllowedClassPrefixes()} can be deserialized.
+ * <p>
+ * The node joins the cluster on application startup if {@link ClusterProperties#isEnabled()} is set. When a node
+ * joins, it requests the shared state of all listeners from the master node.
+ */
 @Component(ClusterManager.NAME)
 public class ClusterManagerImpl implements ClusterManager {
 
+    private static final Logger log = LoggerFactory.getLogger(ClusterManagerImpl.class);
+
+    protected static final byte FORMAT_PLAIN = 0;
+    protected static final byte FORMAT_DEFLATE = 1;
+    protected static final byte FORMAT_FRAGMENT = 2;
+
+    protected static final int MIN_COMPRESSED_SIZE = 256;
+
+    // format, message id, fragment index and count
+    protected static final int FRAGMENT_HEADER_SIZE = 1 + 8 + 4 + 4;
+
+    protected static final int STATE_REQUEST_ATTEMPTS = 3;
+
+    protected static final Set<String> SAFE_CLASSES = new HashSet<>(Arrays.asList(
+            String.class.getName(), Boolean.class.getName(), Character.class.getName(), Number.class.getName(),
+            Byte.class.getName(), Short.class.getName(), Integer.class.getName(), Long.class.getName(),
+            Float.class.getName(), Double.class.getName(), Enum.class.getName(),
+            java.math.BigDecimal.class.getName(), java.math.BigInteger.class.getName(),
+            Date.class.getName(), java.sql.Date.class.getName(), java.sql.Time.class.getName(),
+            java.sql.Timestamp.class.getName(), UUID.class.getName(),
+            ArrayList.class.getName(), LinkedList.class.getName(), HashMap.class.getName(),
+            LinkedHashMap.class.getName(), TreeMap.class.getName(), HashSet.class.getName(),
+            LinkedHashSet.class.getName(), TreeSet.class.getName(), "java.util.Arrays$ArrayList",
+            StateRequest.class.getName(), StateResponse.class.getName()));
+
+    @Autowired
+    protected ClusterProperties properties;
+
+    @Autowired(required = false)
+    protected ClusterTransport transport;
+
+    protected Map<String, ClusterListener> listeners = new ConcurrentHashMap<>();
+
+    protected Queue<Serializable> pendingMessages = new ConcurrentLinkedQueue<>();
+    protected AtomicInteger pendingMessagesCount = new AtomicInteger();
+    protected AtomicInteger activeSendingThreads = new AtomicInteger();
+    protected ThreadLocal<Boolean> forceSyncSending = new ThreadLocal<>();
+
+    protected ScheduledExecutorService sendExecutor;
+    protected volatile boolean started;
+    protected volatile boolean stateReceived;
+
+    protected PacketSigner signer;
+    protected AtomicLong fragmentedMessageIds = new AtomicLong();
+    protected ConcurrentMap<String, FragmentedPayload> fragmentedPayloads = new ConcurrentHashMap<>();
+
+    protected ConcurrentMap<String, MessageStat> messagesStat = new ConcurrentHashMap<>();
+    protected LongAdder sentPackets = new LongAdder();
+    protected LongAdder sentPacketBytes = new LongAdder();
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(Events.LOWEST_CORE_PRECEDENCE - 100)
+    protected void onContextRefreshed() {
+        if (properties.isEnabled() && !started) {
+            start();
+        }
+    }
+
     @Override
     public void send(Serializable message) {
-
+        if (!started) {
+            return;
+        }
+        if (Boolean.TRUE.equals(forceSyncSending.get())) {
+            sendSync(message);
+        } else {
+            pendingMessages.add(message);
+            pendingMessagesCount.incrementAndGet();
+        }
     }
 
     @Override
     public void sendSync(Serializable message) {
-
+        if (!started) {
+            return;
+        }
+        sendMessages(Collections.singletonList(message));
     }
 
     @Override
     public boolean getSyncSendingForCurrentThread() {
-        return false;
+        return Boolean.TRUE.equals(forceSyncSending.get());
     }
 
     @Override
     public void setSyncSendingForCurrentThread(boolean sync) {
-
+        forceSyncSending.set(sync);
     }
 
     @Override
     public void addListener(Class messageClass, ClusterListener listener) {
-
+        listeners.put(messageClass.getName(), listener);
     }
 
     @Override
     public void removeListener(Class messageClass, ClusterListener listener) {
-
+        listeners.remove(messageClass.getName(), listener);
     }
 
     @Override
     public boolean isMaster() {
-        return true;
+        if (!started) {
+            return true;
+        }
+        List<String> members = transport.getMembers();
+        return members.isEmpty() || transport.getLocalNode().equals(members.get(0));
     }
 
     @Override
     public String getCurrentView() {
-        return "";
+        if (!started) {
+            return "";
+        }
+        return transport.getLocalNode() + " " + transport.getMembers();
     }
 
     @Override
-    public void start() {
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        signer = new PacketSigner(properties.getSecret());
+        if (transport == null) {
+            transport = new MulticastClusterTransport(properties);
+        }
+        log.info("Starting cluster");
+        transport.start(this::receive);
 
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ClusterManager-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // pending state requests are not needed after stop
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        sendExecutor = executor;
+        sendExecutor.scheduleWithFixedDelay(this::sendPendingMessages,
+                properties.getSendIntervalMs(), properties.getSendIntervalMs(), TimeUnit.MILLISECONDS);
+
+        started = true;
+
+        // wait for heartbeats of other nodes before requesting the state
+        sendExecutor.schedule(() -> requestState(1), properties.getHeartbeatIntervalMs(), TimeUnit.MILLISECONDS);
     }
 
+    @PreDestroy
     @Override
-    public void stop() {
-
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        log.info("Stopping cluster");
+        sendExecutor.shutdown();
+        try {
+            sendExecutor.awaitTermination(properties.getSendIntervalMs() * 10L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sendPendingMessages();
+        started = false;
+        transport.stop();
+        fragmentedPayloads.clear();
     }
 
     @Override
     public boolean isStarted() {
-        return false;
+        return started;
     }
 
     @Override
     public int getActiveThreadsCount() {
-        return 0;
+        return activeSendingThreads.get();
     }
 
     @Override
     public int getMessagesCount() {
-        return 0;
+        return pendingMessagesCount.get();
     }
 
     @Override
     public String printSharedStateStat() {
-        return "";
+        StringBuilder sb = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<String, ClusterListener> entry : new TreeMap<>(listeners).entrySet()) {
+            byte[] state = entry.getValue().getState();
+            int size = state == null ? 0 : state.length;
+            total += size;
+            sb.append(entry.getKey()).append(": ").append(size).append(" bytes\n");
+        }
+        sb.append("Total: ").append(total).append(" bytes\n");
+        return sb.toString();
     }
 
     @Override
     public String printMessagesStat() {
-        return "";
+        StringBuilder sb = new StringBuilder();
+        sb.append("Sent packets: ").append(sentPackets.sum())
+                .append(", ").append(sentPacketBytes.sum()).append(" bytes\n");
+        sb.append("Sent messages:\n");
+        for (Map.Entry<String, MessageStat> entry : new TreeMap<>(messagesStat).entrySet()) {
+            MessageStat stat = entry.getValue();
+            if (stat.sentMessages.sum() > 0) {
+                sb.append("  ").append(entry.getKey()).append(": ")
+                        .append(stat.sentMessages.sum()).append(" messages, ")
+                        .append(stat.sentBytes.sum()).append(" bytes\n");
+            }
+        }
+        sb.append("Received messages:\n");
+        for (Map.Entry<String, MessageStat> entry : new TreeMap<>(messagesStat).entrySet()) {
+            MessageStat stat = entry.getValue();
+            if (stat.receivedMessages.sum() > 0) {
+                sb.append("  ").append(entry.getKey()).append(": ")
+                        .append(stat.receivedMessages.sum()).append(" messages, ")
+                        .append(stat.receivedBytes.sum()).append(" bytes\n");
+            }
+        }
+        return sb.toString();
     }
 
     @Override
     public long getSentMessages(String className) {
-        return 0;
+        MessageStat stat = messagesStat.get(className);
+        return stat == null ? 0 : stat.sentMessages.sum();
     }
 
     @Override
     public long getSentBytes(String className) {
-        return 0;
+        MessageStat stat = messagesStat.get(className);
+        return stat == null ? 0 : stat.sentBytes.sum();
     }
 
     @Override
     public long getReceivedMessages(String className) {
-        return 0;
+        MessageStat stat = messagesStat.get(className);
+        return stat == null ? 0 : stat.receivedMessages.sum();
     }
 
     @Override
     public long getReceivedBytes(String className) {
-        return 0;
+        MessageStat stat = messagesStat.get(className);
+        return stat == null ? 0 : stat.receivedBytes.sum();
+    }
+
+    protected void sendPendingMessages() {
+        if (pendingMessagesCount.get() == 0) {
+            return;
+        }
+        // equal messages are sent once
+        Set<Serializable> messages = new LinkedHashSet<>();
+        Serializable message;
+        while ((message = pendingMessages.poll()) != null) {
+            pendingMessagesCount.decrementAndGet();
+            messages.add(message);
+        }
+        try {
+            sendMessages(messages);
+        } catch (RuntimeException e) {
+            log.error("Error sending {} cluster messages", messages.size(), e);
+        }
+    }
+
+    protected void sendMessages(Collection<? extends Serializable> messages) {
+        activeSendingThreads.incrementAndGet();
+        try {
+            // collect a few packets worth of uncompressed data, sendBatch() splits it if needed
+            int batchLimit = transport.getMaxPayloadSize() * 4;
+            List<SerializedMessage> batch = new ArrayList<>();
+            int batchSize = 0;
+            for (Serializable message : messages) {
+                SerializedMessage serialized = new SerializedMessage(message.getClass().getName(),
+                        StandardSerialization.serialize(message));
+                if (!batch.isEmpty() && batchSize + serialized.bytes.length > batchLimit) {
+                    sendBatch(batch);
+                    batch = new ArrayList<>();
+                    batchSize = 0;
+                }
+                batch.add(serialized);
+                batchSize += serialized.bytes.length;
+            }
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } finally {
+            activeSendingThreads.decrementAndGet();
+        }
+    }
+
+    protected void sendBatch(List<SerializedMessage> batch) {
+        byte[] payload = encode(batch);
+        int maxSize = transport.getMaxPayloadSize() - PacketSigner.SIGNATURE_LENGTH;
+        if (payload.length > maxSize) {
+            if (batch.size() > 1) {
+                int middle = batch.size() / 2;
+                sendBatch(batch.subList(0, middle));
+                sendBatch(batch.subList(middle, batch.size()));
+                return;
+            }
+            sendFragments(payload, maxSize);
+        } else {
+            sendPacket(payload);
+        }
+
+        for (SerializedMessage message : batch) {
+            MessageStat stat = getMessageStat(message.className);
+            stat.sentMessages.increment();
+            stat.sentBytes.add(message.bytes.length);
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Sent {} cluster messages in {} bytes", batch.size(), payload.length);
+        }
+    }
+
+    protected void sendFragments(byte[] payload, int maxSize) {
+        long messageId = fragmentedMessageIds.incrementAndGet();
+        int chunkSize = maxSize - FRAGMENT_HEADER_SIZE;
+        int count = (payload.length + chunkSize - 1) / chunkSize;
+        try {
+            for (int i = 0; i < count; i++) {
+                int offset = i * chunkSize;
+                int length = Math.min(chunkSize, payload.length - offset);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(FRAGMENT_HEADER_SIZE + length);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(FORMAT_FRAGMENT);
+                out.writeLong(messageId);
+                out.writeInt(i);
+                out.writeInt(count);
+                out.write(payload, offset, length);
+                out.flush();
+                sendPacket(bytes.toByteArray());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to split cluster message into fragments", e);
+        }
+        log.debug("Sent cluster message of {} bytes in {} fragments", payload.length, count);
+    }
+
+    protected void sendPacket(byte[] payload) {
+        byte[] packet = signer.sign(payload);
+        transport.send(packet);
+        sentPackets.increment();
+        sentPacketBytes.add(packet.length);
+    }
+
+    protected void receive(String sender, byte[] packet) {
+        byte[] payload = signer.verify(packet, 0, packet.length);
+        if (payload == null) {
+            log.warn("Dropped cluster packet from {} with invalid signature", sender);
+            return;
+        }
+        List<SerializedMessage> batch;
+        try {
+            if (payload.length > 0 && payload[0] == FORMAT_FRAGMENT) {
+                payload = addFragment(sender, payload);
+                if (payload == null) {
+                    return;
+                }
+            }
+            batch = decode(payload);
+        } catch (IOException e) {
+            log.warn("Unable to decode cluster packet from {}", sender, e);
+            return;
+        }
+        for (SerializedMessage serialized : batch) {
+            MessageStat stat = getMessageStat(serialized.className);
+            stat.receivedMessages.increment();
+            stat.receivedBytes.add(serialized.bytes.length);
+
+            boolean stateMessage = StateRequest.class.getName().equals(serialized.className)
+                    || StateResponse.class.getName().equals(serialized.className);
+            ClusterListener listener = listeners.get(serialized.className);
+            if (!stateMessage && listener == null) {
+                log.trace("No listener for cluster message {}", serialized.className);
+                continue;
+            }
+            try {
+                Serializable message = (Serializable) deserialize(serialized.bytes);
+                if (message instanceof StateRequest) {
+                    onStateRequest((StateRequest) message);
+                } else if (message instanceof StateResponse) {
+                    onStateResponse((StateResponse) message);
+                } else if (listener != null) {
+                    //noinspection unchecked
+                    listener.receive(message);
+                }
+            } catch (Exception e) {
+                log.error("Error handling cluster message {} from {}", serialized.className, sender, e);
+            }
+        }
+    }
+
+    /**
+     * Stores a fragment of a large message.
+     *
+     * @return payload of the whole message if all its fragments have been received, null otherwise
+     */
+    @Nullable
+    protected byte[] addFragment(String sender, byte[] fragment) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(fragment, 1, fragment.length - 1));
+        long messageId = in.readLong();
+        int index = in.readInt();
+        int count = in.readInt();
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new IOException("Invalid fragment " + index + " of " + count);
+        }
+        byte[] chunk = Arrays.copyOfRange(fragment, FRAGMENT_HEADER_SIZE, fragment.length);
+
+        long expireBefore = System.currentTimeMillis() - properties.getStateTransferTimeoutMs();
+        fragmentedPayloads.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().createTs < expireBefore;
+            if (expired) {
+                log.warn("Discarded incomplete cluster message {}", entry.getKey());
+            }
+            return expired;
+        });
+
+        String key = sender + "/" + messageId;
+        FragmentedPayload fragmentedPayload = fragmentedPayloads.computeIfAbsent(key, k -> new FragmentedPayload(count));
+        synchronized (fragmentedPayload) {
+            if (!fragmentedPayload.add(index, chunk)) {
+                return null;
+            }
+        }
+        fragmentedPayloads.remove(key);
+        log.debug("Received cluster message of {} fragments from {}", count, sender);
+        return fragmentedPayload.join();
+    }
+
+    protected Object deserialize(byte[] bytes) throws IOException {
+        return StandardSerialization.deserialize(new FilteringObjectInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    protected boolean isClassAllowed(String className) {
+        String name = className;
+        if (name.startsWith("[")) {
+            name = name.substring(name.lastIndexOf('[') + 1);
+            if (name.length() == 1) {
+                // array of primitives
+                return true;
+            }
+            name = name.substring(1, name.length() - 1);
+        }
+        if (SAFE_CLASSES.contains(name) || name.startsWith("java.util.Collections$")
+                || name.startsWith("java.time.") || listeners.containsKey(name)) {
+            return true;
+        }
+        for (String prefix : properties.getAllowedClassPrefixes()) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void requestState(int attempt) {
+        if (!started || stateReceived) {
+            return;
+        }
+        if (transport.getMembers().size() < 2) {
+            log.debug("No other cluster nodes, state transfer is not required");
+            return;
+        }
+        if (isMaster()) {
+            return;
+        }
+        log.debug("Requesting state from master node, attempt {}", attempt);
+        sendSync(new StateRequest(transport.getLocalNode()));
+        sendExecutor.schedule(() -> {
+            if (stateReceived) {
+                return;
+            }
+            if (attempt < STATE_REQUEST_ATTEMPTS) {
+                requestState(attempt + 1);
+            } else {
+                log.warn("State has not been received from master node in {} attempts", attempt);
+            }
+        }, properties.getStateTransferTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    protected void onStateRequest(StateRequest request) {
+        if (!isMaster()) {
+            return;
+        }
+        log.debug("Sending state to {}", request.requester);
+        Map<String, byte[]> states = new HashMap<>();
+        for (Map.Entry<String, ClusterListener> entry : listeners.entrySet()) {
+            byte[] state = entry.getValue().getState();
+            if (state != null && state.length > 0) {
+                states.put(entry.getKey(), state);
+            }
+        }
+        sendSync(new StateResponse(request.requester, states));
+    }
+
+    protected void onStateResponse(StateResponse response) {
+        if (stateReceived || !transport.getLocalNode().equals(response.target)) {
+            return;
+        }
+        log.debug("Received state for {}", response.states.keySet());
+        for (Map.Entry<String, byte[]> entry : response.states.entrySet()) {
+            ClusterListener listener = listeners.get(entry.getKey());
+            if (listener != null) {
+                listener.setState(entry.getValue());
+            }
+        }
+        stateReceived = true;
+    }
+
+    protected byte[] encode(List<SerializedMessage> batch) {
+        try {
+            ByteArrayOutputStream plain = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(plain);
+            out.writeInt(batch.size());
+            for (SerializedMessage message : batch) {
+                out.writeUTF(message.className);
+                out.writeInt(message.bytes.length);
+                out.write(message.bytes);
+            }
+            out.flush();
+
+            if (plain.size() < MIN_COMPRESSED_SIZE) {
+                return withFormat(FORMAT_PLAIN, plain.toByteArray());
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(plain.size() / 2);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater)) {
+                plain.writeTo(deflaterOut);
+            } finally {
+                deflater.end();
+            }
+            if (compressed.size() < plain.size()) {
+                return withFormat(FORMAT_DEFLATE, compressed.toByteArray());
+            }
+            return withFormat(FORMAT_PLAIN, plain.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to encode cluster messages", e);
+        }
+    }
+
+    protected List<SerializedMessage> decode(byte[] payload) throws IOException {
+        if (payload.length == 0) {
+            return Collections.emptyList();
+        }
+        InputStream data = new ByteArrayInputStream(payload, 1, payload.length - 1);
+        if (payload[0] == FORMAT_DEFLATE) {
+            data = new InflaterInputStream(data);
+        } else if (payload[0] != FORMAT_PLAIN) {
+            throw new IOException("Unknown payload format: " + payload[0]);
+        }
+        try (DataInputStream in = new DataInputStream(data)) {
+            int count = in.readInt();
+            List<SerializedMessage> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String className = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                batch.add(new SerializedMessage(className, bytes));
+            }
+            return batch;
+        }
+    }
+
+    protected byte[] withFormat(byte format, byte[] data) {
+        byte[] result = new byte[data.length + 1];
+        result[0] = format;
+        System.arraycopy(data, 0, result, 1, data.length);
+        return result;
+    }
+
+    protected MessageStat getMessageStat(String className) {
+        return messagesStat.computeIfAbsent(className, name -> new MessageStat());
+    }
+
+    protected static class SerializedMessage {
+        protected final String className;
+        protected final byte[] bytes;
+
+        protected SerializedMessage(String className, byte[] bytes) {
+            this.className = className;
+            this.bytes = bytes;
+        }
+    }
+
+    protected static class FragmentedPayload {
+        protected final long createTs = System.currentTimeMillis();
+        protected final byte[][] chunks;
+        protected int receivedCount;
+
+        protected FragmentedPayload(int count) {
+            this.chunks = new byte[count][];
+        }
+
+        /**
+         * @return true if this fragment is the last missing one
+         */
+        protected boolean add(int index, byte[] chunk) {
+            if (index >= chunks.length || chunks[index] != null) {
+                return false;
+            }
+            chunks[index] = chunk;
+            return ++receivedCount == chunks.length;
+        }
+
+        protected byte[] join() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (byte[] chunk : chunks) {
+                out.write(chunk, 0, chunk.length);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Resolves only classes allowed by {@link #isClassAllowed(String)}.
+     */
+    protected class FilteringObjectInputStream extends ObjectInputStream {
+
+        protected FilteringObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isClassAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Class is not allowed in cluster messages");
+            }
+            return ClassUtils.getClass(ClusterManagerImpl.class.getClassLoader(), desc.getName());
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in cluster messages");
+        }
+    }
+
+    protected static class MessageStat {
+        protected final LongAdder sentMessages = new LongAdder();
+        protected final LongAdder sentBytes = new LongAdder();
+        protected final LongAdder receivedMessages = new LongAdder();
+        protected final LongAdder receivedBytes = new LongAdder();
+    }
+
+    public static class StateRequest implements Serializable {
+        private static final long serialVersionUID = -3418431622540128117L;
+
+        protected final String requester;
+
+        public StateRequest(String requester) {
+            this.requester = requester;
+        }
+    }
+
+    public static class StateResponse implements Serializable {
+        private static final long serialVersionUID = 6290236093727960544L;
+
+        protected final String target;
+        protected final HashMap<String, byte[]> states;
+
+        public StateResponse(String target, Map<String, byte[]> states) {
+            this.target = target;
+            this.states = new HashMap<>(states);
+        }
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "jmix.core.cluster")
+@ConstructorBinding
+public class ClusterProperties {
+
+    boolean enabled;
+    String multicastAddress;
+    int port;
+    String networkInterface;
+    int timeToLive;
+    int sendIntervalMs;
+    int heartbeatIntervalMs;
+    int stateTransferTimeoutMs;
+    String secret;
+    List<String> allowedClassPrefixes;
+
+    public ClusterProperties(
+            boolean enabled,
+            @DefaultValue("239.255.7.8") String multicastAddress,
+            @DefaultValue("7800") int port,
+            @Nullable String networkInterface,
+            @DefaultValue("1") int timeToLive,
+            @DefaultValue("50") int sendIntervalMs,
+            @DefaultValue("2000") int heartbeatIntervalMs,
+            @DefaultValue("5000") int stateTransferTimeoutMs,
+            @Nullable String secret,
+            @DefaultValue("io.jmix.,com.haulmont.,org.eclipse.persistence.") List<String> allowedClassPrefixes
+    ) {
+        this.enabled = enabled;
+        this.multicastAddress = multicastAddress;
+        this.port = port;
+        this.networkInterface = networkInterface;
+        this.timeToLive = timeToLive;
+        this.sendIntervalMs = sendIntervalMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.stateTransferTimeoutMs = stateTransferTimeoutMs;
+        this.secret = secret;
+        this.allowedClassPrefixes = allowedClassPrefixes;
+    }
+
+    /**
+     * Whether the node joins the cluster on application startup.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Multicast group address used by {@link MulticastClusterTransport}.
+     */
+    public String getMulticastAddress() {
+        return multicastAddress;
+    }
+
+    /**
+     * UDP port used by {@link MulticastClusterTransport}.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Name of the network interface for multicast, e.g. {@code lo} to run the cluster on a single host.
+     * If not set, the system default is used.
+     */
+    @Nullable
+    public String getNetworkInterface() {
+        return networkInterface;
+    }
+
+    /**
+     * Time-to-live of multicast packets.
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Interval in milliseconds at which messages sent asynchronously are coalesced and sent in one batch.
+     */
+    public int getSendIntervalMs() {
+        return sendIntervalMs;
+    }
+
+    /**
+     * Interval in milliseconds at which nodes announce themselves. A node is excluded from the view if no
+     * announcement is received in three intervals.
+     */
+    public int getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
+    }
+
+    /**
+     * Time in milliseconds a joining node waits for the shared state from the master node before requesting it
+     * again. Also limits the time of receiving all fragments of a large message.
+     */
+    public int getStateTransferTimeoutMs() {
+        return stateTransferTimeoutMs;
+    }
+
+    /**
+     * Shared secret used to authenticate cluster packets. Must be the same on all nodes. The cluster is not started
+     * if the secret is not set, because messages received from the network are deserialized.
+     */
+    @Nullable
+    public String getSecret() {
+        return secret;
+    }
+
+    /**
+     * Prefixes of class names that are allowed to be deserialized from cluster messages in addition to registered
+     * message classes and standard JDK value and collection classes.
+     */
+    public List<String> getAllowedClassPrefixes() {
+        return allowedClassPrefixes;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.cluster;
+
+import java.util.List;
+
+/**
+ * Delivers binary payloads between cluster nodes and tracks cluster membership. Used by {@link ClusterManagerImpl}
+ * which is responsible for serialization, batching, compression, signing and fragmentation of messages.
+ * <p>
+ * Define a bean implementing this interface to replace the default {@link MulticastClusterTransport}.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Callback receiving payloads sent by other nodes.
+     */
+    interface Receiver {
+
+        void receive(String sender, byte[] payload);
+    }
+
+    /**
+     * Joins the cluster. Payloads sent by other nodes are passed to the receiver.
+     */
+    void start(Receiver receiver);
+
+    /**
+     * Leaves the cluster.
+     */
+    void stop();
+
+    boolean isStarted();
+
+    /**
+     * Sends the payload to all other nodes.
+     *
+     * @param payload bytes, not longer than {@link #getMaxPayloadSize()}
+     */
+    void send(byte[] payload);
+
+    /**
+     * @return maximum size of a payload that can be sent by {@link #send(byte[])}
+     */
+    int getMaxPayloadSize();
+
+    /**
+     * @return unique name of this node
+     */
+    String getLocalNode();
+
+    /**
+     * @return names of active nodes including this one, the oldest node first
+     */
+    List<String> getMembers();
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ClusterTransport} based on UDP multicast. Nodes announce themselves by periodic heartbeats, so no static
+ * configuration of members is needed. To run several nodes on one host, set
+ * {@code jmix.core.cluster.networkInterface} to the loopback interface.
+ * <p>
+ * All packets including heartbeats are signed with {@link ClusterProperties#getSecret()}, so nodes configured with
+ * another secret are ignored. The transport is not started if the secret is not set.
+ * <p>
+ * Delivery is not guaranteed, which is acceptable for cache invalidation messages: a lost message leads to
+ * the same result as a message that was sent before a node joined.
+ */
+public class MulticastClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastClusterTransport.class);
+
+    protected static final int MAGIC = 0x4A4D5843;
+    protected static final int MAX_DATAGRAM_SIZE = 65000;
+    protected static final int HEADER_RESERVE = 512;
+    // fits several datagrams of maximum size, so fragments of a large message sent in a row are not dropped
+    protected static final int RECEIVE_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    protected static final byte TYPE_DATA = 1;
+    protected static final byte TYPE_HEARTBEAT = 2;
+    protected static final byte TYPE_LEAVE = 3;
+
+    protected final ClusterProperties properties;
+    protected final String localNode;
+    protected final long startTime = System.currentTimeMillis();
+
+    protected final ConcurrentMap<String, Member> members = new ConcurrentHashMap<>();
+
+    protected volatile boolean started;
+    protected MulticastSocket socket;
+    protected InetAddress group;
+    protected Thread receiverThread;
+    protected ScheduledExecutorService heartbeatExecutor;
+    protected Receiver receiver;
+    protected PacketSigner signer;
+
+    public MulticastClusterTransport(ClusterProperties properties) {
+        this.properties = properties;
+        this.localNode = createNodeName();
+    }
+
+    @Override
+    public synchronized void start(Receiver receiver) {
+        if (started) {
+            return;
+        }
+        this.signer = new PacketSigner(properties.getSecret());
+        this.receiver = receiver;
+        try {
+            group = InetAddress.getByName(properties.getMulticastAddress());
+            socket = new MulticastSocket(properties.getPort());
+            if (properties.getNetworkInterface() != null) {
+                NetworkInterface networkInterface = NetworkInterface.getByName(properties.getNetworkInterface());
+                if (networkInterface == null) {
+                    throw new IllegalStateException("Network interface not found: " + properties.getNetworkInterface());
+                }
+                socket.setNetworkInterface(networkInterface);
+            }
+            socket.setTimeToLive(properties.getTimeToLive());
+            // the OS may limit the size, so it's a hint only
+            socket.setReceiveBufferSize(RECEIVE_BUFFER_SIZE);
+            // false means that loopback is enabled, so nodes on the same host receive packets
+            socket.setLoopbackMode(false);
+            socket.joinGroup(group);
+        } catch (IOException e) {
+            closeSocket();
+            throw new RuntimeException("Unable to join multicast group " + properties.getMulticastAddress(), e);
+        }
+
+        members.put(localNode, new Member(startTime));
+        started = true;
+
+        receiverThread = new Thread(this::receiveLoop, "ClusterTransport-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ClusterTransport-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                0, properties.getHeartbeatIntervalMs(), TimeUnit.MILLISECONDS);
+
+        log.info("Joined cluster as {} on {}:{}", localNode, properties.getMulticastAddress(), properties.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        try {
+            sendPacket(TYPE_LEAVE, new byte[0]);
+        } catch (RuntimeException e) {
+            log.debug("Unable to send leave packet", e);
+        }
+        started = false;
+        heartbeatExecutor.shutdownNow();
+        try {
+            socket.leaveGroup(group);
+        } catch (IOException e) {
+            log.debug("Unable to leave multicast group", e);
+        }
+        closeSocket();
+        members.clear();
+        log.info("Left cluster");
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    @Override
+    public void send(byte[] payload) {
+        if (payload.length > getMaxPayloadSize()) {
+            throw new IllegalArgumentException("Payload is too large: " + payload.length);
+        }
+        sendPacket(TYPE_DATA, payload);
+    }
+
+    @Override
+    public int getMaxPayloadSize() {
+        return MAX_DATAGRAM_SIZE - HEADER_RESERVE;
+    }
+
+    @Override
+    public String getLocalNode() {
+        return localNode;
+    }
+
+    @Override
+    public List<String> getMembers() {
+        List<Map.Entry<String, Member>> entries = new ArrayList<>(members.entrySet());
+        entries.sort(Comparator.<Map.Entry<String, Member>>comparingLong(entry -> entry.getValue().startTime)
+                .thenComparing(Map.Entry::getKey));
+        List<String> result = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Member> entry : entries) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    protected String createNodeName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    protected void sendPacket(byte type, byte[] payload) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(type);
+            out.writeUTF(localNode);
+            out.writeLong(startTime);
+            out.write(payload);
+            out.flush();
+            byte[] data = signer.sign(bytes.toByteArray());
+            socket.send(new DatagramPacket(data, data.length, group, properties.getPort()));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to send cluster packet", e);
+        }
+    }
+
+    protected void receiveLoop() {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (started) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (started) {
+                    log.warn("Error receiving cluster packet", e);
+                }
+                continue;
+            }
+            try {
+                handlePacket(packet);
+            } catch (Exception e) {
+                log.warn("Error handling cluster packet from {}", packet.getSocketAddress(), e);
+            }
+        }
+    }
+
+    protected void handlePacket(DatagramPacket packet) throws IOException {
+        byte[] data = signer.verify(packet.getData(), packet.getOffset(), packet.getLength());
+        if (data == null) {
+            log.debug("Ignored packet from {} with invalid signature", packet.getSocketAddress());
+            return;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            return;
+        }
+        byte type = in.readByte();
+        String sender = in.readUTF();
+        long senderStartTime = in.readLong();
+        if (localNode.equals(sender)) {
+            return;
+        }
+
+        if (type == TYPE_LEAVE) {
+            if (members.remove(sender) != null) {
+                log.info("Node {} left cluster", sender);
+            }
+            return;
+        }
+
+        Member member = members.get(sender);
+        if (member == null) {
+            member = new Member(senderStartTime);
+            if (members.putIfAbsent(sender, member) == null) {
+                log.info("Node {} joined cluster", sender);
+            }
+        }
+        member.lastSeen = System.currentTimeMillis();
+
+        if (type == TYPE_DATA) {
+            byte[] payload = new byte[in.available()];
+            in.readFully(payload);
+            receiver.receive(sender, payload);
+        }
+    }
+
+    protected void heartbeat() {
+        try {
+            sendPacket(TYPE_HEARTBEAT, new byte[0]);
+        } catch (RuntimeException e) {
+            log.warn("Unable to send heartbeat", e);
+        }
+        long expireBefore = System.currentTimeMillis() - 3L * properties.getHeartbeatIntervalMs();
+        members.entrySet().removeIf(entry -> {
+            boolean expired = !entry.getKey().equals(localNode) && entry.getValue().lastSeen < expireBefore;
+            if (expired) {
+                log.info("Node {} is not responding and excluded from cluster view", entry.getKey());
+            }
+            return expired;
+        });
+    }
+
+    protected void closeSocket() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    protected static class Member {
+        protected final long startTime;
+        protected volatile long lastSeen = System.currentTimeMillis();
+
+        protected Member(long startTime) {
+            this.startTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core.cluster;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Signs cluster packets with HMAC-SHA256 using the shared secret and verifies packets received from other nodes.
+ */
+public class PacketSigner {
+
+    public static final int SIGNATURE_LENGTH = 32;
+
+    protected static final String ALGORITHM = "HmacSHA256";
+
+    protected final SecretKeySpec key;
+
+    /**
+     * @param secret shared secret, see {@link ClusterProperties#getSecret()}
+     * @throws IllegalStateException if the secret is empty
+     */
+    public PacketSigner(@Nullable String secret) {
+        if (StringUtils.isEmpty(secret)) {
+            throw new IllegalStateException("Cluster cannot be started without a shared secret, " +
+                    "set jmix.core.cluster.secret to the same value on all nodes");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * @return signature followed by the payload
+     */
+    public byte[] sign(byte[] payload) {
+        byte[] signature = createMac().doFinal(payload);
+        byte[] result = new byte[SIGNATURE_LENGTH + payload.length];
+        System.arraycopy(signature, 0, result, 0, SIGNATURE_LENGTH);
+        System.arraycopy(payload, 0, result, SIGNATURE_LENGTH, payload.length);
+        return result;
+    }
+
+    /**
+     * @return payload of the packet or null if the signature is invalid
+     */
+    @Nullable
+    public byte[] verify(byte[] packet, int offset, int length) {
+        if (length < SIGNATURE_LENGTH) {
+            return null;
+        }
+        Mac mac = createMac();
+        mac.update(packet, offset + SIGNATURE_LENGTH, length - SIGNATURE_LENGTH);
+        byte[] signature = Arrays.copyOfRange(packet, offset, offset + SIGNATURE_LENGTH);
+        if (!MessageDigest.isEqual(mac.doFinal(), signature)) {
+            return null;
+        }
+        return Arrays.copyOfRange(packet, offset + SIGNATURE_LENGTH, offset + length);
+    }
+
+    protected Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+        }
+    }
+}
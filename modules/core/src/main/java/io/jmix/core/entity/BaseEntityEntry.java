@@ -28,6 +28,7 @@ import org.springframework.lang.NonNull;
 import javax.annotation.Nullable;
 import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 public abstract class BaseEntityEntry implements EntityEntry, Cloneable {
@@ -45,6 +46,8 @@ public abstract class BaseEntityEntry implements EntityEntry, Cloneable {
 
     protected static final int PROPERTY_CHANGE_LISTENERS_INITIAL_CAPACITY = 4;
 
+    private static final Map<Class<?>, Map<String, Integer>> attributeOrdinals = new ConcurrentHashMap<>();
+
     public BaseEntityEntry(Entity source) {
         this.source = source;
     }
@@ -89,6 +92,57 @@ public abstract class BaseEntityEntry implements EntityEntry, Cloneable {
         }
     }
 
+    @Override
+    public int getAttributeOrdinal(@NonNull String name) {
+        Integer ordinal = attributeOrdinals.computeIfAbsent(getSource().getClass(), aClass -> {
+            String[] names = getAttributeNames();
+            Map<String, Integer> ordinals = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                ordinals.put(names[i], i);
+            }
+            return ordinals;
+        }).get(name);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getAttributeValue(int ordinal) {
+        if (entityValuesProviders != null) {
+            return getAttributeValue(getAttributeNames()[ordinal]);
+        }
+        return (T) getCompiledAttributeValue(ordinal);
+    }
+
+    @Override
+    public void setAttributeValue(int ordinal, Object value, boolean checkEquals) {
+        if (entityValuesProviders != null) {
+            setAttributeValue(getAttributeNames()[ordinal], value, checkEquals);
+        } else if (!checkEquals || !EntityValues.propertyValueEquals(getCompiledAttributeValue(ordinal), value)) {
+            setCompiledAttributeValue(ordinal, value);
+        }
+    }
+
+    /**
+     * Returns names of attributes accessible by ordinal, the index of a name is the attribute ordinal.
+     * Entity entries generated by the enhancer override this method together with
+     * {@link #getCompiledAttributeValue(int)} and {@link #setCompiledAttributeValue(int, Object)} to access
+     * attributes by direct method calls.
+     */
+    protected String[] getAttributeNames() {
+        return MethodsCache.getOrCreate(getSource().getClass()).getPropertyNames();
+    }
+
+    @Nullable
+    protected Object getCompiledAttributeValue(int ordinal) {
+        return MethodsCache.getOrCreate(getSource().getClass()).getGetter(ordinal).apply(getSource());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void setCompiledAttributeValue(int ordinal, @Nullable Object value) {
+        MethodsCache.getOrCreate(getSource().getClass()).getSetter(ordinal).accept(getSource(), value);
+    }
+
     @Override
     public boolean isNew() {
         return (state & NEW) == NEW;
@@ -17,17 +17,24 @@
 package io.jmix.core.entity;
 
 import io.jmix.core.Entity;
+import io.jmix.core.EntityEntry;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.PropertyPath;
 import org.apache.commons.lang3.ArrayUtils;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.jmix.core.metamodel.model.utils.ObjectPathUtils.formatValuePath;
 import static io.jmix.core.metamodel.model.utils.ObjectPathUtils.parseValuePath;
 
 public class EntityValues {
 
+    private static final Map<Class<?>, AttributeOrdinals> attributeOrdinals = new ConcurrentHashMap<>();
+
     @SuppressWarnings("unchecked")
     public static Object getId(Entity entity) {
         return entity.__getEntityEntry().getEntityId();
@@ -78,6 +85,62 @@ public class EntityValues {
         return entity.__getEntityEntry().getAttributeValue(name);
     }
 
+    /**
+     * Returns the ordinal of an attribute which can be used to get and set the attribute value without name lookups.
+     * Ordinals are the same for all instances of an entity class.
+     *
+     * @param name attribute name according to JavaBeans notation
+     * @return attribute ordinal or -1 if the attribute cannot be accessed by ordinal
+     * @see #getValue(Entity, int)
+     * @see #setValue(Entity, int, Object, boolean)
+     */
+    public static int getAttributeOrdinal(Entity entity, String name) {
+        return entity.__getEntityEntry().getAttributeOrdinal(name);
+    }
+
+    /**
+     * Returns ordinals of the meta-class properties in the order of {@link MetaClass#getProperties()}.
+     * Ordinals are cached per entity class. Properties that cannot be accessed by ordinal have -1.
+     */
+    public static int[] getAttributeOrdinals(Entity entity, MetaClass metaClass) {
+        AttributeOrdinals cached = attributeOrdinals.get(entity.getClass());
+        if (cached == null || cached.metaClass != metaClass) {
+            EntityEntry entry = entity.__getEntityEntry();
+            Collection<MetaProperty> properties = metaClass.getProperties();
+            int[] ordinals = new int[properties.size()];
+            int i = 0;
+            for (MetaProperty property : properties) {
+                ordinals[i++] = entry.getAttributeOrdinal(property.getName());
+            }
+            cached = new AttributeOrdinals(metaClass, ordinals);
+            attributeOrdinals.put(entity.getClass(), cached);
+        }
+        return cached.ordinals;
+    }
+
+    /**
+     * Get an attribute value by ordinal.
+     *
+     * @param ordinal attribute ordinal returned by {@link #getAttributeOrdinal(Entity, String)}
+     * @return attribute value
+     */
+    @Nullable
+    public static <T> T getValue(Entity entity, int ordinal) {
+        return entity.__getEntityEntry().getAttributeValue(ordinal);
+    }
+
+    /**
+     * Set an attribute value by ordinal.
+     *
+     * @param ordinal     attribute ordinal returned by {@link #getAttributeOrdinal(Entity, String)}
+     * @param value       attribute value
+     * @param checkEquals check equals for previous and new value.
+     *                    If flag is true and objects equals, then setter will not be invoked
+     */
+    public static void setValue(Entity entity, int ordinal, @Nullable Object value, boolean checkEquals) {
+        entity.__getEntityEntry().setAttributeValue(ordinal, value, checkEquals);
+    }
+
     /**
      * Get an attribute value. Locates the attribute by the given path in object graph starting from this instance.
      * <br>
@@ -227,4 +290,14 @@ public class EntityValues {
         }
         return a != null && a.equals(b);
     }
+
+    private static class AttributeOrdinals {
+        private final MetaClass metaClass;
+        private final int[] ordinals;
+
+        private AttributeOrdinals(MetaClass metaClass, int[] ordinals) {
+            this.metaClass = metaClass;
+            this.ordinals = ordinals;
+        }
+    }
 }
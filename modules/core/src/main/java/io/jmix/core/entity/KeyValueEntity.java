@@ -83,6 +83,11 @@ public class KeyValueEntity
         public void setAttributeValue(@NonNull String name, Object value, boolean checkEquals) {
             ((KeyValueEntity) source).setValue(name, value, checkEquals);
         }
+
+        @Override
+        public int getAttributeOrdinal(@NonNull String name) {
+            return -1;
+        }
     }
 
     public KeyValueEntity() {
@@ -31,6 +31,10 @@ import org.springframework.stereotype.Component;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -57,6 +61,9 @@ public class CrossDataStoreReferenceLoader {
     @Autowired
     private CoreProperties properties;
 
+    @Autowired
+    private CrossDataStoreReferenceLoadingExecutor executor;
+
     private MetaClass metaClass;
 
     private FetchPlan fetchPlan;
@@ -84,9 +91,11 @@ public class CrossDataStoreReferenceLoader {
         String storeName = metadataTools.getStoreName(metaClass);
 
         Class<? extends Entity> entityClass = view.getEntityClass();
-        for (FetchPlanProperty viewProperty : view.getProperties()) {
-            MetaProperty metaProperty = metadata.getClass(entityClass).getProperty(viewProperty.getName());
-            if (metaProperty.getRange().isClass()) {
+        MetadataTools.PropertyPlan plan = metadataTools.getPropertyPlan(metadata.getClass(entityClass), view);
+        for (int i = 0; i < plan.size(); i++) {
+            if (plan.isClass(i)) {
+                MetaProperty metaProperty = plan.getProperty(i);
+                FetchPlanProperty viewProperty = plan.getFetchPlanProperty(i);
                 MetaClass propertyMetaClass = metaProperty.getRange().asClass();
                 if (!Objects.equals(metadataTools.getStoreName(propertyMetaClass), storeName)) {
                     List<String> relatedProperties = metadataTools.getRelatedProperties(metaProperty);
@@ -101,7 +110,7 @@ public class CrossDataStoreReferenceLoader {
                     if (crossProperties.stream().noneMatch(aProp -> aProp.property == metaProperty))
                         crossProperties.add(new CrossDataStoreProperty(metaProperty, viewProperty));
                 }
-                FetchPlan propertyView = viewProperty.getFetchPlan();
+                FetchPlan propertyView = plan.getFetchPlan(i);
                 if (propertyView != null) {
                     traverseView(propertyView, crossPropertiesMap, visited);
                 }
@@ -118,20 +127,66 @@ public class CrossDataStoreReferenceLoader {
         if (affectedEntities.isEmpty())
             return;
 
-        List<EntityCrossDataStoreProperty> entityCrossDataStorePropertyList = new ArrayList<>();
+        // references to the same entity type with the same fetch plan are loaded together
+        Map<ReferenceGroupKey, ReferenceGroup> groups = new LinkedHashMap<>();
         for (Entity affectedEntity : affectedEntities) {
-            for (CrossDataStoreProperty crossDataStoreProperty : crossPropertiesMap.get(affectedEntity.getClass())) {
-                entityCrossDataStorePropertyList.add(new EntityCrossDataStoreProperty(affectedEntity, crossDataStoreProperty));
+            for (CrossDataStoreProperty crossProperty : crossPropertiesMap.get(affectedEntity.getClass())) {
+                Object id = EntityValues.getValue(affectedEntity, crossProperty.relatedPropertyName);
+                if (id == null)
+                    continue;
+                ReferenceGroupKey key = new ReferenceGroupKey(crossProperty);
+                groups.computeIfAbsent(key, k -> new ReferenceGroup(crossProperty))
+                        .add(affectedEntity, crossProperty, id);
             }
         }
-        if (entityCrossDataStorePropertyList.size() == 1) {
-            loadOne(entityCrossDataStorePropertyList.get(0));
+        if (groups.isEmpty())
+            return;
+
+        Map<String, List<ReferenceGroup>> groupsByStore = groups.values().stream()
+                .collect(Collectors.groupingBy(group -> group.metaClass.getStore().getName(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        if (groupsByStore.size() == 1 || joinTransaction || !executor.isParallel()) {
+            groups.values().forEach(this::loadGroup);
         } else {
-            entityCrossDataStorePropertyList.stream()
-                    .collect(Collectors.groupingBy(EntityCrossDataStoreProperty::getCrossProp))
-                    .forEach((ap, eapList) ->
-                            loadMany(ap, eapList.stream().map(eap -> eap.entity).collect(Collectors.toList()))
-                    );
+            loadGroupsInParallel(new ArrayList<>(groupsByStore.values()));
+        }
+
+        // references are assigned in the calling thread after all stores are loaded
+        for (ReferenceGroup group : groups.values()) {
+            group.assignLoadedEntities();
+        }
+    }
+
+    private void loadGroupsInParallel(List<List<ReferenceGroup>> groupsByStore) {
+        // groups of the first store are loaded in the calling thread, so it does not wait idle for the pool
+        List<Future<?>> futures = new ArrayList<>(groupsByStore.size() - 1);
+        try {
+            for (List<ReferenceGroup> storeGroups : groupsByStore.subList(1, groupsByStore.size())) {
+                futures.add(executor.submit(() -> {
+                    storeGroups.forEach(this::loadGroup);
+                    return null;
+                }));
+            }
+            groupsByStore.get(0).forEach(this::loadGroup);
+
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(properties.getCrossDataStoreReferenceLoadingTimeoutSec());
+            for (Future<?> future : futures) {
+                future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading cross-datastore references", e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timeout while loading cross-datastore references", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException("Error loading cross-datastore references", cause);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
         }
     }
 
@@ -144,13 +199,12 @@ public class CrossDataStoreReferenceLoader {
                 public void visit(Entity entity, MetaProperty property) {
                     List<CrossDataStoreProperty> crossProperties = crossPropertiesMap.get(entity.getClass());
                     if (crossProperties != null) {
-                        crossProperties.stream()
-                                .filter(ap -> ap.property == property)
-                                .forEach(ap -> {
-                                    if (EntityValues.getValue(entity, ap.relatedPropertyName) != null) {
-                                        resultSet.add(entity);
-                                    }
-                                });
+                        for (CrossDataStoreProperty crossProperty : crossProperties) {
+                            if (crossProperty.property == property
+                                    && EntityValues.getValue(entity, crossProperty.relatedPropertyName) != null) {
+                                resultSet.add(entity);
+                            }
+                        }
                     }
                 }
 
@@ -163,50 +217,36 @@ public class CrossDataStoreReferenceLoader {
         return resultSet;
     }
 
-    private void loadOne(EntityCrossDataStoreProperty entityCrossDataStoreProperty) {
-        Entity entity = entityCrossDataStoreProperty.entity;
-        CrossDataStoreProperty aProp = entityCrossDataStoreProperty.crossProp;
-        Object id = EntityValues.getValue(entity, aProp.relatedPropertyName);
-
-        LoadContext<Entity> loadContext = new LoadContext<>(aProp.property.getRange().asClass());
-        loadContext.setId(id);
-        if (aProp.fetchPlanProperty.getFetchPlan() != null)
-            loadContext.setFetchPlan(aProp.fetchPlanProperty.getFetchPlan());
-        loadContext.setJoinTransaction(joinTransaction);
-        Entity relatedEntity = dataManager.load(loadContext);
-        EntityValues.setValue(entity, aProp.property.getName(), relatedEntity);
-    }
+    private void loadGroup(ReferenceGroup group) {
+        List<Object> idList = new ArrayList<>(group.getIds());
+        if (idList.size() == 1) {
+            LoadContext<Entity> loadContext = new LoadContext<>(group.metaClass);
+            loadContext.setId(idList.get(0));
+            if (group.fetchPlan != null)
+                loadContext.setFetchPlan(group.fetchPlan);
+            loadContext.setJoinTransaction(joinTransaction);
+            Entity loadedEntity = dataManager.load(loadContext);
+            if (loadedEntity != null) {
+                group.loadedEntities.add(loadedEntity);
+            }
+            return;
+        }
 
-    private void loadMany(CrossDataStoreProperty crossDataStoreProperty, List<Entity> entities) {
-        int offset = 0, limit = properties.getCrossDataStoreReferenceLoadingBatchSize();
-        while (true) {
-            int end = offset + limit;
-            List<Entity> batch = entities.subList(offset, Math.min(end, entities.size()));
-            loadBatch(crossDataStoreProperty, batch);
-            if (end >= entities.size())
-                break;
-            else
-                offset += limit;
+        int batchSize = properties.getCrossDataStoreReferenceLoadingBatchSize();
+        for (int offset = 0; offset < idList.size(); offset += batchSize) {
+            List<Object> batch = idList.subList(offset, Math.min(offset + batchSize, idList.size()));
+            group.loadedEntities.addAll(loadBatch(group, batch));
         }
     }
 
-    private void loadBatch(CrossDataStoreProperty crossDataStoreProperty, List<Entity> entities) {
-        List<Object> idList = entities.stream()
-                .map(e -> EntityValues.getValue(e, crossDataStoreProperty.relatedPropertyName))
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toList());
-
-        if (idList.isEmpty())
-            return;
-
-        MetaClass cdsrMetaClass = crossDataStoreProperty.property.getRange().asClass();
+    private List<Entity> loadBatch(ReferenceGroup group, List<Object> idList) {
+        MetaClass cdsrMetaClass = group.metaClass;
         LoadContext<Entity> loadContext = new LoadContext<>(cdsrMetaClass);
 
         MetaProperty primaryKeyProperty = metadataTools.getPrimaryKeyProperty(cdsrMetaClass);
         if (primaryKeyProperty == null || !primaryKeyProperty.getRange().isClass()) {
             String queryString = String.format(
-                    "select e from %s e where e.%s in :idList", cdsrMetaClass, crossDataStoreProperty.primaryKeyName);
+                    "select e from %s e where e.%s in :idList", cdsrMetaClass, group.primaryKeyName);
             loadContext.setQuery(new LoadContext.Query(queryString).setParameter("idList", idList));
         } else {
             // composite key entity
@@ -216,7 +256,7 @@ public class CrossDataStoreReferenceLoader {
             MetaClass idMetaClass = primaryKeyProperty.getRange().asClass();
             for (Iterator<MetaProperty> it = idMetaClass.getProperties().iterator(); it.hasNext(); ) {
                 MetaProperty property = it.next();
-                sb.append("e.").append(crossDataStoreProperty.primaryKeyName).append(".").append(property.getName());
+                sb.append("e.").append(group.primaryKeyName).append(".").append(property.getName());
                 sb.append(" in :list_").append(property.getName());
                 if (it.hasNext())
                     sb.append(" and ");
@@ -231,36 +271,50 @@ public class CrossDataStoreReferenceLoader {
             loadContext.setQuery(query);
         }
 
-        loadContext.setFetchPlan(crossDataStoreProperty.fetchPlanProperty.getFetchPlan());
+        loadContext.setFetchPlan(group.fetchPlan);
         loadContext.setJoinTransaction(joinTransaction);
 
-        List<Entity> loadedEntities = dataManager.loadList(loadContext);
+        return dataManager.loadList(loadContext);
+    }
 
-        for (Entity entity : entities) {
-            Object relatedPropertyValue = EntityValues.getValue(entity, crossDataStoreProperty.relatedPropertyName);
-            loadedEntities.stream()
-                    .filter(e -> {
-                        Object id = EntityValues.getId(e) instanceof IdProxy ? ((IdProxy) EntityValues.getId(e)).getNN() : EntityValues.getId(e);
-                        return id.equals(relatedPropertyValue);
-                    })
-                    .findAny()
-                    .ifPresent(e -> EntityValues.setValue(entity, crossDataStoreProperty.property.getName(), e)
-                    );
+    /**
+     * Identifies references which can be loaded by the same query: the same referenced entity type with the same
+     * fetch plan instance.
+     */
+    private static class ReferenceGroupKey {
+
+        private final MetaClass metaClass;
+        private final FetchPlan fetchPlan;
+
+        private ReferenceGroupKey(CrossDataStoreProperty crossProperty) {
+            this.metaClass = crossProperty.property.getRange().asClass();
+            this.fetchPlan = crossProperty.fetchPlanProperty.getFetchPlan();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ReferenceGroupKey that = (ReferenceGroupKey) o;
+            return metaClass.equals(that.metaClass) && fetchPlan == that.fetchPlan;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * metaClass.hashCode() + System.identityHashCode(fetchPlan);
         }
     }
 
-    private static class EntityCrossDataStoreProperty {
+    private static class EntityReference {
 
         private final Entity entity;
-        public final CrossDataStoreProperty crossProp;
+        private final CrossDataStoreProperty crossProp;
+        private final Object id;
 
-        public EntityCrossDataStoreProperty(Entity entity, CrossDataStoreProperty crossDataStoreProperty) {
+        private EntityReference(Entity entity, CrossDataStoreProperty crossProp, Object id) {
             this.entity = entity;
-            this.crossProp = crossDataStoreProperty;
-        }
-
-        public CrossDataStoreProperty getCrossProp() {
-            return crossProp;
+            this.crossProp = crossProp;
+            this.id = id;
         }
 
         @Override
@@ -269,6 +323,47 @@ public class CrossDataStoreReferenceLoader {
         }
     }
 
+    private class ReferenceGroup {
+
+        private final MetaClass metaClass;
+        private final FetchPlan fetchPlan;
+        private final String primaryKeyName;
+        private final List<EntityReference> references = new ArrayList<>();
+        private final List<Entity> loadedEntities = new ArrayList<>();
+
+        private ReferenceGroup(CrossDataStoreProperty crossProperty) {
+            this.metaClass = crossProperty.property.getRange().asClass();
+            this.fetchPlan = crossProperty.fetchPlanProperty.getFetchPlan();
+            this.primaryKeyName = crossProperty.primaryKeyName;
+        }
+
+        private void add(Entity entity, CrossDataStoreProperty crossProperty, Object id) {
+            references.add(new EntityReference(entity, crossProperty, id));
+        }
+
+        private Collection<Object> getIds() {
+            Set<Object> ids = new LinkedHashSet<>();
+            for (EntityReference reference : references) {
+                ids.add(reference.id);
+            }
+            return ids;
+        }
+
+        private void assignLoadedEntities() {
+            Map<Object, Entity> entitiesById = new HashMap<>(loadedEntities.size() * 2);
+            for (Entity loadedEntity : loadedEntities) {
+                Object id = EntityValues.getId(loadedEntity);
+                entitiesById.put(id instanceof IdProxy ? ((IdProxy) id).getNN() : id, loadedEntity);
+            }
+            for (EntityReference reference : references) {
+                Entity loadedEntity = entitiesById.get(reference.id);
+                if (loadedEntity != null) {
+                    EntityValues.setValue(reference.entity, reference.crossProp.property.getName(), loadedEntity);
+                }
+            }
+        }
+    }
+
     public class CrossDataStoreProperty {
 
         public final MetaProperty property;
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core.impl;
+
+import io.jmix.core.CoreProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * INTERNAL.
+ * Thread pool used by {@link CrossDataStoreReferenceLoader} to load references from different data stores
+ * in parallel. Tasks are executed with the security context of the submitting thread.
+ */
+@Component(CrossDataStoreReferenceLoadingExecutor.NAME)
+public class CrossDataStoreReferenceLoadingExecutor {
+
+    public static final String NAME = "core_CrossDataStoreReferenceLoadingExecutor";
+
+    @Autowired
+    protected CoreProperties properties;
+
+    protected volatile ExecutorService executorService;
+
+    protected final ThreadLocal<Boolean> executingTask = new ThreadLocal<>();
+
+    /**
+     * @return true if tasks can be executed in parallel. Returns false in a thread executing a task of this executor,
+     * because waiting for nested tasks submitted to the same pool can exhaust it.
+     */
+    public boolean isParallel() {
+        return properties.getCrossDataStoreReferenceLoadingThreads() > 1 && !Boolean.TRUE.equals(executingTask.get());
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        Callable<T> markedTask = () -> {
+            executingTask.set(true);
+            try {
+                return task.call();
+            } finally {
+                executingTask.remove();
+            }
+        };
+        return getExecutorService().submit(new DelegatingSecurityContextCallable<>(markedTask));
+    }
+
+    protected ExecutorService getExecutorService() {
+        if (executorService == null) {
+            synchronized (this) {
+                if (executorService == null) {
+                    AtomicInteger threadNumber = new AtomicInteger();
+                    int threads = properties.getCrossDataStoreReferenceLoadingThreads();
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                            runnable -> {
+                                Thread thread = new Thread(runnable,
+                                        "CrossDataStoreReferenceLoader-" + threadNumber.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    executor.allowCoreThreadTimeOut(true);
+                    executorService = executor;
+                }
+            }
+        }
+        return executorService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.jmix.core.impl;
 
+import com.google.common.collect.Iterators;
 import io.jmix.core.*;
 import io.jmix.core.entity.*;
 import io.jmix.core.metamodel.model.MetaClass;
@@ -27,12 +28,19 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component(DataManager.NAME)
 public class DataManagerImpl implements DataManager {
 
     private static final Logger log = LoggerFactory.getLogger(DataManagerImpl.class);
 
+    /**
+     * Number of streamed instances for which cross-datastore references are loaded at once.
+     */
+    protected static final int STREAM_REFERENCES_CHUNK_SIZE = 1000;
+
     @Autowired
     protected Metadata metadata;
 
@@ -72,6 +80,23 @@ public class DataManagerImpl implements DataManager {
         return entities;
     }
 
+    @Override
+    public <E extends Entity> Stream<E> loadStream(LoadContext<E> context) {
+        MetaClass metaClass = metadata.getClass(context.getMetaClass());
+        DataStore storage = dataStoreFactory.get(getStoreName(metaClass));
+        Stream<E> stream = storage.loadStream(context);
+        if (stores.getAdditional().isEmpty() || context.getFetchPlan() == null)
+            return stream;
+
+        Iterator<List<E>> chunks = Iterators.partition(stream.iterator(), STREAM_REFERENCES_CHUNK_SIZE);
+        Iterator<E> iterator = Iterators.concat(Iterators.transform(chunks, chunk -> {
+            readCrossDataStoreReferences(chunk, context.getFetchPlan(), metaClass, context.isJoinTransaction());
+            return chunk.iterator();
+        }));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(stream::close);
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         MetaClass metaClass = metadata.getClass(context.getMetaClass());
@@ -18,6 +18,7 @@ package io.jmix.core.impl.importexport;
 
 import io.jmix.core.*;
 import io.jmix.core.entity.EntityValues;
+import io.jmix.core.entity.IdProxy;
 import io.jmix.core.entity.SecurityState;
 import io.jmix.core.entity.SoftDelete;
 import io.jmix.core.metamodel.model.MetaClass;
@@ -90,6 +91,9 @@ public class EntityImportExportImpl implements EntityImportExport {
     @Autowired
     protected EntityStates entityStates;
 
+    @Autowired
+    protected CoreProperties coreProperties;
+
     @Override
     public byte[] exportEntitiesToZIP(Collection<? extends Entity> entities, FetchPlan view) {
         return exportEntitiesToZIP(reloadEntities(entities, view));
@@ -203,6 +207,12 @@ public class EntityImportExportImpl implements EntityImportExport {
 
     @Override
     public Collection<Entity> importEntities(Collection<? extends Entity> entities, EntityImportView importView, boolean validate, boolean optimisticLocking) {
+        return importEntities(Collections.singletonMap(importView, entities), validate, optimisticLocking);
+    }
+
+    @Override
+    public Collection<Entity> importEntities(Map<EntityImportView, ? extends Collection<? extends Entity>> entitiesByView,
+                                             boolean validate, boolean optimisticLocking) {
         List<ReferenceInfo> referenceInfoList = new ArrayList<>();
         SaveContext saveContext = new SaveContext();
         saveContext.setSoftDeletion(false);
@@ -212,18 +222,17 @@ public class EntityImportExportImpl implements EntityImportExport {
         //
         //1. entities that should be persisted are processed first, fields that should be references to existing entities
         //are stored in the referenceInfoList variable
-        for (Entity srcEntity : entities) {
+        for (Map.Entry<EntityImportView, ? extends Collection<? extends Entity>> entry : entitiesByView.entrySet()) {
+            EntityImportView importView = entry.getKey();
             FetchPlan regularView = buildViewFromImportView(importView);
-            //set softDeletion to false because we can import deleted entity, so we'll restore it and update
-            LoadContext<? extends Entity> ctx = new LoadContext(srcEntity.getClass())
-                    .setSoftDeletion(false)
-                    .setFetchPlan(regularView)
-                    .setLoadDynamicAttributes(true)
-                    .setId(EntityValues.getId(srcEntity))
-                    .setAuthorizationRequired(true);
-            Entity dstEntity = dataManager.load(ctx);
+            Map<Object, Entity> existingEntities = loadExistingEntities(entry.getValue(), regularView);
+
+            for (Entity srcEntity : entry.getValue()) {
+                Object id = EntityValues.getId(srcEntity);
+                Entity dstEntity = id == null ? null : existingEntities.get(id);
 
-            importEntity(srcEntity, dstEntity, importView, regularView, saveContext, referenceInfoList, optimisticLocking);
+                importEntity(srcEntity, dstEntity, importView, regularView, saveContext, referenceInfoList, optimisticLocking);
+            }
         }
 
         //2. references to existing entities are processed
@@ -267,6 +276,43 @@ public class EntityImportExportImpl implements EntityImportExport {
         return dataManager.save(saveContext);
     }
 
+    /**
+     * Loads existing instances of the imported entities with the given fetch plan. Instances of each entity class
+     * are loaded by lists of ids, in batches of {@link CoreProperties#getEntityImportLoadBatchSize()}.
+     *
+     * @return loaded instances by their ids
+     */
+    protected Map<Object, Entity> loadExistingEntities(Collection<? extends Entity> entities, FetchPlan regularView) {
+        Map<Class<?>, List<Object>> idsByClass = new LinkedHashMap<>();
+        for (Entity entity : entities) {
+            Object id = EntityValues.getId(entity);
+            // identity id of a new instance is not assigned yet
+            if (id != null && !(id instanceof IdProxy && ((IdProxy) id).get() == null)) {
+                idsByClass.computeIfAbsent(entity.getClass(), aClass -> new ArrayList<>()).add(id);
+            }
+        }
+
+        Map<Object, Entity> result = new HashMap<>();
+        int batchSize = Math.max(coreProperties.getEntityImportLoadBatchSize(), 1);
+        for (Map.Entry<Class<?>, List<Object>> entry : idsByClass.entrySet()) {
+            List<Object> ids = entry.getValue();
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                //set softDeletion to false because we can import deleted entity, so we'll restore it and update
+                @SuppressWarnings("unchecked")
+                LoadContext<? extends Entity> ctx = new LoadContext(entry.getKey())
+                        .setSoftDeletion(false)
+                        .setFetchPlan(regularView)
+                        .setLoadDynamicAttributes(true)
+                        .setIds(ids.subList(i, Math.min(i + batchSize, ids.size())))
+                        .setAuthorizationRequired(true);
+                for (Entity loaded : dataManager.loadList(ctx)) {
+                    result.put(EntityValues.getId(loaded), loaded);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Method imports the entity.
      *
@@ -25,11 +25,15 @@ import javax.annotation.concurrent.NotThreadSafe;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @NotThreadSafe
 public class DomainModel {
+    private static final AtomicLong versionCounter = new AtomicLong();
+
     protected Map<String, JpqlEntityModel> entities = new HashMap<>();
+    protected volatile long version = versionCounter.incrementAndGet();
     protected ExtendedEntities extendedEntities;
     protected Metadata metadata;
 
@@ -50,6 +54,14 @@ public class DomainModel {
             throw new NullPointerException("No entity passed");
 
         entities.put(entity.getName(), entity);
+        version = versionCounter.incrementAndGet();
+    }
+
+    /**
+     * @return number which is unique among all model instances and is changed when the model is modified
+     */
+    public long getVersion() {
+        return version;
     }
 
     public List<JpqlEntityModel> findEntitiesStartingWith(String lastWord) {
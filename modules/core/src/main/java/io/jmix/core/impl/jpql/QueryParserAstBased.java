@@ -24,6 +24,7 @@ import io.jmix.core.impl.jpql.tree.PathNode;
 import io.jmix.core.impl.jpql.tree.SimpleConditionNode;
 import org.antlr.runtime.tree.TreeVisitor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -44,6 +45,9 @@ public class QueryParserAstBased implements QueryParser {
     protected QueryTree queryTree;
     protected QueryTreeAnalyzer queryAnalyzer;
 
+    @Autowired(required = false)
+    protected QueryTreeCache queryTreeCache;
+
     protected static class EntityNameAndPath {
         String entityName;
         String entityPath;
@@ -68,7 +72,7 @@ public class QueryParserAstBased implements QueryParser {
     protected QueryTree getTree() {
         if (queryTree == null) {
             try {
-                queryTree = new QueryTree(model, query);
+                queryTree = queryTreeCache != null ? queryTreeCache.get(model, query) : new QueryTree(model, query);
             } catch (JPA2RecognitionException e) {
                 throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
             }
@@ -209,8 +213,9 @@ public class QueryParserAstBased implements QueryParser {
         return getTree().getAstSelectedNodes()
                 .map(node -> {
                     TreeToQuery toQuery = new TreeToQuery();
-                    node.setSkipSeparator(true);
-                    new TreeVisitor().visit(node, toQuery);
+                    // the tree can be shared through QueryTreeCache, so a detached copy is rendered
+                    // instead of setting skipSeparator on the node
+                    new TreeVisitor().visit(QueryTree.copyNode(node), toQuery);
                     return toQuery.getQueryString();
                 })
                 .collect(Collectors.toList());
@@ -56,6 +56,22 @@ public class QueryTree {
         new TreeVisitor().visit(tree, idVarSelector);
     }
 
+    protected QueryTree(DomainModel model, String queryString, CommonTree tree) {
+        this.model = model;
+        this.queryString = queryString;
+        this.tree = tree;
+
+        this.idVarSelector = new IdVarSelector(model);
+        new TreeVisitor().visit(tree, idVarSelector);
+    }
+
+    /**
+     * Creates a copy of this tree which can be modified independently. Copying is much cheaper than parsing.
+     */
+    public QueryTree copy() {
+        return new QueryTree(model, queryString, copyNode(tree));
+    }
+
     public DomainModel getModel() {
         return model;
     }
@@ -154,6 +170,21 @@ public class QueryTree {
         return visitor;
     }
 
+    /**
+     * Creates a deep copy of the given node. The copy has no parent.
+     */
+    public static CommonTree copyNode(CommonTree node) {
+        // dupNode() of custom nodes copies children only one level deep, so children are copied here
+        CommonTree copy = (CommonTree) node.dupNode();
+        for (int i = copy.getChildCount() - 1; i >= 0; i--) {
+            copy.deleteChild(i);
+        }
+        for (int i = 0; i < node.getChildCount(); i++) {
+            copy.addChild(copyNode((CommonTree) node.getChild(i)));
+        }
+        return copy;
+    }
+
     @SuppressWarnings("unchecked")
     protected <T> Stream<T> generateChildrenByClass(CommonTree commonTree, Class<T> clazz) {
         return commonTree.getChildren().stream()
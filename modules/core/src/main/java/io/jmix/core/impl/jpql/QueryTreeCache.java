@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.impl.jpql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jmix.core.CoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import java.util.Objects;
+
+/**
+ * Keeps parsed JPQL queries to avoid running the parser on the same query strings again.
+ * <p>
+ * Cached trees are shared, so they must not be modified. {@link QueryParserAstBased} only reads the tree,
+ * {@link io.jmix.core.impl.jpql.transform.QueryTransformerAstBased} works on a {@link QueryTree#copy()}.
+ */
+@Component(QueryTreeCache.NAME)
+public class QueryTreeCache {
+
+    public static final String NAME = "core_QueryTreeCache";
+
+    @Autowired
+    protected CoreProperties properties;
+
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
+    protected Cache<Key, QueryTree> cache;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getJpqlParseCacheSize() > 0) {
+            cache = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getJpqlParseCacheSize())
+                    .recordStats()
+                    .build();
+            GuavaCacheMetrics.monitor(meterRegistry, cache, "jmix.core.jpqlParseCache");
+        }
+    }
+
+    /**
+     * Returns a shared parsed tree of the given query. The returned tree must not be modified.
+     *
+     * @throws JPA2RecognitionException if the query cannot be parsed
+     */
+    public QueryTree get(DomainModel model, String query) {
+        if (cache == null) {
+            return new QueryTree(model, query);
+        }
+        Key key = new Key(model.getVersion(), query);
+        QueryTree queryTree = cache.getIfPresent(key);
+        if (queryTree == null || queryTree.getModel() != model) {
+            queryTree = new QueryTree(model, query);
+            cache.put(key, queryTree);
+        }
+        return queryTree;
+    }
+
+    /**
+     * Returns a parsed tree of the given query which can be modified.
+     *
+     * @throws JPA2RecognitionException if the query cannot be parsed
+     */
+    public QueryTree getCopy(DomainModel model, String query) {
+        if (cache == null) {
+            return new QueryTree(model, query);
+        }
+        return get(model, query).copy();
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    protected static class Key {
+        protected final long modelVersion;
+        protected final String query;
+
+        protected Key(long modelVersion, String query) {
+            this.modelVersion = modelVersion;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return modelVersion == key.modelVersion && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modelVersion, query);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.tree.CommonTree;
 import org.antlr.runtime.tree.TreeVisitor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -46,6 +47,9 @@ public class QueryTransformerAstBased implements QueryTransformer {
     protected QueryTreeAnalyzer queryAnalyzer;
     protected Set<String> addedParams = new HashSet<>();
 
+    @Autowired(required = false)
+    protected QueryTreeCache queryTreeCache;
+
     public QueryTransformerAstBased(DomainModel model, String query) {
         this.model = model;
         this.query = query;
@@ -68,7 +72,7 @@ public class QueryTransformerAstBased implements QueryTransformer {
     protected QueryTree getTree() {
         if (queryTree == null) {
             try {
-                queryTree = new QueryTree(model, query);
+                queryTree = queryTreeCache != null ? queryTreeCache.getCopy(model, query) : new QueryTree(model, query);
             } catch (JPA2RecognitionException e) {
                 throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
             }
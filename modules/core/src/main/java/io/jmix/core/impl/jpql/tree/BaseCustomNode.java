@@ -52,6 +52,9 @@ public class BaseCustomNode extends CommonTree implements TreeToQueryCapable {
     }
 
     protected void dupChildren(CommonTree result) {
+        if (children == null) {
+            return;
+        }
         for (Object child : children) {
             CommonTree t = (CommonTree) child;
             Tree copy = t.dupNode();
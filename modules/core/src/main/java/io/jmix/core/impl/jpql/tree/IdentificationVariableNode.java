@@ -138,6 +138,7 @@ public class IdentificationVariableNode extends BaseCustomNode {
     @Override
     public Tree dupNode() {
         IdentificationVariableNode result = new IdentificationVariableNode(token, variableName);
+        result.effectiveEntityName = effectiveEntityName;
         dupChildren(result);
         return result;
     }
@@ -20,6 +20,7 @@ import io.jmix.core.impl.jpql.ErrorRec;
 import io.jmix.core.impl.jpql.QueryBuilder;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -28,6 +29,13 @@ public class UpdateSetNode extends BaseCustomNode {
         super(t);
     }
 
+    @Override
+    public Tree dupNode() {
+        UpdateSetNode result = new UpdateSetNode(token);
+        dupChildren(result);
+        return result;
+    }
+
     @Override
     public CommonTree treeToQueryPre(QueryBuilder sb, List<ErrorRec> invalidNodes) {
         sb.appendString(" ");
@@ -18,6 +18,8 @@
 package io.jmix.core.impl.serialization;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import com.google.gson.*;
@@ -33,20 +35,26 @@ import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.core.metamodel.model.Range;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import javax.validation.constraints.NotNull;
+import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 @Component(EntitySerialization.NAME)
 public class EntitySerializationImpl implements EntitySerialization {
@@ -68,9 +76,46 @@ public class EntitySerializationImpl implements EntitySerialization {
     @Autowired
     protected EntityStates entityStates;
 
+    @Autowired
+    protected CoreProperties coreProperties;
+
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
     protected ThreadLocal<EntitySerializationContext> context =
             ThreadLocal.withInitial(EntitySerializationContext::new);
 
+    /**
+     * Configured Gson instances are immutable and thread-safe, so they are shared by all calls with the same options
+     * and entity or named fetch plan. Gson instances for unnamed fetch plans are not cached, because such plans are
+     * usually created for a single call.
+     */
+    protected Cache<GsonKey, SerializationGson> serializationGsonCache;
+    protected Cache<GsonKey, Gson> deserializationGsonCache;
+
+    /**
+     * Contains only entities registered in metadata, so ad-hoc meta-classes like {@code KeyValueMetaClass}
+     * are not retained.
+     */
+    protected Map<MetaClass, MetaClassInfo> metaClassInfos = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    protected void init() {
+        if (coreProperties.getEntitySerializationCacheSize() > 0) {
+            serializationGsonCache = CacheBuilder.newBuilder()
+                    .maximumSize(coreProperties.getEntitySerializationCacheSize())
+                    .recordStats()
+                    .build();
+            GuavaCacheMetrics.monitor(meterRegistry, serializationGsonCache, "jmix.core.entitySerializationCache");
+
+            deserializationGsonCache = CacheBuilder.newBuilder()
+                    .maximumSize(coreProperties.getEntitySerializationCacheSize())
+                    .recordStats()
+                    .build();
+            GuavaCacheMetrics.monitor(meterRegistry, deserializationGsonCache, "jmix.core.entityDeserializationCache");
+        }
+    }
+
     /**
      * Class is used for storing a collection of entities already processed during the serialization.
      */
@@ -92,7 +137,7 @@ public class EntitySerializationImpl implements EntitySerialization {
                          @Nullable FetchPlan view,
                          EntitySerializationOption... options) {
         context.remove();
-        return createGsonForSerialization(view, options).toJson(entity);
+        return getGsonForSerialization(view, options).toJson(entity);
     }
 
     @Override
@@ -105,13 +150,31 @@ public class EntitySerializationImpl implements EntitySerialization {
                          @Nullable FetchPlan view,
                          EntitySerializationOption... options) {
         context.remove();
-        return createGsonForSerialization(view, options).toJson(entities);
+        return getGsonForSerialization(view, options).toJson(entities);
+    }
+
+    @Override
+    public void toJson(Entity entity,
+                       @Nullable FetchPlan fetchPlan,
+                       Writer writer,
+                       EntitySerializationOption... options) {
+        context.remove();
+        getGsonForSerialization(fetchPlan, options).toJson(entity, writer);
+    }
+
+    @Override
+    public void toJson(Collection<? extends Entity> entities,
+                       @Nullable FetchPlan fetchPlan,
+                       Writer writer,
+                       EntitySerializationOption... options) {
+        context.remove();
+        getGsonForSerialization(fetchPlan, options).toJson(entities, writer);
     }
 
     @Override
     public String objectToJson(Object object, EntitySerializationOption... options) {
         context.remove();
-        return createGsonForSerialization(null, options).toJson(object);
+        return getGsonForSerialization(null, options).toJson(object);
     }
 
     @SuppressWarnings("unchecked")
@@ -120,7 +183,7 @@ public class EntitySerializationImpl implements EntitySerialization {
                                                @Nullable MetaClass metaClass,
                                                EntitySerializationOption... options) {
         context.remove();
-        return (T) createGsonForDeserialization(metaClass, options).fromJson(json, Entity.class);
+        return (T) getGsonForDeserialization(metaClass, options).fromJson(json, Entity.class);
     }
 
     @Override
@@ -130,19 +193,74 @@ public class EntitySerializationImpl implements EntitySerialization {
         context.remove();
         Type collectionType = new TypeToken<Collection<Entity>>() {
         }.getType();
-        return createGsonForDeserialization(metaClass, options).fromJson(json, collectionType);
+        return getGsonForDeserialization(metaClass, options).fromJson(json, collectionType);
     }
 
     @Override
     public <T> T objectFromJson(String json, Class<T> clazz, EntitySerializationOption... options) {
         context.remove();
-        return createGsonForDeserialization(null, options).fromJson(json, clazz);
+        return getGsonForDeserialization(null, options).fromJson(json, clazz);
     }
 
     @Override
     public <T> T objectFromJson(String json, Type type, EntitySerializationOption... options) {
         context.remove();
-        return createGsonForDeserialization(null, options).fromJson(json, type);
+        return getGsonForDeserialization(null, options).fromJson(json, type);
+    }
+
+    protected Gson getGsonForSerialization(@Nullable FetchPlan view, EntitySerializationOption... options) {
+        if (serializationGsonCache == null || (view != null && Strings.isNullOrEmpty(view.getName()))) {
+            return createGsonForSerialization(view, options);
+        }
+        MetaClass metaClass = view == null ? null : metadata.getSession().findClass(view.getEntityClass());
+        if (view != null && metaClass == null) {
+            return createGsonForSerialization(view, options);
+        }
+        GsonKey key = new GsonKey(metaClass, view == null ? null : view.getName(), options);
+        SerializationGson serializationGson;
+        try {
+            serializationGson = serializationGsonCache.get(key, () -> {
+                // the plan is copied because the caller can change it after serialization
+                FetchPlan fetchPlan = FetchPlan.copyNullable(view);
+                return new SerializationGson(fetchPlan, createGsonForSerialization(fetchPlan, options));
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to create Gson for serialization", e.getCause());
+        }
+        // named plans are not immutable, so a plan with the same name can have different properties
+        if (!isSameFetchPlan(serializationGson.fetchPlan, view)) {
+            return createGsonForSerialization(view, options);
+        }
+        return serializationGson.gson;
+    }
+
+    protected Gson getGsonForDeserialization(@Nullable MetaClass metaClass, EntitySerializationOption... options) {
+        if (deserializationGsonCache == null || (metaClass != null && !isRegistered(metaClass))) {
+            return createGsonForDeserialization(metaClass, options);
+        }
+        GsonKey key = new GsonKey(metaClass, null, options);
+        try {
+            return deserializationGsonCache.get(key, () -> createGsonForDeserialization(metaClass, options));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to create Gson for deserialization", e.getCause());
+        }
+    }
+
+    protected boolean isSameFetchPlan(@Nullable FetchPlan plan1, @Nullable FetchPlan plan2) {
+        if (plan1 == plan2)
+            return true;
+        if (plan1 == null || plan2 == null
+                || plan1.getEntityClass() != plan2.getEntityClass()
+                || plan1.getProperties().size() != plan2.getProperties().size())
+            return false;
+        for (FetchPlanProperty property1 : plan1.getProperties()) {
+            FetchPlanProperty property2 = plan2.getProperty(property1.getName());
+            if (property2 == null
+                    || property1.getFetchMode() != property2.getFetchMode()
+                    || !isSameFetchPlan(property1.getFetchPlan(), property2.getFetchPlan()))
+                return false;
+        }
+        return true;
     }
 
     protected Gson createGsonForSerialization(@Nullable FetchPlan view, EntitySerializationOption... options) {
@@ -167,6 +285,43 @@ public class EntitySerializationImpl implements EntitySerialization {
                 .create();
     }
 
+    protected MetaClassInfo getMetaClassInfo(MetaClass metaClass) {
+        MetaClassInfo metaClassInfo = metaClassInfos.get(metaClass);
+        if (metaClassInfo != null)
+            return metaClassInfo;
+        if (!isRegistered(metaClass))
+            return createMetaClassInfo(metaClass);
+        return metaClassInfos.computeIfAbsent(metaClass, this::createMetaClassInfo);
+    }
+
+    protected boolean isRegistered(MetaClass metaClass) {
+        return metadata.getSession().findClass(metaClass.getName()) == metaClass;
+    }
+
+    protected MetaClassInfo createMetaClassInfo(MetaClass metaClass) {
+        boolean embeddable = metadataTools.isEmbeddable(metaClass);
+        MetaProperty primaryKeyProperty = null;
+        boolean compositePrimaryKey = false;
+        Datatype idDatatype = null;
+        if (!embeddable) {
+            primaryKeyProperty = metadataTools.getPrimaryKeyProperty(metaClass);
+            if (primaryKeyProperty == null) {
+                primaryKeyProperty = metaClass.getProperty("id");
+            }
+            compositePrimaryKey = metadataTools.hasCompositePrimaryKey(metaClass);
+            if (primaryKeyProperty != null && !compositePrimaryKey) {
+                idDatatype = Datatypes.getNN(primaryKeyProperty.getJavaType());
+            }
+        }
+
+        List<PropertyInfo> properties = new ArrayList<>(metaClass.getProperties().size());
+        for (MetaProperty metaProperty : metaClass.getProperties()) {
+            properties.add(new PropertyInfo(metaProperty, metadataTools.isPersistent(metaProperty)));
+        }
+        return new MetaClassInfo(embeddable, primaryKeyProperty, compositePrimaryKey, idDatatype,
+                Collections.unmodifiableList(properties));
+    }
+
     @Nullable
     protected Field getField(@Nullable Class clazz, String fieldName) {
         try {
@@ -214,7 +369,8 @@ public class EntitySerializationImpl implements EntitySerialization {
         protected JsonObject serializeEntity(Entity entity, @Nullable FetchPlan view, Set<Entity> cyclicReferences) {
             JsonObject jsonObject = new JsonObject();
             MetaClass metaClass = metadata.getClass(entity.getClass());
-            if (!metadataTools.isEmbeddable(metaClass)) {
+            MetaClassInfo metaClassInfo = getMetaClassInfo(metaClass);
+            if (!metaClassInfo.embeddable) {
                 jsonObject.addProperty(ENTITY_NAME_PROP, metaClass.getName());
                 if (serializeInstanceName) {
                     String instanceName = null;
@@ -225,21 +381,21 @@ public class EntitySerializationImpl implements EntitySerialization {
                     }
                     jsonObject.addProperty(INSTANCE_NAME_PROP, instanceName);
                 }
-                writeIdField(entity, jsonObject);
+                writeIdField(entity, jsonObject, metaClass, metaClassInfo);
                 if (compactRepeatedEntities) {
                     Table<Object, MetaClass, Entity> processedObjects = context.get().getProcessedEntities();
                     if (processedObjects.get(EntityValues.getId(entity), metaClass) == null) {
                         processedObjects.put(EntityValues.getId(entity), metaClass, entity);
-                        writeFields(entity, jsonObject, view, cyclicReferences);
+                        writeFields(entity, jsonObject, view, cyclicReferences, metaClass, metaClassInfo);
                     }
                 } else {
                     if (!cyclicReferences.contains(entity)) {
                         cyclicReferences.add(entity);
-                        writeFields(entity, jsonObject, view, cyclicReferences);
+                        writeFields(entity, jsonObject, view, cyclicReferences, metaClass, metaClassInfo);
                     }
                 }
             } else {
-                writeFields(entity, jsonObject, view, cyclicReferences);
+                writeFields(entity, jsonObject, view, cyclicReferences, metaClass, metaClassInfo);
             }
 
             if (coreRestProperties.isRequiresSecurityToken()) {
@@ -255,45 +411,42 @@ public class EntitySerializationImpl implements EntitySerialization {
             return jsonObject;
         }
 
-        protected void writeIdField(Entity entity, JsonObject jsonObject) {
-            MetaClass metaClass = metadata.getClass(entity.getClass());
-            MetaProperty primaryKeyProperty = metadataTools.getPrimaryKeyProperty(metaClass);
-            if (primaryKeyProperty == null) {
-                primaryKeyProperty = metaClass.getProperty("id");
-            }
-            if (primaryKeyProperty == null)
+        protected void writeIdField(Entity entity, JsonObject jsonObject, MetaClass metaClass, MetaClassInfo metaClassInfo) {
+            if (metaClassInfo.primaryKeyProperty == null)
                 throw new EntitySerializationException("Primary key property not found for entity " + metaClass);
-            if (metadataTools.hasCompositePrimaryKey(metaClass)) {
+            if (metaClassInfo.compositePrimaryKey) {
                 JsonObject serializedIdEntity = serializeEntity((Entity) EntityValues.getId(entity), null, Collections.emptySet());
                 jsonObject.add("id", serializedIdEntity);
             } else {
-                Datatype idDatatype = Datatypes.getNN(primaryKeyProperty.getJavaType());
-                jsonObject.addProperty("id", idDatatype.format(EntityValues.getId(entity)));
+                jsonObject.addProperty("id", metaClassInfo.idDatatype.format(EntityValues.getId(entity)));
             }
         }
 
-        protected boolean propertyWritingAllowed(MetaProperty metaProperty, Entity entity) {
-            return !"id".equals(metaProperty.getName()) &&
+        protected boolean propertyWritingAllowed(PropertyInfo property, Entity entity) {
+            MetaProperty metaProperty = property.metaProperty;
+            return !"id".equals(property.name) &&
                     //todo dynamic attribute
                     (
 //                    DynamicAttributesUtils.isDynamicAttribute(metaProperty) ||
 //                            (entity instanceof BaseGenericIdEntity) ||
-                            (!metadataTools.isPersistent(metaProperty) &&
+                            (!property.persistent &&
                                     (metaProperty.isReadOnly() && !doNotSerializeReadOnlyProperties || !metaProperty.isReadOnly())) ||
-                                    (metadataTools.isPersistent(metaProperty) && entityStates.isLoaded(entity, metaProperty.getName())));
+                                    (property.persistent && entityStates.isLoaded(entity, property.name)));
         }
 
-        protected void writeFields(Entity entity, JsonObject jsonObject, @Nullable FetchPlan view, Set<Entity> cyclicReferences) {
-            MetaClass metaClass = metadata.getClass(entity);
-            Collection<MetaProperty> properties = new ArrayList<>(metaClass.getProperties());
+        protected void writeFields(Entity entity, JsonObject jsonObject, @Nullable FetchPlan view, Set<Entity> cyclicReferences,
+                                   MetaClass metaClass, MetaClassInfo metaClassInfo) {
 //            if (entity instanceof BaseGenericIdEntity && ((BaseGenericIdEntity) entity).getDynamicAttributes() != null) {
 //                List<MetaProperty> dynamicProperties = dynamicAttributes.getAttributesForMetaClass(metaClass).stream()
 //                        .map(categoryAttribute -> DynamicAttributesUtils.getMetaPropertyPath(metaClass, categoryAttribute).getMetaProperty())
 //                        .collect(Collectors.toList());
 //                properties.addAll(dynamicProperties);
 //            }
-            for (MetaProperty metaProperty : properties) {
-                if (propertyWritingAllowed(metaProperty, entity)) {
+            int[] ordinals = EntityValues.getAttributeOrdinals(entity, metaClass);
+            int i = 0;
+            for (PropertyInfo property : metaClassInfo.properties) {
+                int ordinal = i < ordinals.length ? ordinals[i++] : -1;
+                if (propertyWritingAllowed(property, entity)) {
                     FetchPlanProperty viewProperty = null;
                     //todo dynamic attribute
 //                    if (!DynamicAttributesUtils.isDynamicAttribute(metaProperty)) {
@@ -308,52 +461,53 @@ public class EntitySerializationImpl implements EntitySerialization {
 //                        }
 //                    }
 
-                    Object fieldValue = EntityValues.getValue(entity, metaProperty.getName());
+                    Object fieldValue = ordinal >= 0
+                            ? EntityValues.getValue(entity, ordinal)
+                            : EntityValues.getValue(entity, property.name);
 
                     //always write nulls here. GSON will not serialize them to the result if
                     //EntitySerializationOptions.SERIALIZE_NULLS was not set.
                     if (fieldValue == null) {
-                        jsonObject.add(metaProperty.getName(), null);
+                        jsonObject.add(property.name, null);
                         continue;
                     }
 
-                    Range propertyRange = metaProperty.getRange();
+                    Range propertyRange = property.range;
                     if (propertyRange.isDatatype()) {
                         //todo dynamic attribute
 //                        if (isCollectionDynamicAttribute(metaProperty) && fieldValue instanceof Collection) {
 //                            jsonObject.add(metaProperty.getName(),
 //                                    serializeSimpleCollection((Collection) fieldValue, metaProperty));
 //                        } else {
-                        writeSimpleProperty(jsonObject, fieldValue, metaProperty);
+                        writeSimpleProperty(jsonObject, fieldValue, property);
 //                        }
                     } else if (propertyRange.isEnum()) {
-                        jsonObject.addProperty(metaProperty.getName(), fieldValue.toString());
+                        jsonObject.addProperty(property.name, fieldValue.toString());
                     } else if (propertyRange.isClass()) {
                         if (fieldValue instanceof Entity) {
                             JsonObject propertyJsonObject = serializeEntity((Entity) fieldValue,
                                     viewProperty != null ? viewProperty.getFetchPlan() : null,
                                     new HashSet<>(cyclicReferences));
-                            jsonObject.add(metaProperty.getName(), propertyJsonObject);
+                            jsonObject.add(property.name, propertyJsonObject);
                         } else if (fieldValue instanceof Collection) {
                             JsonArray jsonArray = serializeCollection((Collection) fieldValue,
                                     viewProperty != null ? viewProperty.getFetchPlan() : null,
                                     new HashSet<>(cyclicReferences));
-                            jsonObject.add(metaProperty.getName(), jsonArray);
+                            jsonObject.add(property.name, jsonArray);
                         }
                     }
                 }
             }
         }
 
-        protected void writeSimpleProperty(JsonObject jsonObject, @NotNull Object fieldValue, MetaProperty property) {
-            String propertyName = property.getName();
+        protected void writeSimpleProperty(JsonObject jsonObject, @NotNull Object fieldValue, PropertyInfo property) {
+            String propertyName = property.name;
             if (fieldValue instanceof Number) {
                 jsonObject.addProperty(propertyName, (Number) fieldValue);
             } else if (fieldValue instanceof Boolean) {
                 jsonObject.addProperty(propertyName, (Boolean) fieldValue);
             } else {
-                Datatype datatype = property.getRange().asDatatype();
-                jsonObject.addProperty(propertyName, datatype.format(fieldValue));
+                jsonObject.addProperty(propertyName, property.datatype.format(fieldValue));
             }
         }
 
@@ -672,6 +826,89 @@ public class EntitySerializationImpl implements EntitySerialization {
         }*/
     }
 
+    /**
+     * Key of a configured Gson instance. Fetch plans are identified by the entity and the name, the properties
+     * are compared when a cached instance is retrieved.
+     */
+    protected static class GsonKey {
+        protected final MetaClass metaClass;
+        protected final String fetchPlanName;
+        protected final Set<EntitySerializationOption> options;
+
+        protected GsonKey(@Nullable MetaClass metaClass, @Nullable String fetchPlanName,
+                          @Nullable EntitySerializationOption[] options) {
+            this.metaClass = metaClass;
+            this.fetchPlanName = fetchPlanName;
+            this.options = options == null || options.length == 0
+                    ? EnumSet.noneOf(EntitySerializationOption.class)
+                    : EnumSet.copyOf(Arrays.asList(options));
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            GsonKey key = (GsonKey) o;
+            return Objects.equals(metaClass, key.metaClass)
+                    && Objects.equals(fetchPlanName, key.fetchPlanName)
+                    && options.equals(key.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metaClass, fetchPlanName, options);
+        }
+    }
+
+    protected static class SerializationGson {
+        protected final FetchPlan fetchPlan;
+        protected final Gson gson;
+
+        protected SerializationGson(@Nullable FetchPlan fetchPlan, Gson gson) {
+            this.fetchPlan = fetchPlan;
+            this.gson = gson;
+        }
+    }
+
+    /**
+     * Metadata of an entity class required for serialization, resolved once per {@link MetaClass}.
+     */
+    protected static class MetaClassInfo {
+        protected final boolean embeddable;
+        protected final MetaProperty primaryKeyProperty;
+        protected final boolean compositePrimaryKey;
+        protected final Datatype idDatatype;
+        protected final List<PropertyInfo> properties;
+
+        protected MetaClassInfo(boolean embeddable,
+                                @Nullable MetaProperty primaryKeyProperty,
+                                boolean compositePrimaryKey,
+                                @Nullable Datatype idDatatype,
+                                List<PropertyInfo> properties) {
+            this.embeddable = embeddable;
+            this.primaryKeyProperty = primaryKeyProperty;
+            this.compositePrimaryKey = compositePrimaryKey;
+            this.idDatatype = idDatatype;
+            this.properties = properties;
+        }
+    }
+
+    protected static class PropertyInfo {
+        protected final MetaProperty metaProperty;
+        protected final String name;
+        protected final boolean persistent;
+        protected final Range range;
+        protected final Datatype datatype;
+
+        protected PropertyInfo(MetaProperty metaProperty, boolean persistent) {
+            this.metaProperty = metaProperty;
+            this.name = metaProperty.getName();
+            this.persistent = persistent;
+            this.range = metaProperty.getRange();
+            this.datatype = range.isDatatype() ? range.asDatatype() : null;
+        }
+    }
+
     protected static class DateSerializer implements JsonSerializer<Date> {
 
         private final Datatype<Date> dateDatatype;
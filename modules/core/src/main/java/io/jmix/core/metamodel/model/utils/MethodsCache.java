@@ -23,8 +23,7 @@ import java.lang.invoke.*;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -33,6 +32,10 @@ public class MethodsCache {
 
     private final Map<String, Function> getters = new HashMap<>();
     private final Map<String, BiConsumer> setters = new HashMap<>();
+    private final String[] propertyNames;
+    private final Map<String, Integer> ordinals;
+    private final Function[] gettersByOrdinal;
+    private final BiConsumer[] settersByOrdinal;
     private String className;
 
     private static final Map<Class, Class> primitivesToObjects = new ImmutableMap.Builder<Class, Class>()
@@ -97,6 +100,16 @@ public class MethodsCache {
             }
         }
         className = clazz.toString();
+
+        propertyNames = getters.keySet().stream().sorted().toArray(String[]::new);
+        ordinals = new HashMap<>(propertyNames.length * 2);
+        gettersByOrdinal = new Function[propertyNames.length];
+        settersByOrdinal = new BiConsumer[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            ordinals.put(propertyNames[i], i);
+            gettersByOrdinal[i] = getters.get(propertyNames[i]);
+            settersByOrdinal[i] = setters.get(propertyNames[i]);
+        }
     }
 
     protected Function createGetter(Class clazz, Method method) {
@@ -166,11 +179,52 @@ public class MethodsCache {
         return setter;
     }
 
+    /**
+     * @return names of properties having getters, sorted alphabetically. The index of a name in this array is
+     * the ordinal of the property used by {@link #getGetter(int)} and {@link #getSetter(int)}.
+     */
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    /**
+     * @param property name of property
+     * @return ordinal of the property or -1 if the property has no getter
+     */
+    public int getOrdinal(String property) {
+        Integer ordinal = ordinals.get(property);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * @param ordinal ordinal of property returned by {@link #getOrdinal(String)}
+     * @return lambda {@link Function} which represents getter
+     */
+    public Function getGetter(int ordinal) {
+        return gettersByOrdinal[ordinal];
+    }
+
+    /**
+     * @param ordinal ordinal of property returned by {@link #getOrdinal(String)}
+     * @return lambda {@link BiConsumer} which represents setter
+     * @throws IllegalArgumentException if setter for property not found
+     */
+    public BiConsumer getSetter(int ordinal) {
+        BiConsumer setter = settersByOrdinal[ordinal];
+        if (setter == null) {
+            throw new IllegalArgumentException(
+                    String.format("Can't find setter for property '%s' at %s", propertyNames[ordinal], className));
+        }
+        return setter;
+    }
+
     protected class SettersHolder implements BiConsumer {
 
         protected Map<Class, BiConsumer> setters = new HashMap<>();
         protected BiConsumer defaultSetter;
         protected String property;
+        // setters matching a value class, resolved on first use
+        protected Map<Class, BiConsumer[]> settersByValueClass = new ConcurrentHashMap<>();
 
         SettersHolder(String property, Class defaultArgType, BiConsumer defaultSetter) {
             this.property = property;
@@ -188,14 +242,8 @@ public class MethodsCache {
                 defaultSetter.accept(object, value);
                 return;
             }
-            boolean setterNotFound = true;
-            for (Map.Entry<Class, BiConsumer> entry : setters.entrySet()) {
-                if (entry.getKey().isInstance(value)) {
-                    setterNotFound = false;
-                    entry.getValue().accept(object, value);
-                }
-            }
-            if (setterNotFound) {
+            BiConsumer[] matchingSetters = settersByValueClass.computeIfAbsent(value.getClass(), this::findSetters);
+            if (matchingSetters.length == 0) {
                 throw new IllegalArgumentException(String.format(
                         "Can't find setter for property '%s' at %s for value class: %s",
                         property,
@@ -203,6 +251,19 @@ public class MethodsCache {
                         value.getClass().getSimpleName()
                 ));
             }
+            for (BiConsumer setter : matchingSetters) {
+                setter.accept(object, value);
+            }
+        }
+
+        protected BiConsumer[] findSetters(Class valueClass) {
+            List<BiConsumer> result = new ArrayList<>(1);
+            for (Map.Entry<Class, BiConsumer> entry : setters.entrySet()) {
+                if (entry.getKey().isAssignableFrom(valueClass)) {
+                    result.add(entry.getValue());
+                }
+            }
+            return result.toArray(new BiConsumer[0]);
         }
     }
 }
@@ -31,7 +31,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
-import org.springframework.beans.factory.annotation.Autowired;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,40 +38,109 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component(LockManager.NAME)
 public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
 
-    protected static class LockKey {
+    /**
+     * A lock held in a lock table together with its expiration data.
+     */
+    protected static class LockRecord {
 
-        private final String name;
-        private final String id;
+        protected final String name;
+        protected final String id;
+        protected final LockInfo lockInfo;
+        // 0 if the lock never expires
+        protected final long expirationTime;
+        // slot of the expiration wheel, -1 if the record is not scheduled
+        protected volatile int slot = -1;
 
-        private LockKey(String name, String id) {
+        protected LockRecord(String name, String id, LockInfo lockInfo, long expirationTime) {
             this.name = name;
             this.id = id;
+            this.lockInfo = lockInfo;
+            this.expirationTime = expirationTime;
         }
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+    /**
+     * Hashed timer wheel of lock records. Each slot covers one tick and keeps records expiring in that tick modulo
+     * the wheel size, so processing expired locks touches only the slots passed since the previous call. Records
+     * expiring after a full revolution stay in their slot until their time comes.
+     */
+    protected static class ExpirationWheel {
+
+        protected final long tickMillis;
+        protected final Set<LockRecord>[] slots;
+        // the last processed tick, updated only in advance()
+        protected long lastTick = -1;
+
+        @SuppressWarnings("unchecked")
+        protected ExpirationWheel(int size, long tickMillis) {
+            this.tickMillis = tickMillis;
+            this.slots = new Set[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = ConcurrentHashMap.newKeySet();
+            }
+        }
 
-            LockKey key = (LockKey) o;
+        // synchronized with advance(), otherwise a record could be put to the slot being drained right after it
+        // has been passed, and would expire only after a full revolution of the wheel
+        protected synchronized void schedule(LockRecord record) {
+            long tick = record.expirationTime / tickMillis;
+            if (lastTick >= 0 && tick <= lastTick) {
+                // the slot has already been passed, process the record on the next call
+                tick = lastTick + 1;
+            }
+            int slot = (int) (tick % slots.length);
+            record.slot = slot;
+            slots[slot].add(record);
+        }
 
-            if (!Objects.equals(id, key.id)) return false;
-            return name.equals(key.name);
+        protected void cancel(LockRecord record) {
+            int slot = record.slot;
+            if (slot >= 0) {
+                slots[slot].remove(record);
+            }
         }
 
-        @Override
-        public int hashCode() {
-            int result = name.hashCode();
-            result = 31 * result + (id != null ? id.hashCode() : 0);
-            return result;
+        protected synchronized List<LockRecord> advance(long now) {
+            long currentTick = now / tickMillis;
+            long firstTick = lastTick >= 0 ? lastTick + 1 : currentTick - slots.length + 1;
+            if (currentTick - firstTick >= slots.length) {
+                firstTick = currentTick - slots.length + 1;
+            }
+            List<LockRecord> expired = new ArrayList<>();
+            for (long tick = firstTick; tick <= currentTick; tick++) {
+                for (Iterator<LockRecord> it = slots[(int) (tick % slots.length)].iterator(); it.hasNext(); ) {
+                    LockRecord record = it.next();
+                    if (record.expirationTime <= now) {
+                        it.remove();
+                        expired.add(record);
+                    }
+                }
+            }
+            lastTick = Math.max(lastTick, currentTick);
+            return expired;
+        }
+
+        protected synchronized void clear() {
+            for (Set<LockRecord> slot : slots) {
+                slot.clear();
+            }
         }
     }
 
     protected static final Logger log = LoggerFactory.getLogger(LockManagerImpl.class);
 
+    protected static final int EXPIRATION_WHEEL_SIZE = 512;
+    protected static final long EXPIRATION_WHEEL_TICK_MILLIS = 1000;
+
     protected volatile Map<String, LockDescriptor> config;
 
-    protected Map<LockKey, LockInfo> locks = new ConcurrentHashMap<>();
+    // lock tables by lock name, so that locking of different object types does not contend on the same table
+    protected Map<String, Map<String, LockRecord>> locks = new ConcurrentHashMap<>();
+
+    protected ExpirationWheel expirationWheel = new ExpirationWheel(EXPIRATION_WHEEL_SIZE, EXPIRATION_WHEEL_TICK_MILLIS);
+
+    // set when timeouts may have changed and all locks should be checked against the configuration
+    protected volatile boolean rescheduleRequired;
 
     @Autowired
     protected ExtendedEntities extendedEntities;
@@ -118,12 +186,11 @@ public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
 
     @Override
     public LockInfo lock(String name, String id) {
-        LockKey key = new LockKey(name, id);
-
-        LockInfo lockInfo = locks.get(key);
-        if (lockInfo != null) {
-            log.debug("Already locked: " + lockInfo);
-            return lockInfo;
+        Map<String, LockRecord> table = locks.get(name);
+        LockRecord record = table != null ? table.get(id) : null;
+        if (record != null) {
+            log.debug("Already locked: " + record.lockInfo);
+            return record.lockInfo;
         }
 
         LockDescriptor ld = getConfig().get(name);
@@ -132,8 +199,15 @@ public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
         }
 
         BaseUser user = currentAuthentication.getUser();
-        lockInfo = new LockInfo(user.getKey(), user.getUsername(), name, id);
-        locks.put(key, lockInfo);
+        LockInfo lockInfo = new LockInfo(user.getKey(), user.getUsername(), name, id);
+        record = createRecord(lockInfo, ld);
+
+        LockRecord existing = getLockTable(name).putIfAbsent(id, record);
+        if (existing != null) {
+            log.debug("Already locked: " + existing.lockInfo);
+            return existing.lockInfo;
+        }
+        schedule(record);
         log.debug("Locked " + name + "/" + id);
 
         clusterManager.send(lockInfo);
@@ -154,8 +228,10 @@ public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
 
     @Override
     public void unlock(String name, String id) {
-        LockInfo lockInfo = locks.remove(new LockKey(name, id));
-        if (lockInfo != null) {
+        Map<String, LockRecord> table = locks.get(name);
+        LockRecord record = table != null ? table.remove(id) : null;
+        if (record != null) {
+            expirationWheel.cancel(record);
             log.debug("Unlocked " + name + "/" + id);
 
             clusterManager.send(new LockInfo(null, null, name, id));
@@ -179,33 +255,56 @@ public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
             return new LockNotSupported();
         }
 
-        return locks.get(new LockKey(name, id));
+        Map<String, LockRecord> table = locks.get(name);
+        LockRecord record = table != null ? table.get(id) : null;
+        return record != null ? record.lockInfo : null;
     }
 
     @Override
     public List<LockInfo> getCurrentLocks() {
-        return new ArrayList<>(locks.values());
+        List<LockInfo> result = new ArrayList<>();
+        for (Map<String, LockRecord> table : locks.values()) {
+            for (LockRecord record : table.values()) {
+                result.add(record.lockInfo);
+            }
+        }
+        return result;
     }
 
     @Override
     public void expireLocks() {
         log.debug("Expiring locks");
-        ArrayList<LockKey> list = new ArrayList<>(locks.keySet());
-        for (LockKey key : list) {
-            LockInfo lockInfo = locks.get(key);
-            if (lockInfo != null) {
-                LockDescriptor ld = getConfig().get(key.name);
+        if (rescheduleRequired) {
+            rescheduleLocks();
+        }
+        for (LockRecord record : expirationWheel.advance(timeSource.currentTimestamp().getTime())) {
+            Map<String, LockRecord> table = locks.get(record.name);
+            // the record could be replaced by a newer lock of the same object
+            if (table != null && table.remove(record.id, record)) {
+                log.debug("Lock " + record.name + "/" + record.id + " expired");
+            }
+        }
+    }
+
+    /**
+     * Removes locks which configuration is not found and schedules expiration of the remaining locks according to
+     * the current configuration.
+     */
+    protected synchronized void rescheduleLocks() {
+        rescheduleRequired = false;
+        expirationWheel.clear();
+        Map<String, LockDescriptor> config = getConfig();
+        for (Map.Entry<String, Map<String, LockRecord>> entry : locks.entrySet()) {
+            LockDescriptor ld = config.get(entry.getKey());
+            Map<String, LockRecord> table = entry.getValue();
+            for (LockRecord record : table.values()) {
                 if (ld == null) {
-                    log.debug("Lock " + key.name + "/" + key.id + " configuration not found, remove it");
-                    locks.remove(key);
+                    log.debug("Lock " + record.name + "/" + record.id + " configuration not found, remove it");
+                    table.remove(record.id, record);
                 } else {
-                    Integer timeoutSec = ld.getTimeoutSec();
-                    if (timeoutSec != null && timeoutSec > 0) {
-                        Date since = lockInfo.getSince();
-                        if (since.getTime() + timeoutSec * 1000 < timeSource.currentTimestamp().getTime()) {
-                            log.debug("Lock " + key.name + "/" + key.id + " expired");
-                            locks.remove(key);
-                        }
+                    LockRecord rescheduled = createRecord(record.lockInfo, ld);
+                    if (table.replace(record.id, record, rescheduled)) {
+                        schedule(rescheduled);
                     }
                 }
             }
@@ -215,24 +314,64 @@ public class LockManagerImpl implements LockManager, ClusterListener<LockInfo> {
     @Override
     public void reloadConfiguration() {
         config = null;
+        rescheduleRequired = true;
     }
 
     @Override
     public void receive(LockInfo message) {
-        LockKey key = new LockKey(message.getObjectType(), message.getObjectId());
+        String name = message.getObjectType();
+        String id = message.getObjectId();
         if (message.getUserKey() != null) {
-            LockInfo lockInfo = locks.get(key);
-            if (lockInfo == null || lockInfo.getSince().before(message.getSince())) {
-                locks.put(key, message);
+            LockDescriptor ld = getConfig().get(name);
+            if (ld == null) {
+                log.debug("Lock " + name + "/" + id + " configuration not found, ignore it");
+                return;
+            }
+            LockRecord record = createRecord(message, ld);
+            LockRecord[] replaced = new LockRecord[1];
+            LockRecord current = getLockTable(name).compute(id, (key, existing) -> {
+                if (existing == null || existing.lockInfo.getSince().before(message.getSince())) {
+                    replaced[0] = existing;
+                    return record;
+                }
+                return existing;
+            });
+            if (current == record) {
+                if (replaced[0] != null) {
+                    expirationWheel.cancel(replaced[0]);
+                }
+                schedule(record);
             }
         } else {
-            locks.remove(key);
+            Map<String, LockRecord> table = locks.get(name);
+            LockRecord record = table != null ? table.remove(id) : null;
+            if (record != null) {
+                expirationWheel.cancel(record);
+            }
+        }
+    }
+
+    protected Map<String, LockRecord> getLockTable(String name) {
+        return locks.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+    }
+
+    protected LockRecord createRecord(LockInfo lockInfo, LockDescriptor ld) {
+        Integer timeoutSec = ld.getTimeoutSec();
+        long expirationTime = timeoutSec != null && timeoutSec > 0
+                ? lockInfo.getSince().getTime() + timeoutSec * 1000L
+                : 0;
+        return new LockRecord(lockInfo.getObjectType(), lockInfo.getObjectId(), lockInfo, expirationTime);
+    }
+
+    protected void schedule(LockRecord record) {
+        if (record.expirationTime > 0) {
+            expirationWheel.schedule(record);
         }
     }
 
     @Override
     public byte[] getState() {
-        List<LockInfo> list = new ArrayList<>(locks.values());
+        List<LockInfo> list = getCurrentLocks();
 
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         try {
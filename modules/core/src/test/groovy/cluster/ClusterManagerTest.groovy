@@ -0,0 +1,308 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cluster
+
+import io.jmix.core.cluster.ClusterListenerAdapter
+import io.jmix.core.cluster.ClusterManagerImpl
+import io.jmix.core.cluster.ClusterProperties
+import io.jmix.core.cluster.ClusterTransport
+import spock.lang.Specification
+
+class ClusterManagerTest extends Specification {
+
+    InMemoryNetwork network = new InMemoryNetwork()
+    ClusterManagerImpl node1
+    ClusterManagerImpl node2
+
+    void setup() {
+        node1 = createNode('node1')
+        node2 = createNode('node2')
+    }
+
+    void cleanup() {
+        node1.stop()
+        node2.stop()
+    }
+
+    def "messages are batched, coalesced and delivered"() {
+        def received = []
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+                received.add(message)
+            }
+        })
+
+        when:
+        node1.send('a')
+        node1.send('b')
+        node1.send('a')
+
+        then:
+        node1.getMessagesCount() == 3
+
+        when:
+        node1.sendPendingMessages()
+
+        then:
+        network.packets == 1
+        received == ['a', 'b']
+        node1.getMessagesCount() == 0
+        node1.getSentMessages(String.name) == 2
+        node1.getSentBytes(String.name) > 0
+        node2.getReceivedMessages(String.name) == 2
+        node2.getReceivedBytes(String.name) == node1.getSentBytes(String.name)
+        node1.printMessagesStat().contains(String.name)
+    }
+
+    def "large batches are compressed and split to fit transport payload"() {
+        def received = []
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+                received.add(message)
+            }
+        })
+
+        when:
+        (1..200).each { node1.send('message-' + it + '-' + ('x' * 200)) }
+        node1.sendPendingMessages()
+
+        then:
+        received.size() == 200
+        network.packets > 1
+        network.maxPacketSize <= InMemoryTransport.MAX_PAYLOAD
+        network.totalBytes < node1.getSentBytes(String.name)
+    }
+
+    def "sync sending does not wait for the sender thread"() {
+        def received = []
+        node2.addListener(Integer, new ClusterListenerAdapter<Integer>() {
+            @Override
+            void receive(Integer message) {
+                received.add(message)
+            }
+        })
+
+        when:
+        node1.sendSync(42)
+
+        then:
+        received == [42]
+        node1.getMessagesCount() == 0
+    }
+
+    def "message larger than transport payload is sent in fragments"() {
+        def received = []
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+                received.add(message)
+            }
+        })
+        def message = randomString(20000)
+
+        when:
+        node1.sendSync(message)
+
+        then:
+        received == [message]
+        network.packets > 1
+        network.maxPacketSize <= InMemoryTransport.MAX_PAYLOAD
+        node1.fragmentedPayloads.isEmpty()
+        node2.fragmentedPayloads.isEmpty()
+    }
+
+    def "joining node receives large state from master"() {
+        def state = new byte[20000]
+        new Random().nextBytes(state)
+        byte[] receivedState = null
+        node1.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+            }
+
+            @Override
+            byte[] getState() {
+                return state
+            }
+        })
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+            }
+
+            @Override
+            void setState(byte[] newState) {
+                receivedState = newState
+            }
+        })
+
+        when:
+        node2.requestState(1)
+
+        then:
+        receivedState == state
+        node2.stateReceived
+    }
+
+    def "packets signed with another secret are dropped"() {
+        def received = []
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+                received.add(message)
+            }
+        })
+        def otherNode = createNode('node3', 'other-secret')
+
+        when:
+        otherNode.sendSync('a')
+
+        then:
+        network.packets == 1
+        received.isEmpty()
+        node2.getReceivedMessages(String.name) == 0
+
+        cleanup:
+        otherNode.stop()
+    }
+
+    def "classes not allowed in cluster messages are not deserialized"() {
+        def received = []
+        node2.addListener(ArrayList, new ClusterListenerAdapter<ArrayList>() {
+            @Override
+            void receive(ArrayList message) {
+                received.add(message)
+            }
+        })
+
+        when:
+        node1.sendSync(new ArrayList([new URL('http://localhost')]))
+
+        then:
+        received.isEmpty()
+
+        when:
+        node1.sendSync(new ArrayList(['a', 1, UUID.randomUUID()]))
+
+        then:
+        received.size() == 1
+    }
+
+    def "cluster is not started without a secret"() {
+        when:
+        createNode('node3', null)
+
+        then:
+        thrown(IllegalStateException)
+        !network.nodes.containsKey('node3')
+    }
+
+    def "oldest member is master"() {
+        expect:
+        node1.isMaster()
+        !node2.isMaster()
+    }
+
+    ClusterManagerImpl createNode(String name, String secret = 'secret') {
+        def manager = new ClusterManagerImpl()
+        // large intervals, so tests send pending messages explicitly
+        manager.properties = new ClusterProperties(true, '239.255.7.8', 7800, null, 1, 60000, 60000, 5000,
+                secret, ['io.jmix.'])
+        manager.transport = new InMemoryTransport(name, network)
+        manager.start()
+        return manager
+    }
+
+    static String randomString(int length) {
+        def sb = new StringBuilder()
+        while (sb.length() < length) {
+            sb.append(UUID.randomUUID())
+        }
+        return sb.toString()
+    }
+
+    static class InMemoryNetwork {
+        Map<String, ClusterTransport.Receiver> nodes = new LinkedHashMap<>()
+        int packets
+        int maxPacketSize
+        long totalBytes
+
+        void send(String sender, byte[] payload) {
+            packets++
+            totalBytes += payload.length
+            maxPacketSize = Math.max(maxPacketSize, payload.length)
+            nodes.each { name, receiver ->
+                if (name != sender) {
+                    receiver.receive(sender, payload)
+                }
+            }
+        }
+    }
+
+    static class InMemoryTransport implements ClusterTransport {
+        static final int MAX_PAYLOAD = 4096
+
+        String name
+        InMemoryNetwork network
+        boolean started
+
+        InMemoryTransport(String name, InMemoryNetwork network) {
+            this.name = name
+            this.network = network
+        }
+
+        @Override
+        void start(ClusterTransport.Receiver receiver) {
+            network.nodes.put(name, receiver)
+            started = true
+        }
+
+        @Override
+        void stop() {
+            network.nodes.remove(name)
+            started = false
+        }
+
+        @Override
+        boolean isStarted() {
+            return started
+        }
+
+        @Override
+        void send(byte[] payload) {
+            assert payload.length <= MAX_PAYLOAD
+            network.send(name, payload)
+        }
+
+        @Override
+        int getMaxPayloadSize() {
+            return MAX_PAYLOAD
+        }
+
+        @Override
+        String getLocalNode() {
+            return name
+        }
+
+        @Override
+        List<String> getMembers() {
+            return new ArrayList<>(network.nodes.keySet())
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cluster
+
+import io.jmix.core.cluster.ClusterListenerAdapter
+import io.jmix.core.cluster.ClusterManagerImpl
+import io.jmix.core.cluster.ClusterProperties
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+@Requires({ MulticastClusterTransportTest.multicastAvailable() })
+class MulticastClusterTransportTest extends Specification {
+
+    static final String GROUP = '239.255.7.8'
+
+    PollingConditions conditions = new PollingConditions(timeout: 10)
+
+    int port = freePort()
+    byte[] state = new byte[200000]
+    byte[] receivedState
+    List<String> received = Collections.synchronizedList([])
+
+    ClusterManagerImpl node1
+    ClusterManagerImpl node2
+
+    void setup() {
+        new Random().nextBytes(state)
+
+        node1 = createNode()
+        node1.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+            }
+
+            @Override
+            byte[] getState() {
+                return state
+            }
+        })
+        node1.start()
+        // the oldest node is master
+        Thread.sleep(50)
+
+        node2 = createNode()
+        node2.addListener(String, new ClusterListenerAdapter<String>() {
+            @Override
+            void receive(String message) {
+                received.add(message)
+            }
+
+            @Override
+            void setState(byte[] newState) {
+                receivedState = newState
+            }
+        })
+        node2.start()
+
+        conditions.eventually {
+            assert node1.transport.members.size() == 2
+            assert node2.transport.members.size() == 2
+            assert node2.stateReceived
+        }
+    }
+
+    void cleanup() {
+        node1?.stop()
+        node2?.stop()
+    }
+
+    def "joining node receives state larger than datagram"() {
+        expect:
+        node1.isMaster()
+        !node2.isMaster()
+        receivedState == state
+    }
+
+    def "messages are coalesced and sent in one packet"() {
+        def sentPackets = node1.sentPackets.sum()
+
+        when:
+        node1.send('a')
+        node1.send('b')
+        node1.send('a')
+        node1.sendPendingMessages()
+
+        then:
+        conditions.eventually {
+            assert received == ['a', 'b']
+        }
+        node1.sentPackets.sum() == sentPackets + 1
+    }
+
+    def "message larger than datagram is sent in fragments"() {
+        def sentPackets = node1.sentPackets.sum()
+        def message = ClusterManagerTest.randomString(300000)
+
+        when:
+        node1.sendSync(message)
+
+        then:
+        conditions.eventually {
+            assert received == [message]
+        }
+        node1.sentPackets.sum() > sentPackets + 1
+        node2.fragmentedPayloads.isEmpty()
+    }
+
+    def "packets of node with another secret are ignored"() {
+        def otherNode = createNode('other-secret')
+        otherNode.start()
+
+        when:
+        otherNode.sendSync('a')
+        node1.sendSync('b')
+
+        then:
+        conditions.eventually {
+            assert received == ['b']
+        }
+        node2.transport.members.size() == 2
+
+        cleanup:
+        otherNode.stop()
+    }
+
+    ClusterManagerImpl createNode(String secret = 'secret') {
+        def manager = new ClusterManagerImpl()
+        // zero TTL keeps packets on this host, large send interval makes tests send pending messages explicitly
+        manager.properties = new ClusterProperties(true, GROUP, port, null, 0, 60000, 200, 2000,
+                secret, ['io.jmix.'])
+        return manager
+    }
+
+    static int freePort() {
+        new DatagramSocket(0).withCloseable { it.localPort }
+    }
+
+    static boolean multicastAvailable() {
+        try {
+            def group = InetAddress.getByName(GROUP)
+            def port = freePort()
+            new MulticastSocket(port).withCloseable { socket ->
+                socket.timeToLive = 0
+                socket.loopbackMode = false
+                socket.soTimeout = 1000
+                socket.joinGroup(group)
+                byte[] data = [1, 2, 3]
+                socket.send(new DatagramPacket(data, data.length, group, port))
+                socket.receive(new DatagramPacket(new byte[16], 16))
+            }
+            return true
+        } catch (IOException ignored) {
+            return false
+        }
+    }
+}
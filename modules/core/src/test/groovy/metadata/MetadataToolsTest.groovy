@@ -17,8 +17,10 @@
 package metadata
 
 import io.jmix.core.CoreConfiguration
+import io.jmix.core.FetchPlan
 import io.jmix.core.Metadata
 import io.jmix.core.MetadataTools
+import io.jmix.core.entity.EntityValues
 import org.springframework.test.context.ContextConfiguration
 import org.springframework.test.context.TestExecutionListeners
 import spock.lang.Specification
@@ -121,4 +123,94 @@ class MetadataToolsTest extends Specification {
         petCopy.owner == owner
         !petCopy.owner.is(owner)
     }
+
+    def "attributes are accessed by ordinal"() {
+        def owner = new Owner(name: 'Joe')
+
+        when:
+        def ordinal = EntityValues.getAttributeOrdinal(owner, 'name')
+
+        then:
+        ordinal >= 0
+        EntityValues.getAttributeOrdinal(owner, 'unknown') == -1
+        EntityValues.getValue(owner, ordinal) == 'Joe'
+
+        when:
+        EntityValues.setValue(owner, ordinal, 'Ann', true)
+
+        then:
+        owner.name == 'Ann'
+    }
+
+    def "copy uses attribute ordinals"() {
+        def id = new UUID(0, 1)
+        def owner = new Owner(id: id, name: 'Joe')
+        def pet = new Pet(id: id, name: 'Rex', owner: owner)
+        def ordinals = EntityValues.getAttributeOrdinals(pet, metadata.getClass(Pet))
+
+        when:
+        def petCopy = new Pet()
+        metadataTools.copy(pet, petCopy)
+
+        then:
+        ordinals.length == metadata.getClass(Pet).getProperties().size()
+        petCopy.id == id
+        petCopy.name == 'Rex'
+        petCopy.owner.is(owner)
+    }
+
+    def "property plans are cached and rebuilt when fetch plan is changed"() {
+        def metaClass = metadata.getClass(Pet)
+        def fetchPlan = new FetchPlan(Pet, false).addProperty('name')
+
+        when:
+        def plan = metadataTools.getPropertyPlan(metaClass, fetchPlan)
+
+        then:
+        plan.is(metadataTools.getPropertyPlan(metaClass, fetchPlan))
+        plan.size() == 1
+        plan.getName(0) == 'name'
+        !plan.isClass(0)
+
+        when:
+        fetchPlan.addProperty('owner', new FetchPlan(Owner, false).addProperty('name'))
+        def changedPlan = metadataTools.getPropertyPlan(metaClass, fetchPlan)
+
+        then:
+        !changedPlan.is(plan)
+        changedPlan.size() == 2
+        changedPlan.isClass(1)
+        !changedPlan.isCollection(1)
+        changedPlan.getFetchPlan(1).containsProperty('name')
+
+        and:
+        metadataTools.getPropertyPlan(metaClass, null).size() == metaClass.getProperties().size()
+    }
+
+    def "property plan is rebuilt when nested fetch plan is changed by merging plans"() {
+        def ownerMetaClass = metadata.getClass(Owner)
+        def ownerPlan = new FetchPlan(Owner, false).addProperty('name')
+        def petPlan = new FetchPlan(Pet, false).addProperty('owner', ownerPlan)
+
+        when:
+        def plan = metadataTools.getPropertyPlan(ownerMetaClass, ownerPlan)
+
+        then:
+        plan.is(metadataTools.getPropertyPlan(ownerMetaClass, ownerPlan))
+        plan.size() == 1
+
+        when: "merged plan shares the nested plan of the first source and adds properties of the second one to it"
+        def otherPetPlan = new FetchPlan(Pet, false)
+                .addProperty('owner', new FetchPlan(Owner, false).addProperty('address'))
+        def params = new FetchPlan.FetchPlanParams().entityClass(Pet)
+        params.src([petPlan, otherPetPlan])
+        new FetchPlan(params)
+        def changedPlan = metadataTools.getPropertyPlan(ownerMetaClass, ownerPlan)
+
+        then:
+        ownerPlan.containsProperty('address')
+        !changedPlan.is(plan)
+        changedPlan.size() == 2
+        changedPlan.getName(1) == 'address'
+    }
 }
@@ -18,8 +18,10 @@ package pessimisticlocking
 
 import io.jmix.core.CoreConfiguration
 import io.jmix.core.Metadata
+import io.jmix.core.TimeSource
 import io.jmix.core.pessimisticlocking.LockInfo
 import io.jmix.core.pessimisticlocking.LockManager
+import io.jmix.core.pessimisticlocking.impl.LockManagerImpl
 import io.jmix.core.security.impl.AuthenticatorImpl
 import org.springframework.test.context.ContextConfiguration
 import org.springframework.test.context.TestExecutionListeners
@@ -32,6 +34,12 @@ import test_support.app.entity.LockableParentEntity
 
 import org.springframework.beans.factory.annotation.Autowired
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
 import static org.junit.jupiter.api.Assertions.assertNotNull
 import static org.junit.jupiter.api.Assertions.assertNull
 
@@ -99,4 +107,106 @@ class LockManagerTest extends Specification {
         then:
         assertNull(lockInfo)
     }
+
+    def "Only one of concurrent lock attempts succeeds"() {
+        def id = UUID.randomUUID().toString()
+        def threadCount = 8
+        def start = new CountDownLatch(1)
+        def executor = Executors.newFixedThreadPool(threadCount)
+
+        when:
+        def futures = (1..threadCount).collect {
+            executor.submit({
+                authenticator.begin()
+                try {
+                    start.await()
+                    return lockManager.lock("app_LockableParentEntity", id)
+                } finally {
+                    authenticator.end()
+                }
+            } as java.util.concurrent.Callable<LockInfo>)
+        }
+        start.countDown()
+        def results = futures.collect { it.get(10, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        then:
+        results.count { it == null } == 1
+
+        when:
+        lockManager.expireLocks()
+
+        then: "not expired lock is kept"
+        assertNotNull(lockManager.getLockInfo("app_LockableParentEntity", id))
+
+        when:
+        lockManager.reloadConfiguration()
+        lockManager.expireLocks()
+        lockManager.unlock("app_LockableParentEntity", id)
+
+        then:
+        assertNull(lockManager.getLockInfo("app_LockableParentEntity", id))
+    }
+
+    def "Lock expires in the tick following its timeout"() {
+        LockManagerImpl lockManagerImpl = (LockManagerImpl) lockManager
+        TimeSource originalTimeSource = lockManagerImpl.timeSource
+
+        LockableParentEntity entity = metadata.create(LockableParentEntity.class)
+        lockManager.lock(entity)
+        LockInfo lockInfo = lockManager.getLockInfo("app_LockableParentEntity", entity.getId().toString())
+        long expirationTime = lockInfo.since.time + 120_000
+
+        def now = new AtomicLong(lockInfo.since.time)
+        lockManagerImpl.timeSource = Mock(TimeSource) {
+            currentTimestamp() >> { new Date(now.get()) }
+        }
+
+        when:
+        lockManager.expireLocks()
+        now.set(expirationTime - 1)
+        lockManager.expireLocks()
+        then: "lock is kept until its timeout"
+        assertNotNull(lockManager.getLockInfo("app_LockableParentEntity", entity.getId().toString()))
+
+        when:
+        now.set(expirationTime + 1000)
+        lockManager.expireLocks()
+        then:
+        assertNull(lockManager.getLockInfo("app_LockableParentEntity", entity.getId().toString()))
+
+        cleanup:
+        lockManagerImpl.timeSource = originalTimeSource
+    }
+
+    def "Records scheduled concurrently with advancing of the expiration wheel are not missed"() {
+        long tickMillis = 10
+        def wheel = new LockManagerImpl.ExpirationWheel(512, tickMillis)
+        def now = new AtomicLong(System.currentTimeMillis())
+        def stop = new AtomicBoolean()
+        def records = []
+        def expired = Collections.synchronizedList([])
+
+        wheel.advance(now.get())
+
+        when: "records expiring right now are scheduled while the clock moves and the wheel is advanced"
+        def advancing = Thread.start {
+            while (!stop.get()) {
+                expired.addAll(wheel.advance(now.addAndGet(1)))
+            }
+        }
+        for (int i = 0; i < 100_000; i++) {
+            def record = new LockManagerImpl.LockRecord("name", String.valueOf(i), null, now.get())
+            records << record
+            wheel.schedule(record)
+        }
+        stop.set(true)
+        advancing.join()
+
+        and: "the wheel is advanced once more to the next tick"
+        expired.addAll(wheel.advance(now.get() + tickMillis))
+
+        then: "all records are expired"
+        expired.size() == records.size()
+    }
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package serialization
+
+import io.jmix.core.CoreConfiguration
+import io.jmix.core.EntitySerialization
+import io.jmix.core.EntitySerializationOption
+import io.jmix.core.FetchPlan
+import io.jmix.core.FetchPlanRepository
+import io.jmix.core.Metadata
+import io.jmix.core.impl.serialization.EntitySerializationImpl
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
+import org.springframework.test.context.ContextConfiguration
+import org.springframework.test.context.TestExecutionListeners
+import spock.lang.Specification
+import spock.lang.Unroll
+import test_support.AppContextTestExecutionListener
+import test_support.addon1.TestAddon1Configuration
+import test_support.app.TestAppConfiguration
+import test_support.app.entity.Owner
+import test_support.app.entity.Pet
+
+import static io.jmix.core.EntitySerializationOption.*
+
+@ContextConfiguration(classes = [CoreConfiguration, TestAddon1Configuration, TestAppConfiguration])
+@TestExecutionListeners(value = AppContextTestExecutionListener,
+        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class EntitySerializationTest extends Specification {
+
+    @Autowired
+    EntitySerialization entitySerialization
+    @Autowired
+    FetchPlanRepository fetchPlanRepository
+    @Autowired
+    Metadata metadata
+    @Autowired
+    ApplicationContext applicationContext
+
+    EntitySerializationImpl uncachedSerialization
+
+    Pet pet1, pet2
+
+    void setup() {
+        // not initialized, so Gson instances are not cached
+        uncachedSerialization = new EntitySerializationImpl()
+        applicationContext.autowireCapableBeanFactory.autowireBean(uncachedSerialization)
+
+        def owner = metadata.create(Owner)
+        owner.name = 'Alice'
+
+        pet1 = metadata.create(Pet)
+        pet1.name = 'Rex'
+        pet1.owner = owner
+
+        pet2 = metadata.create(Pet)
+        pet2.name = 'Tom'
+    }
+
+    @Unroll
+    def "cached serialization is the same as uncached for fetch plan #planName and options #options"() {
+        setup:
+
+        FetchPlan fetchPlan = createFetchPlan(planName)
+        EntitySerializationOption[] optionArray = options as EntitySerializationOption[]
+
+        when:
+
+        String json = entitySerialization.toJson(pet1, fetchPlan, optionArray)
+        String repeatedJson = entitySerialization.toJson(pet1, createFetchPlan(planName), optionArray)
+        String collectionJson = entitySerialization.toJson([pet1, pet2], fetchPlan, optionArray)
+
+        then:
+
+        json == uncachedSerialization.toJson(pet1, fetchPlan, optionArray)
+        repeatedJson == json
+        collectionJson == uncachedSerialization.toJson([pet1, pet2], fetchPlan, optionArray)
+
+        where:
+
+        [planName, options] << [
+                [null, FetchPlan.LOCAL, 'pet-with-owner', ''],
+                [[], [SERIALIZE_NULLS], [SERIALIZE_INSTANCE_NAME], [PRETTY_PRINT], [COMPACT_REPEATED_ENTITIES],
+                 [SERIALIZE_NULLS, SERIALIZE_INSTANCE_NAME, PRETTY_PRINT]]
+        ].combinations()
+    }
+
+    @Unroll
+    def "writer overloads produce the same JSON as string methods for options #options"() {
+        setup:
+
+        FetchPlan fetchPlan = createFetchPlan('pet-with-owner')
+        EntitySerializationOption[] optionArray = options as EntitySerializationOption[]
+        def entityWriter = new StringWriter()
+        def collectionWriter = new StringWriter()
+
+        when:
+
+        entitySerialization.toJson(pet1, fetchPlan, entityWriter, optionArray)
+        entitySerialization.toJson([pet1, pet2], fetchPlan, collectionWriter, optionArray)
+
+        then:
+
+        entityWriter.toString() == entitySerialization.toJson(pet1, fetchPlan, optionArray)
+        collectionWriter.toString() == entitySerialization.toJson([pet1, pet2], fetchPlan, optionArray)
+
+        where:
+
+        options << [[], [SERIALIZE_NULLS], [SERIALIZE_INSTANCE_NAME, PRETTY_PRINT]]
+    }
+
+    def "entity deserialized by cached instance is the same as by uncached"() {
+        setup:
+
+        String json = entitySerialization.toJson(pet1, createFetchPlan('pet-with-owner'))
+
+        when:
+
+        Pet pet = entitySerialization.entityFromJson(json, metadata.getClass(Pet))
+        Pet uncachedPet = uncachedSerialization.entityFromJson(json, metadata.getClass(Pet))
+        Collection<Pet> pets = entitySerialization.entitiesCollectionFromJson(
+                entitySerialization.toJson([pet1, pet2]), metadata.getClass(Pet))
+
+        then:
+
+        pet == pet1
+        pet.name == 'Rex'
+        pet.owner.name == 'Alice'
+        uncachedSerialization.toJson(uncachedPet) == uncachedSerialization.toJson(pet)
+        pets as List == [pet1, pet2]
+        pets*.name == ['Rex', 'Tom']
+    }
+
+    def "named fetch plan with different properties is not served by cached instance"() {
+        setup:
+
+        FetchPlan fetchPlan = new FetchPlan(Pet, 'pet-plan').addProperty('name')
+        FetchPlan changedFetchPlan = new FetchPlan(Pet, 'pet-plan').addProperty('name').addProperty('nick')
+        pet1.nick = 'Rexie'
+
+        when:
+
+        String json = entitySerialization.toJson(pet1, fetchPlan)
+        String changedJson = entitySerialization.toJson(pet1, changedFetchPlan)
+
+        then:
+
+        !json.contains('Rexie')
+        changedJson.contains('Rexie')
+        changedJson == uncachedSerialization.toJson(pet1, changedFetchPlan)
+    }
+
+    def "unnamed fetch plans are not cached"() {
+        setup:
+
+        EntitySerializationImpl serialization = (EntitySerializationImpl) entitySerialization
+        long size = serialization.serializationGsonCache.size()
+
+        when:
+
+        (1..10).each {
+            entitySerialization.toJson(pet1, new FetchPlan(Pet).addProperty('name'))
+        }
+
+        then:
+
+        serialization.serializationGsonCache.size() == size
+    }
+
+    private FetchPlan createFetchPlan(String name) {
+        switch (name) {
+            case null:
+                return null
+            case FetchPlan.LOCAL:
+                return fetchPlanRepository.getFetchPlan(Pet, FetchPlan.LOCAL)
+            default:
+                return new FetchPlan(Pet, name)
+                        .addProperty('name')
+                        .addProperty('nick')
+                        .addProperty('owner', fetchPlanRepository.getFetchPlan(Owner, FetchPlan.LOCAL))
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package query_parser;
+
+import com.google.common.cache.CacheBuilder;
+import io.jmix.core.impl.jpql.DomainModel;
+import io.jmix.core.impl.jpql.QueryParserAstBased;
+import io.jmix.core.impl.jpql.QueryTree;
+import io.jmix.core.impl.jpql.QueryTreeCache;
+import io.jmix.core.impl.jpql.TreeToQuery;
+import io.jmix.core.impl.jpql.model.EntityBuilder;
+import io.jmix.core.impl.jpql.model.JpqlEntityModel;
+import io.jmix.core.impl.jpql.transform.QueryTransformerAstBased;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTreeCacheTest {
+
+    private static final String QUERY = "select h from sec_GroupHierarchy h join h.parent p " +
+            "where h.createdBy = :createdBy and p.group.id in (select g.id from sec_Group g where g.name like :name) " +
+            "order by h.createdBy";
+
+    @Test
+    public void testSameTreeForSameQueryAndModel() {
+        QueryTreeCache cache = createCache();
+        DomainModel model = prepareDomainModel();
+
+        QueryTree tree = cache.get(model, QUERY);
+        assertSame(tree, cache.get(model, QUERY));
+
+        DomainModel otherModel = prepareDomainModel();
+        assertNotSame(tree, cache.get(otherModel, QUERY));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCopyProducesSameQuery() {
+        QueryTreeCache cache = createCache();
+        DomainModel model = prepareDomainModel();
+
+        QueryTree tree = cache.get(model, QUERY);
+        QueryTree copy = tree.copy();
+
+        assertNotSame(tree.getAstTree(), copy.getAstTree());
+        assertEquals(toQuery(tree), toQuery(copy));
+        assertEquals("h", copy.getVariableNameByEntity("sec_GroupHierarchy"));
+    }
+
+    @Test
+    public void testTransformationDoesNotChangeCachedTree() {
+        QueryTreeCache cache = createCache();
+        DomainModel model = prepareDomainModel();
+        String original = toQuery(cache.get(model, QUERY));
+
+        QueryTransformerAstBased transformer = createTransformer(cache, model, QUERY);
+        transformer.addWhere("{E}.group.name = :groupName");
+        transformer.replaceWithCount();
+        String transformed = transformer.getResult();
+
+        assertTrue(transformed.contains("h.group.name = :groupName"));
+        assertTrue(transformed.contains("count(h)"));
+
+        assertEquals(original, toQuery(cache.get(model, QUERY)));
+        assertEquals(original.trim(), createTransformer(cache, model, QUERY).getResult());
+    }
+
+    @Test
+    public void testCachedUpdateRendersAsParsed() {
+        assertCachedSameAsParsed("update sec_GroupHierarchy h set h.createdBy = :createdBy where h.group.id = :groupId");
+    }
+
+    @Test
+    public void testCachedDeleteRendersAsParsed() {
+        assertCachedSameAsParsed("delete from sec_GroupHierarchy h where h.createdBy = :createdBy");
+    }
+
+    @Test
+    public void testCachedMultiItemSelectRendersAsParsed() {
+        String query = "select h.createdBy, h.group, p.group.name from sec_GroupHierarchy h join h.parent p " +
+                "where h.createdBy = :createdBy";
+        assertCachedSameAsParsed(query);
+
+        QueryTreeCache cache = createCache();
+        DomainModel model = prepareDomainModel();
+        String parsed = toQuery(new QueryTree(model, query));
+        List<String> expressions = new QueryParserAstBased(model, query).getSelectedExpressionsList();
+
+        assertEquals(expressions, createParser(cache, model, query).getSelectedExpressionsList());
+        assertEquals(expressions, createParser(cache, model, query).getSelectedExpressionsList());
+        assertEquals(parsed, toQuery(cache.get(model, query)));
+        assertEquals(parsed, toQuery(cache.getCopy(model, query)));
+    }
+
+    private void assertCachedSameAsParsed(String query) {
+        QueryTreeCache cache = createCache();
+        DomainModel model = prepareDomainModel();
+        String parsed = toQuery(new QueryTree(model, query));
+        String transformed = new QueryTransformerAstBased(model, query).getResult();
+
+        assertEquals(parsed, toQuery(cache.get(model, query)));
+        // cache hits
+        assertEquals(parsed, toQuery(cache.getCopy(model, query)));
+        assertEquals(parsed, toQuery(cache.getCopy(model, query).copy()));
+        assertEquals(transformed, createTransformer(cache, model, query).getResult());
+        assertEquals(transformed, createTransformer(cache, model, query).getResult());
+        assertEquals(1, cache.size());
+    }
+
+    private String toQuery(QueryTree tree) {
+        return tree.visit(new TreeToQuery()).getQueryString();
+    }
+
+    private QueryTreeCache createCache() {
+        return new QueryTreeCache() {
+            {
+                cache = CacheBuilder.newBuilder().maximumSize(10).build();
+            }
+        };
+    }
+
+    private QueryTransformerAstBased createTransformer(QueryTreeCache cache, DomainModel model, String query) {
+        return new QueryTransformerAstBased(model, query) {
+            {
+                queryTreeCache = cache;
+            }
+        };
+    }
+
+    private QueryParserAstBased createParser(QueryTreeCache cache, DomainModel model, String query) {
+        return new QueryParserAstBased(model, query) {
+            {
+                queryTreeCache = cache;
+            }
+        };
+    }
+
+    private DomainModel prepareDomainModel() {
+        EntityBuilder builder = EntityBuilder.create();
+        builder.startNewEntity("sec_GroupHierarchy");
+        builder.addReferenceAttribute("group", "sec_Group");
+        builder.addStringAttribute("createdBy");
+        builder.addReferenceAttribute("parent", "sec_GroupHierarchy");
+        JpqlEntityModel groupHierarchy = builder.produce();
+
+        JpqlEntityModel groupEntity = builder.produceImmediately("sec_Group", "name");
+
+        return new DomainModel(groupHierarchy, groupEntity);
+    }
+}
@@ -63,6 +63,11 @@ public class DynamicAttributesEntity implements Entity {
             EntityValues.setValue(((DynamicAttributesEntity) source).mainItem, name, value, checkEquals);
         }
 
+        @Override
+        public int getAttributeOrdinal(String name) {
+            return -1;
+        }
+
         @Override
         public void addPropertyChangeListener(EntityPropertyChangeListener listener) {
             super.addPropertyChangeListener(listener);
@@ -31,7 +31,12 @@ public class DataProperties {
     boolean queryCacheEnabled;
     int queryCacheMaxSize;
     int numberIdCacheSize;
+    boolean numberIdCachePrefetchEnabled;
     boolean useEntityDataStoreForIdSequence;
+    int parallelLoadThreads;
+    int streamFetchSize;
+    int deletePolicyBatchSize;
+    int jdbcBatchWritingSize;
 
     public DataProperties(
             boolean inMemoryDistinct,
@@ -41,7 +46,12 @@ public class DataProperties {
             @DefaultValue("true") boolean queryCacheEnabled,
             @DefaultValue("100") int queryCacheMaxSize,
             @DefaultValue("100") int numberIdCacheSize,
-            boolean useEntityDataStoreForIdSequence
+            @DefaultValue("true") boolean numberIdCachePrefetchEnabled,
+            boolean useEntityDataStoreForIdSequence,
+            @DefaultValue("0") int parallelLoadThreads,
+            @DefaultValue("1000") int streamFetchSize,
+            @DefaultValue("500") int deletePolicyBatchSize,
+            @DefaultValue("0") int jdbcBatchWritingSize
     ) {
         this.inMemoryDistinct = inMemoryDistinct;
         this.disableLoadValuesIfConstraints = disableLoadValuesIfConstraints;
@@ -50,7 +60,12 @@ public class DataProperties {
         this.queryCacheEnabled = queryCacheEnabled;
         this.queryCacheMaxSize = queryCacheMaxSize;
         this.numberIdCacheSize = numberIdCacheSize;
+        this.numberIdCachePrefetchEnabled = numberIdCachePrefetchEnabled;
         this.useEntityDataStoreForIdSequence = useEntityDataStoreForIdSequence;
+        this.parallelLoadThreads = parallelLoadThreads;
+        this.streamFetchSize = streamFetchSize;
+        this.deletePolicyBatchSize = deletePolicyBatchSize;
+        this.jdbcBatchWritingSize = jdbcBatchWritingSize;
     }
 
     public boolean isInMemoryDistinct() {
@@ -81,7 +96,53 @@ public class DataProperties {
         return numberIdCacheSize;
     }
 
+    /**
+     * Whether the next block of cached number ids is requested from the sequence in background when half of the
+     * current block is used, so that threads creating entities don't wait for the database when the block ends.
+     */
+    public boolean isNumberIdCachePrefetchEnabled() {
+        return numberIdCachePrefetchEnabled;
+    }
+
     public boolean isUseEntityDataStoreForIdSequence() {
         return useEntityDataStoreForIdSequence;
     }
+
+    /**
+     * Number of threads used to load large lists of entities by ids concurrently, each thread in its own read-only
+     * transaction. 0 or 1 disables parallel loading. Each thread uses its own connection, so the value should be
+     * lower than the size of the connection pool.
+     */
+    public int getParallelLoadThreads() {
+        return parallelLoadThreads;
+    }
+
+    /**
+     * JDBC fetch size used when streaming query results. Also defines the size of chunks in which streamed
+     * entities are processed by load listeners and security and detached. Can be overridden for a particular
+     * load by the {@link PersistenceHints#FETCH_SIZE} hint.
+     */
+    public int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    /**
+     * Maximum number of removed instances of the same entity class for which delete policies are processed together,
+     * using queries with IN-lists of their identifiers. 1 disables bulk processing, so delete policies are processed
+     * for each removed instance separately.
+     */
+    public int getDeletePolicyBatchSize() {
+        return deletePolicyBatchSize;
+    }
+
+    /**
+     * Maximum number of inserts, updates or deletes of the same table that EclipseLink sends to the database in one
+     * JDBC batch on flush. Batching speeds up transactions writing many rows, e.g. dynamic attribute values of many
+     * entities, but the JDBC driver may report errors and update counts for a whole batch instead of a single
+     * statement. 0 disables batch writing. The {@code eclipselink.jdbc.batch-writing} application properties take
+     * precedence over this one.
+     */
+    public int getJdbcBatchWritingSize() {
+        return jdbcBatchWritingSize;
+    }
 }
@@ -30,6 +30,8 @@ public class PersistenceHints {
 
     public static final String CACHEABLE = "jmix.cacheable";
 
+    public static final String FETCH_SIZE = "jmix.fetchSize";
+
     public static boolean isSoftDeletion(EntityManager entityManager) {
         Boolean softDeletion = (Boolean) entityManager.getProperties().get(SOFT_DELETION);
         return softDeletion == null || softDeletion;
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.data.impl;
+
+import org.eclipse.persistence.queries.ScrollableCursor;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * INTERNAL.
+ * Iterates over a database cursor reading its rows by chunks. Each chunk is passed to the processor
+ * before its elements are returned, so the processor can filter, post-process and detach them together.
+ */
+class CursorChunkIterator<E> implements Iterator<E> {
+
+    private final ScrollableCursor cursor;
+    private final int chunkSize;
+    private final Function<List<E>, List<E>> chunkProcessor;
+
+    private Iterator<E> current = Collections.emptyIterator();
+
+    CursorChunkIterator(ScrollableCursor cursor, int chunkSize, Function<List<E>, List<E>> chunkProcessor) {
+        this.cursor = cursor;
+        this.chunkSize = chunkSize;
+        this.chunkProcessor = chunkProcessor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (cursor.isClosed() || !cursor.hasNext()) {
+                return false;
+            }
+            List<E> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && cursor.hasNext()) {
+                //noinspection unchecked
+                chunk.add((E) cursor.next());
+            }
+            current = chunkProcessor.apply(chunk).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+}
@@ -15,17 +15,27 @@
  */
 package io.jmix.data.impl;
 
+import com.google.common.collect.Lists;
 import io.jmix.core.*;
 import io.jmix.core.Entity;
+import io.jmix.core.entity.Creatable;
 import io.jmix.core.entity.EntityValues;
 import io.jmix.core.entity.SoftDelete;
+import io.jmix.core.entity.Updatable;
+import io.jmix.core.entity.Versioned;
 import io.jmix.core.entity.annotation.OnDelete;
 import io.jmix.core.entity.annotation.OnDeleteInverse;
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.Range;
+import io.jmix.data.AuditInfoProvider;
+import io.jmix.data.DataProperties;
 import io.jmix.data.StoreAwareLocator;
+import io.jmix.data.impl.entitycache.QueryCacheManager;
 import io.jmix.data.persistence.DbmsSpecifics;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.sessions.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
@@ -37,8 +47,10 @@ import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.Version;
 import javax.sql.DataSource;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Component(DeletePolicyProcessor.NAME)
 @Scope("prototype")
@@ -49,8 +61,14 @@ public class DeletePolicyProcessor {
     private static final Logger log = LoggerFactory.getLogger(DeletePolicyProcessor.class);
 
     protected Entity entity;
+    protected List<Entity> entities = Collections.emptyList();
     protected MetaClass metaClass;
     protected String primaryKeyName;
+    protected String storeName;
+
+    protected Map<MetaProperty, Map<Object, Entity>> prefetchedReferences = new HashMap<>();
+    protected Map<MetaProperty, Map<Object, List<Entity>>> prefetchedCollections = new HashMap<>();
+    protected Map<MetaProperty, Set<Object>> prefetchedNonEmptyCollections = new HashMap<>();
 
     @Autowired
     protected StoreAwareLocator storeAwareLocator;
@@ -73,6 +91,24 @@ public class DeletePolicyProcessor {
     @Autowired
     protected EntityStates entityStates;
 
+    @Autowired
+    protected EntityListenerManager entityListenerManager;
+
+    @Autowired
+    protected DataProperties dataProperties;
+
+    @Autowired
+    protected AuditInfoProvider auditInfoProvider;
+
+    @Autowired
+    protected TimeSource timeSource;
+
+    @Autowired
+    protected QueryCacheManager queryCacheManager;
+
+    @Autowired(required = false)
+    protected List<OrmLifecycleListener> lifecycleListeners = new ArrayList<>();
+
     protected EntityManager entityManager;
 
     public Entity getEntity() {
@@ -81,11 +117,34 @@ public class DeletePolicyProcessor {
 
     public void setEntity(Entity entity) {
         this.entity = entity;
+        this.entities = Collections.singletonList(entity);
         this.metaClass = metadata.getClass(entity.getClass());
         primaryKeyName = metadataTools.getPrimaryKeyName(metaClass);
 
         String storeName = metadataTools.getStoreName(metaClass);
-        entityManager = getEntityManager(storeName == null ? Stores.MAIN : storeName);
+        this.storeName = storeName == null ? Stores.MAIN : storeName;
+        entityManager = getEntityManager(this.storeName);
+    }
+
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Sets removed instances of the same entity class, for which delete policies are processed together.
+     */
+    public void setEntities(Collection<Entity> entities) {
+        if (entities.isEmpty())
+            throw new IllegalArgumentException("Entities collection is empty");
+
+        Iterator<Entity> iterator = entities.iterator();
+        setEntity(iterator.next());
+        while (iterator.hasNext()) {
+            Entity next = iterator.next();
+            if (!metaClass.equals(metadata.getClass(next.getClass())))
+                throw new IllegalArgumentException("Entities must be of the same class: " + metaClass + ", " + next);
+        }
+        this.entities = new ArrayList<>(entities);
     }
 
     private EntityManager getEntityManager(String storeName) {
@@ -93,6 +152,11 @@ public class DeletePolicyProcessor {
     }
 
     public void process() {
+        if (entities.size() > 1) {
+            processBulk();
+            return;
+        }
+
         List<MetaProperty> properties = new ArrayList<>();
 
         fillProperties(properties, OnDeleteInverse.class.getName());
@@ -116,17 +180,62 @@ public class DeletePolicyProcessor {
         }
     }
 
+    /**
+     * Processes delete policies for all instances set by {@link #setEntities(Collection)} in batches, running one
+     * query with an IN-list of identifiers per batch instead of a query per instance.
+     */
+    protected void processBulk() {
+        List<List<Entity>> batches = Lists.partition(entities, getBatchSize());
+        List<MetaProperty> properties = new ArrayList<>();
+
+        fillProperties(properties, OnDeleteInverse.class.getName());
+        if (!properties.isEmpty()) {
+            for (List<Entity> batch : batches) {
+                processOnDeleteInverse(properties, batch);
+            }
+        }
+
+        fillProperties(properties, OnDelete.class.getName());
+        if (!properties.isEmpty()) {
+            for (List<Entity> batch : batches) {
+                prefetchOnDelete(properties, batch);
+                try {
+                    for (Entity e : batch) {
+                        this.entity = e;
+                        processOnDelete(properties);
+                    }
+                } finally {
+                    prefetchedReferences.clear();
+                    prefetchedCollections.clear();
+                    prefetchedNonEmptyCollections.clear();
+                }
+            }
+        }
+    }
+
+    protected int getBatchSize() {
+        int batchSize = dataProperties.getDeletePolicyBatchSize();
+        Integer maxIdsBatchSize = dbmsSpecifics.getDbmsFeatures(metaClass.getStore().getName()).getMaxIdsBatchSize();
+        if (maxIdsBatchSize != null) {
+            batchSize = Math.min(batchSize, maxIdsBatchSize);
+        }
+        return Math.max(batchSize, 1);
+    }
+
+    protected List<MetaClass> getPersistentEntities(MetaClass metaClass) {
+        List<MetaClass> persistentEntities = new ArrayList<>();
+        if (isPersistent(metaClass))
+            persistentEntities.add(metaClass);
+        for (MetaClass descendant : metaClass.getDescendants()) {
+            if (isPersistent(descendant))
+                persistentEntities.add(descendant);
+        }
+        return persistentEntities;
+    }
+
     protected void processOnDeleteInverse(List<MetaProperty> properties) {
         for (MetaProperty property : properties) {
-            MetaClass metaClass = property.getDomain();
-
-            List<MetaClass> persistentEntities = new ArrayList<>();
-            if (isPersistent(metaClass))
-                persistentEntities.add(metaClass);
-            for (MetaClass descendant : metaClass.getDescendants()) {
-                if (isPersistent(descendant))
-                    persistentEntities.add(descendant);
-            }
+            List<MetaClass> persistentEntities = getPersistentEntities(property.getDomain());
 
             for (MetaClass persistentEntity : persistentEntities) {
                 OnDeleteInverse annotation = property.getAnnotatedElement().getAnnotation(OnDeleteInverse.class);
@@ -148,6 +257,28 @@ public class DeletePolicyProcessor {
         }
     }
 
+    protected void processOnDeleteInverse(List<MetaProperty> properties, List<Entity> batch) {
+        List<Object> ids = getIds(batch);
+        for (MetaProperty property : properties) {
+            DeletePolicy deletePolicy = property.getAnnotatedElement().getAnnotation(OnDeleteInverse.class).value();
+
+            for (MetaClass persistentEntity : getPersistentEntities(property.getDomain())) {
+                switch (deletePolicy) {
+                    case DENY:
+                        if (referenceExists(persistentEntity.getName(), property, ids))
+                            throw new DeletePolicyException(this.metaClass.getName(), persistentEntity.getName());
+                        break;
+                    case CASCADE:
+                        cascade(persistentEntity, property, ids);
+                        break;
+                    case UNLINK:
+                        unlink(persistentEntity, property, batch, ids);
+                        break;
+                }
+            }
+        }
+    }
+
     protected void processOnDelete(List<MetaProperty> properties) {
         for (MetaProperty property : properties) {
             MetaClass metaClass = property.getRange().asClass();
@@ -287,6 +418,10 @@ public class DeletePolicyProcessor {
         if (entityStates.isLoaded(entity, property.getName()))
             return EntityValues.getValue(entity, property.getName());
         else {
+            Map<Object, Entity> references = prefetchedReferences.get(property);
+            if (references != null) {
+                return references.get(EntityValues.getId(entity));
+            }
             Query query = entityManager.createQuery(
                     "select e." + property.getName() + " from " + metadata.getClass(entity.getClass()).getName()
                             + " e where e." + primaryKeyName + " = ?1");
@@ -315,6 +450,11 @@ public class DeletePolicyProcessor {
             return value == null || value.isEmpty();
         }
 
+        Set<Object> nonEmptyCollectionOwners = prefetchedNonEmptyCollections.get(property);
+        if (nonEmptyCollectionOwners != null) {
+            return !nonEmptyCollectionOwners.contains(EntityValues.getId(entity));
+        }
+
         String invPropName = inverseProperty.getName();
         String collectionPkName = metadataTools.getPrimaryKeyName(property.getRange().asClass());
 
@@ -339,13 +479,19 @@ public class DeletePolicyProcessor {
         }
 
         String invPropName = inverseProperty.getName();
-        String qlStr = "select e from " + property.getRange().asClass().getName() + " e where e." + invPropName + "." +
-                primaryKeyName + " = ?1";
+        List<Entity> list;
+        Map<Object, List<Entity>> collections = prefetchedCollections.get(property);
+        if (collections != null) {
+            list = collections.getOrDefault(EntityValues.getId(entity), Collections.emptyList());
+        } else {
+            String qlStr = "select e from " + property.getRange().asClass().getName() + " e where e." + invPropName + "." +
+                    primaryKeyName + " = ?1";
 
-        Query query = entityManager.createQuery(qlStr);
-        query.setParameter(1, EntityValues.getId(entity));
-        @SuppressWarnings("unchecked")
-        List<Entity> list = query.getResultList();
+            Query query = entityManager.createQuery(qlStr);
+            query.setParameter(1, EntityValues.getId(entity));
+            //noinspection unchecked
+            list = query.getResultList();
+        }
 
         // If the property is not loaded, it means it was not modified and further check is not needed
         if (!entityStates.isLoaded(entity, property.getName())) {
@@ -419,4 +565,261 @@ public class DeletePolicyProcessor {
             }
         }
     }
+
+    protected List<Object> getIds(List<Entity> batch) {
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Entity e : batch) {
+            ids.add(EntityValues.getId(e));
+        }
+        return ids;
+    }
+
+    protected boolean referenceExists(String entityName, MetaProperty property, List<Object> ids) {
+        String template = property.getRange().getCardinality().isMany() ?
+                "select count(e) from %s e join e.%s c where c." + primaryKeyName + " in :ids" :
+                "select count(e) from %s e where e.%s." + primaryKeyName + " in :ids";
+        String qstr = String.format(template, entityName, property.getName());
+        Query query = entityManager.createQuery(qstr);
+        query.setParameter("ids", ids);
+        query.setMaxResults(1);
+        Long count = (Long) query.getSingleResult();
+        return count > 0;
+    }
+
+    protected List<Entity> getReferringEntities(String entityName, MetaProperty property, List<Object> ids) {
+        String template = property.getRange().getCardinality().isMany() ?
+                "select e from %s e join e.%s c where c." + primaryKeyName + " in :ids" :
+                "select e from %s e where e.%s." + primaryKeyName + " in :ids";
+        String qstr = String.format(template, entityName, property.getName());
+        Query query = entityManager.createQuery(qstr);
+        query.setParameter("ids", ids);
+        @SuppressWarnings("unchecked")
+        List<Entity> list = query.getResultList();
+        return list;
+    }
+
+    protected void cascade(MetaClass persistentEntity, MetaProperty property, List<Object> ids) {
+        if (!property.getRange().getCardinality().isMany() && isSetBasedDeleteAllowed(persistentEntity)) {
+            String qstr = String.format("delete from %s e where e.%s.%s in :ids",
+                    persistentEntity.getName(), property.getName(), primaryKeyName);
+            Query query = entityManager.createQuery(qstr);
+            query.setParameter("ids", ids);
+            int count = query.executeUpdate();
+            invalidateQueryCache(persistentEntity);
+            log.debug("Cascade delete of {} instances of {} referring to {} removed instances of {}",
+                    count, persistentEntity.getName(), ids.size(), metaClass.getName());
+            return;
+        }
+        for (Entity e : getReferringEntities(persistentEntity.getName(), property, ids)) {
+            entityManager.remove(e);
+        }
+    }
+
+    protected void unlink(MetaClass persistentEntity, MetaProperty property, List<Entity> batch, List<Object> ids) {
+        if (metadataTools.isOwningSide(property)) {
+            if (!property.getRange().getCardinality().isMany() && isSetBasedUpdateAllowed(persistentEntity)) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("update ").append(persistentEntity.getName()).append(" e set e.")
+                        .append(property.getName()).append(" = null");
+                MetaProperty versionProperty = getVersionProperty(persistentEntity);
+                if (versionProperty != null) {
+                    sb.append(", e.").append(versionProperty.getName())
+                            .append(" = e.").append(versionProperty.getName()).append(" + 1");
+                }
+                boolean updatable = Updatable.class.isAssignableFrom(persistentEntity.getJavaClass());
+                if (updatable) {
+                    sb.append(", e.updateTs = :updateTs, e.updatedBy = :updatedBy");
+                }
+                sb.append(" where e.").append(property.getName()).append(".").append(primaryKeyName).append(" in :ids");
+
+                Query query = entityManager.createQuery(sb.toString());
+                query.setParameter("ids", ids);
+                if (updatable) {
+                    query.setParameter("updateTs", timeSource.currentTimestamp());
+                    query.setParameter("updatedBy", auditInfoProvider.getCurrentUserUsername());
+                }
+                int count = query.executeUpdate();
+                invalidateQueryCache(persistentEntity);
+                log.debug("Unlinked {} instances of {} from {} removed instances of {}",
+                        count, persistentEntity.getName(), ids.size(), metaClass.getName());
+                return;
+            }
+            Set<Entity> removed = new HashSet<>(batch);
+            for (Entity e : getReferringEntities(persistentEntity.getName(), property, ids)) {
+                if (property.getRange().getCardinality().isMany()) {
+                    Collection<?> collection = EntityValues.getValue(e, property.getName());
+                    if (collection != null) {
+                        //noinspection SuspiciousMethodCalls
+                        collection.removeIf(removed::contains);
+                    }
+                } else {
+                    setReferenceNull(e, property);
+                }
+            }
+        } else {
+            MetaProperty inverseProp = property.getInverse();
+            if (inverseProp != null && inverseProp.getDomain().equals(metaClass)) {
+                for (Entity e : batch) {
+                    setReferenceNull(e, inverseProp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards cached query results for the entity changed by a JPQL statement bypassing the persistence context.
+     * The results are discarded again after commit, because other transactions can cache the old state until then.
+     */
+    protected void invalidateQueryCache(MetaClass persistentEntity) {
+        queryCacheManager.invalidate(persistentEntity.getName(), true);
+        persistenceSupport.invalidateQueryCacheOnCommit(storeName, persistentEntity.getName());
+    }
+
+    /**
+     * Checks whether instances of the given entity can be changed by a JPQL update statement bypassing the persistence
+     * context, i.e. the entity is not versioned or audited, there are no listeners that must be notified about changes
+     * of each instance (including Entity Log) and no instances of the entity are managed in the current transaction.
+     * <p>
+     * If this method is overridden to allow versioned or {@link Updatable} entities, the update statement increments
+     * the version and sets {@code updateTs} and {@code updatedBy} attributes, but optimistic locking of the changed
+     * instances is not checked.
+     */
+    protected boolean isSetBasedUpdateAllowed(MetaClass persistentEntity) {
+        if (!lifecycleListeners.isEmpty())
+            return false;
+
+        List<MetaClass> metaClasses = new ArrayList<>();
+        metaClasses.add(persistentEntity);
+        metaClasses.addAll(persistentEntity.getDescendants());
+        for (MetaClass aClass : metaClasses) {
+            Class<?> aJavaClass = aClass.getJavaClass();
+            if (Versioned.class.isAssignableFrom(aJavaClass)
+                    || Creatable.class.isAssignableFrom(aJavaClass)
+                    || Updatable.class.isAssignableFrom(aJavaClass)
+                    || getVersionProperty(aClass) != null)
+                return false;
+            if (aClass.getAnnotations().get(PublishEntityChangedEvents.class.getName()) != null)
+                return false;
+            for (EntityListenerType type : EntityListenerType.values()) {
+                if (type != EntityListenerType.BEFORE_ATTACH && type != EntityListenerType.BEFORE_DETACH
+                        && entityListenerManager.hasListeners(aClass.getJavaClass(), type))
+                    return false;
+            }
+        }
+
+        Class<?> javaClass = persistentEntity.getJavaClass();
+        for (Entity instance : persistenceSupport.getInstanceContainerResourceHolder(
+                persistentEntity.getStore().getName()).getAllInstances()) {
+            if (javaClass.isInstance(instance))
+                return false;
+        }
+        // instances can be loaded into the persistence context without registering in the container, e.g. by queries
+        UnitOfWork unitOfWork = entityManager.unwrap(UnitOfWork.class);
+        if (unitOfWork instanceof UnitOfWorkImpl) {
+            for (Object instance : ((UnitOfWorkImpl) unitOfWork).getCloneMapping().keySet()) {
+                if (javaClass.isInstance(instance))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    protected MetaProperty getVersionProperty(MetaClass metaClass) {
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getAnnotatedElement().isAnnotationPresent(Version.class))
+                return property;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether instances of the given entity can be removed by a JPQL delete statement. In addition to
+     * {@link #isSetBasedUpdateAllowed(MetaClass)} conditions, the entity must not be soft deleted and must not have
+     * collections or one-to-one references which can require removal of linked rows.
+     */
+    protected boolean isSetBasedDeleteAllowed(MetaClass persistentEntity) {
+        if (SoftDelete.class.isAssignableFrom(persistentEntity.getJavaClass()))
+            return false;
+
+        for (MetaProperty property : persistentEntity.getProperties()) {
+            Range range = property.getRange();
+            if (range.isClass() && (range.getCardinality().isMany()
+                    || range.getCardinality() == Range.Cardinality.ONE_TO_ONE))
+                return false;
+        }
+        return isSetBasedUpdateAllowed(persistentEntity);
+    }
+
+    protected void prefetchOnDelete(List<MetaProperty> properties, List<Entity> batch) {
+        List<Object> ids = getIds(batch);
+        for (MetaProperty property : properties) {
+            DeletePolicy deletePolicy = property.getAnnotatedElement().getAnnotation(OnDelete.class).value();
+            if (property.getRange().getCardinality().isMany()) {
+                if (property.getInverse() == null)
+                    continue;
+                if (deletePolicy == DeletePolicy.DENY) {
+                    prefetchedNonEmptyCollections.put(property, loadNonEmptyCollectionOwners(property, ids));
+                } else if (deletePolicy == DeletePolicy.CASCADE
+                        || (deletePolicy == DeletePolicy.UNLINK && !metadataTools.isOwningSide(property))) {
+                    prefetchedCollections.put(property, loadCollections(property, ids));
+                }
+            } else if (deletePolicy != DeletePolicy.UNLINK || !metadataTools.isOwningSide(property)) {
+                List<Object> notLoadedIds = batch.stream()
+                        .filter(e -> !entityStates.isLoaded(e, property.getName()))
+                        .map(EntityValues::getId)
+                        .collect(Collectors.toList());
+                if (!notLoadedIds.isEmpty()) {
+                    prefetchedReferences.put(property, loadReferences(property, notLoadedIds));
+                }
+            }
+        }
+    }
+
+    protected Map<Object, Entity> loadReferences(MetaProperty property, List<Object> ids) {
+        Query query = entityManager.createQuery(
+                "select e." + primaryKeyName + ", e." + property.getName() + " from " + metaClass.getName()
+                        + " e where e." + primaryKeyName + " in :ids");
+        query.setParameter("ids", ids);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        Map<Object, Entity> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put(row[0], (Entity) row[1]);
+        }
+        return result;
+    }
+
+    protected Set<Object> loadNonEmptyCollectionOwners(MetaProperty property, List<Object> ids) {
+        String invPropName = property.getInverse().getName();
+        String qlStr = "select distinct e." + invPropName + "." + primaryKeyName + " from "
+                + property.getRange().asClass().getName()
+                + " e where e." + invPropName + "." + primaryKeyName + " in :ids";
+
+        Query query = entityManager.createQuery(qlStr);
+        query.setParameter("ids", ids);
+        @SuppressWarnings("unchecked")
+        List<Object> list = query.getResultList();
+        return new HashSet<>(list);
+    }
+
+    protected Map<Object, List<Entity>> loadCollections(MetaProperty property, List<Object> ids) {
+        String invPropName = property.getInverse().getName();
+        String qlStr = "select e, e." + invPropName + "." + primaryKeyName + " from "
+                + property.getRange().asClass().getName()
+                + " e where e." + invPropName + "." + primaryKeyName + " in :ids";
+
+        Query query = entityManager.createQuery(qlStr);
+        query.setParameter("ids", ids);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        // Items are grouped by the master id stored in the database, as the single-instance query does
+        Map<Object, List<Entity>> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.computeIfAbsent(row[1], id -> new ArrayList<>()).add((Entity) row[0]);
+        }
+        return result;
+    }
 }
@@ -269,6 +269,13 @@ public class EntityListenerManager {
         }
     }
 
+    /**
+     * @return true if listeners of the given type are enabled and registered for the entity class
+     */
+    public boolean hasListeners(Class<? extends Entity> entityClass, EntityListenerType type) {
+        return enabled && !getListener(entityClass, type).isEmpty();
+    }
+
     public void enable(boolean enable) {
         this.enabled = enable;
     }
@@ -17,6 +17,7 @@ package io.jmix.data.impl;
 
 import io.jmix.core.BeanLocator;
 import io.jmix.core.EnvironmentUtils;
+import io.jmix.data.DataProperties;
 import io.jmix.data.persistence.JmixIsNullExpressionOperator;
 import org.eclipse.persistence.expressions.ExpressionOperator;
 import org.springframework.core.env.Environment;
@@ -39,11 +40,15 @@ public class JmixEclipseLinkJpaVendorAdapter extends EclipseLinkJpaVendorAdapter
 
     protected final PersistenceProvider persistenceProvider;
 
+    protected final DataProperties dataProperties;
+
     @Autowired
     public JmixEclipseLinkJpaVendorAdapter(Environment environment,
                                            JmixEclipseLinkJpaDialect jpaDialect,
-                                           BeanLocator beanLocator) {
+                                           BeanLocator beanLocator,
+                                           DataProperties dataProperties) {
         this.environment = environment;
+        this.dataProperties = dataProperties;
         this.jpaDialect = jpaDialect;
         this.persistenceProvider = new JmixPersistenceProvider(beanLocator);
 
@@ -68,6 +73,11 @@ public class JmixEclipseLinkJpaVendorAdapter extends EclipseLinkJpaVendorAdapter
         map.put("eclipselink.weaving", "static");
         map.put("eclipselink.flush-clear.cache", "Merge");
         map.put("eclipselink.cache.shared.default", "false");
+        if (dataProperties.getJdbcBatchWritingSize() > 0) {
+            // group consecutive inserts, updates and deletes of the same table into JDBC batches on flush
+            map.put("eclipselink.jdbc.batch-writing", "JDBC");
+            map.put("eclipselink.jdbc.batch-writing.size", String.valueOf(dataProperties.getJdbcBatchWritingSize()));
+        }
 
         map.put("javax.persistence.validation.mode", "NONE");
 
@@ -44,6 +44,7 @@ import org.eclipse.persistence.internal.jpa.EJBQueryImpl;
 import org.eclipse.persistence.jpa.JpaQuery;
 import org.eclipse.persistence.queries.DatabaseQuery;
 import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
@@ -154,6 +155,33 @@ public class JmixQuery<E> implements TypedQuery<E> {
         return result;
     }
 
+    /**
+     * Executes the query and returns an EclipseLink scrollable cursor over its results instead of a list.
+     * <p>
+     * The query cache is not used, and fetch plans are not applied to the returned instances: the caller is
+     * responsible for fetching them and for closing the cursor.
+     *
+     * @param fetchSize JDBC fetch size, 0 to use the driver's default
+     */
+    public ScrollableCursor getResultCursor(int fetchSize) {
+        if (isNative)
+            throw new UnsupportedOperationException("Cursors are not supported for native queries");
+
+        if (log.isDebugEnabled())
+            log.debug(queryString.replaceAll("[\\t\\n\\x0B\\f\\r]", " "));
+
+        singleResultExpected = false;
+
+        JpaQuery<E> jpaQuery = getQuery();
+        preExecute(jpaQuery);
+
+        jpaQuery.setHint(QueryHints.SCROLLABLE_CURSOR, HintValues.TRUE);
+        if (fetchSize > 0) {
+            jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize);
+        }
+        return (ScrollableCursor) jpaQuery.getSingleResult();
+    }
+
     @Override
     public TypedQuery<E> setMaxResults(int maxResult) {
         this.maxResults = maxResult;
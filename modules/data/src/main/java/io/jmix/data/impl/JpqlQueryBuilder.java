@@ -32,6 +32,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import java.util.*;
@@ -55,6 +56,7 @@ public class JpqlQueryBuilder {
     protected Map<String, Object> queryParameters;
     protected Condition condition;
     protected Sort sort;
+    protected List<?> keysetValues;
 
     protected String entityName;
     protected List<String> valueProperties;
@@ -80,6 +82,9 @@ public class JpqlQueryBuilder {
     @Autowired
     protected SortJpqlGenerator sortJpqlGenerator;
 
+    @Autowired
+    protected KeysetJpqlGenerator keysetJpqlGenerator;
+
     @Autowired
     protected QueryTransformerFactory queryTransformerFactory;
 
@@ -131,6 +136,11 @@ public class JpqlQueryBuilder {
         return this;
     }
 
+    public JpqlQueryBuilder setKeysetValues(@Nullable List<?> keysetValues) {
+        this.keysetValues = keysetValues;
+        return this;
+    }
+
     public JpqlQueryBuilder setPreviousResults(UUID sessionId, int queryKey) {
         this.previousResults = true;
         this.sessionId = sessionId;
@@ -202,15 +212,30 @@ public class JpqlQueryBuilder {
         }
         applyFiltering();
         applySorting();
+        applyKeyset();
         restrictByPreviousResults();
     }
 
     protected void applySorting() {
+        if (keysetValues != null && entityName != null && (sort == null || sort.getOrders().isEmpty())) {
+            // keyset pagination requires a stable order
+            sort = Sort.by(getPrimaryKeyProperty().getName());
+        }
         if (sort != null) {
             resultQuery = sortJpqlGenerator.processQuery(entityName, valueProperties, resultQuery, sort);
         }
     }
 
+    protected void applyKeyset() {
+        if (keysetValues != null) {
+            if (entityName == null) {
+                throw new UnsupportedOperationException("Keyset pagination is supported only for entity queries");
+            }
+            resultParameters = resultParameters == null ? new HashMap<>() : new HashMap<>(resultParameters);
+            resultQuery = keysetJpqlGenerator.processQuery(entityName, resultQuery, sort, keysetValues, resultParameters);
+        }
+    }
+
     protected void applyFiltering() {
         if (condition != null) {
             Set<String> nonNullParamNames = queryParameters.entrySet().stream()
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.data.impl;
+
+import io.jmix.core.*;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaPropertyPath;
+import io.jmix.data.persistence.JpqlSortExpressionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds a seek predicate to a query to load the page following the instance with the given values of keyset
+ * properties.
+ *
+ * @see LoadContext.Query#setKeysetValues(List)
+ */
+@Component(KeysetJpqlGenerator.NAME)
+public class KeysetJpqlGenerator {
+    public static final String NAME = "data_KeysetJpqlGenerator";
+
+    public static final String PARAM_PREFIX = "_keyset";
+
+    @Autowired
+    protected Metadata metadata;
+    @Autowired
+    protected MetadataTools metadataTools;
+    @Autowired
+    protected QueryTransformerFactory queryTransformerFactory;
+    @Autowired
+    protected JpqlSortExpressionProvider jpqlSortExpressionProvider;
+
+    /**
+     * @param entityName   loaded entity
+     * @param queryString  query which is already sorted according to the given sort
+     * @param sort         sort, null means sorting by primary key
+     * @param keysetValues values of keyset properties of the last loaded instance
+     * @param parameters   mutable map of query parameters to put values of keyset properties to
+     * @return query with the seek predicate
+     */
+    public String processQuery(String entityName, String queryString, @Nullable Sort sort,
+                               List<?> keysetValues, Map<String, Object> parameters) {
+        MetaClass metaClass = metadata.getClass(entityName);
+        if (metadataTools.hasCompositePrimaryKey(metaClass)) {
+            throw new UnsupportedOperationException("Keyset pagination is not supported for entities with composite primary key");
+        }
+
+        List<String> properties = metadataTools.getKeysetProperties(metaClass, sort);
+        if (properties.size() != keysetValues.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Keyset pagination by %s requires %d values, got %d", properties, properties.size(), keysetValues.size()));
+        }
+
+        boolean asc = isAscending(sort);
+        List<String> expressions = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            expressions.add(getKeysetExpression(metaClass, properties.get(i), asc));
+            Object value = keysetValues.get(i);
+            if (value == null) {
+                throw new IllegalArgumentException(String.format(
+                        "Keyset value of '%s' is null, only not null properties can be used for keyset pagination",
+                        properties.get(i)));
+            }
+            parameters.put(PARAM_PREFIX + i, value);
+        }
+
+        // (p1 > :v1) or (p1 = :v1 and p2 > :v2) or ...
+        String operator = asc ? " > " : " < ";
+        StringBuilder where = new StringBuilder("(");
+        for (int i = 0; i < expressions.size(); i++) {
+            if (i > 0) {
+                where.append(" or ");
+            }
+            where.append("(");
+            for (int j = 0; j < i; j++) {
+                where.append(expressions.get(j)).append(" = :").append(PARAM_PREFIX).append(j).append(" and ");
+            }
+            where.append(expressions.get(i)).append(operator).append(":").append(PARAM_PREFIX).append(i);
+            where.append(")");
+        }
+        where.append(")");
+
+        QueryTransformer transformer = queryTransformerFactory.transformer(queryString);
+        transformer.addWhere(where.toString());
+        return transformer.getResult();
+    }
+
+    protected boolean isAscending(@Nullable Sort sort) {
+        if (sort == null || sort.getOrders().isEmpty()) {
+            return true;
+        }
+        Sort.Direction direction = sort.getOrders().get(0).getDirection();
+        for (Sort.Order order : sort.getOrders()) {
+            if (order.getDirection() != direction) {
+                throw new UnsupportedOperationException("Keyset pagination by multiple properties in different directions is not supported");
+            }
+        }
+        return direction == Sort.Direction.ASC;
+    }
+
+    protected String getKeysetExpression(MetaClass metaClass, String property, boolean asc) {
+        MetaPropertyPath metaPropertyPath = metaClass.getPropertyPath(property);
+        if (metaPropertyPath == null) {
+            throw new IllegalArgumentException(String.format("Could not resolve property path '%s' in '%s'", property, metaClass));
+        }
+        if (!metadataTools.isPersistent(metaPropertyPath)
+                || metaPropertyPath.getRange().isClass()
+                || metadataTools.isLob(metaPropertyPath.getMetaProperty())) {
+            throw new UnsupportedOperationException(String.format(
+                    "Property '%s' of '%s' cannot be used for keyset pagination, only persistent properties of simple types are supported",
+                    property, metaClass));
+        }
+        return jpqlSortExpressionProvider.getDatatypeSortExpression(metaPropertyPath, asc);
+    }
+}
@@ -21,17 +21,24 @@ import io.jmix.core.Metadata;
 import io.jmix.core.entity.annotation.IdSequence;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.data.DataProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Intermediate cache for generated ids of entities with long/integer PK.
  * The cache size is determined by the {@code cuba.numberIdCacheSize} app property.
+ * <p>
+ * Ids are taken from the current block without locking. When half of the block is used, the next block is requested
+ * from the sequence in background (see {@link DataProperties#isNumberIdCachePrefetchEnabled()}), so that
+ * threads don't wait for the database when the current block is exhausted.
  */
 @Component(NumberIdCache.NAME)
 public class NumberIdCache {
@@ -47,13 +54,34 @@ public class NumberIdCache {
 
     protected ConcurrentMap<String, Generator> cache = new ConcurrentHashMap<>();
 
+    protected volatile ExecutorService prefetchExecutor;
+
+    private static final Logger log = LoggerFactory.getLogger(NumberIdCache.class);
+
+    /**
+     * Ids reserved in the sequence: from {@code sequenceValue} exclusive to {@code end} inclusive.
+     */
+    protected static class Block {
+        protected final long end;
+        protected final long lowWaterMark;
+        protected final AtomicLong counter;
+
+        protected Block(long sequenceValue, int size) {
+            this.end = sequenceValue + size;
+            this.lowWaterMark = sequenceValue + size / 2;
+            this.counter = new AtomicLong(sequenceValue);
+        }
+    }
+
     protected class Generator {
-        protected long counter;
-        protected long sequenceValue;
         protected String entityName;
         protected String sequenceName;
         protected boolean cached;
 
+        protected volatile Block block;
+        // guarded by this
+        protected Future<Block> nextBlock;
+
         public Generator(String entityName,
                          @Nullable String sequenceName,
                          boolean cached) {
@@ -61,7 +89,7 @@ public class NumberIdCache {
             this.sequenceName = sequenceName;
             this.cached = cached;
             if (useIdCache()) {
-                createCachedCounter();
+                block = createBlock();
             }
         }
 
@@ -69,22 +97,53 @@ public class NumberIdCache {
             return dataProperties.getNumberIdCacheSize() != 0 && cached;
         }
 
-        protected void createCachedCounter() {
-            sequenceValue = numberIdWorker.createCachedLongId(entityName, sequenceName);
-            counter = sequenceValue;
+        protected Block createBlock() {
+            long sequenceValue = numberIdWorker.createCachedLongId(entityName, sequenceName);
+            return new Block(sequenceValue, dataProperties.getNumberIdCacheSize());
         }
 
-        public synchronized long getNext() {
+        public long getNext() {
             if (!useIdCache()) {
                 return numberIdWorker.createLongId(entityName, sequenceName);
-            } else {
-                long next = ++counter;
-                if (next > sequenceValue + dataProperties.getNumberIdCacheSize()) {
-                    createCachedCounter();
-                    next = ++counter;
+            }
+            while (true) {
+                Block current = block;
+                long next = current.counter.incrementAndGet();
+                if (next <= current.end) {
+                    if (next == current.lowWaterMark) {
+                        prefetchNextBlock(current);
+                    }
+                    return next;
+                }
+                switchBlock(current);
+            }
+        }
+
+        protected synchronized void prefetchNextBlock(Block current) {
+            if (block == current && nextBlock == null && dataProperties.isNumberIdCachePrefetchEnabled()) {
+                nextBlock = getPrefetchExecutor().submit(this::createBlock);
+            }
+        }
+
+        protected synchronized void switchBlock(Block exhausted) {
+            if (block != exhausted) {
+                // already switched by another thread
+                return;
+            }
+            Block newBlock = null;
+            Future<Block> future = nextBlock;
+            nextBlock = null;
+            if (future != null) {
+                try {
+                    newBlock = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                } catch (ExecutionException e) {
+                    log.warn("Unable to prefetch ids of {}, requesting them synchronously", entityName, e.getCause());
                 }
-                return next;
             }
+            block = newBlock != null ? newBlock : createBlock();
         }
     }
 
@@ -123,6 +182,32 @@ public class NumberIdCache {
         cache.clear();
     }
 
+    protected ExecutorService getPrefetchExecutor() {
+        ExecutorService result = prefetchExecutor;
+        if (result == null) {
+            synchronized (this) {
+                result = prefetchExecutor;
+                if (result == null) {
+                    result = Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "NumberIdCache-prefetch");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    prefetchExecutor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        ExecutorService executorService = prefetchExecutor;
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
     protected String getCacheKey(String entityName, @Nullable String sequenceName) {
         return sequenceName == null ? entityName : sequenceName;
     }
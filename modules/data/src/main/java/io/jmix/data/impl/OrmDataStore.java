@@ -18,6 +18,7 @@ package io.jmix.data.impl;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import io.jmix.core.*;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.entity.KeyValueEntity;
@@ -31,6 +32,7 @@ import io.jmix.data.event.EntityChangedEvent;
 import io.jmix.data.persistence.DbmsSpecifics;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +43,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
@@ -48,10 +51,14 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.jmix.core.entity.EntityValues.getId;
 import static io.jmix.core.entity.EntityValues.getValue;
@@ -126,6 +133,12 @@ public class OrmDataStore implements DataStore {
     @Autowired
     protected StoreAwareLocator storeAwareLocator;
 
+    @Autowired
+    protected OrmLoadExecutor ormLoadExecutor;
+
+    @Autowired
+    protected PersistenceSupport persistenceSupport;
+
     @Autowired(required = false)
     protected List<OrmLifecycleListener> ormLifecycleListeners;
 
@@ -242,6 +255,10 @@ public class OrmDataStore implements DataStore {
 
         List<E> resultList;
         boolean needToApplyInMemoryReadConstraints = needToApplyInMemoryReadConstraints(context);
+        FetchPlan fetchPlan = createRestrictedFetchPlan(context);
+        // partitions are loaded before starting the load transaction, so this thread does not hold a connection
+        // while waiting for the partition transactions
+        List<E> loadedInParallel = loadListByIdsInParallel(context, metaClass, fetchPlan);
         TransactionStatus txStatus = beginLoadTransaction(context.isJoinTransaction());
         try {
             EntityManager em = storeAwareLocator.getEntityManager(storeName);
@@ -256,12 +273,13 @@ public class OrmDataStore implements DataStore {
                     context.getQuery().setQueryString(transformer.getResult());
                 }
             }
-            FetchPlan fetchPlan = createRestrictedFetchPlan(context);
             List<E> entities;
 
             Integer maxIdsBatchSize = dbmsSpecifics.getDbmsFeatures(storeName).getMaxIdsBatchSize();
-            if (!context.getIds().isEmpty() && entityHasEmbeddedId(metaClass)) {
-                entities = loadListBySingleIds(context, em, fetchPlan);
+            if (loadedInParallel != null) {
+                entities = loadedInParallel;
+            } else if (!context.getIds().isEmpty() && entityHasEmbeddedId(metaClass)) {
+                entities = loadListBySingleIds(context, context.getIds(), em, fetchPlan);
             } else if (!context.getIds().isEmpty() && maxIdsBatchSize != null && context.getIds().size() > maxIdsBatchSize) {
                 entities = loadListByBatchesOfIds(context, em, fetchPlan, maxIdsBatchSize);
             } else {
@@ -307,17 +325,170 @@ public class OrmDataStore implements DataStore {
         return resultList;
     }
 
+    /**
+     * Streams query results through an EclipseLink scrollable cursor. The cursor is opened by a separate
+     * entity manager which is not bound to a transaction, so the stream can be consumed outside of
+     * this method and does not affect transactions of the caller. Loaded instances are processed by chunks
+     * of {@link DataProperties#getStreamFetchSize()} size: fetched, filtered and post-processed
+     * by security and load listeners, and then detached.
+     * <p>
+     * Loading by ids, loading in the caller's transaction, in-memory distinct and paging combined with in-memory
+     * constraints are not supported by the cursor, in these cases the whole list is loaded and streamed.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E extends Entity> Stream<E> loadStream(LoadContext<E> context) {
+        if (log.isDebugEnabled())
+            log.debug("loadStream: store=" + storeName + ", metaClass=" + context.getMetaClass() + ", view=" + context.getFetchPlan()
+                    + ", query=" + context.getQuery());
+
+        MetaClass metaClass = metadata.getClass(context.getMetaClass());
+
+        if (isAuthorizationRequired(context) && !isEntityOpPermitted(metaClass, EntityOp.READ)) {
+            log.debug("reading of {} not permitted, returning empty stream", metaClass);
+            return Stream.empty();
+        }
+
+        boolean needToFilterByInMemoryReadConstraints = needToFilterByInMemoryReadConstraints(context);
+        if (context.getQuery() == null
+                || !context.getIds().isEmpty()
+                || context.isJoinTransaction()
+                || properties.isInMemoryDistinct()
+                || (needToFilterByInMemoryReadConstraints && context.getQuery().getMaxResults() != 0)) {
+            return loadList(context).stream();
+        }
+
+        queryResultsManager.savePreviousQueryResults(context);
+
+        boolean needToApplyInMemoryReadConstraints = needToApplyInMemoryReadConstraints(context);
+        FetchPlan fetchPlan = createRestrictedFetchPlan(context);
+        int fetchSize = getStreamFetchSize(context);
+
+        EntityManager em = storeAwareLocator.getEntityManagerFactory(storeName).createEntityManager();
+        ScrollableCursor cursor;
+        try {
+            em.setProperty(PersistenceHints.SOFT_DELETION, context.isSoftDeletion());
+
+            Query query = createQuery(em, context, false, false);
+            query.setHint(PersistenceHints.FETCH_PLAN, fetchPlan);
+            cursor = ((JmixQuery<E>) query).getResultCursor(fetchSize);
+        } catch (RuntimeException e) {
+            em.close();
+            throw e;
+        }
+
+        Iterator<E> iterator = new CursorChunkIterator<E>(cursor, fetchSize, chunk ->
+                processStreamChunk(context, em, chunk, fetchPlan,
+                        needToFilterByInMemoryReadConstraints, needToApplyInMemoryReadConstraints));
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } finally {
+                        em.close();
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <E extends Entity> List<E> processStreamChunk(LoadContext<E> context, EntityManager em, List<E> chunk,
+                                                            FetchPlan fetchPlan,
+                                                            boolean needToFilterByInMemoryReadConstraints,
+                                                            boolean needToApplyInMemoryReadConstraints) {
+        for (E entity : chunk) {
+            entityFetcher.fetch(entity, fetchPlan);
+        }
+
+        if (needToFilterByInMemoryReadConstraints) {
+            persistenceSecurity.filterByConstraints((Collection<Entity>) chunk);
+        }
+
+        if (!chunk.isEmpty()) {
+            fireLoadListeners((List<Entity>) chunk, context);
+        }
+
+        if (needToApplyInMemoryReadConstraints) {
+            persistenceSecurity.calculateFilteredData((Collection<Entity>) chunk);
+        }
+
+        // collect the whole graph: the entity manager is cleared, so all managed instances must become detached
+        Set<Entity> loadedInstances = Sets.newIdentityHashSet();
+        for (E entity : chunk) {
+            loadedInstances.add(entity);
+            metadataTools.traverseAttributesByView(fetchPlan, entity, (instance, property) -> {
+                if (property.getRange().isClass() && !metadataTools.isEmbedded(property)) {
+                    Object value = getValue(instance, property.getName());
+                    if (value instanceof Collection) {
+                        loadedInstances.addAll((Collection<Entity>) value);
+                    } else if (value instanceof Entity) {
+                        loadedInstances.add((Entity) value);
+                    }
+                }
+            });
+        }
+        persistenceSupport.detachNonTransactional(em, loadedInstances);
+
+        if (needToApplyInMemoryReadConstraints) {
+            persistenceSecurity.applyConstraints((Collection<Entity>) chunk);
+        }
+        if (isAuthorizationRequired(context)) {
+            attributeSecurity.afterLoad(chunk);
+        }
+        return chunk;
+    }
+
+    protected int getStreamFetchSize(LoadContext<?> context) {
+        Object hint = context.getHints().get(PersistenceHints.FETCH_SIZE);
+        if (hint != null) {
+            return hint instanceof Number ? ((Number) hint).intValue() : Integer.parseInt(hint.toString());
+        }
+        return Math.max(properties.getStreamFetchSize(), 1);
+    }
+
     protected boolean entityHasEmbeddedId(MetaClass metaClass) {
         MetaProperty pkProperty = metadataTools.getPrimaryKeyProperty(metaClass);
         return pkProperty == null || pkProperty.getRange().isClass();
     }
 
-    protected <E extends Entity> List<E> loadListBySingleIds(LoadContext<E> context, EntityManager em, FetchPlan fetchPlan) {
+    /**
+     * Loads a large list of ids in partitions using {@link #loadPartitionsInParallel}, if it is allowed.
+     *
+     * @return loaded instances or null if the instances must be loaded in the current thread
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    protected <E extends Entity> List<E> loadListByIdsInParallel(LoadContext<E> context, MetaClass metaClass, FetchPlan fetchPlan) {
+        List<Object> ids = (List<Object>) context.getIds();
+        if (ids.size() < 2 || !ormLoadExecutor.isEnabled()) {
+            return null;
+        }
+        if (entityHasEmbeddedId(metaClass)) {
+            int partitionSize = (ids.size() - 1) / properties.getParallelLoadThreads() + 1;
+            List<List<Object>> partitions = Lists.partition(ids, partitionSize);
+            if (isParallelLoadAllowed(context, partitions.size())) {
+                return loadPartitionsInParallel(context, partitions,
+                        (partitionEm, partition) -> loadListBySingleIds(context, partition, partitionEm, fetchPlan));
+            }
+            return null;
+        }
+        Integer maxIdsBatchSize = dbmsSpecifics.getDbmsFeatures(storeName).getMaxIdsBatchSize();
+        if (maxIdsBatchSize != null && ids.size() > maxIdsBatchSize) {
+            List<List<Object>> partitions = Lists.partition(ids, maxIdsBatchSize);
+            if (isParallelLoadAllowed(context, partitions.size())) {
+                return loadPartitionsInParallel(context, partitions,
+                        (partitionEm, partition) -> loadListByIds(context, partition, partitionEm, fetchPlan));
+            }
+        }
+        return null;
+    }
+
+    protected <E extends Entity> List<E> loadListBySingleIds(LoadContext<E> context, List<?> ids, EntityManager em, FetchPlan fetchPlan) {
         LoadContext<?> contextCopy = context.copy();
         contextCopy.setIds(Collections.emptyList());
 
-        List<E> entities = new ArrayList<>(context.getIds().size());
-        for (Object id : context.getIds()) {
+        List<E> entities = new ArrayList<>(ids.size());
+        for (Object id : ids) {
             contextCopy.setId(id);
             Query query = createQuery(em, contextCopy, true, false);
             query.setHint(PersistenceHints.FETCH_PLAN, fetchPlan);
@@ -332,16 +503,64 @@ public class OrmDataStore implements DataStore {
         List<List<Object>> partitions = Lists.partition((List<Object>) context.getIds(), batchSize);
 
         List<E> entities = new ArrayList<>(context.getIds().size());
-        for (List partition : partitions) {
-            LoadContext<E> contextCopy = (LoadContext<E>) context.copy();
-            contextCopy.setIds(partition);
+        for (List<Object> partition : partitions) {
+            entities.addAll(loadListByIds(context, partition, em, view));
+        }
 
-            Query query = createQuery(em, contextCopy, false, false);
-            query.setHint(PersistenceHints.FETCH_PLAN, view);
-            List<E> list = executeQuery(query, false);
-            entities.addAll(list);
+        return entities;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <E extends Entity> List<E> loadListByIds(LoadContext<E> context, List<Object> ids, EntityManager em, FetchPlan view) {
+        LoadContext<E> contextCopy = (LoadContext<E>) context.copy();
+        contextCopy.setIds(ids);
+
+        Query query = createQuery(em, contextCopy, false, false);
+        query.setHint(PersistenceHints.FETCH_PLAN, view);
+        return executeQuery(query, false);
+    }
+
+    /**
+     * Parallel loading is possible only if the loaded instances are not required to be managed by the caller's
+     * transaction, because each partition is loaded in a separate transaction. It is also not used if the calling
+     * thread has an active transaction: the thread would hold its connection while waiting for the partitions,
+     * which can exhaust the connection pool.
+     */
+    protected boolean isParallelLoadAllowed(LoadContext<?> context, int partitionsCount) {
+        return partitionsCount > 1
+                && !context.isJoinTransaction()
+                && ormLoadExecutor.isEnabled()
+                && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Loads each partition of ids in a separate read-only transaction using {@link OrmLoadExecutor}. Returned entities
+     * are detached and are not necessarily in the order of ids.
+     */
+    protected <E extends Entity> List<E> loadPartitionsInParallel(LoadContext<E> context, List<List<Object>> partitions,
+                                                                  BiFunction<EntityManager, List<Object>, List<E>> partitionLoader) {
+        List<Callable<List<E>>> tasks = new ArrayList<>(partitions.size());
+        for (List<Object> partition : partitions) {
+            tasks.add(() -> {
+                List<E> list;
+                TransactionStatus txStatus = beginPartitionLoadTransaction();
+                try {
+                    EntityManager em = storeAwareLocator.getEntityManager(storeName);
+                    em.setProperty(PersistenceHints.SOFT_DELETION, context.isSoftDeletion());
+                    list = partitionLoader.apply(em, partition);
+                } catch (RuntimeException e) {
+                    rollbackTransaction(txStatus);
+                    throw e;
+                }
+                commitTransaction(txStatus);
+                return list;
+            });
         }
 
+        List<E> entities = new ArrayList<>(context.getIds().size());
+        for (List<E> list : ormLoadExecutor.invokeAll(tasks)) {
+            entities.addAll(list);
+        }
         return entities;
     }
 
@@ -799,7 +1018,8 @@ public class OrmDataStore implements DataStore {
                     .setCondition(contextQuery.getCondition())
                     .setQueryParameters(contextQuery.getParameters());
             if (!countQuery) {
-                queryBuilder.setSort(contextQuery.getSort());
+                queryBuilder.setSort(contextQuery.getSort())
+                        .setKeysetValues(contextQuery.getKeysetValues());
             }
         }
 
@@ -1154,6 +1374,16 @@ public class OrmDataStore implements DataStore {
         return txManager.getTransaction(def);
     }
 
+    protected TransactionStatus beginPartitionLoadTransaction() {
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName(LOAD_TX_PREFIX + txCount.incrementAndGet());
+        def.setReadOnly(true);
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        PlatformTransactionManager txManager = storeAwareLocator.getTransactionManager(storeName);
+        return txManager.getTransaction(def);
+    }
+
     protected void commitTransaction(TransactionStatus txStatus) {
         PlatformTransactionManager txManager = storeAwareLocator.getTransactionManager(storeName);
         txManager.commit(txStatus);
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.data.impl;
+
+import io.jmix.data.DataProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * INTERNAL.
+ * Bounded thread pool used by {@link OrmDataStore} to load partitions of large id lists concurrently.
+ * The pool size is defined by {@link DataProperties#getParallelLoadThreads()}. When the queue is full, tasks are
+ * executed in the calling thread.
+ */
+@Component(OrmLoadExecutor.NAME)
+public class OrmLoadExecutor {
+
+    public static final String NAME = "data_OrmLoadExecutor";
+
+    @Autowired
+    protected DataProperties properties;
+
+    protected volatile ExecutorService executor;
+
+    /**
+     * @return true if parallel loading is enabled
+     */
+    public boolean isEnabled() {
+        return properties.getParallelLoadThreads() > 1;
+    }
+
+    /**
+     * Executes the given tasks concurrently in the current security context and returns their results in the order
+     * of tasks. If a task fails, the remaining tasks are cancelled and the exception is rethrown.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        ExecutorService executorService = getExecutor();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executorService.submit(() -> callInSecurityContext(task, securityContext)));
+            }
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading entities", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Error loading entities", cause);
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    protected <T> T callInSecurityContext(Callable<T> task, SecurityContext securityContext) throws Exception {
+        SecurityContext previousContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            return task.call();
+        } finally {
+            SecurityContextHolder.setContext(previousContext);
+        }
+    }
+
+    protected ExecutorService getExecutor() {
+        ExecutorService result = executor;
+        if (result == null) {
+            synchronized (this) {
+                result = executor;
+                if (result == null) {
+                    result = createExecutor();
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    protected ExecutorService createExecutor() {
+        int threads = properties.getParallelLoadThreads();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "OrmLoadExecutor-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        ExecutorService executorService = executor;
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+}
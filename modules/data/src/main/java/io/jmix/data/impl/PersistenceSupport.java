@@ -24,6 +24,8 @@ import io.jmix.core.Stores;
 import io.jmix.core.common.util.StackTrace;
 import io.jmix.core.Entity;
 import io.jmix.core.entity.SoftDelete;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.data.DataProperties;
 import io.jmix.data.EntityChangeType;
 import io.jmix.data.StoreAwareLocator;
 import io.jmix.data.event.EntityChangedEvent;
@@ -88,6 +90,9 @@ public class PersistenceSupport implements ApplicationContextAware {
     @Autowired
     protected EntityChangedEventManager entityChangedEventManager;
 
+    @Autowired
+    protected DataProperties dataProperties;
+
     @Autowired(required = false)
     protected List<OrmLifecycleListener> lifecycleListeners = new ArrayList<>();
 
@@ -176,6 +181,14 @@ public class PersistenceSupport implements ApplicationContextAware {
         return getInstanceContainerResourceHolder(storeName).getSavedInstances();
     }
 
+    /**
+     * Discards cached query results for the entity after the current transaction is committed. Used when instances
+     * are changed by JPQL statements bypassing the persistence context.
+     */
+    public void invalidateQueryCacheOnCommit(String storeName, String entityName) {
+        getInstanceContainerResourceHolder(storeName).queryCacheInvalidations.add(entityName);
+    }
+
     public String getStorageName(Session session) {
         String storeName = (String) session.getProperty(PROP_NAME);
         return Strings.isNullOrEmpty(storeName) ? Stores.MAIN : storeName;
@@ -249,6 +262,7 @@ public class PersistenceSupport implements ApplicationContextAware {
             }
             possiblyChanged = result || possiblyChanged;
         }
+        visitor.afterVisit();
         if (!possiblyChanged)
             return;
 
@@ -298,6 +312,30 @@ public class PersistenceSupport implements ApplicationContextAware {
         makeDetached(entity);
     }
 
+    /**
+     * Detaches instances loaded by an entity manager which is not bound to a transaction, for example when
+     * streaming query results through a cursor. Clears the entity manager, so all instances it manages
+     * must be passed.
+     */
+    public void detachNonTransactional(javax.persistence.EntityManager entityManager, Collection<Entity> instances) {
+        String storeName = getStorageName(entityManager.unwrap(UnitOfWork.class));
+        for (Entity entity : instances) {
+            if (entity instanceof FetchGroupTracker) {
+                FetchGroupTracker fetchGroupTracker = (FetchGroupTracker) entity;
+                FetchGroup fetchGroup = fetchGroupTracker._persistence_getFetchGroup();
+                if (fetchGroup != null && !(fetchGroup instanceof JmixEntityFetchGroup))
+                    fetchGroupTracker._persistence_setFetchGroup(new JmixEntityFetchGroup(fetchGroup));
+            }
+            fireBeforeDetachEntityListener(entity, storeName);
+        }
+
+        entityManager.clear();
+
+        for (Entity entity : instances) {
+            makeDetached(entity);
+        }
+    }
+
     protected void makeDetached(Object instance) {
         if (instance instanceof Entity) {
             ((Entity) instance).__getEntityEntry().setNew(false);
@@ -332,6 +370,12 @@ public class PersistenceSupport implements ApplicationContextAware {
 
     public interface EntityVisitor {
         boolean visit(Entity entity);
+
+        /**
+         * Invoked after a set of instances has been visited, so that the visitor can process them together.
+         */
+        default void afterVisit() {
+        }
     }
 
     public static class ContainerResourceHolder extends ResourceHolderSupport {
@@ -342,6 +386,8 @@ public class PersistenceSupport implements ApplicationContextAware {
 
         protected Set<Entity> newDetachedInstances = createEntitySet();
 
+        protected Set<String> queryCacheInvalidations = new HashSet<>();
+
         protected String storeName;
 
         public ContainerResourceHolder(String storeName) {
@@ -420,6 +466,7 @@ public class PersistenceSupport implements ApplicationContextAware {
         protected void cleanupResource(ContainerResourceHolder resourceHolder, String resourceKey, boolean committed) {
             resourceHolder.unitOfWorkMap.clear();
             resourceHolder.savedInstances.clear();
+            resourceHolder.queryCacheInvalidations.clear();
         }
 
         @Override
@@ -495,6 +542,9 @@ public class PersistenceSupport implements ApplicationContextAware {
                         }
                     }
                 }
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    queryCacheManager.invalidate(container.queryCacheInvalidations, true);
+                }
                 for (AfterCompleteTransactionListener listener : afterCompleteTxListeners) {
                     listener.afterComplete(status == TransactionSynchronization.STATUS_COMMITTED, instances);
                 }
@@ -551,6 +601,8 @@ public class PersistenceSupport implements ApplicationContextAware {
 
         private String storeName;
 
+        private Map<MetaClass, List<Entity>> deletedInstances = new LinkedHashMap<>();
+
         public OnSaveEntityVisitor(String storeName) {
             this.storeName = storeName;
         }
@@ -580,8 +632,14 @@ public class PersistenceSupport implements ApplicationContextAware {
 
                 fireEntityChange(entity, EntityChangeType.DELETE, null);
 
-                if (entity instanceof SoftDelete)
-                    processDeletePolicy(entity);
+                if (entity instanceof SoftDelete) {
+                    if (dataProperties.getDeletePolicyBatchSize() > 1) {
+                        deletedInstances.computeIfAbsent(metadata.getClass(entity), metaClass -> new ArrayList<>())
+                                .add(entity);
+                    } else {
+                        processDeletePolicy(entity);
+                    }
+                }
 
                 // todo fts
 //                enqueueForFts(entity, FtsChangeType.DELETE);
@@ -640,11 +698,29 @@ public class PersistenceSupport implements ApplicationContextAware {
 //            }
 //        }
 
+        @Override
+        public void afterVisit() {
+            if (deletedInstances.isEmpty())
+                return;
+
+            List<List<Entity>> groups = new ArrayList<>(deletedInstances.values());
+            deletedInstances.clear();
+            for (List<Entity> entities : groups) {
+                processDeletePolicy(entities);
+            }
+        }
+
         protected void processDeletePolicy(Entity entity) {
             DeletePolicyProcessor processor = AppBeans.get(DeletePolicyProcessor.NAME); // prototype
             processor.setEntity(entity);
             processor.process();
         }
+
+        protected void processDeletePolicy(Collection<Entity> entities) {
+            DeletePolicyProcessor processor = AppBeans.get(DeletePolicyProcessor.NAME); // prototype
+            processor.setEntities(entities);
+            processor.process();
+        }
     }
 
     private static class RunnerResourceHolder extends ResourceHolderSupport {
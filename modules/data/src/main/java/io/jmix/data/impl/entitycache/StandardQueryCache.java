@@ -18,9 +18,13 @@ package io.jmix.data.impl.entitycache;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
 import io.jmix.data.DataProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -30,26 +34,43 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Query cache based on Guava {@link Cache}.
+ * <p>
+ * Keeps two indexes: query id to key and related type to keys. Both indexes are updated by the cache removal
+ * listener, so entries evicted by size limit do not remain in them. Invalidation by type and putting a result
+ * are serialized by locks striped by type name.
+ * <p>
+ * Cache statistics are exported to {@link MeterRegistry} with the {@code jmix.data.queryCache} name.
+ */
 @Component(QueryCache.NAME)
 public class StandardQueryCache implements QueryCache {
 
+    protected static final int LOCK_STRIPES = 64;
+
     protected Cache<QueryKey, QueryResult> data;
-    protected ConcurrentMap<String, CopyOnWriteArrayList<QueryKey>> typeIndex = new ConcurrentHashMap<>();
-    protected ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected ConcurrentMap<UUID, QueryKey> idIndex = new ConcurrentHashMap<>();
+    protected ConcurrentMap<String, Set<QueryKey>> typeIndex = new ConcurrentHashMap<>();
+    protected Striped<Lock> typeLocks = Striped.lock(LOCK_STRIPES);
 
     @Autowired
     protected DataProperties properties;
 
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
     protected static final Logger log = LoggerFactory.getLogger(QueryCache.class);
 
     @PostConstruct
     protected void init() {
-        data = CacheBuilder.newBuilder().maximumSize(properties.getQueryCacheMaxSize()).build();
+        data = CacheBuilder.newBuilder()
+                .maximumSize(properties.getQueryCacheMaxSize())
+                .recordStats()
+                .removalListener(this::onRemoval)
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, data, "jmix.data.queryCache");
     }
 
     @Override
@@ -59,108 +80,81 @@ public class StandardQueryCache implements QueryCache {
 
     @Override
     public void put(QueryKey queryKey, QueryResult queryResult) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
+        Iterable<Lock> locks = typeLocks.bulkGet(queryResult.getRelatedTypes());
+        locks.forEach(Lock::lock);
         try {
+            // a replaced entry keeps its key instance, so remove an equal key first to make the cache
+            // and the id index refer to the new key
+            data.invalidate(queryKey);
             data.put(queryKey, queryResult);
 
+            if (queryKey.getId() != null) {
+                idIndex.put(queryKey.getId(), queryKey);
+            }
             for (String type : queryResult.getRelatedTypes()) {
-                CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(type);
-                if (keys == null) {
-                    typeIndex.putIfAbsent(type, new CopyOnWriteArrayList<>());
-                    keys = typeIndex.get(type);
-                }
-                keys.add(queryKey);
+                // the key is added atomically with removing of an empty set in removeFromIndex()
+                typeIndex.compute(type, (t, keys) -> {
+                    if (keys == null) {
+                        keys = ConcurrentHashMap.newKeySet();
+                    }
+                    keys.add(queryKey);
+                    return keys;
+                });
+            }
+
+            if (!data.asMap().containsKey(queryKey)) {
+                // evicted before it has been indexed
+                removeFromIndex(queryKey, queryResult);
             }
         } finally {
-            readLock.unlock();
+            locks.forEach(Lock::unlock);
         }
     }
 
     @Override
     public QueryKey findQueryKeyById(UUID queryId) {
-        Set<QueryKey> keys = Sets.newHashSet(data.asMap().keySet());
-        for (QueryKey key : keys) {
-            if (Objects.equals(queryId, key.getId())) {
-                return key;
-            }
-        }
-        return null;
+        return idIndex.get(queryId);
     }
 
     @Override
     public void invalidate(QueryKey queryKey) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            log.debug("Invalidate query by key {}", queryKey.printDescription());
-            data.invalidate(queryKey);
-        } finally {
-            readLock.unlock();
-        }
+        log.debug("Invalidate query by key {}", queryKey.printDescription());
+        data.invalidate(queryKey);
     }
 
     @Override
     public void invalidate(String typeName) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
+        Lock lock = typeLocks.get(typeName);
+        lock.lock();
         try {
-            CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(typeName);
+            Set<QueryKey> keys = typeIndex.get(typeName);
             if (keys == null) return;
             log.debug("Invalidate cache for type {}", typeName);
-            Arrays.stream(keys.toArray()).forEach(it -> data.invalidate(it));
+            data.invalidateAll(new ArrayList<>(keys));
         } finally {
-            readLock.unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void invalidate(Set<String> typeNames) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            typeNames.forEach(typeName -> {
-                        CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(typeName);
-                        if (keys == null) return;
-                        log.debug("Invalidate cache for type {}", typeName);
-                        Arrays.stream(keys.toArray()).forEach(it -> data.invalidate(it));
-                    }
-            );
-        } finally {
-            readLock.unlock();
-        }
+        typeNames.forEach(this::invalidate);
     }
 
     @Override
     public QueryKey invalidate(UUID queryId) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            Set<QueryKey> keys = Sets.newHashSet(data.asMap().keySet());
-            for (QueryKey key : keys) {
-                if (Objects.equals(queryId, key.getId())) {
-                    log.debug("Invalidate query by identifier {}", queryId);
-                    data.invalidate(key);
-                    return key;
-                }
-            }
-        } finally {
-            readLock.unlock();
+        QueryKey key = idIndex.get(queryId);
+        if (key != null) {
+            log.debug("Invalidate query by identifier {}", queryId);
+            data.invalidate(key);
         }
-        return null;
+        return key;
     }
 
     @Override
     public void invalidateAll() {
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
-        try {
-            log.debug("Invalidate all cache");
-            data.invalidateAll();
-            typeIndex.clear();
-        } finally {
-            writeLock.unlock();
-        }
+        log.debug("Invalidate all cache");
+        data.invalidateAll();
     }
 
     @Override
@@ -177,4 +171,38 @@ public class StandardQueryCache implements QueryCache {
     public Map<QueryKey, QueryResult> asMap() {
         return Maps.newHashMap(data.asMap());
     }
+
+    protected void onRemoval(RemovalNotification<QueryKey, QueryResult> notification) {
+        if (notification.getKey() == null || notification.getValue() == null) {
+            return;
+        }
+        if (notification.getCause() == RemovalCause.REPLACED) {
+            // replaced key stays in the cache and is indexed by put() for the types of the new result
+            QueryResult newResult = data.asMap().get(notification.getKey());
+            Set<String> newTypes = newResult != null ? newResult.getRelatedTypes() : Collections.emptySet();
+            for (String type : notification.getValue().getRelatedTypes()) {
+                if (!newTypes.contains(type)) {
+                    removeFromTypeIndex(notification.getKey(), type);
+                }
+            }
+            return;
+        }
+        removeFromIndex(notification.getKey(), notification.getValue());
+    }
+
+    protected void removeFromIndex(QueryKey queryKey, QueryResult queryResult) {
+        if (queryKey.getId() != null) {
+            idIndex.remove(queryKey.getId(), queryKey);
+        }
+        for (String type : queryResult.getRelatedTypes()) {
+            removeFromTypeIndex(queryKey, type);
+        }
+    }
+
+    protected void removeFromTypeIndex(QueryKey queryKey, String type) {
+        typeIndex.computeIfPresent(type, (t, keys) -> {
+            keys.remove(queryKey);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.LoadContext
+import io.jmix.core.Sort
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+class DataManagerKeysetPaginationTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    List<Product> products
+
+    void setup() {
+        // equal names check that ties are resolved by the primary key
+        products = (1..10).collect { new Product(name: "p${(it + 1).intdiv(2)}", quantity: it) }
+        dataManager.save(*products)
+    }
+
+    def "load pages after the last loaded instance"() {
+
+        def sort = Sort.by('name')
+        def expected = dataManager.load(Product).query('select e from sales_Product e').sort(sort).list()
+
+        when:
+
+        def loaded = []
+        def page = dataManager.load(Product).query('select e from sales_Product e').sort(sort).maxResults(3).list()
+        while (!page.isEmpty()) {
+            loaded.addAll(page)
+            page = dataManager.load(Product).query('select e from sales_Product e')
+                    .sort(sort)
+                    .after(page.last())
+                    .maxResults(3)
+                    .list()
+        }
+
+        then:
+
+        loaded.size() == 10
+        loaded == expected
+    }
+
+    def "load page in descending order by keyset values"() {
+
+        def sort = Sort.by(Sort.Direction.DESC, 'quantity')
+        def third = products.find { it.quantity == 8 }
+
+        when:
+
+        def page = dataManager.load(Product).query('select e from sales_Product e')
+                .sort(sort)
+                .keysetValues(third.quantity, third.id)
+                .maxResults(3)
+                .list()
+
+        then:
+
+        page.collect { it.quantity } == [7, 6, 5]
+    }
+
+    def "keyset values are set in load context"() {
+
+        def context = new LoadContext(Product)
+        context.setQuery(new LoadContext.Query('select e from sales_Product e where e.quantity > :q')
+                .setParameter('q', 2)
+                .setSort(Sort.by('quantity'))
+                .setKeysetValues([products[4].quantity, products[4].id])
+                .setMaxResults(2))
+
+        when:
+
+        def page = dataManager.loadList(context)
+
+        then:
+
+        page.collect { it.quantity } == [6, 7]
+    }
+
+    def "keyset pagination requires values of all keyset properties"() {
+
+        when:
+
+        dataManager.load(Product).query('select e from sales_Product e')
+                .sort(Sort.by('name'))
+                .keysetValues('p1')
+                .list()
+
+        then:
+
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.EntityAccessException
+import io.jmix.core.LoadContext
+import io.jmix.data.impl.OrmLoadExecutor
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import test_support.DataSpec
+import test_support.entity.TestCompositeKeyEntity
+import test_support.entity.TestEntityKey
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+@TestPropertySource(properties = ["jmix.data.parallelLoadThreads = 4"])
+class DataManagerParallelLoadTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    OrmLoadExecutor ormLoadExecutor
+
+    ExecutorService originalExecutor
+    Set<String> workerThreads = ConcurrentHashMap.newKeySet()
+
+    void setup() {
+        originalExecutor = ormLoadExecutor.executor
+        ormLoadExecutor.executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                workerThreads.add(thread.name)
+            }
+        }
+    }
+
+    void cleanup() {
+        ormLoadExecutor.executor.shutdownNow()
+        ormLoadExecutor.executor = originalExecutor
+    }
+
+    def "load by collection of ids in parallel keeps order of ids"() {
+
+        def entities = (1..20).collect {
+            new TestCompositeKeyEntity(id: new TestEntityKey(tenant: 1, entityId: it), name: "e$it")
+        }
+        dataManager.save(*entities)
+
+        def ids = entities.collect { it.id }.reverse()
+
+        when:
+
+        def list = dataManager.loadList(new LoadContext(TestCompositeKeyEntity).setIds(ids).setJoinTransaction(false))
+
+        then:
+
+        ormLoadExecutor.isEnabled()
+        list == entities.reverse()
+        workerThreads.size() > 1
+    }
+
+    def "load by collection of ids in an active transaction does not use worker threads"() {
+
+        def entities = (1..20).collect {
+            new TestCompositeKeyEntity(id: new TestEntityKey(tenant: 1, entityId: it), name: "e$it")
+        }
+        dataManager.save(*entities)
+
+        when:
+
+        def list = transaction.execute {
+            dataManager.loadList(new LoadContext(TestCompositeKeyEntity)
+                    .setIds(entities.collect { it.id }).setJoinTransaction(false))
+        }
+
+        then:
+
+        list == entities
+        workerThreads.isEmpty()
+    }
+
+    def "load by collection of ids in parallel throws exception if some instance not found"() {
+
+        def entity = new TestCompositeKeyEntity(id: new TestEntityKey(tenant: 1, entityId: 1), name: 'e1')
+        dataManager.save(entity)
+
+        when:
+
+        dataManager.loadList(new LoadContext(TestCompositeKeyEntity)
+                .setIds([entity.id, new TestEntityKey(tenant: 1, entityId: 2)]).setJoinTransaction(false))
+
+        then:
+
+        thrown(EntityAccessException)
+    }
+}
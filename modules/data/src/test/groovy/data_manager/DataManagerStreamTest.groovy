@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.EntityStates
+import io.jmix.core.LoadContext
+import io.jmix.core.Sort
+import io.jmix.data.PersistenceHints
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+import java.util.stream.Collectors
+
+class DataManagerStreamTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    EntityStates entityStates
+
+    void setup() {
+        dataManager.save(*(1..25).collect { new Product(name: "p$it", quantity: it) })
+    }
+
+    def "stream entities by chunks"() {
+
+        def context = new LoadContext(Product)
+        context.setQuery(new LoadContext.Query('select e from sales_Product e where e.quantity > :q')
+                .setParameter('q', 5)
+                .setSort(Sort.by('quantity')))
+        context.setHint(PersistenceHints.FETCH_SIZE, 7)
+
+        when:
+
+        List<Product> loaded
+        def stream = dataManager.loadStream(context)
+        try {
+            loaded = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+
+        loaded.collect { it.quantity } == (6..25).toList()
+        loaded.every { entityStates.isDetached(it) }
+        !TransactionSynchronizationManager.isActualTransactionActive()
+    }
+
+    def "stream can be closed before it is exhausted"() {
+
+        when:
+
+        def stream = dataManager.load(Product).query('select e from sales_Product e').stream()
+        def first = stream.limit(3).collect(Collectors.toList())
+        stream.close()
+
+        then:
+
+        first.size() == 3
+
+        and: "other loads are not affected"
+
+        dataManager.load(Product).query('select e from sales_Product e').list().size() == 25
+    }
+
+    def "stream respects max results"() {
+
+        when:
+
+        def stream = dataManager.load(Product).query('select e from sales_Product e order by e.quantity')
+                .maxResults(4)
+                .stream()
+        def loaded = stream.collect(Collectors.toList())
+        stream.close()
+
+        then:
+
+        loaded.collect { it.quantity } == [1, 2, 3, 4]
+    }
+}
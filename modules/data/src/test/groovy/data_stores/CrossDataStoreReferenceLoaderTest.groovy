@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_stores
+
+import io.jmix.core.DataManager
+import io.jmix.core.impl.CrossDataStoreReferenceLoadingExecutor
+import io.jmix.core.impl.DataStoreFactory
+import io.jmix.data.StoreAwareLocator
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.TestInMemoryDataStore
+import test_support.entity.TestCrossStoreRefEntity
+import test_support.entity.multidb.Db1Customer
+import test_support.entity.multidb.Mem1Customer
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Future
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+class CrossDataStoreReferenceLoaderTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    DataStoreFactory dataStoreFactory
+    @Autowired
+    StoreAwareLocator storeAwareLocator
+    @Autowired
+    CrossDataStoreReferenceLoadingExecutor executor
+
+    List<TestCrossStoreRefEntity> entities
+
+    void setup() {
+        ((TestInMemoryDataStore) dataStoreFactory.get('mem1')).clear()
+
+        entities = (1..3).collect {
+            def db1Customer = dataManager.save(new Db1Customer(name: "db1-$it"))
+            def mem1Customer = dataManager.save(new Mem1Customer(name: "mem1-$it"))
+            dataManager.save(new TestCrossStoreRefEntity(name: "entity-$it",
+                    db1CustomerId: db1Customer.id, mem1CustomerId: mem1Customer.id))
+        }
+    }
+
+    void cleanup() {
+        jdbc.update('delete from TEST_CROSS_STORE_REF_ENTITY')
+        storeAwareLocator.getJdbcTemplate('db1').update('delete from CUSTOMER')
+    }
+
+    def "references from different stores are loaded in parallel"() {
+        setup:
+
+        long submittedTasks = submittedTaskCount()
+
+        when:
+
+        List<TestCrossStoreRefEntity> loaded = loadEntities()
+
+        then:
+
+        loaded.size() == 3
+        loaded.every { it.db1Customer?.name == it.name.replace('entity', 'db1') }
+        loaded.every { it.mem1Customer?.name == it.name.replace('entity', 'mem1') }
+        submittedTaskCount() > submittedTasks
+    }
+
+    def "references are loaded in a pool thread without submitting nested tasks"() {
+        setup:
+
+        int threads = 4
+
+        when: "all pool threads load references from different stores at the same time"
+
+        List<Future<List<TestCrossStoreRefEntity>>> futures = (1..threads).collect {
+            executor.submit({
+                assert !executor.isParallel()
+                loadEntities()
+            } as Callable<List<TestCrossStoreRefEntity>>)
+        }
+        List<List<TestCrossStoreRefEntity>> results = futures.collect { it.get(30, TimeUnit.SECONDS) }
+
+        then:
+
+        results.every { loaded ->
+            loaded.size() == 3 && loaded.every { it.db1Customer != null && it.mem1Customer != null }
+        }
+        executor.isParallel()
+    }
+
+    private List<TestCrossStoreRefEntity> loadEntities() {
+        dataManager.load(TestCrossStoreRefEntity)
+                .query('select e from test_CrossStoreRefEntity e order by e.name')
+                .fetchPlan { it.addAll('name', 'db1CustomerId', 'db1Customer.name', 'mem1CustomerId', 'mem1Customer.name') }
+                .list()
+    }
+
+    private long submittedTaskCount() {
+        executor.executorService == null ? 0 : ((ThreadPoolExecutor) executor.executorService).taskCount
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package delete_policy
+
+import io.jmix.core.DataManager
+import io.jmix.core.DeletePolicyException
+import io.jmix.core.SaveContext
+import io.jmix.data.impl.entitycache.QueryCache
+import io.jmix.data.impl.entitycache.QueryCacheManager
+import io.jmix.data.impl.entitycache.QueryKey
+import org.apache.commons.lang3.RandomStringUtils
+import org.apache.commons.lang3.exception.ExceptionUtils
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.TestDeletePolicyCascadeDetail
+import test_support.entity.TestDeletePolicyMaster
+import test_support.entity.TestDeletePolicyUnlinkDetail
+import test_support.entity.TestDeletePolicyVersionedDetail
+import test_support.entity.sec.Group
+import test_support.entity.sec.Role
+import test_support.entity.sec.User
+import test_support.entity.sec.UserRole
+
+class DeletePolicyTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    QueryCacheManager queryCacheManager
+
+    @Autowired
+    QueryCache queryCache
+
+    Group group
+    User user
+
+    void setup() {
+        group = dataManager.save(new Group(name: randomName('group')))
+        user = dataManager.save(new User(name: 'user', login: randomName('login'), group: group))
+    }
+
+    def "cascade is processed for all instances removed together"() {
+        setup:
+
+        List<Role> roles = (1..5).collect { dataManager.save(new Role(name: randomName('role'))) }
+        roles.each { dataManager.save(new UserRole(user: user, role: it)) }
+
+        when:
+
+        dataManager.save(new SaveContext().removing(roles))
+
+        then:
+
+        jdbc.queryForObject('select count(*) from SEC_USER_ROLE where USER_ID = ? and DELETE_TS is null',
+                Integer, user.id) == 0
+        jdbc.queryForObject('select count(*) from SEC_USER_ROLE where USER_ID = ? and DELETE_TS is not null',
+                Integer, user.id) == 5
+    }
+
+    def "deny is checked for all instances removed together"() {
+        setup:
+
+        List<Group> groups = (1..3).collect { dataManager.save(new Group(name: randomName('group'))) }
+        groups.add(group)
+
+        when:
+
+        dataManager.save(new SaveContext().removing(groups))
+
+        then:
+
+        thrown(DeletePolicyException)
+        jdbc.queryForObject('select count(*) from SEC_GROUP where DELETE_TS is not null', Integer) == 0
+    }
+
+    def "instances without references are removed together"() {
+        setup:
+
+        List<Group> groups = (1..3).collect { dataManager.save(new Group(name: randomName('group'))) }
+
+        when:
+
+        dataManager.save(new SaveContext().removing(groups))
+
+        then:
+
+        noExceptionThrown()
+        jdbc.queryForObject('select count(*) from SEC_GROUP where DELETE_TS is not null', Integer) == 3
+    }
+
+    def "cascade removes hard deleted referrers of all instances removed together"() {
+        setup:
+
+        List<TestDeletePolicyMaster> masters = (1..3).collect { dataManager.save(new TestDeletePolicyMaster(name: randomName('master'))) }
+        masters.take(2).each { master ->
+            (1..2).each { dataManager.save(new TestDeletePolicyCascadeDetail(name: randomName('detail'), master: master)) }
+        }
+        def otherMaster = dataManager.save(new TestDeletePolicyMaster(name: randomName('master')))
+        def otherDetail = dataManager.save(new TestDeletePolicyCascadeDetail(name: randomName('detail'), master: otherMaster))
+
+        when:
+
+        dataManager.save(new SaveContext().removing(masters))
+
+        then:
+
+        jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_CASCADE_DETAIL where MASTER_ID <> ?',
+                Integer, otherMaster.id) == 0
+        jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_CASCADE_DETAIL where ID = ?',
+                Integer, otherDetail.id) == 1
+        jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_MASTER where ID <> ?',
+                Integer, otherMaster.id) == 0
+    }
+
+    def "unlink clears references of hard deleted referrers of all instances removed together"() {
+        setup:
+
+        List<TestDeletePolicyMaster> masters = (1..3).collect { dataManager.save(new TestDeletePolicyMaster(name: randomName('master'))) }
+        List<TestDeletePolicyUnlinkDetail> details = masters.collect {
+            dataManager.save(new TestDeletePolicyUnlinkDetail(name: randomName('detail'), master: it))
+        }
+        def otherMaster = dataManager.save(new TestDeletePolicyMaster(name: randomName('master')))
+        def otherDetail = dataManager.save(new TestDeletePolicyUnlinkDetail(name: randomName('detail'), master: otherMaster))
+
+        when:
+
+        dataManager.save(new SaveContext().removing(masters))
+
+        then:
+
+        details.every {
+            jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_UNLINK_DETAIL where ID = ? and MASTER_ID is null',
+                    Integer, it.id) == 1
+        }
+        jdbc.queryForObject('select MASTER_ID from TEST_DELETE_POLICY_UNLINK_DETAIL where ID = ?',
+                String, otherDetail.id) == otherMaster.id.toString()
+        jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_MASTER where ID <> ?',
+                Integer, otherMaster.id) == 0
+    }
+
+    def "unlink increments version of referrers, so stale referrers cannot be saved"() {
+        setup:
+
+        List<TestDeletePolicyMaster> masters = (1..2).collect { dataManager.save(new TestDeletePolicyMaster(name: randomName('master'))) }
+        List<TestDeletePolicyVersionedDetail> details = masters.collect {
+            dataManager.save(new TestDeletePolicyVersionedDetail(name: randomName('detail'), master: it))
+        }
+
+        when:
+
+        dataManager.save(new SaveContext().removing(masters))
+
+        then:
+
+        details.every {
+            jdbc.queryForObject('select VERSION from TEST_DELETE_POLICY_VERSIONED_DETAIL where ID = ? and MASTER_ID is null',
+                    Integer, it.id) == it.version + 1
+        }
+
+        when:
+
+        def staleDetail = details[0]
+        staleDetail.name = randomName('changed')
+        dataManager.save(staleDetail)
+
+        then:
+
+        def e = thrown(Exception)
+        ExceptionUtils.getThrowableList(e).any { it.class.simpleName.contains('OptimisticLock') }
+        jdbc.queryForObject('select count(*) from TEST_DELETE_POLICY_VERSIONED_DETAIL where ID = ? and MASTER_ID is null',
+                Integer, staleDetail.id) == 1
+    }
+
+    def "cached query results are discarded when unlink changes referrers"() {
+        setup:
+
+        List<TestDeletePolicyMaster> masters = (1..2).collect { dataManager.save(new TestDeletePolicyMaster(name: randomName('master'))) }
+        masters.each { dataManager.save(new TestDeletePolicyUnlinkDetail(name: randomName('detail'), master: it)) }
+
+        expect:
+
+        queryCacheManager.isEnabled()
+        loadUnlinkedDetails().isEmpty()
+
+        when:
+
+        dataManager.save(new SaveContext().removing(masters))
+
+        then:
+
+        loadUnlinkedDetails().size() == 2
+    }
+
+    def "query results cached before commit of delete policy statements are discarded after commit"() {
+        setup:
+
+        def master = dataManager.save(new TestDeletePolicyMaster(name: randomName('master')))
+        def detail = dataManager.save(new TestDeletePolicyCascadeDetail(name: randomName('detail'), master: master))
+        def queryKey = new QueryKey('select e from test_DeletePolicyCascadeDetail e', 0, 0, false, false, null, null)
+
+        when:
+
+        transaction.executeWithoutResult {
+            dataManager.save(new SaveContext().removing(master))
+            // a concurrent transaction can still read and cache the old state until this one commits
+            queryCacheManager.putResultToCache(queryKey, [detail], 'test_DeletePolicyCascadeDetail',
+                    ['test_DeletePolicyCascadeDetail'] as Set)
+        }
+
+        then:
+
+        queryCache.get(queryKey) == null
+    }
+
+    private List<TestDeletePolicyUnlinkDetail> loadUnlinkedDetails() {
+        return dataManager.load(TestDeletePolicyUnlinkDetail)
+                .query('select e from test_DeletePolicyUnlinkDetail e where e.master is null')
+                .cacheable(true)
+                .list()
+    }
+
+    private String randomName(String base) {
+        return base + '-' + RandomStringUtils.randomAlphabetic(5)
+    }
+}
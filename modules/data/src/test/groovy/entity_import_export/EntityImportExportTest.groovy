@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package entity_import_export
+
+import io.jmix.core.*
+import io.jmix.core.impl.importexport.EntityImportExportImpl
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.context.properties.bind.Binder
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource
+import org.springframework.context.ApplicationContext
+import spock.lang.Unroll
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Product
+
+class EntityImportExportTest extends DataSpec {
+
+    static final int BATCH_SIZE = 3
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    ApplicationContext applicationContext
+
+    EntityImportExportImpl entityImportExport
+
+    List<LoadContext> loadContexts = []
+    Set<UUID> hiddenIds = []
+
+    void setup() {
+        entityImportExport = new EntityImportExportImpl()
+        applicationContext.autowireCapableBeanFactory.autowireBean(entityImportExport)
+
+        entityImportExport.coreProperties = new Binder(new MapConfigurationPropertySource(
+                ['jmix.core.entity-import-load-batch-size': String.valueOf(BATCH_SIZE)])).bindOrCreate('jmix.core', CoreProperties)
+
+        // records load requests and hides the entities that are not permitted by row-level security
+        entityImportExport.dataManager = [
+                load    : { LoadContext ctx -> dataManager.load(ctx) },
+                loadList: { LoadContext ctx ->
+                    loadContexts << ctx
+                    dataManager.loadList(ctx).findAll { !hiddenIds.contains(it.id) }
+                },
+                save    : { SaveContext ctx -> dataManager.save(ctx) }
+        ] as DataManager
+    }
+
+    void cleanup() {
+        jdbc.update('delete from SALES_CUSTOMER')
+    }
+
+    @Unroll
+    def "existing instances of #count entities are loaded in #batches batches"() {
+        def customers = createCustomers(count)
+
+        when:
+
+        customers.each { it.name = "updated-$it.name".toString() }
+        entityImportExport.importEntities(customers, customerImportView(), false, false)
+
+        then:
+
+        loadContexts.size() == batches
+        loadContexts.every { it.ids.size() <= BATCH_SIZE }
+        loadContexts*.ids.flatten() as Set == customers*.id as Set
+
+        reload(Customer, customers)*.name == customers*.name
+
+        where:
+
+        count          | batches
+        BATCH_SIZE     | 1
+        BATCH_SIZE + 1 | 2
+    }
+
+    def "entities of different types are imported in a single operation and loaded separately by type"() {
+        def customers = createCustomers(BATCH_SIZE + 1)
+        def products = (1..2).collect { new Product(name: "product-$it".toString(), quantity: it) }
+        dataManager.save(products as Entity[])
+
+        when:
+
+        customers.each { it.name = "updated-$it.name".toString() }
+        products.each { it.quantity = it.quantity + 10 }
+
+        Map<EntityImportView, Collection<? extends Entity>> entitiesByView = new LinkedHashMap<>()
+        entitiesByView.put(customerImportView(), customers)
+        entitiesByView.put(new EntityImportView(Product).addLocalProperty('quantity'), products)
+
+        Collection<Entity> imported = entityImportExport.importEntities(entitiesByView, false, false)
+
+        then:
+
+        def customerLoads = loadContexts.findAll { it.ids.every { id -> id in customers*.id } }
+        def productLoads = loadContexts.findAll { it.ids.every { id -> id in products*.id } }
+        customerLoads.size() == 2
+        productLoads.size() == 1
+        customerLoads.size() + productLoads.size() == loadContexts.size()
+        productLoads[0].ids as Set == products*.id as Set
+
+        imported*.id as Set == (customers*.id + products*.id) as Set
+
+        reload(Customer, customers)*.name == customers*.name
+        reload(Product, products)*.quantity == [11, 12]
+    }
+
+    def "entities with missing ids are created"() {
+        def customers = createCustomers(BATCH_SIZE)
+
+        when:
+
+        def newCustomer = new Customer(name: 'new')
+        def importedCustomers = new ArrayList<Customer>(customers)
+        importedCustomers.add(1, newCustomer)
+        importedCustomers.each { it.name = "imported-$it.name".toString() }
+
+        entityImportExport.importEntities(importedCustomers, customerImportView(), false, false)
+
+        then:
+
+        loadContexts.size() == 2
+        loadContexts*.ids.flatten() as Set == importedCustomers*.id as Set
+
+        reload(Customer, importedCustomers)*.name == importedCustomers*.name
+    }
+
+    def "import fails if an entity in the middle of a batch is not permitted and does not change the others"() {
+        def customers = createCustomers(BATCH_SIZE)
+        def originalNames = customers*.name
+        hiddenIds << customers[1].id
+
+        when:
+
+        customers.each { it.name = "updated-$it.name".toString() }
+        entityImportExport.importEntities(customers, customerImportView(), false, false)
+
+        then:
+
+        // the hidden instance is treated as a new one and cannot be inserted, so the whole save is rolled back
+        thrown(RuntimeException)
+
+        reload(Customer, customers)*.name == originalNames
+    }
+
+    private List<Customer> createCustomers(int count) {
+        def customers = (1..count).collect { new Customer(name: "customer-$it".toString()) }
+        dataManager.save(customers as Entity[])
+        return customers
+    }
+
+    private static EntityImportView customerImportView() {
+        return new EntityImportView(Customer).addLocalProperty('name')
+    }
+
+    private <E extends Entity> List<E> reload(Class<E> entityClass, List<E> entities) {
+        def loaded = dataManager.load(entityClass).ids(entities*.id).list()
+        return entities.collect { entity -> loaded.find { it.id == entity.id } }.findAll { it != null }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package number_id
+
+import io.jmix.data.impl.NumberIdCache
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class NumberIdCacheTest extends DataSpec {
+
+    @Autowired
+    NumberIdCache numberIdCache
+
+    def "ids are unique when generated concurrently across blocks"() {
+        def threadCount = 8
+        def idsPerThread = 500
+        def executor = Executors.newFixedThreadPool(threadCount)
+
+        when:
+        def futures = (1..threadCount).collect {
+            executor.submit({
+                (1..idsPerThread).collect { numberIdCache.createLongId('test_NumberIdCacheEntity') }
+            } as Callable<List<Long>>)
+        }
+        def ids = futures.collectMany { it.get(30, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        then:
+        ids.size() == threadCount * idsPerThread
+        ids.toSet().size() == ids.size()
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package query_cache
+
+import io.jmix.data.DataProperties
+import io.jmix.data.impl.entitycache.QueryKey
+import io.jmix.data.impl.entitycache.QueryResult
+import io.jmix.data.impl.entitycache.StandardQueryCache
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.boot.context.properties.bind.Binder
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class StandardQueryCacheTest extends Specification {
+
+    def "put indexes the query by id and related types"() {
+        def cache = createCache(100)
+        def key = queryKey('select o from test_Order o')
+
+        when:
+
+        cache.put(key, queryResult('test_Order', 'test_Customer'))
+
+        then:
+
+        cache.get(key) != null
+        cache.findQueryKeyById(key.id).is(key)
+        cache.typeIndex.keySet() == ['test_Order', 'test_Customer'] as Set
+        cache.typeIndex['test_Order'] == [key] as Set
+        cache.typeIndex['test_Customer'] == [key] as Set
+    }
+
+    def "invalidate by type removes only queries related to the type"() {
+        def cache = createCache(100)
+        def key1 = queryKey('select o from test_Order o')
+        def key2 = queryKey('select c from test_Customer c')
+        def key3 = queryKey('select p from test_Product p')
+
+        cache.put(key1, queryResult('test_Order', 'test_Customer'))
+        cache.put(key2, queryResult('test_Customer'))
+        cache.put(key3, queryResult('test_Product'))
+
+        when:
+
+        cache.invalidate('test_Customer')
+
+        then:
+
+        cache.get(key1) == null
+        cache.get(key2) == null
+        cache.get(key3) != null
+
+        cache.typeIndex.keySet() == ['test_Product'] as Set
+        cache.idIndex.keySet() == [key3.id] as Set
+    }
+
+    def "invalidate by id removes the query and its index entries"() {
+        def cache = createCache(100)
+        def key = queryKey('select o from test_Order o')
+        cache.put(key, queryResult('test_Order'))
+
+        when:
+
+        def invalidatedKey = cache.invalidate(key.id)
+
+        then:
+
+        invalidatedKey.is(key)
+        cache.get(key) == null
+        cache.findQueryKeyById(key.id) == null
+        cache.typeIndex.isEmpty()
+        cache.invalidate(UUID.randomUUID()) == null
+    }
+
+    def "query put again with different related types is indexed by the new types only"() {
+        def cache = createCache(100)
+        def key1 = queryKey('select o from test_Order o')
+        def key2 = queryKey('select o from test_Order o')
+
+        cache.put(key1, queryResult('test_Order', 'test_Customer'))
+
+        when:
+
+        cache.put(key2, queryResult('test_Order', 'test_Product'))
+
+        then:
+
+        cache.size() == 1
+        cache.typeIndex.keySet() == ['test_Order', 'test_Product'] as Set
+        cache.idIndex.keySet() == [key2.id] as Set
+
+        when:
+
+        cache.invalidate('test_Customer')
+
+        then:
+
+        cache.get(key2) != null
+
+        when:
+
+        cache.invalidate('test_Product')
+
+        then:
+
+        cache.get(key2) == null
+        cache.typeIndex.isEmpty()
+        cache.idIndex.isEmpty()
+    }
+
+    def "indexes do not keep queries evicted by size limit"() {
+        def cache = createCache(3)
+
+        when:
+
+        (1..20).each {
+            cache.put(queryKey("select o from test_Order o where o.number = '$it'"), queryResult("test_Type${it % 4}"))
+        }
+
+        then:
+
+        cache.size() <= 3
+        cache.idIndex.values() as Set == cache.asMap().keySet()
+        cache.typeIndex.values().flatten() as Set == cache.asMap().keySet()
+        cache.typeIndex.values().every { !it.isEmpty() }
+    }
+
+    def "concurrent put and invalidate by type keep the type index complete"() {
+        def cache = createCache(100000)
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+
+        def futures = (1..4).collect { thread ->
+            executor.submit {
+                (1..2000).each {
+                    cache.put(queryKey("select o from test_Order o where o.number = '$thread-$it'"), queryResult('test_Order'))
+                    if (it % 50 == 0) {
+                        cache.invalidate('test_Order')
+                    }
+                }
+            }
+        }
+        futures*.get(30, TimeUnit.SECONDS)
+        executor.shutdown()
+
+        then: "each cached query can be invalidated by its type"
+
+        def cachedKeys = cache.asMap().keySet()
+        cachedKeys.every { cache.typeIndex['test_Order']?.contains(it) }
+
+        when:
+
+        cache.invalidate('test_Order')
+
+        then:
+
+        cache.size() == 0
+    }
+
+    private static StandardQueryCache createCache(int maxSize) {
+        def cache = new StandardQueryCache()
+        cache.properties = new Binder(new MapConfigurationPropertySource(
+                ['jmix.data.query-cache-max-size': String.valueOf(maxSize)])).bindOrCreate('jmix.data', DataProperties)
+        cache.meterRegistry = new SimpleMeterRegistry()
+        cache.init()
+        return cache
+    }
+
+    private static QueryKey queryKey(String queryString) {
+        return new QueryKey(queryString, 0, 0, false, false, null, null)
+    }
+
+    private static QueryResult queryResult(String type, String... relatedTypes) {
+        return new QueryResult([], type, ([type] + relatedTypes.toList()) as Set)
+    }
+}
@@ -55,6 +55,10 @@ class DataSpec extends Specification {
         jdbc.update('delete from TEST_IDENTITY_UUID_ENTITY')
         jdbc.update('delete from TEST_COMPOSITE_KEY_ENTITY')
         jdbc.update('delete from TEST_ENTITY_WITH_NON_PERSISTENT_REF')
+        jdbc.update('delete from TEST_DELETE_POLICY_CASCADE_DETAIL')
+        jdbc.update('delete from TEST_DELETE_POLICY_UNLINK_DETAIL')
+        jdbc.update('delete from TEST_DELETE_POLICY_VERSIONED_DETAIL')
+        jdbc.update('delete from TEST_DELETE_POLICY_MASTER')
 
         jdbc.update('delete from SALES_PRODUCT')
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test_support.entity;
+
+import io.jmix.core.metamodel.annotation.ModelProperty;
+import io.jmix.data.entity.BaseUuidEntity;
+import test_support.entity.multidb.Db1Customer;
+import test_support.entity.multidb.Mem1Customer;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.util.UUID;
+
+@Entity(name = "test_CrossStoreRefEntity")
+@Table(name = "TEST_CROSS_STORE_REF_ENTITY")
+public class TestCrossStoreRefEntity extends BaseUuidEntity {
+
+    private static final long serialVersionUID = 2947561830245718263L;
+
+    @Column(name = "NAME")
+    private String name;
+
+    @Column(name = "DB1_CUSTOMER_ID")
+    private Long db1CustomerId;
+
+    @Transient
+    @ModelProperty(related = "db1CustomerId")
+    private Db1Customer db1Customer;
+
+    @Column(name = "MEM1_CUSTOMER_ID")
+    private UUID mem1CustomerId;
+
+    @Transient
+    @ModelProperty(related = "mem1CustomerId")
+    private Mem1Customer mem1Customer;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getDb1CustomerId() {
+        return db1CustomerId;
+    }
+
+    public void setDb1CustomerId(Long db1CustomerId) {
+        this.db1CustomerId = db1CustomerId;
+    }
+
+    public Db1Customer getDb1Customer() {
+        return db1Customer;
+    }
+
+    public void setDb1Customer(Db1Customer db1Customer) {
+        this.db1Customer = db1Customer;
+    }
+
+    public UUID getMem1CustomerId() {
+        return mem1CustomerId;
+    }
+
+    public void setMem1CustomerId(UUID mem1CustomerId) {
+        this.mem1CustomerId = mem1CustomerId;
+    }
+
+    public Mem1Customer getMem1Customer() {
+        return mem1Customer;
+    }
+
+    public void setMem1Customer(Mem1Customer mem1Customer) {
+        this.mem1Customer = mem1Customer;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test_support.entity;
+
+import io.jmix.core.DeletePolicy;
+import io.jmix.core.entity.annotation.OnDeleteInverse;
+import io.jmix.data.entity.StandardEntity;
+
+import javax.persistence.*;
+
+@Entity(name = "test_DeletePolicyVersionedDetail")
+@Table(name = "TEST_DELETE_POLICY_VERSIONED_DETAIL")
+public class TestDeletePolicyVersionedDetail extends StandardEntity {
+
+    private static final long serialVersionUID = 5190276439182736650L;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "MASTER_ID")
+    @OnDeleteInverse(DeletePolicy.UNLINK)
+    private TestDeletePolicyMaster master;
+
+    @Column(name = "NAME")
+    private String name;
+
+    public TestDeletePolicyMaster getMaster() {
+        return master;
+    }
+
+    public void setMaster(TestDeletePolicyMaster master) {
+        this.master = master;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -32,4 +32,10 @@ public interface DynAttrMetadata {
     Optional<AttributeDefinition> getAttributeByCode(MetaClass metaClass, String code);
 
     void reload();
+
+    /**
+     * Reloads categories and attributes of the given entity and its extensions. Categories of other entities
+     * are not affected.
+     */
+    void reload(MetaClass metaClass);
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.dynattr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "jmix.dynattr")
+@ConstructorBinding
+public class DynAttrProperties {
+
+    boolean valueCacheEnabled;
+    int valueCacheMaxEntities;
+
+    public DynAttrProperties(
+            boolean valueCacheEnabled,
+            @DefaultValue("10000") int valueCacheMaxEntities
+    ) {
+        this.valueCacheEnabled = valueCacheEnabled;
+        this.valueCacheMaxEntities = valueCacheMaxEntities;
+    }
+
+    /**
+     * Whether dynamic attribute values of loaded entities are kept in a cache and not read from the database
+     * on subsequent loads. Suitable for read-mostly entities.
+     * <p>
+     * Values changed on other cluster nodes are evicted through cluster messages, so the cache is consistent in
+     * a cluster only if {@code jmix.core.cluster.enabled} is set.
+     */
+    public boolean isValueCacheEnabled() {
+        return valueCacheEnabled;
+    }
+
+    /**
+     * Maximum number of entities of each entity type whose dynamic attribute values are cached. Least recently
+     * used entries are evicted when the limit is reached.
+     */
+    public int getValueCacheMaxEntities() {
+        return valueCacheMaxEntities;
+    }
+}
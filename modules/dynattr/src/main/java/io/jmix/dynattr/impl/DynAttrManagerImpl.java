@@ -18,6 +18,8 @@
 package io.jmix.dynattr.impl;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import io.jmix.core.*;
 import io.jmix.core.common.util.ReflectionHelper;
@@ -38,10 +40,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 //TODO: take into account category
@@ -69,17 +74,23 @@ public class DynAttrManagerImpl implements DynAttrManager {
     protected DynAttrMetadata dynAttrMetadata;
     @Autowired
     protected FetchPlanRepository fetchPlanRepository;
+    @Autowired
+    protected DynAttrValueCache valueCache;
 
     protected String dynamicAttributesStore = Stores.MAIN;
 
     @Override
     public void storeValues(Collection<Entity> entities) {
-        storeAwareLocator.getTransactionTemplate(dynamicAttributesStore)
-                .executeWithoutResult(status -> {
-                    for (Entity entity : entities) {
-                        doStoreValues(entity);
-                    }
-                });
+        Multimap<MetaClass, Entity> entitiesToStore = collectEntitiesToStore(entities);
+        if (!entitiesToStore.isEmpty()) {
+            invalidateCachedValues(entitiesToStore);
+            storeAwareLocator.getTransactionTemplate(dynamicAttributesStore)
+                    .executeWithoutResult(status -> {
+                        for (MetaClass metaClass : entitiesToStore.keySet()) {
+                            doStoreValues(metaClass, entitiesToStore.get(metaClass));
+                        }
+                    });
+        }
     }
 
     public void loadValues(Collection<Entity> entities, @Nullable FetchPlan fetchPlan) {
@@ -94,8 +105,26 @@ public class DynAttrManagerImpl implements DynAttrManager {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    protected void doStoreValues(Entity entity) {
+    /**
+     * Stores changed dynamic attributes of the entities of the same type. Existing values of all entities are
+     * loaded by batches of {@link #MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH} ids, changes are applied in memory
+     * and written on flush, in JDBC batches if {@code jmix.data.jdbcBatchWritingSize} is set.
+     */
+    protected void doStoreValues(MetaClass metaClass, Collection<Entity> entities) {
+        List<Object> ids = entities.stream()
+                .map(e -> referenceToEntitySupport.getReferenceId(e))
+                .collect(Collectors.toList());
+
+        Multimap<Object, CategoryAttributeValue> allAttributeValues = loadValuesByEntityIds(metaClass, ids);
+
+        for (Entity entity : entities) {
+            Collection<CategoryAttributeValue> attributeValues =
+                    allAttributeValues.get(referenceToEntitySupport.getReferenceId(entity));
+            doStoreValues(entity, metaClass, attributeValues);
+        }
+    }
+
+    protected void doStoreValues(Entity entity, MetaClass metaClass, Collection<CategoryAttributeValue> attributeValues) {
         DynamicAttributesState state = (DynamicAttributesState)
                 entity.__getEntityEntry().getExtraState(DynamicAttributesState.class);
         if (state != null && state.getDynamicAttributes() != null) {
@@ -105,10 +134,6 @@ public class DynAttrManagerImpl implements DynAttrManager {
             DynamicAttributes.Changes changes = dynamicModel.getChanges();
 
             if (changes.hasChanges()) {
-
-                MetaClass metaClass = metadata.getClass(entity.getClass());
-                List<CategoryAttributeValue> attributeValues = loadValues(metaClass, Collections.singletonList(referenceToEntitySupport.getReferenceId(entity)));
-
                 for (CategoryAttributeValue attributeValue : attributeValues) {
                     String attributeName = attributeValue.getCode();
                     if (changes.isDeleted(attributeName)) {
@@ -191,48 +216,85 @@ public class DynAttrManagerImpl implements DynAttrManager {
                 entity.__getEntityEntry().addExtraState(state);
             }
         } else {
-            List<Object> ids = entities.stream()
-                    .map(e -> referenceToEntitySupport.getReferenceId(e))
-                    .collect(Collectors.toList());
-
-            Multimap<Object, CategoryAttributeValue> allAttributeValues = HashMultimap.create();
-
-            List<Object> currentIds = new ArrayList<>();
-            for (Object id : ids) {
-                currentIds.add(id);
-                if (currentIds.size() >= MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH) {
-                    for (CategoryAttributeValue attributeValue : loadValues(metaClass, currentIds)) {
-                        allAttributeValues.put(attributeValue.getObjectEntityId(), attributeValue);
-                    }
-                    currentIds = new ArrayList<>();
-                }
-            }
-            if (!currentIds.isEmpty()) {
-                for (CategoryAttributeValue attributeValue : loadValues(metaClass, currentIds)) {
-                    allAttributeValues.put(attributeValue.getObjectEntityId(), attributeValue);
+            boolean useCache = valueCache.isEnabled();
+            long cacheVersion = useCache ? valueCache.getVersion(metaClass) : 0;
+
+            Map<Object, Map<String, Object>> cachedValues = new HashMap<>();
+            List<Object> ids = new ArrayList<>();
+            for (Entity entity : entities) {
+                Object id = referenceToEntitySupport.getReferenceId(entity);
+                Map<String, Object> values = useCache ? valueCache.get(metaClass, id) : null;
+                if (values != null) {
+                    cachedValues.put(id, values);
+                } else {
+                    ids.add(id);
                 }
             }
 
+            // cached values are shared by all users, so entity values are cached without checking permissions
+            Multimap<Object, CategoryAttributeValue> allAttributeValues = ids.isEmpty() ?
+                    HashMultimap.create() : loadValuesByEntityIds(metaClass, ids, !useCache);
+
             for (Entity entity : entities) {
-                Collection<CategoryAttributeValue> values = allAttributeValues.get(referenceToEntitySupport.getReferenceId(entity));
+                Object id = referenceToEntitySupport.getReferenceId(entity);
                 DynamicAttributesState state = new DynamicAttributesState(entity.__getEntityEntry());
                 entity.__getEntityEntry().addExtraState(state);
 
-                Map<String, Object> map = new HashMap<>();
-                if (values != null && !values.isEmpty()) {
-                    for (CategoryAttributeValue categoryAttributeValue : values) {
-                        CategoryAttribute attribute = categoryAttributeValue.getCategoryAttribute();
-                        if (attribute != null) {
-                            map.put(attribute.getCode(), categoryAttributeValue.getValue());
+                Map<String, Object> map = cachedValues.get(id);
+                if (map == null) {
+                    map = new HashMap<>();
+                    Collection<CategoryAttributeValue> values = allAttributeValues.get(id);
+                    if (values != null && !values.isEmpty()) {
+                        for (CategoryAttributeValue categoryAttributeValue : values) {
+                            CategoryAttribute attribute = categoryAttributeValue.getCategoryAttribute();
+                            if (attribute != null) {
+                                map.put(attribute.getCode(), categoryAttributeValue.getValue());
+                            }
                         }
                     }
+                    if (useCache) {
+                        valueCache.put(metaClass, cacheVersion, id, map);
+                    }
+                }
+                if (useCache) {
+                    applyReadPermissions(map);
                 }
                 state.setDynamicAttributes(new DynamicAttributes(map));
             }
         }
     }
 
+    /**
+     * Loads attribute values of the given entities by batches of {@link #MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH} ids.
+     *
+     * @return values grouped by entity id
+     */
+    protected Multimap<Object, CategoryAttributeValue> loadValuesByEntityIds(MetaClass metaClass, List<Object> entityIds) {
+        return loadValuesByEntityIds(metaClass, entityIds, true);
+    }
+
+    /**
+     * Loads attribute values of the given entities by batches of {@link #MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH} ids.
+     *
+     * @param checkReadPermission if false, entity values are loaded regardless of permissions of the current user
+     * @return values grouped by entity id
+     */
+    protected Multimap<Object, CategoryAttributeValue> loadValuesByEntityIds(MetaClass metaClass, List<Object> entityIds,
+                                                                             boolean checkReadPermission) {
+        Multimap<Object, CategoryAttributeValue> allAttributeValues = HashMultimap.create();
+        for (List<Object> currentIds : Lists.partition(entityIds, MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH)) {
+            for (CategoryAttributeValue attributeValue : loadValues(metaClass, currentIds, checkReadPermission)) {
+                allAttributeValues.put(attributeValue.getObjectEntityId(), attributeValue);
+            }
+        }
+        return allAttributeValues;
+    }
+
     protected List<CategoryAttributeValue> loadValues(MetaClass metaClass, List<Object> entityIds) {
+        return loadValues(metaClass, entityIds, true);
+    }
+
+    protected List<CategoryAttributeValue> loadValues(MetaClass metaClass, List<Object> entityIds, boolean checkReadPermission) {
 
         List<CategoryAttributeValue> mainAttributeValues = findValuesByEntityIds(metaClass, entityIds);
 
@@ -245,7 +307,7 @@ public class DynAttrManagerImpl implements DynAttrManager {
                 .collect(Collectors.toList());
 
         if (collectionValues.isEmpty()) {
-            fetchEntityValues(entityValues);
+            fetchEntityValues(entityValues, checkReadPermission);
 
             return mainAttributeValues;
         } else {
@@ -262,7 +324,7 @@ public class DynAttrManagerImpl implements DynAttrManager {
                     }
                 }
             }
-            fetchEntityValues(entityValues);
+            fetchEntityValues(entityValues, checkReadPermission);
 
             for (CategoryAttributeValue value : reloadedCollectionValues) {
                 if (value.getChildValues() != null) {
@@ -324,8 +386,18 @@ public class DynAttrManagerImpl implements DynAttrManager {
      * Method loads entity values for CategoryAttributeValues of entity type and sets entity values to the corresponding
      * property of the {@code CategoryAttributeValue} entity.
      */
-    @SuppressWarnings("unchecked")
     protected void fetchEntityValues(List<CategoryAttributeValue> values) {
+        fetchEntityValues(values, true);
+    }
+
+    /**
+     * Loads entity values for CategoryAttributeValues of entity type.
+     *
+     * @param checkReadPermission if true, values of entity types which the current user is not permitted to read
+     *                            are not loaded
+     */
+    @SuppressWarnings("unchecked")
+    protected void fetchEntityValues(List<CategoryAttributeValue> values, boolean checkReadPermission) {
         Multimap<MetaClass, Object> entityIds = HashMultimap.create();
         Multimap<MetaClass, CategoryAttributeValue> valuesByType = HashMultimap.create();
 
@@ -334,7 +406,7 @@ public class DynAttrManagerImpl implements DynAttrManager {
             try {
                 Class<?> aClass = ReflectionHelper.loadClass(className);
                 MetaClass metaClass = metadata.getClass(aClass);
-                if (security.isEntityOpPermitted(metaClass, EntityOp.READ)) {
+                if (!checkReadPermission || security.isEntityOpPermitted(metaClass, EntityOp.READ)) {
                     entityIds.put(metaClass, value.getObjectEntityValueId());
                     valuesByType.put(metaClass, value);
                 }
@@ -371,6 +443,39 @@ public class DynAttrManagerImpl implements DynAttrManager {
         }
     }
 
+    /**
+     * Replaces entity values which the current user is not permitted to read with nulls, the same way as
+     * {@link #fetchEntityValues(List, boolean)} leaves them empty when it checks permissions.
+     */
+    @SuppressWarnings("unchecked")
+    protected void applyReadPermissions(Map<String, Object> values) {
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Entity) {
+                if (!isReadPermitted((Entity) value)) {
+                    entry.setValue(null);
+                }
+            } else if (value instanceof Collection) {
+                List<Object> items = new ArrayList<>((Collection<Object>) value);
+                boolean changed = false;
+                for (ListIterator<Object> iterator = items.listIterator(); iterator.hasNext(); ) {
+                    Object item = iterator.next();
+                    if (item instanceof Entity && !isReadPermitted((Entity) item)) {
+                        iterator.set(null);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    entry.setValue(items);
+                }
+            }
+        }
+    }
+
+    protected boolean isReadPermitted(Entity entity) {
+        return security.isEntityOpPermitted(metadata.getClass(entity), EntityOp.READ);
+    }
+
     protected List<CategoryAttributeValue> fetchCollectionValues(List<CategoryAttributeValue> values) {
         EntityManager entityManager = storeAwareLocator.getEntityManager(dynamicAttributesStore);
 
@@ -391,6 +496,48 @@ public class DynAttrManagerImpl implements DynAttrManager {
                 .getResultList();
     }
 
+    /**
+     * Evicts values of the stored entities from the value cache. Eviction is repeated after the transaction
+     * completes, so values read by concurrent transactions before the commit do not stay in the cache, and then
+     * sent to other cluster nodes.
+     */
+    protected void invalidateCachedValues(Multimap<MetaClass, Entity> entities) {
+        if (!valueCache.isEnabled()) {
+            return;
+        }
+        Consumer<Boolean> invalidation = sendInCluster -> {
+            for (Map.Entry<MetaClass, Collection<Entity>> entry : entities.asMap().entrySet()) {
+                valueCache.invalidate(entry.getKey(), entry.getValue().stream()
+                        .map(e -> referenceToEntitySupport.getReferenceId(e))
+                        .collect(Collectors.toList()), sendInCluster);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.accept(false);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.accept(true);
+                }
+            });
+        } else {
+            invalidation.accept(true);
+        }
+    }
+
+    protected Multimap<MetaClass, Entity> collectEntitiesToStore(Collection<Entity> entities) {
+        Multimap<MetaClass, Entity> entitiesByType = LinkedHashMultimap.create();
+        for (Entity entity : entities) {
+            DynamicAttributesState state = (DynamicAttributesState)
+                    entity.__getEntityEntry().getExtraState(DynamicAttributesState.class);
+            if (state != null && state.getDynamicAttributes() != null
+                    && state.getDynamicAttributes().getChanges().hasChanges()) {
+                entitiesByType.put(metadata.getClass(entity.getClass()), entity);
+            }
+        }
+        return entitiesByType;
+    }
+
     protected Multimap<MetaClass, Entity> collectEntitiesToLoad(Collection<Entity> entities, @Nullable FetchPlan fetchPlan) {
         Multimap<MetaClass, Entity> entitiesByType = HashMultimap.create();
         if (fetchPlan != null) {
@@ -27,15 +27,23 @@ import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.data.PersistenceHints;
 import io.jmix.data.StoreAwareLocator;
+import io.jmix.data.event.EntityChangedEvent;
 import io.jmix.dynattr.*;
 import io.jmix.dynattr.impl.model.Category;
 import io.jmix.dynattr.impl.model.CategoryAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -50,8 +58,13 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
     protected Metadata metadata;
     @Autowired
     protected DatatypeRegistry datatypeRegistry;
+    @Autowired
+    protected DynAttrValueCache valueCache;
+
+    protected static final String CHANGED_CATEGORIES_KEY = DynAttrMetadataImpl.class.getName() + ".changedCategories";
 
     protected volatile Cache cache;
+    protected final Object reloadLock = new Object();
 
     protected String dynamicAttributesStore = Stores.MAIN;
 
@@ -74,35 +87,189 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
 
     @Override
     public void reload() {
-        cache = doLoadCache();
+        synchronized (reloadLock) {
+            cache = doLoadCache();
+            valueCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void reload(MetaClass metaClass) {
+        reloadEntityTypes(Collections.singleton(extendedEntities.getOriginalOrThisMetaClass(metaClass).getName()));
+    }
+
+    @EventListener
+    protected void onCategoryChanged(EntityChangedEvent<Category> event) {
+        Cache currentCache = cache;
+        if (currentCache == null) {
+            return;
+        }
+        ChangedCategories changes = getChangedCategories();
+        String categoryId = event.getEntityId().getValue().toString();
+
+        addEntityType(changes.entityTypes, currentCache.getEntityTypeByCategoryId(categoryId));
+        if (event.getChanges().isChanged("entityType")) {
+            addEntityType(changes.entityTypes, event.getChanges().getOldValue("entityType"));
+        }
+        if (event.getType() != EntityChangedEvent.Type.DELETED) {
+            changes.categoryIds.add(event.getEntityId().getValue());
+        }
+
+        reloadIfNoTransaction(changes);
+    }
+
+    @EventListener
+    protected void onCategoryAttributeChanged(EntityChangedEvent<CategoryAttribute> event) {
+        Cache currentCache = cache;
+        if (currentCache == null) {
+            return;
+        }
+        ChangedCategories changes = getChangedCategories();
+        String attributeId = event.getEntityId().getValue().toString();
+
+        String categoryId = currentCache.getCategoryIdByAttributeId(attributeId);
+        if (categoryId != null) {
+            addEntityType(changes.entityTypes, currentCache.getEntityTypeByCategoryId(categoryId));
+        }
+        if (event.getChanges().isChanged("category")) {
+            Id<Category> oldCategoryId = event.getChanges().getOldReferenceId("category");
+            if (oldCategoryId != null) {
+                addEntityType(changes.entityTypes, currentCache.getEntityTypeByCategoryId(oldCategoryId.getValue().toString()));
+            }
+        }
+        if (event.getType() != EntityChangedEvent.Type.DELETED) {
+            changes.attributeIds.add(event.getEntityId().getValue());
+        }
+
+        reloadIfNoTransaction(changes);
+    }
+
+    /**
+     * Returns changes collected in the current transaction. Affected entity types are reloaded once after commit,
+     * regardless of the number of changed categories and attributes.
+     */
+    protected ChangedCategories getChangedCategories() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new ChangedCategories();
+        }
+        ChangedCategories changes = (ChangedCategories) TransactionSynchronizationManager.getResource(CHANGED_CATEGORIES_KEY);
+        if (changes == null) {
+            ChangedCategories newChanges = new ChangedCategories();
+            TransactionSynchronizationManager.bindResource(CHANGED_CATEGORIES_KEY, newChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    reloadChangedCategories(newChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_CATEGORIES_KEY);
+                }
+            });
+            changes = newChanges;
+        }
+        return changes;
+    }
+
+    protected void reloadIfNoTransaction(ChangedCategories changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadChangedCategories(changes);
+        }
+    }
+
+    protected void reloadChangedCategories(ChangedCategories changes) {
+        Set<String> entityTypes = new HashSet<>(changes.entityTypes);
+        if (!changes.categoryIds.isEmpty()) {
+            for (String entityType : loadEntityTypes(
+                    "select c.entityType from sys_Category c where c.id in :ids", changes.categoryIds)) {
+                addEntityType(entityTypes, entityType);
+            }
+        }
+        if (!changes.attributeIds.isEmpty()) {
+            for (String entityType : loadEntityTypes(
+                    "select a.category.entityType from sys_CategoryAttribute a where a.id in :ids", changes.attributeIds)) {
+                addEntityType(entityTypes, entityType);
+            }
+        }
+        reloadEntityTypes(entityTypes);
+    }
+
+    protected void addEntityType(Set<String> entityTypes, @Nullable String entityType) {
+        if (entityType != null) {
+            MetaClass metaClass = metadata.findClass(entityType);
+            if (metaClass != null) {
+                entityTypes.add(extendedEntities.getOriginalOrThisMetaClass(metaClass).getName());
+            }
+        }
+    }
+
+    /**
+     * Loads categories of the given original entity types with one query and replaces them in the cache snapshot.
+     */
+    protected void reloadEntityTypes(Set<String> entityTypes) {
+        if (entityTypes.isEmpty()) {
+            return;
+        }
+        log.debug("Reloading dynamic attributes of {}", entityTypes);
+        synchronized (reloadLock) {
+            Cache currentCache = cache;
+            if (currentCache != null) {
+                Set<String> storedEntityTypes = new HashSet<>();
+                for (String entityType : entityTypes) {
+                    storedEntityTypes.addAll(getEntityTypes(metadata.getClass(entityType)));
+                }
+                Multimap<String, CategoryDefinition> categories = HashMultimap.create();
+                for (CategoryDefinition category : loadCategoryDefinitions(storedEntityTypes)) {
+                    MetaClass metaClass = extendedEntities.getOriginalOrThisMetaClass(
+                            metadata.getClass(category.getEntityType()));
+                    categories.put(metaClass.getName(), category);
+                }
+                cache = currentCache.withCategories(entityTypes, categories);
+            }
+            for (String entityType : entityTypes) {
+                valueCache.invalidateAll(metadata.getClass(entityType));
+            }
+        }
+    }
+
+    /**
+     * @return names of the given original meta class and all its extensions, as they can be stored in categories
+     */
+    protected Collection<String> getEntityTypes(MetaClass originalMetaClass) {
+        Set<String> entityTypes = new HashSet<>();
+        entityTypes.add(originalMetaClass.getName());
+        for (MetaClass metaClass : metadata.getClasses()) {
+            if (extendedEntities.getOriginalOrThisMetaClass(metaClass).equals(originalMetaClass)) {
+                entityTypes.add(metaClass.getName());
+            }
+        }
+        return entityTypes;
     }
 
     protected Cache getCache() {
-        if (cache == null) {
-            Cache newCache = doLoadCache();
-            if (cache == null) {
-                cache = newCache;
+        Cache currentCache = cache;
+        if (currentCache == null) {
+            synchronized (reloadLock) {
+                currentCache = cache;
+                if (currentCache == null) {
+                    currentCache = doLoadCache();
+                    cache = currentCache;
+                }
             }
         }
-        return cache;
+        return currentCache;
     }
 
     protected Cache doLoadCache() {
         Multimap<String, CategoryDefinition> categoriesCache = HashMultimap.create();
-        Map<String, Map<String, AttributeDefinition>> attributesCache = new LinkedHashMap<>();
 
-        for (CategoryDefinition category : loadCategoryDefinitions()) {
+        for (CategoryDefinition category : loadCategoryDefinitions(null)) {
             if (category.getEntityType() != null) {
                 MetaClass metaClass = metadata.findClass(category.getEntityType());
                 if (metaClass != null) {
                     metaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
                     categoriesCache.put(metaClass.getName(), category);
-
-                    Map<String, AttributeDefinition> attributes = attributesCache.computeIfAbsent(metaClass.getName(),
-                            k -> new LinkedHashMap<>());
-                    for (AttributeDefinition attribute : category.getAttributeDefinitions()) {
-                        attributes.put(attribute.getCode(), attribute);
-                    }
                 } else {
                     log.warn("Could not resolve meta class name {} for the category {}.",
                             category.getEntityType(), category.getName());
@@ -110,12 +277,17 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
             }
         }
 
-        return new Cache(categoriesCache, attributesCache);
+        return new Cache(categoriesCache);
     }
 
-    protected List<CategoryDefinition> loadCategoryDefinitions() {
+    /**
+     * Loads categories with attributes.
+     *
+     * @param entityTypes entity names to load categories for, or null to load all categories
+     */
+    protected List<CategoryDefinition> loadCategoryDefinitions(@Nullable Collection<String> entityTypes) {
         //noinspection ConstantConditions
-        return storeAwareLocator.getTransactionTemplate(dynamicAttributesStore)
+        return createTransactionTemplate()
                 .execute(transactionStatus -> {
                     EntityManager entityManager = storeAwareLocator.getEntityManager(dynamicAttributesStore);
 
@@ -128,7 +300,15 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
                             })
                             .build();
 
-                    return entityManager.createQuery("select c from sys_Category c", Category.class)
+                    TypedQuery<Category> query;
+                    if (entityTypes == null) {
+                        query = entityManager.createQuery("select c from sys_Category c", Category.class);
+                    } else {
+                        query = entityManager.createQuery("select c from sys_Category c where c.entityType in :entityTypes",
+                                Category.class)
+                                .setParameter("entityTypes", entityTypes);
+                    }
+                    return query
                             .setHint(PersistenceHints.FETCH_PLAN, fetchPlan)
                             .getResultList().stream()
                             .map(this::buildCategoryDefinition)
@@ -136,6 +316,26 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
                 });
     }
 
+    protected List<String> loadEntityTypes(String queryString, Collection<Object> ids) {
+        //noinspection ConstantConditions
+        return createTransactionTemplate()
+                .execute(transactionStatus -> {
+                    EntityManager entityManager = storeAwareLocator.getEntityManager(dynamicAttributesStore);
+                    return entityManager.createQuery(queryString, String.class)
+                            .setParameter("ids", ids)
+                            .getResultList();
+                });
+    }
+
+    /**
+     * Categories can be reloaded after commit of another transaction, so they are always read in a new one.
+     */
+    protected TransactionTemplate createTransactionTemplate() {
+        TransactionTemplate transactionTemplate = storeAwareLocator.getTransactionTemplate(dynamicAttributesStore);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
     protected CategoryDefinition buildCategoryDefinition(Category category) {
         MetaClass metaClass = extendedEntities.getOriginalOrThisMetaClass(metadata.getClass(category.getEntityType()));
         List<AttributeDefinition> attributes;
@@ -165,13 +365,65 @@ public class DynAttrMetadataImpl implements DynAttrMetadata {
         return new DynAttrMetaProperty(name, metaClass, javaClass, propertyMetaClass, datatype);
     }
 
+    /**
+     * Categories and attributes changed in a transaction.
+     */
+    protected static class ChangedCategories {
+        // original entity types known from the cache before the change
+        protected final Set<String> entityTypes = new HashSet<>();
+        // categories and attributes whose entity types are read after commit
+        protected final Set<Object> categoryIds = new HashSet<>();
+        protected final Set<Object> attributeIds = new HashSet<>();
+    }
+
+    /**
+     * Immutable snapshot of categories and attributes. Reloading creates a new snapshot, so readers never block.
+     */
     protected class Cache {
         protected final Multimap<String, CategoryDefinition> categories;
         protected final Map<String, Map<String, AttributeDefinition>> attributes;
+        protected final Map<String, String> entityTypesByCategoryId;
+        protected final Map<String, String> categoryIdsByAttributeId;
 
-        public Cache(Multimap<String, CategoryDefinition> categories, Map<String, Map<String, AttributeDefinition>> attributes) {
+        public Cache(Multimap<String, CategoryDefinition> categories) {
             this.categories = categories;
-            this.attributes = attributes;
+            this.attributes = new HashMap<>();
+            this.entityTypesByCategoryId = new HashMap<>();
+            this.categoryIdsByAttributeId = new HashMap<>();
+
+            for (Map.Entry<String, CategoryDefinition> entry : categories.entries()) {
+                CategoryDefinition category = entry.getValue();
+                entityTypesByCategoryId.put(category.getId(), entry.getKey());
+
+                Map<String, AttributeDefinition> classAttributes = attributes.computeIfAbsent(entry.getKey(),
+                        k -> new LinkedHashMap<>());
+                for (AttributeDefinition attribute : category.getAttributeDefinitions()) {
+                    classAttributes.put(attribute.getCode(), attribute);
+                    categoryIdsByAttributeId.put(attribute.getId(), category.getId());
+                }
+            }
+        }
+
+        /**
+         * @return a copy of this snapshot with categories of the given entities replaced
+         */
+        public Cache withCategories(Collection<String> entityTypes, Multimap<String, CategoryDefinition> entityCategories) {
+            Multimap<String, CategoryDefinition> newCategories = HashMultimap.create(categories);
+            for (String entityType : entityTypes) {
+                newCategories.removeAll(entityType);
+                newCategories.putAll(entityType, entityCategories.get(entityType));
+            }
+            return new Cache(newCategories);
+        }
+
+        @Nullable
+        public String getEntityTypeByCategoryId(String categoryId) {
+            return entityTypesByCategoryId.get(categoryId);
+        }
+
+        @Nullable
+        public String getCategoryIdByAttributeId(String attributeId) {
+            return categoryIdsByAttributeId.get(attributeId);
         }
 
         public Collection<CategoryDefinition> getCategories(MetaClass metaClass) {
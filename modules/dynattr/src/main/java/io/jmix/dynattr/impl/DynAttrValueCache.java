@@ -0,0 +1,573 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.dynattr.impl;
+
+import io.jmix.core.Entity;
+import io.jmix.core.ExtendedEntities;
+import io.jmix.core.MetadataTools;
+import io.jmix.core.cluster.ClusterListenerAdapter;
+import io.jmix.core.cluster.ClusterManager;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.dynattr.AttributeDefinition;
+import io.jmix.dynattr.DynAttrMetadata;
+import io.jmix.dynattr.DynAttrProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache of dynamic attribute values of loaded entities, used by {@link DynAttrManagerImpl} when
+ * {@link DynAttrProperties#isValueCacheEnabled()} is set.
+ * <p>
+ * Values are stored per entity type in columns, one column per attribute code: numbers, dates and booleans
+ * are kept in primitive arrays, other values in object arrays. The number of cached entities of each type
+ * is limited by {@link DynAttrProperties#getValueCacheMaxEntities()}, least recently used entities are evicted.
+ * <p>
+ * Values are cached as stored, without applying permissions of the current user: entity values must be checked
+ * by the caller after they are taken from the cache. Evictions of changed entities are sent to other cluster
+ * nodes through {@link ClusterManager}.
+ */
+@Component(DynAttrValueCache.NAME)
+public class DynAttrValueCache {
+
+    public static final String NAME = "dynattr_DynAttrValueCache";
+
+    @Autowired
+    protected DynAttrProperties properties;
+    @Autowired
+    protected DynAttrMetadata dynAttrMetadata;
+    @Autowired
+    protected ExtendedEntities extendedEntities;
+    @Autowired
+    protected MetadataTools metadataTools;
+    @Autowired
+    protected MeterRegistry meterRegistry;
+    @Autowired
+    protected ClusterManager clusterManager;
+
+    protected final Map<String, ClassValues> classValues = new ConcurrentHashMap<>();
+
+    protected Counter hitCounter;
+    protected Counter missCounter;
+    protected Counter evictionCounter;
+
+    @PostConstruct
+    protected void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        hitCounter = meterRegistry.counter("jmix.dynattr.valueCache.hits");
+        missCounter = meterRegistry.counter("jmix.dynattr.valueCache.misses");
+        evictionCounter = meterRegistry.counter("jmix.dynattr.valueCache.evictions");
+        Gauge.builder("jmix.dynattr.valueCache.entities", this, DynAttrValueCache::size)
+                .register(meterRegistry);
+        Gauge.builder("jmix.dynattr.valueCache.estimatedBytes", this, DynAttrValueCache::estimateMemory)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        clusterManager.addListener(InvalidateValuesMsg.class, new ClusterListenerAdapter<InvalidateValuesMsg>() {
+            @Override
+            public void receive(InvalidateValuesMsg message) {
+                ClassValues values = classValues.get(message.entityName);
+                if (values != null) {
+                    values.invalidate(message.entityIds);
+                }
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return properties.isValueCacheEnabled() && properties.getValueCacheMaxEntities() > 0;
+    }
+
+    /**
+     * Returns the version of cached values of the given entity type. The version must be obtained before reading
+     * values from the database and passed to {@link #put(MetaClass, long, Object, Map)}, so values read before
+     * an invalidation are not cached.
+     */
+    public long getVersion(MetaClass metaClass) {
+        return getClassValues(metaClass).getVersion();
+    }
+
+    /**
+     * @return a copy of cached values of the entity by attribute codes, or null if the entity is not in the cache
+     */
+    @Nullable
+    public Map<String, Object> get(MetaClass metaClass, Object entityId) {
+        Map<String, Object> values = getClassValues(metaClass).get(entityId);
+        if (values == null) {
+            missCounter.increment();
+        } else {
+            hitCounter.increment();
+        }
+        return values;
+    }
+
+    public void put(MetaClass metaClass, long version, Object entityId, Map<String, Object> values) {
+        getClassValues(metaClass).put(version, entityId, values);
+    }
+
+    public void invalidate(MetaClass metaClass, Collection<?> entityIds) {
+        invalidate(metaClass, entityIds, false);
+    }
+
+    /**
+     * Evicts values of the given entities.
+     *
+     * @param sendInCluster if true, the entities are also evicted from caches of other cluster nodes
+     */
+    public void invalidate(MetaClass metaClass, Collection<?> entityIds, boolean sendInCluster) {
+        ClassValues values = getClassValues(metaClass);
+        values.invalidate(entityIds);
+        if (sendInCluster && !entityIds.isEmpty()) {
+            clusterManager.send(new InvalidateValuesMsg(values.metaClass.getName(), new ArrayList<>(entityIds)));
+        }
+    }
+
+    public void invalidateAll(MetaClass metaClass) {
+        getClassValues(metaClass).invalidateAll();
+    }
+
+    public void invalidateAll() {
+        for (ClassValues values : classValues.values()) {
+            values.invalidateAll();
+        }
+    }
+
+    /**
+     * @return number of entities in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (ClassValues values : classValues.values()) {
+            size += values.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return approximate size of the cached values in memory
+     */
+    public long estimateMemory() {
+        long bytes = 0;
+        for (ClassValues values : classValues.values()) {
+            bytes += values.estimateMemory();
+        }
+        return bytes;
+    }
+
+    protected ClassValues getClassValues(MetaClass metaClass) {
+        MetaClass originalMetaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
+        return classValues.computeIfAbsent(originalMetaClass.getName(),
+                name -> new ClassValues(originalMetaClass, properties.getValueCacheMaxEntities()));
+    }
+
+    protected Column createColumn(MetaClass metaClass, String code) {
+        AttributeDefinition attribute = dynAttrMetadata.getAttributeByCode(metaClass, code).orElse(null);
+        if (attribute == null || attribute.isCollection()) {
+            return new ObjectColumn();
+        }
+        switch (attribute.getDataType()) {
+            case INTEGER:
+                return new IntColumn();
+            case DOUBLE:
+                return new DoubleColumn();
+            case BOOLEAN:
+                return new BooleanColumn();
+            case DATE:
+                return new LongColumn(value -> ((Date) value).getTime(), Date::new);
+            case DATE_WITHOUT_TIME:
+                return new LongColumn(value -> ((LocalDate) value).toEpochDay(), LocalDate::ofEpochDay);
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    /**
+     * Copies mutable values, so instances returned by the cache can be changed without affecting it.
+     */
+    @SuppressWarnings("unchecked")
+    protected Object copyValue(Object value) {
+        if (value instanceof Entity) {
+            return metadataTools.copy((Entity) value);
+        } else if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<Object>) value).size());
+            for (Object item : (Collection<Object>) value) {
+                list.add(item instanceof Entity ? metadataTools.copy((Entity) item) : item);
+            }
+            return list;
+        } else if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        return value;
+    }
+
+    protected static class InvalidateValuesMsg implements Serializable {
+        private static final long serialVersionUID = 2706489537402155021L;
+
+        protected String entityName;
+        protected ArrayList<Object> entityIds;
+
+        public InvalidateValuesMsg(String entityName, ArrayList<Object> entityIds) {
+            this.entityName = entityName;
+            this.entityIds = entityIds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            InvalidateValuesMsg that = (InvalidateValuesMsg) o;
+            return entityName.equals(that.entityName) && entityIds.equals(that.entityIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityName, entityIds);
+        }
+    }
+
+    /**
+     * Values of entities of one type: a row per entity and a column per attribute code.
+     */
+    protected class ClassValues {
+
+        protected final MetaClass metaClass;
+        protected final int maxRows;
+
+        // access-ordered to evict the least recently used rows
+        protected final LinkedHashMap<Object, Integer> rows = new LinkedHashMap<>(16, 0.75f, true);
+        protected final Map<String, Column> columns = new HashMap<>();
+        protected final Deque<Integer> freeRows = new ArrayDeque<>();
+        protected int allocatedRows;
+        protected long version;
+
+        protected ClassValues(MetaClass metaClass, int maxRows) {
+            this.metaClass = metaClass;
+            this.maxRows = maxRows;
+        }
+
+        protected synchronized long getVersion() {
+            return version;
+        }
+
+        @Nullable
+        protected synchronized Map<String, Object> get(Object entityId) {
+            Integer row = rows.get(entityId);
+            if (row == null) {
+                return null;
+            }
+            Map<String, Object> values = new HashMap<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                Column column = entry.getValue();
+                if (column.isSet(row)) {
+                    values.put(entry.getKey(), copyValue(column.get(row)));
+                }
+            }
+            return values;
+        }
+
+        protected synchronized void put(long expectedVersion, Object entityId, Map<String, Object> values) {
+            if (version != expectedVersion) {
+                return;
+            }
+            Integer row = rows.get(entityId);
+            if (row == null) {
+                row = allocateRow();
+                rows.put(entityId, row);
+            } else {
+                clearRow(row);
+            }
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                if (entry.getValue() != null) {
+                    Column column = columns.computeIfAbsent(entry.getKey(), code -> createColumn(metaClass, code));
+                    column.ensureCapacity(allocatedRows);
+                    column.set(row, copyValue(entry.getValue()));
+                }
+            }
+        }
+
+        protected synchronized void invalidate(Collection<?> entityIds) {
+            version++;
+            for (Object entityId : entityIds) {
+                Integer row = rows.remove(entityId);
+                if (row != null) {
+                    releaseRow(row);
+                }
+            }
+        }
+
+        protected synchronized void invalidateAll() {
+            version++;
+            rows.clear();
+            columns.clear();
+            freeRows.clear();
+            allocatedRows = 0;
+        }
+
+        protected synchronized int size() {
+            return rows.size();
+        }
+
+        protected synchronized long estimateMemory() {
+            long bytes = rows.size() * 48L;
+            for (Column column : columns.values()) {
+                bytes += column.estimateMemory();
+            }
+            return bytes;
+        }
+
+        protected int allocateRow() {
+            if (rows.size() >= maxRows) {
+                Iterator<Map.Entry<Object, Integer>> iterator = rows.entrySet().iterator();
+                Integer evicted = iterator.next().getValue();
+                iterator.remove();
+                releaseRow(evicted);
+                evictionCounter.increment();
+            }
+            if (!freeRows.isEmpty()) {
+                return freeRows.pop();
+            }
+            return allocatedRows++;
+        }
+
+        protected void releaseRow(int row) {
+            clearRow(row);
+            freeRows.push(row);
+        }
+
+        protected void clearRow(int row) {
+            for (Column column : columns.values()) {
+                column.clear(row);
+            }
+        }
+    }
+
+    protected interface Column {
+
+        void ensureCapacity(int rows);
+
+        boolean isSet(int row);
+
+        Object get(int row);
+
+        void set(int row, Object value);
+
+        void clear(int row);
+
+        long estimateMemory();
+    }
+
+    protected static abstract class AbstractColumn implements Column {
+
+        protected final BitSet present = new BitSet();
+        protected int capacity;
+
+        @Override
+        public void ensureCapacity(int rows) {
+            if (rows > capacity) {
+                capacity = Math.max(rows, Math.max(16, capacity + (capacity >> 1)));
+                resize(capacity);
+            }
+        }
+
+        protected abstract void resize(int capacity);
+
+        @Override
+        public boolean isSet(int row) {
+            return row < capacity && present.get(row);
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            present.set(row);
+        }
+
+        @Override
+        public void clear(int row) {
+            present.clear(row);
+        }
+
+        @Override
+        public long estimateMemory() {
+            return present.size() / 8;
+        }
+    }
+
+    protected static class IntColumn extends AbstractColumn {
+
+        protected int[] values = new int[0];
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            super.set(row, value);
+            values[row] = ((Number) value).intValue();
+        }
+
+        @Override
+        public long estimateMemory() {
+            return super.estimateMemory() + values.length * 4L;
+        }
+    }
+
+    protected static class DoubleColumn extends AbstractColumn {
+
+        protected double[] values = new double[0];
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            super.set(row, value);
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        public long estimateMemory() {
+            return super.estimateMemory() + values.length * 8L;
+        }
+    }
+
+    protected static class LongColumn extends AbstractColumn {
+
+        protected final ToLongFunction<Object> encoder;
+        protected final LongFunction<Object> decoder;
+        protected long[] values = new long[0];
+
+        protected LongColumn(ToLongFunction<Object> encoder, LongFunction<Object> decoder) {
+            this.encoder = encoder;
+            this.decoder = decoder;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        public Object get(int row) {
+            return decoder.apply(values[row]);
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            super.set(row, value);
+            values[row] = encoder.applyAsLong(value);
+        }
+
+        @Override
+        public long estimateMemory() {
+            return super.estimateMemory() + values.length * 8L;
+        }
+    }
+
+    protected static class BooleanColumn extends AbstractColumn {
+
+        protected final BitSet values = new BitSet();
+
+        @Override
+        protected void resize(int capacity) {
+        }
+
+        @Override
+        public Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            super.set(row, value);
+            values.set(row, (Boolean) value);
+        }
+
+        @Override
+        public long estimateMemory() {
+            return super.estimateMemory() + values.size() / 8;
+        }
+    }
+
+    protected static class ObjectColumn extends AbstractColumn {
+
+        protected Object[] values = new Object[0];
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public void set(int row, Object value) {
+            super.set(row, value);
+            values[row] = value;
+        }
+
+        @Override
+        public void clear(int row) {
+            super.clear(row);
+            if (row < values.length) {
+                values[row] = null;
+            }
+        }
+
+        @Override
+        public long estimateMemory() {
+            long bytes = super.estimateMemory() + values.length * 8L;
+            for (Object value : values) {
+                if (value instanceof String) {
+                    bytes += 40 + ((String) value).length() * 2L;
+                } else if (value != null) {
+                    bytes += 64;
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package io.jmix.dynattr.impl.model;
 
 import io.jmix.core.DeletePolicy;
 import io.jmix.core.entity.annotation.OnDelete;
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.core.entity.annotation.SystemLevel;
 import io.jmix.core.metamodel.annotation.Composition;
 import io.jmix.core.metamodel.annotation.InstanceName;
@@ -35,6 +36,7 @@ import java.util.List;
 @DiscriminatorColumn(name = "DISCRIMINATOR", discriminatorType = DiscriminatorType.INTEGER)
 @DiscriminatorValue("0")
 @SystemLevel
+@PublishEntityChangedEvents
 public class Category extends StandardEntity {
 
     private static final long serialVersionUID = 7160259865207148541L;
@@ -23,6 +23,7 @@ import com.google.gson.GsonBuilder;
 import io.jmix.core.Metadata;
 import io.jmix.core.common.util.ReflectionHelper;
 import io.jmix.core.entity.annotation.EmbeddedParameters;
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.core.entity.annotation.SystemLevel;
 import io.jmix.core.metamodel.annotation.InstanceName;
 import io.jmix.core.metamodel.annotation.ModelProperty;
@@ -41,6 +42,7 @@ import java.util.*;
 @Entity(name = "sys_CategoryAttribute")
 @Table(name = "SYS_CATEGORY_ATTR")
 @SystemLevel
+@PublishEntityChangedEvents
 public class CategoryAttribute extends StandardEntity {
 
     private static final long serialVersionUID = -6959392628534815752L;
@@ -17,15 +17,22 @@
 package dynamic_attributes
 
 import io.jmix.core.DataManager
+import io.jmix.core.Entity
 import io.jmix.core.FetchPlan
 import io.jmix.core.CoreConfiguration
 import io.jmix.core.Metadata
 import io.jmix.core.entity.EntityValues
+import io.jmix.core.metamodel.model.MetaClass
+import io.jmix.core.security.EntityOp
+import io.jmix.core.security.Security
 import io.jmix.data.DataConfiguration
 import io.jmix.data.entity.ReferenceToEntity
 import io.jmix.dynattr.AttributeType
+import io.jmix.dynattr.DynAttrManager
 import io.jmix.dynattr.DynAttrMetadata
 import io.jmix.dynattr.DynAttrConfiguration
+import io.jmix.dynattr.impl.DynAttrMetadataImpl
+import io.jmix.dynattr.impl.DynAttrValueCache
 import io.jmix.dynattr.impl.model.CategoryAttribute
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.jdbc.core.JdbcTemplate
@@ -49,6 +56,8 @@ class DynamicAttributesTest extends Specification {
     protected Metadata metadata
     @Autowired
     protected DataSource dataSource;
+    @Autowired
+    protected DynAttrManager dynAttrManager
 
     protected io.jmix.dynattr.impl.model.Category userCategory, userRoleCategory, roleCategory
 
@@ -253,6 +262,45 @@ class DynamicAttributesTest extends Specification {
         EntityValues.getValue(user, '+userAttribute') == 'userName'
     }
 
+    def "save dynamic attributes of several users at once"() {
+        setup:
+
+        def newUsers = (1..5).collect {
+            def user = metadata.create(User)
+            user.login = "bulk$it"
+            EntityValues.setValue(user, '+userAttribute', "created$it")
+            user
+        }
+        dataManager.save(*newUsers)
+
+        def loaded = dataManager.load(User)
+                .query('select u from dynattr$User u where u.login like :login')
+                .parameter('login', 'bulk%')
+                .dynamicAttributes(true)
+                .list()
+
+        when:
+
+        loaded.eachWithIndex { user, i ->
+            EntityValues.setValue(user, '+userAttribute', i % 2 == 0 ? "updated$i" : null)
+        }
+        dataManager.save(*loaded)
+
+        def reloaded = dataManager.load(User)
+                .query('select u from dynattr$User u where u.login like :login')
+                .parameter('login', 'bulk%')
+                .dynamicAttributes(true)
+                .list()
+
+        then:
+
+        reloaded.size() == 5
+        reloaded.every { user ->
+            int i = loaded.findIndexOf { it.id == user.id }
+            EntityValues.getValue(user, '+userAttribute') == (i % 2 == 0 ? "updated$i" : null)
+        }
+    }
+
     def "load nested dynamic attributes"() {
         setup:
 
@@ -345,6 +393,56 @@ class DynamicAttributesTest extends Specification {
         collection.contains(group2)
     }
 
+    def "entity values are loaded according to permissions of the current user"() {
+        setup:
+
+        def user = dataManager.load(User)
+                .id(user1.id)
+                .dynamicAttributes(true)
+                .one()
+        EntityValues.setValue(user, '+userGroupAttribute', group1)
+        EntityValues.setValue(user, '+userGroupCollectionAttribute', [group1, group2])
+        dataManager.save(user)
+
+        def groupMetaClass = metadata.getClass(Group)
+        Security permittedSecurity = dynAttrManager.security
+        Security restrictedSecurity = Stub(Security) {
+            isEntityOpPermitted(_ as MetaClass, _ as EntityOp) >> { MetaClass metaClass, EntityOp op ->
+                metaClass != groupMetaClass && permittedSecurity.isEntityOpPermitted(metaClass, op)
+            }
+        }
+
+        when: "a user without permission to read groups loads the entity first, then a permitted user loads it"
+
+        dynAttrManager.security = restrictedSecurity
+        def restrictedUser = dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        dynAttrManager.security = permittedSecurity
+        def permittedUser = dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        then:
+
+        EntityValues.getValue(restrictedUser, '+userGroupAttribute') == null
+        EntityValues.getValue(restrictedUser, '+userGroupCollectionAttribute') == [null, null]
+
+        EntityValues.getValue(permittedUser, '+userGroupAttribute') == group1
+        (EntityValues.getValue(permittedUser, '+userGroupCollectionAttribute') as Set) == [group1, group2] as Set
+
+        when: "the user without permission loads the entity after the permitted user"
+
+        dynAttrManager.security = restrictedSecurity
+        restrictedUser = dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        then:
+
+        EntityValues.getValue(restrictedUser, '+userGroupAttribute') == null
+        EntityValues.getValue(restrictedUser, '+userGroupCollectionAttribute') == [null, null]
+
+        cleanup:
+
+        dynAttrManager.security = permittedSecurity
+    }
+
     def "load/save entity with collection of integers dynamic attribute"() {
         setup:
 
@@ -415,4 +513,92 @@ class DynamicAttributesTest extends Specification {
         then:
         EntityValues.getValue(user, '+userEnumAttribute') == 'option2'
     }
+
+    def "changed attributes are reloaded only for their entity"() {
+        setup:
+
+        def userMetaClass = metadata.getClass(User)
+        def roleMetaClass = metadata.getClass(Role)
+        def roleCategory = dynamicModelConfiguration.getCategories(roleMetaClass).first()
+
+        when: "an attribute is added to the user category"
+
+        def newAttribute = new CategoryAttribute(
+                name: 'userNewAttribute',
+                code: 'userNewAttribute',
+                dataType: AttributeType.STRING,
+                categoryEntityType: 'dynattr$User',
+                category: userCategory,
+                defaultEntity: new ReferenceToEntity()
+        )
+        dataManager.save(newAttribute)
+
+        then: "it is available without full reload"
+
+        dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userNewAttribute').isPresent()
+
+        and: "categories of other entities are not reloaded"
+
+        dynamicModelConfiguration.getCategories(roleMetaClass).first().is(roleCategory)
+
+        when: "the attribute is removed"
+
+        dataManager.remove(newAttribute)
+
+        then:
+
+        !dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userNewAttribute').isPresent()
+        dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userAttribute').isPresent()
+    }
+
+    def "attributes changed in one transaction are reloaded once per entity after commit"() {
+        setup:
+
+        def metadataImpl = (DynAttrMetadataImpl) dynamicModelConfiguration
+        def originalValueCache = metadataImpl.valueCache
+        List<String> reloadedEntities = []
+        metadataImpl.valueCache = new DynAttrValueCache() {
+            @Override
+            void invalidateAll(MetaClass metaClass) {
+                reloadedEntities << metaClass.name
+            }
+        }
+
+        def userMetaClass = metadata.getClass(User)
+        def roleMetaClass = metadata.getClass(Role)
+
+        when: "several attributes of two entities are saved together"
+
+        def newAttributes = ['userNewAttribute1', 'userNewAttribute2', 'userNewAttribute3'].collect {
+            new CategoryAttribute(name: it, code: it, dataType: AttributeType.STRING,
+                    categoryEntityType: 'dynattr$User', category: userCategory, defaultEntity: new ReferenceToEntity())
+        }
+        newAttributes << new CategoryAttribute(name: 'roleNewAttribute', code: 'roleNewAttribute',
+                dataType: AttributeType.STRING, categoryEntityType: 'dynattr$Role', category: roleCategory,
+                defaultEntity: new ReferenceToEntity())
+        dataManager.save(newAttributes as Entity[])
+
+        then: "each entity is reloaded once"
+
+        reloadedEntities.sort() == ['dynattr$Role', 'dynattr$User']
+
+        dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userNewAttribute1').isPresent()
+        dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userNewAttribute3').isPresent()
+        dynamicModelConfiguration.getAttributeByCode(roleMetaClass, 'roleNewAttribute').isPresent()
+
+        when: "the attributes are removed together"
+
+        reloadedEntities.clear()
+        dataManager.remove(newAttributes as Entity[])
+
+        then:
+
+        reloadedEntities.sort() == ['dynattr$Role', 'dynattr$User']
+        !dynamicModelConfiguration.getAttributeByCode(userMetaClass, 'userNewAttribute1').isPresent()
+        !dynamicModelConfiguration.getAttributeByCode(roleMetaClass, 'roleNewAttribute').isPresent()
+
+        cleanup:
+
+        metadataImpl.valueCache = originalValueCache
+    }
 }
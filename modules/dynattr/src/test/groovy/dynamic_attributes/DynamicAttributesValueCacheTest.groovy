@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dynamic_attributes
+
+import io.jmix.core.entity.EntityValues
+import io.jmix.dynattr.impl.DynAttrValueCache
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import test_support.entity.User
+
+/**
+ * Runs all dynamic attributes tests with the value cache enabled.
+ */
+@TestPropertySource(properties = ['jmix.dynattr.valueCacheEnabled = true'])
+class DynamicAttributesValueCacheTest extends DynamicAttributesTest {
+
+    @Autowired
+    DynAttrValueCache valueCache
+
+    def "cached values are returned and invalidated on save"() {
+        setup:
+
+        def user = dataManager.load(User)
+                .id(user1.id)
+                .dynamicAttributes(true)
+                .one()
+        EntityValues.setValue(user, '+userAttribute', 'first')
+        EntityValues.setValue(user, '+userIntCollectionAttribute', [1, 2])
+        dataManager.save(user)
+
+        when: "the user is loaded twice"
+
+        dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+        user = dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        then: "the second load gets values from the cache"
+
+        valueCache.get(metadata.getClass(User), user1.id) != null
+        EntityValues.getValue(user, '+userAttribute') == 'first'
+        EntityValues.getValue(user, '+userIntCollectionAttribute') == [1, 2]
+
+        when: "values are changed"
+
+        EntityValues.setValue(user, '+userAttribute', 'second')
+        dataManager.save(user)
+        user = dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        then:
+
+        EntityValues.getValue(user, '+userAttribute') == 'second'
+    }
+
+    def "cache is cleared when dynamic attributes metadata is reloaded"() {
+        setup:
+
+        dataManager.load(User).id(user1.id).dynamicAttributes(true).one()
+
+        when:
+
+        dynamicModelConfiguration.reload()
+
+        then:
+
+        valueCache.size() == 0
+    }
+}
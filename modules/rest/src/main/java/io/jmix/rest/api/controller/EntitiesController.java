@@ -31,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * Controller that performs CRUD entity operations
@@ -61,14 +63,11 @@ public class EntitiesController {
                                                    @RequestParam(required = false) Boolean returnNulls,
                                                    @RequestParam(required = false) Boolean returnCount,
                                                    @RequestParam(required = false) Boolean dynamicAttributes,
-                                                   @RequestParam(required = false) String modelVersion) {
+                                                   @RequestParam(required = false) String modelVersion,
+                                                   HttpServletResponse response) throws IOException {
         EntitiesSearchResult entitiesSearchResult = entitiesControllerManager.loadEntitiesList(entityName, view, limit,
                 offset, sort, returnNulls, returnCount, dynamicAttributes, modelVersion);
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
-        if (BooleanUtils.isTrue(returnCount)) {
-            responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
-        }
-        return responseBuilder.body(entitiesSearchResult.getJson());
+        return createEntitiesListResponse(entitiesSearchResult, BooleanUtils.isTrue(returnCount), response);
     }
 
     @GetMapping("/{entityName}/search")
@@ -78,17 +77,15 @@ public class EntitiesController {
                                                         @RequestParam(required = false) Integer limit,
                                                         @RequestParam(required = false) Integer offset,
                                                         @RequestParam(required = false) String sort,
+                                                        @RequestParam(required = false) String keysetValues,
                                                         @RequestParam(required = false) Boolean returnNulls,
                                                         @RequestParam(required = false) Boolean returnCount,
                                                         @RequestParam(required = false) Boolean dynamicAttributes,
-                                                        @RequestParam(required = false) String modelVersion) {
+                                                        @RequestParam(required = false) String modelVersion,
+                                                        HttpServletResponse response) throws IOException {
         EntitiesSearchResult entitiesSearchResult = entitiesControllerManager.searchEntities(entityName, filter,
-                view, limit, offset, sort, returnNulls, returnCount, dynamicAttributes, modelVersion);
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
-        if (BooleanUtils.isTrue(returnCount)) {
-            responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
-        }
-        return responseBuilder.body(entitiesSearchResult.getJson());
+                view, limit, offset, sort, keysetValues, returnNulls, returnCount, dynamicAttributes, modelVersion);
+        return createEntitiesListResponse(entitiesSearchResult, BooleanUtils.isTrue(returnCount), response);
     }
 
     @GetMapping("/{entityName}/search/count")
@@ -100,15 +97,12 @@ public class EntitiesController {
 
     @PostMapping("/{entityName}/search")
     public ResponseEntity<String> searchEntitiesListPost(@PathVariable String entityName,
-                                                         @RequestBody String requestBodyJson) {
+                                                         @RequestBody String requestBodyJson,
+                                                         HttpServletResponse response) throws IOException {
         EntitiesSearchResult entitiesSearchResult = entitiesControllerManager.searchEntities(entityName, requestBodyJson);
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
         JsonObject requestJsonObject = new JsonParser().parse(requestBodyJson).getAsJsonObject();
         JsonPrimitive returnCount = requestJsonObject.getAsJsonPrimitive("returnCount");
-        if (returnCount != null && returnCount.getAsBoolean()) {
-            responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
-        }
-        return responseBuilder.body(entitiesSearchResult.getJson());
+        return createEntitiesListResponse(entitiesSearchResult, returnCount != null && returnCount.getAsBoolean(), response);
     }
 
     @PostMapping("/{entityName}/search/count")
@@ -159,4 +153,28 @@ public class EntitiesController {
                                @RequestParam(required = false) String modelVersion) {
         entitiesControllerManager.deleteEntities(entityName, entitiesIdJson, modelVersion);
     }
+
+    /**
+     * Returns a response entity for an already serialized list of entities. If the list is streamed, writes it to
+     * the servlet response and returns null, so the response is considered handled.
+     */
+    protected ResponseEntity<String> createEntitiesListResponse(EntitiesSearchResult entitiesSearchResult,
+                                                                boolean returnCount,
+                                                                HttpServletResponse response) throws IOException {
+        if (entitiesSearchResult.getBody() == null) {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
+            if (returnCount) {
+                responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
+            }
+            return responseBuilder.body(entitiesSearchResult.getJson());
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        if (returnCount) {
+            response.setHeader("X-Total-Count", entitiesSearchResult.getCount().toString());
+        }
+        entitiesSearchResult.getBody().writeTo(response.getOutputStream());
+        return null;
+    }
 }
@@ -26,6 +26,7 @@ import io.jmix.core.entity.IdProxy;
 import io.jmix.core.impl.importexport.EntityImportException;
 import io.jmix.core.impl.importexport.EntityImportViewBuilder;
 import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.core.security.EntityOp;
 import io.jmix.core.security.Security;
 import io.jmix.data.entity.BaseIdentityIdEntity;
@@ -37,20 +38,29 @@ import io.jmix.rest.api.service.filter.RestFilterParseResult;
 import io.jmix.rest.api.service.filter.RestFilterParser;
 import io.jmix.rest.api.service.filter.data.EntitiesSearchResult;
 import io.jmix.rest.api.service.filter.data.ResponseInfo;
+import io.jmix.rest.api.config.RestJsonTransformations;
+import io.jmix.rest.api.transform.EntityJsonTransformer;
 import io.jmix.rest.api.transform.JsonTransformationDirection;
 import io.jmix.rest.property.RestProperties;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.*;
+import java.util.stream.Stream;
 
 //import io.jmix.ui.sys.PersistenceManagerClient;
 
@@ -85,6 +95,9 @@ public class EntitiesControllerManager {
     @Autowired
     protected RestControllerUtils restControllerUtils;
 
+    @Autowired
+    protected RestJsonTransformations restJsonTransformations;
+
 //    @Autowired
 //    protected PersistenceManagerClient persistenceManagerClient;
 
@@ -153,10 +166,6 @@ public class EntitiesControllerManager {
         checkCanReadEntity(metaClass);
 
         String queryString = "select e from " + entityName + " e";
-        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, returnNulls, dynamicAttributes, modelVersion,
-                metaClass, new HashMap<>());
-
-        json = restControllerUtils.transformJsonIfRequired(entityName, modelVersion, JsonTransformationDirection.TO_VERSION, json);
 
         Long count = null;
         if (BooleanUtils.isTrue(returnCount)) {
@@ -164,6 +173,18 @@ public class EntitiesControllerManager {
                     .setQuery(new LoadContext.Query(queryString));
             count = dataManager.getCount(ctx);
         }
+
+        if (restProperties.isEntitiesListStreamingEnabled()) {
+            StreamingResponseBody body = _streamEntitiesList(queryString, viewName, limit, offset, sort, null,
+                    returnNulls, dynamicAttributes, modelVersion, metaClass, new HashMap<>());
+            return new EntitiesSearchResult(body, count);
+        }
+
+        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, null, returnNulls, dynamicAttributes, modelVersion,
+                metaClass, new HashMap<>());
+
+        json = restControllerUtils.transformJsonIfRequired(entityName, modelVersion, JsonTransformationDirection.TO_VERSION, json);
+
         return new EntitiesSearchResult(json, count);
 
     }
@@ -178,6 +199,28 @@ public class EntitiesControllerManager {
                                                @Nullable Boolean returnCount,
                                                @Nullable Boolean dynamicAttributes,
                                                @Nullable String modelVersion) {
+        return searchEntities(entityName, filterJson, viewName, limit, offset, sort, null,
+                returnNulls, returnCount, dynamicAttributes, modelVersion);
+    }
+
+    /**
+     * Searches entities using keyset pagination if {@code keysetValues} is specified.
+     *
+     * @param keysetValues JSON array of values of keyset properties of the last instance of the previous page: the
+     *                     sort properties followed by the primary key, unless the sort already ends with it
+     * @see LoadContext.Query#setKeysetValues(List)
+     */
+    public EntitiesSearchResult searchEntities(String entityName,
+                                               String filterJson,
+                                               @Nullable String viewName,
+                                               @Nullable Integer limit,
+                                               @Nullable Integer offset,
+                                               @Nullable String sort,
+                                               @Nullable String keysetValues,
+                                               @Nullable Boolean returnNulls,
+                                               @Nullable Boolean returnCount,
+                                               @Nullable Boolean dynamicAttributes,
+                                               @Nullable String modelVersion) {
         if (filterJson == null) {
             throw new RestAPIException("Cannot parse entities filter", "Entities filter cannot be null", HttpStatus.BAD_REQUEST);
         }
@@ -202,8 +245,6 @@ public class EntitiesControllerManager {
             queryString += " where " + jpqlWhere.replace("{E}", "e");
         }
 
-        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, returnNulls,
-                dynamicAttributes, modelVersion, metaClass, queryParameters);
         Long count = null;
         if (BooleanUtils.isTrue(returnCount)) {
             LoadContext ctx = new LoadContext(metaClass.getJavaClass())
@@ -211,6 +252,15 @@ public class EntitiesControllerManager {
             count = dataManager.getCount(ctx);
         }
 
+        if (restProperties.isEntitiesListStreamingEnabled()) {
+            StreamingResponseBody body = _streamEntitiesList(queryString, viewName, limit, offset, sort, keysetValues,
+                    returnNulls, dynamicAttributes, modelVersion, metaClass, queryParameters);
+            return new EntitiesSearchResult(body, count);
+        }
+
+        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, keysetValues, returnNulls,
+                dynamicAttributes, modelVersion, metaClass, queryParameters);
+
         return new EntitiesSearchResult(json, count);
     }
 
@@ -266,6 +316,7 @@ public class EntitiesControllerManager {
                 searchEntitiesRequest.getLimit(),
                 searchEntitiesRequest.getOffset(),
                 searchEntitiesRequest.getSort(),
+                searchEntitiesRequest.getKeysetValues() != null ? searchEntitiesRequest.getKeysetValues().toString() : null,
                 searchEntitiesRequest.getReturnNulls(),
                 searchEntitiesRequest.getReturnCount(),
                 searchEntitiesRequest.getDynamicAttributes(),
@@ -288,14 +339,110 @@ public class EntitiesControllerManager {
                                        @Nullable Integer limit,
                                        @Nullable Integer offset,
                                        @Nullable String sort,
+                                       @Nullable String keysetValues,
                                        @Nullable Boolean returnNulls,
                                        @Nullable Boolean dynamicAttributes,
                                        @Nullable String modelVersion,
                                        MetaClass metaClass,
                                        Map<String, Object> queryParameters) {
+        LoadContext<Entity> ctx = createEntitiesListLoadContext(queryString, viewName, limit, offset, sort, keysetValues,
+                dynamicAttributes, metaClass, queryParameters);
+
+        List<Entity> entities = dataManager.loadList(ctx);
+        entities.forEach(entity -> restControllerUtils.applyAttributesSecurity(entity));
+
+        String json = entitySerialization.toJson(entities, ctx.getFetchPlan(), getEntitiesListSerializationOptions(returnNulls));
+        json = restControllerUtils.transformJsonIfRequired(metaClass.getName(), modelVersion, JsonTransformationDirection.TO_VERSION, json);
+        return json;
+    }
+
+    /**
+     * Returns a callback which loads entities incrementally and writes them to the response stream one by one,
+     * so neither the list of entities nor its JSON are held in memory entirely. The query is executed and the first
+     * entity is serialized before the callback is returned, so that errors at this stage are reported before
+     * the response is committed.
+     */
+    protected StreamingResponseBody _streamEntitiesList(String queryString,
+                                                        @Nullable String viewName,
+                                                        @Nullable Integer limit,
+                                                        @Nullable Integer offset,
+                                                        @Nullable String sort,
+                                                        @Nullable String keysetValues,
+                                                        @Nullable Boolean returnNulls,
+                                                        @Nullable Boolean dynamicAttributes,
+                                                        @Nullable String modelVersion,
+                                                        MetaClass metaClass,
+                                                        Map<String, Object> queryParameters) {
+        LoadContext<Entity> ctx = createEntitiesListLoadContext(queryString, viewName, limit, offset, sort, keysetValues,
+                dynamicAttributes, metaClass, queryParameters);
+        EntitySerializationOption[] serializationOptions = getEntitiesListSerializationOptions(returnNulls);
+        EntityJsonTransformer transformer = Strings.isNullOrEmpty(modelVersion) ? null :
+                restJsonTransformations.getTransformer(metaClass.getName(), modelVersion, JsonTransformationDirection.TO_VERSION);
+
+        Stream<Entity> stream = dataManager.loadStream(ctx);
+        Iterator<Entity> iterator;
+        String firstEntityJson;
+        try {
+            iterator = stream.iterator();
+            firstEntityJson = iterator.hasNext() ?
+                    _entityToJson(iterator.next(), ctx.getFetchPlan(), transformer, serializationOptions) : null;
+        } catch (RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+
+        return outputStream -> {
+            try (Stream<Entity> ignored = stream) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write('[');
+                if (firstEntityJson != null) {
+                    writer.write(firstEntityJson);
+                    while (iterator.hasNext()) {
+                        writer.write(',');
+                        Entity entity = iterator.next();
+                        if (transformer != null) {
+                            writer.write(_entityToJson(entity, ctx.getFetchPlan(), transformer, serializationOptions));
+                        } else {
+                            restControllerUtils.applyAttributesSecurity(entity);
+                            entitySerialization.toJson(entity, ctx.getFetchPlan(), writer, serializationOptions);
+                        }
+                    }
+                }
+                writer.write(']');
+                writer.flush();
+            }
+        };
+    }
+
+    protected String _entityToJson(Entity entity,
+                                   @Nullable FetchPlan fetchPlan,
+                                   @Nullable EntityJsonTransformer transformer,
+                                   EntitySerializationOption[] serializationOptions) {
+        restControllerUtils.applyAttributesSecurity(entity);
+        String json = entitySerialization.toJson(entity, fetchPlan, serializationOptions);
+        return transformer != null ? transformer.transformJson(json) : json;
+    }
+
+    protected LoadContext<Entity> createEntitiesListLoadContext(String queryString,
+                                                                @Nullable String viewName,
+                                                                @Nullable Integer limit,
+                                                                @Nullable Integer offset,
+                                                                @Nullable String sort,
+                                                                @Nullable String keysetValues,
+                                                                @Nullable Boolean dynamicAttributes,
+                                                                MetaClass metaClass,
+                                                                Map<String, Object> queryParameters) {
         LoadContext<Entity> ctx = new LoadContext<>(metaClass);
-        String orderedQueryString = addOrderBy(queryString, sort);
-        LoadContext.Query query = new LoadContext.Query(orderedQueryString);
+        LoadContext.Query query;
+        if (Strings.isNullOrEmpty(keysetValues)) {
+            query = new LoadContext.Query(addOrderBy(queryString, sort));
+        } else {
+            // the seek predicate is built by the data store from Sort, so the query is not ordered here
+            Sort querySort = parseSort(sort);
+            query = new LoadContext.Query(queryString)
+                    .setSort(querySort)
+                    .setKeysetValues(parseKeysetValues(keysetValues, metaClass, querySort));
+        }
 
         if (limit != null) {
             query.setMaxResults(limit);
@@ -318,17 +465,14 @@ public class EntitiesControllerManager {
         }
 
         ctx.setLoadDynamicAttributes(BooleanUtils.isTrue(dynamicAttributes));
+        return ctx;
+    }
 
-        List<Entity> entities = dataManager.loadList(ctx);
-        entities.forEach(entity -> restControllerUtils.applyAttributesSecurity(entity));
-
+    protected EntitySerializationOption[] getEntitiesListSerializationOptions(@Nullable Boolean returnNulls) {
         List<EntitySerializationOption> serializationOptions = new ArrayList<>();
         serializationOptions.add(EntitySerializationOption.SERIALIZE_INSTANCE_NAME);
         if (BooleanUtils.isTrue(returnNulls)) serializationOptions.add(EntitySerializationOption.SERIALIZE_NULLS);
-
-        String json = entitySerialization.toJson(entities, view, serializationOptions.toArray(new EntitySerializationOption[0]));
-        json = restControllerUtils.transformJsonIfRequired(metaClass.getName(), modelVersion, JsonTransformationDirection.TO_VERSION, json);
-        return json;
+        return serializationOptions.toArray(new EntitySerializationOption[0]);
     }
 
     protected String addOrderBy(String queryString, @Nullable String sort) {
@@ -350,6 +494,71 @@ public class EntitiesControllerManager {
         return orderBy.substring(0, orderBy.length() - 2);
     }
 
+    @Nullable
+    protected Sort parseSort(@Nullable String sort) {
+        if (Strings.isNullOrEmpty(sort)) {
+            return null;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        Iterable<String> iterableColumns = Splitter.on(",").trimResults().omitEmptyStrings().split(sort);
+        for (String column : iterableColumns) {
+            if (column.startsWith("-")) {
+                orders.add(Sort.Order.desc(column.substring(1)));
+            } else if (column.startsWith("+")) {
+                orders.add(Sort.Order.asc(column.substring(1)));
+            } else {
+                orders.add(Sort.Order.asc(column));
+            }
+        }
+        return Sort.by(orders);
+    }
+
+    protected List<Object> parseKeysetValues(String keysetValues, MetaClass metaClass, @Nullable Sort sort) {
+        JsonArray jsonArray;
+        try {
+            jsonArray = new JsonParser().parse(keysetValues).getAsJsonArray();
+        } catch (RuntimeException e) {
+            throw new RestAPIException("Invalid keyset values",
+                    "Keyset values must be a JSON array", HttpStatus.BAD_REQUEST, e);
+        }
+
+        List<String> properties = metadataTools.getKeysetProperties(metaClass, sort);
+        if (jsonArray.size() != properties.size()) {
+            throw new RestAPIException("Invalid keyset values",
+                    String.format("Keyset pagination by %s requires %d values", properties, properties.size()),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        String pkName = metadataTools.getPrimaryKeyName(metaClass);
+        List<Object> values = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            String property = properties.get(i);
+            JsonElement jsonElement = jsonArray.get(i);
+            if (jsonElement.isJsonNull() || !jsonElement.isJsonPrimitive()) {
+                throw new RestAPIException("Invalid keyset values",
+                        String.format("Value of %s must be not null", property), HttpStatus.BAD_REQUEST);
+            }
+            String value = jsonElement.getAsString();
+            if (property.equals(pkName)) {
+                values.add(getIdFromString(value, metaClass));
+            } else {
+                MetaPropertyPath propertyPath = metaClass.getPropertyPath(property);
+                if (propertyPath == null || !propertyPath.getRange().isDatatype()) {
+                    throw new RestAPIException("Invalid keyset values",
+                            String.format("Property %s cannot be used for keyset pagination", property),
+                            HttpStatus.BAD_REQUEST);
+                }
+                try {
+                    values.add(propertyPath.getRange().asDatatype().parse(value));
+                } catch (ParseException e) {
+                    throw new RestAPIException("Invalid keyset values",
+                            String.format("Cannot parse value of %s: %s", property, value), HttpStatus.BAD_REQUEST, e);
+                }
+            }
+        }
+        return values;
+    }
+
     public ResponseInfo createEntity(String entityJson,
                                      String entityName,
                                      String responseView,
@@ -477,29 +686,140 @@ public class EntitiesControllerManager {
         checkCanUpdateEntity(metaClass);
 
         JsonArray entitiesJsonArray = new JsonParser().parse(entitiesJson).getAsJsonArray();
-        Collection<Entity> entities = new ArrayList<>();
-        if (restProperties.isResponseViewEnabled() && responseView != null) {
-            for (JsonElement jsonElement : entitiesJsonArray) {
-                String entityId = jsonElement.getAsJsonObject().get("id").getAsString();
-                Entity entity = getUpdatedEntity(entityName, modelVersion, transformedEntityName, metaClass, jsonElement.toString(), entityId);
-                if (!entityStates.isLoadedWithFetchPlan(entity, responseView)) {
-                    entity = dataManager.load(new LoadContext(metaClass).setFetchPlan(restControllerUtils.getView(metaClass, responseView)));
-                }
-                restControllerUtils.applyAttributesSecurity(entity);
-                entities.add(entity);
+        List<String> entityIds = new ArrayList<>(entitiesJsonArray.size());
+        List<Object> ids = new ArrayList<>(entitiesJsonArray.size());
+        for (JsonElement jsonElement : entitiesJsonArray) {
+            String entityId = jsonElement.getAsJsonObject().get("id").getAsString();
+            entityIds.add(entityId);
+            ids.add(getIdFromString(entityId, metaClass));
+        }
+
+        Map<Object, Entity> existingEntities = loadEntitiesById(metaClass, ids, null);
+        for (int i = 0; i < ids.size(); i++) {
+            checkEntityIsNotNull(transformedEntityName, entityIds.get(i), existingEntities.get(ids.get(i)));
+        }
+
+        entitiesJson = restControllerUtils.transformJsonIfRequired(entityName, modelVersion, JsonTransformationDirection.FROM_VERSION, entitiesJson);
+        JsonArray transformedJsonArray = new JsonParser().parse(entitiesJson).getAsJsonArray();
+
+        //elements with the same set of attributes share an import view, so they are imported together
+        Map<String, EntityImportView> importViews = new HashMap<>();
+        Map<EntityImportView, List<Entity>> entitiesByView = new LinkedHashMap<>();
+        for (int i = 0; i < transformedJsonArray.size(); i++) {
+            JsonElement jsonElement = transformedJsonArray.get(i);
+            String entityJson = jsonElement.toString();
+
+            Entity entity;
+            try {
+                entity = entitySerialization.entityFromJson(entityJson, metaClass);
+            } catch (Exception e) {
+                throw new RestAPIException("Cannot deserialize an entity from JSON", "", HttpStatus.BAD_REQUEST, e);
             }
-        } else {
-            for (JsonElement jsonElement : entitiesJsonArray) {
-                String entityId = jsonElement.getAsJsonObject().get("id").getAsString();
-                Entity entity = getUpdatedEntity(entityName, modelVersion, transformedEntityName, metaClass, jsonElement.toString(), entityId);
-                restControllerUtils.applyAttributesSecurity(entity);
-                entities.add(entity);
+            //noinspection unchecked
+            EntityValues.setId(entity, ids.get(i));
+
+            EntityImportView entityImportView = importViews.computeIfAbsent(getJsonStructureKey(jsonElement),
+                    key -> entityImportViewBuilder.buildFromJson(entityJson, metaClass));
+            entitiesByView.computeIfAbsent(entityImportView, view -> new ArrayList<>()).add(entity);
+        }
+
+        Collection<Entity> importedEntities;
+        try {
+            importedEntities = entityImportExport.importEntities(entitiesByView, true, restProperties.isOptimisticLockingEnabled());
+        } catch (EntityImportException e) {
+            throw new RestAPIException("Entity update failed", e.getMessage(), HttpStatus.BAD_REQUEST, e);
+        }
+
+        //there may be other entities in importedEntities (because of @Composition references), so we must find
+        // the main entities that will be returned
+        Map<Object, Entity> mainEntities = new HashMap<>();
+        for (Entity importedEntity : importedEntities) {
+            if (metadata.getClass(importedEntity).equals(metaClass)) {
+                mainEntities.put(EntityValues.getId(importedEntity), importedEntity);
             }
         }
+        List<Entity> entities = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            entities.add(mainEntities.get(id));
+        }
+
+        if (restProperties.isResponseViewEnabled() && responseView != null) {
+            entities = reloadWithResponseView(metaClass, entities, responseView);
+        }
+        for (Entity entity : entities) {
+            restControllerUtils.applyAttributesSecurity(entity);
+        }
         String bodyJson = createEntitiesJson(entities, metaClass, responseView, modelVersion);
         return new ResponseInfo(null, bodyJson);
     }
 
+    /**
+     * Reloads in batches the entities that are not loaded with the response view, keeping the order of the list.
+     */
+    protected List<Entity> reloadWithResponseView(MetaClass metaClass, List<Entity> entities, String responseView) {
+        List<Object> ids = new ArrayList<>();
+        for (Entity entity : entities) {
+            if (!entityStates.isLoadedWithFetchPlan(entity, responseView)) {
+                ids.add(EntityValues.getId(entity));
+            }
+        }
+        if (ids.isEmpty()) {
+            return entities;
+        }
+
+        Map<Object, Entity> reloadedEntities = loadEntitiesById(metaClass, ids, restControllerUtils.getView(metaClass, responseView));
+        List<Entity> result = new ArrayList<>(entities.size());
+        for (Entity entity : entities) {
+            result.add(reloadedEntities.getOrDefault(EntityValues.getId(entity), entity));
+        }
+        return result;
+    }
+
+    /**
+     * Loads entities by lists of ids, in batches of {@link RestProperties#getEntitiesLoadBatchSize()}.
+     *
+     * @return loaded entities by their ids
+     */
+    protected Map<Object, Entity> loadEntitiesById(MetaClass metaClass, List<Object> ids, @Nullable FetchPlan fetchPlan) {
+        Map<Object, Entity> result = new HashMap<>();
+        int batchSize = Math.max(restProperties.getEntitiesLoadBatchSize(), 1);
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            LoadContext<Entity> loadContext = new LoadContext<>(metaClass);
+            loadContext.setIds(ids.subList(i, Math.min(i + batchSize, ids.size())));
+            if (fetchPlan != null) {
+                loadContext.setFetchPlan(fetchPlan);
+            }
+            for (Entity entity : dataManager.loadList(loadContext)) {
+                result.put(EntityValues.getId(entity), entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string describing attributes present in the JSON element and its nested objects. Elements with the
+     * same key produce the same {@link EntityImportView}.
+     */
+    protected String getJsonStructureKey(JsonElement jsonElement) {
+        if (jsonElement.isJsonObject()) {
+            StringBuilder sb = new StringBuilder("{");
+            for (Map.Entry<String, JsonElement> entry : jsonElement.getAsJsonObject().entrySet()) {
+                sb.append(entry.getKey()).append(':').append(getJsonStructureKey(entry.getValue())).append(',');
+            }
+            return sb.append('}').toString();
+        } else if (jsonElement.isJsonArray()) {
+            Set<String> itemKeys = new LinkedHashSet<>();
+            for (JsonElement item : jsonElement.getAsJsonArray()) {
+                itemKeys.add(getJsonStructureKey(item));
+            }
+            return "[" + String.join(",", itemKeys) + "]";
+        } else if (jsonElement.isJsonNull()) {
+            return "null";
+        } else {
+            return "";
+        }
+    }
+
     protected Entity getUpdatedEntity(String entityName,
                                       String modelVersion,
                                       String transformedEntityName,
@@ -560,14 +880,22 @@ public class EntitiesControllerManager {
 
         JsonArray entitiesJsonArray = new JsonParser().parse(entitiesIdJson).getAsJsonArray();
 
+        List<String> entityIds = new ArrayList<>(entitiesJsonArray.size());
+        List<Object> ids = new ArrayList<>(entitiesJsonArray.size());
         for (int i = 0; i < entitiesJsonArray.size(); i++) {
             String entityId = entitiesJsonArray.get(i).getAsString();
+            entityIds.add(entityId);
+            ids.add(getIdFromString(entityId, metaClass));
+        }
 
-            Object id = getIdFromString(entityId, metaClass);
-            Entity entity = dataManager.load(new LoadContext<>(metaClass).setId(id));
-            checkEntityIsNotNull(entityName, entityId, entity);
-            dataManager.remove(entity);
+        Map<Object, Entity> loadedEntities = loadEntitiesById(metaClass, ids, null);
+        List<Entity> entities = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Entity entity = loadedEntities.get(ids.get(i));
+            checkEntityIsNotNull(entityName, entityIds.get(i), entity);
+            entities.add(entity);
         }
+        dataManager.remove(entities.toArray(new Entity[0]));
     }
 
     private Object getIdFromString(String entityId, MetaClass metaClass) {
@@ -734,6 +1062,7 @@ public class EntitiesControllerManager {
         protected Integer limit;
         protected Integer offset;
         protected String sort;
+        protected JsonArray keysetValues;
         protected Boolean returnNulls;
         protected Boolean returnCount;
         protected Boolean dynamicAttributes;
@@ -767,6 +1096,10 @@ public class EntitiesControllerManager {
             return sort;
         }
 
+        public JsonArray getKeysetValues() {
+            return keysetValues;
+        }
+
         public Boolean getReturnNulls() {
             return returnNulls;
         }
@@ -808,6 +1141,10 @@ public class EntitiesControllerManager {
             this.sort = sort;
         }
 
+        public void setKeysetValues(JsonArray keysetValues) {
+            this.keysetValues = keysetValues;
+        }
+
         public void setReturnNulls(Boolean returnNulls) {
             this.returnNulls = returnNulls;
         }
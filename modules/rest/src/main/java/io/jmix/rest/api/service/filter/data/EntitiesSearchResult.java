@@ -16,8 +16,13 @@
 
 package io.jmix.rest.api.service.filter.data;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.Nullable;
+
 public class EntitiesSearchResult {
     protected String json;
+    protected StreamingResponseBody body;
     protected Long count;
 
     public EntitiesSearchResult(String json, Long count) {
@@ -25,10 +30,31 @@ public class EntitiesSearchResult {
         this.count = count;
     }
 
+    /**
+     * Creates a result which JSON is written directly to the response stream by the given body.
+     */
+    public EntitiesSearchResult(StreamingResponseBody body, Long count) {
+        this.body = body;
+        this.count = count;
+    }
+
+    /**
+     * @return JSON of loaded entities or null if the result is streamed, see {@link #getBody()}
+     */
+    @Nullable
     public String getJson() {
         return json;
     }
 
+    /**
+     * @return a callback writing JSON of loaded entities to the response stream or null if the result is
+     * already serialized, see {@link #getJson()}
+     */
+    @Nullable
+    public StreamingResponseBody getBody() {
+        return body;
+    }
+
     public Long getCount() {
         return count;
     }
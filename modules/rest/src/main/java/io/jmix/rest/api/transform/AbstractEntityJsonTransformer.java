@@ -50,6 +50,9 @@ public abstract class AbstractEntityJsonTransformer implements EntityJsonTransfo
     protected JsonTransformationDirection direction;
     protected Set<String> attributesToRemove = new HashSet<>();
 
+    // ObjectMapper is thread-safe once configured, so it is shared by all invocations
+    protected ObjectMapper objectMapper = new ObjectMapper();
+
     @Autowired
     protected RestJsonTransformations jsonTransformations;
 
@@ -77,7 +80,6 @@ public abstract class AbstractEntityJsonTransformer implements EntityJsonTransfo
      */
     @Override
     public String transformJson(String json) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             JsonNode rootNode = objectMapper.readTree(json);
             if (rootNode.isArray()) {
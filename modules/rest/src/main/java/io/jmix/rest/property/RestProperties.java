@@ -47,6 +47,8 @@ public class RestProperties {
     String securityScope;
     boolean storeTokensInDb;
     boolean syncTokenReplication;
+    int entitiesLoadBatchSize;
+    boolean entitiesListStreamingEnabled;
 
     public RestProperties(
             @DefaultValue("client") String clientId,
@@ -69,7 +71,9 @@ public class RestProperties {
             @DefaultValue("true") boolean responseViewEnabled,
             @DefaultValue("REST") String securityScope,
             @DefaultValue("false") boolean storeTokensInDb,
-            @DefaultValue("false") boolean syncTokenReplication) {
+            @DefaultValue("false") boolean syncTokenReplication,
+            @DefaultValue("500") int entitiesLoadBatchSize,
+            @DefaultValue("false") boolean entitiesListStreamingEnabled) {
         this.clientId = clientId;
         this.clientSecret = clientSecret;
         this.clientTokenExpirationTimeSec = clientTokenExpirationTimeSec;
@@ -90,6 +94,8 @@ public class RestProperties {
         this.securityScope = securityScope;
         this.storeTokensInDb = storeTokensInDb;
         this.syncTokenReplication = syncTokenReplication;
+        this.entitiesLoadBatchSize = entitiesLoadBatchSize;
+        this.entitiesListStreamingEnabled = entitiesListStreamingEnabled;
     }
 
     /**
@@ -230,4 +236,20 @@ public class RestProperties {
     public boolean isStoreTokensInDb() {
         return storeTokensInDb;
     }
+
+    /**
+     * @return maximum number of ids loaded in a single query when entities are updated or deleted in bulk
+     */
+    public int getEntitiesLoadBatchSize() {
+        return entitiesLoadBatchSize;
+    }
+
+    /**
+     * @return whether entity lists are loaded incrementally and written directly to the response stream instead of
+     * being built as a single JSON string in memory. If an error occurs after the first entity is written, the client
+     * receives a truncated response with the 200 status. Default is false.
+     */
+    public boolean isEntitiesListStreamingEnabled() {
+        return entitiesListStreamingEnabled;
+    }
 }
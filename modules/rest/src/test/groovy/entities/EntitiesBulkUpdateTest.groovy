@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package entities
+
+import com.google.gson.Gson
+import com.google.gson.JsonParser
+import io.jmix.core.*
+import io.jmix.core.metamodel.model.MetaClass
+import io.jmix.core.security.Security
+import io.jmix.data.DataConfiguration
+import io.jmix.rest.api.common.RestControllerUtils
+import io.jmix.rest.api.exception.RestAPIException
+import io.jmix.rest.api.service.EntitiesControllerManager
+import io.jmix.rest.property.RestProperties
+import io.jmix.rest.test.RestTestConfiguration
+import io.jmix.rest.test.testmodel.LinkedTestEntity
+import io.jmix.rest.test.testmodel.TestEntity
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.context.properties.bind.Binder
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource
+import org.springframework.http.HttpStatus
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.ContextConfiguration
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@ContextConfiguration(classes = [CoreConfiguration, DataConfiguration, RestTestConfiguration])
+class EntitiesBulkUpdateTest extends Specification {
+
+    static final int BATCH_SIZE = 3
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    Metadata metadata
+    @Autowired
+    MetadataTools metadataTools
+    @Autowired
+    FetchPlanRepository fetchPlanRepository
+    @Autowired
+    EntitySerialization entitySerialization
+    @Autowired
+    EntityImportViewBuilder entityImportViewBuilder
+    @Autowired
+    EntityImportExport entityImportExport
+    @Autowired
+    EntityStates entityStates
+    @Autowired
+    Security security
+    @Autowired
+    JdbcTemplate jdbc
+
+    EntitiesControllerManager manager
+    MetaClass metaClass
+
+    List<LoadContext> loadContexts = []
+    Set<UUID> hiddenIds = []
+    List<Map> importedViews = []
+
+    void setup() {
+        def restControllerUtils = new RestControllerUtils()
+        restControllerUtils.metadata = metadata
+        restControllerUtils.metadataTools = metadataTools
+        restControllerUtils.security = security
+        restControllerUtils.viewRepository = fetchPlanRepository
+
+        manager = new EntitiesControllerManager()
+        manager.metadata = metadata
+        manager.entitySerialization = entitySerialization
+        manager.entityImportViewBuilder = entityImportViewBuilder
+        manager.entityStates = entityStates
+        manager.security = security
+        manager.restControllerUtils = restControllerUtils
+        manager.restProperties = new Binder(new MapConfigurationPropertySource(
+                ['jmix.rest.entities-load-batch-size': String.valueOf(BATCH_SIZE)])).bindOrCreate('jmix.rest', RestProperties)
+
+        // records load requests and hides the entities that are not permitted by row-level security
+        manager.dataManager = [
+                loadList: { LoadContext ctx ->
+                    loadContexts << ctx
+                    dataManager.loadList(ctx).findAll { !hiddenIds.contains(it.id) }
+                },
+                remove  : { Entity[] entities -> dataManager.remove(entities) }
+        ] as DataManager
+
+        manager.entityImportExport = [
+                importEntities: { Map entitiesByView, boolean validate, boolean optimisticLocking ->
+                    importedViews << entitiesByView
+                    entityImportExport.importEntities(entitiesByView, validate, optimisticLocking)
+                }
+        ] as EntityImportExport
+
+        metaClass = metadata.getClass(TestEntity)
+    }
+
+    void cleanup() {
+        jdbc.update('delete from TEST_TEST_ENTITY')
+        jdbc.update('delete from TEST_LINKED_TEST_ENTITY')
+    }
+
+    @Unroll
+    def "update of #count entities loads them in #batches batches"() {
+        def entities = createEntities(count)
+
+        when:
+
+        def json = entities.collect { [id: it.id.toString(), stringField: "updated-$it.intField".toString()] }
+        def responseInfo = manager.updateEntities(toJson(json), 'test$TestEntity', null, null)
+
+        then:
+
+        loadContexts.size() == batches
+        loadContexts*.ids*.size().every { it <= BATCH_SIZE }
+        loadContexts*.ids.flatten() as Set == entities*.id as Set
+
+        importedViews.size() == 1
+
+        reload(entities)*.stringField == entities.collect { "updated-$it.intField".toString() }
+
+        def response = new JsonParser().parse(responseInfo.bodyJson).asJsonArray
+        response.collect { it.asJsonObject.get('id').asString } == entities*.id*.toString()
+
+        where:
+
+        count          | batches
+        BATCH_SIZE     | 1
+        BATCH_SIZE + 1 | 2
+    }
+
+    def "update imports elements referencing other entity types in a single operation"() {
+        def entities = createEntities(BATCH_SIZE + 1)
+        def linked = dataManager.save(new LinkedTestEntity(anotherName: 'linked'))
+
+        when:
+
+        def json = entities.withIndex().collect { TestEntity entity, int i ->
+            i % 2 == 0 ?
+                    [id: entity.id.toString(), stringField: 'updated', linkedTestEntity: [id: linked.id.toString()]] :
+                    [id: entity.id.toString(), stringField: 'updated']
+        }
+        manager.updateEntities(toJson(json), 'test$TestEntity', null, null)
+
+        then:
+
+        importedViews.size() == 1
+        importedViews[0].size() == 2
+
+        def reloaded = reload(entities, FetchPlanBuilder.of(TestEntity).add('stringField').add('linkedTestEntity').build())
+        reloaded*.stringField.every { it == 'updated' }
+        reloaded*.linkedTestEntity*.id == [linked.id, null, linked.id, null]
+    }
+
+    def "update fails if an entity does not exist and does not change the others"() {
+        def entities = createEntities(BATCH_SIZE + 1)
+
+        when:
+
+        def ids = entities*.id.toList()
+        ids.add(2, UUID.randomUUID())
+        def json = ids.collect { [id: it.toString(), stringField: 'updated'] }
+        manager.updateEntities(toJson(json), 'test$TestEntity', null, null)
+
+        then:
+
+        def e = thrown(RestAPIException)
+        e.httpStatus == HttpStatus.NOT_FOUND
+        e.details.contains(ids[2].toString())
+
+        importedViews.isEmpty()
+        reload(entities)*.stringField == entities*.stringField
+    }
+
+    def "update fails if an entity in the middle of a batch is not permitted and does not change the others"() {
+        def entities = createEntities(BATCH_SIZE + 1)
+        hiddenIds << entities[1].id
+
+        when:
+
+        def json = entities.collect { [id: it.id.toString(), stringField: 'updated'] }
+        manager.updateEntities(toJson(json), 'test$TestEntity', null, null)
+
+        then:
+
+        def e = thrown(RestAPIException)
+        e.httpStatus == HttpStatus.NOT_FOUND
+        e.details.contains(entities[1].id.toString())
+
+        importedViews.isEmpty()
+        reload(entities)*.stringField == entities*.stringField
+    }
+
+    @Unroll
+    def "delete of #count entities loads them in #batches batches"() {
+        def entities = createEntities(count)
+
+        when:
+
+        manager.deleteEntities('test$TestEntity', toJson(entities*.id*.toString()), null)
+
+        then:
+
+        loadContexts.size() == batches
+        loadContexts*.ids*.size().every { it <= BATCH_SIZE }
+        reload(entities).isEmpty()
+
+        where:
+
+        count          | batches
+        BATCH_SIZE     | 1
+        BATCH_SIZE + 1 | 2
+    }
+
+    def "delete fails if an entity does not exist and does not remove the others"() {
+        def entities = createEntities(BATCH_SIZE + 1)
+
+        when:
+
+        def ids = entities*.id*.toString()
+        ids.add(BATCH_SIZE, UUID.randomUUID().toString())
+        manager.deleteEntities('test$TestEntity', toJson(ids), null)
+
+        then:
+
+        def e = thrown(RestAPIException)
+        e.httpStatus == HttpStatus.NOT_FOUND
+        e.details.contains(ids[BATCH_SIZE])
+
+        reload(entities).size() == entities.size()
+    }
+
+    def "delete fails if an entity in the middle of a batch is not permitted and does not remove the others"() {
+        def entities = createEntities(BATCH_SIZE)
+        hiddenIds << entities[1].id
+
+        when:
+
+        manager.deleteEntities('test$TestEntity', toJson(entities*.id*.toString()), null)
+
+        then:
+
+        def e = thrown(RestAPIException)
+        e.httpStatus == HttpStatus.NOT_FOUND
+        e.details.contains(entities[1].id.toString())
+
+        reload(entities).size() == entities.size()
+    }
+
+    def "entities are loaded by ids with the fetch plan and missing ids are skipped"() {
+        def entities = createEntities(BATCH_SIZE + 1)
+        def fetchPlan = FetchPlanBuilder.of(TestEntity).add('intField').build()
+
+        when:
+
+        List<Object> ids = entities*.id.toList()
+        ids.add(1, UUID.randomUUID())
+        Map<Object, Entity> loaded = manager.loadEntitiesById(metaClass, ids, fetchPlan)
+
+        then:
+
+        loadContexts.size() == 2
+        loadContexts.every { it.fetchPlan == fetchPlan }
+        loaded.keySet() == entities*.id as Set
+        loaded.values().every { entityStates.isLoadedWithFetchPlan(it, fetchPlan) }
+    }
+
+    private List<TestEntity> createEntities(int count) {
+        def entities = (1..count).collect { new TestEntity(stringField: "entity-$it".toString(), intField: it) }
+        dataManager.save(entities as Entity[])
+        return entities
+    }
+
+    private List<TestEntity> reload(List<TestEntity> entities, FetchPlan fetchPlan = null) {
+        def loaded = dataManager.load(TestEntity)
+                .ids(entities*.id)
+                .fetchPlan(fetchPlan ?: FetchPlanBuilder.of(TestEntity).addFetchPlan(FetchPlan.LOCAL).build())
+                .list()
+        return entities.collect { entity -> loaded.find { it.id == entity.id } }.findAll { it != null }
+    }
+
+    private static String toJson(List list) {
+        return new Gson().toJson(list)
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package entities
+
+import com.google.gson.JsonParser
+import io.jmix.core.*
+import io.jmix.core.metamodel.model.MetaClass
+import io.jmix.core.security.Security
+import io.jmix.data.DataConfiguration
+import io.jmix.rest.api.common.RestControllerUtils
+import io.jmix.rest.api.controller.EntitiesController
+import io.jmix.rest.api.service.EntitiesControllerManager
+import io.jmix.rest.api.service.filter.data.EntitiesSearchResult
+import io.jmix.rest.property.RestProperties
+import io.jmix.rest.test.RestTestConfiguration
+import io.jmix.rest.test.testmodel.TestEntity
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.context.properties.bind.Binder
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource
+import org.springframework.http.HttpStatus
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.test.context.ContextConfiguration
+import spock.lang.Specification
+
+import java.util.stream.Stream
+
+@ContextConfiguration(classes = [CoreConfiguration, DataConfiguration, RestTestConfiguration])
+class EntitiesListStreamingTest extends Specification {
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    Metadata metadata
+    @Autowired
+    MetadataTools metadataTools
+    @Autowired
+    FetchPlanRepository fetchPlanRepository
+    @Autowired
+    EntitySerialization entitySerialization
+    @Autowired
+    Security security
+    @Autowired
+    JdbcTemplate jdbc
+
+    EntitiesControllerManager manager
+    EntitiesController controller
+    MetaClass metaClass
+
+    void setup() {
+        def restControllerUtils = new RestControllerUtils()
+        restControllerUtils.metadata = metadata
+        restControllerUtils.metadataTools = metadataTools
+        restControllerUtils.security = security
+        restControllerUtils.viewRepository = fetchPlanRepository
+
+        manager = new EntitiesControllerManager()
+        manager.dataManager = dataManager
+        manager.metadata = metadata
+        manager.entitySerialization = entitySerialization
+        manager.restControllerUtils = restControllerUtils
+
+        controller = new EntitiesController()
+        controller.entitiesControllerManager = manager
+
+        metaClass = metadata.getClass(TestEntity)
+
+        (1..3).each {
+            dataManager.save(new TestEntity(stringField: "entity-$it", intField: it))
+        }
+    }
+
+    void cleanup() {
+        jdbc.update('delete from TEST_TEST_ENTITY')
+    }
+
+    def "streaming is disabled by default"() {
+        when:
+
+        def properties = new Binder(new MapConfigurationPropertySource()).bindOrCreate('jmix.rest', RestProperties)
+
+        then:
+
+        !properties.entitiesListStreamingEnabled
+    }
+
+    def "streamed list is the same as loaded list"() {
+        when:
+
+        String loadedJson = loadList('select e from test$TestEntity e')
+        String streamedJson = streamList('select e from test$TestEntity e')
+
+        then:
+
+        def loaded = new JsonParser().parse(loadedJson).asJsonArray
+        loaded.size() == 3
+        loaded.collect { it.asJsonObject.get('stringField').asString } == ['entity-1', 'entity-2', 'entity-3']
+        new JsonParser().parse(streamedJson) == loaded
+    }
+
+    def "streamed empty list is an empty array"() {
+        expect:
+
+        streamList('select e from test$TestEntity e where e.intField > 100') == '[]'
+        loadList('select e from test$TestEntity e where e.intField > 100') == '[]'
+    }
+
+    def "query error is thrown before streaming starts"() {
+        setup:
+
+        def failingDataManager = Mock(DataManager) {
+            loadStream(_) >> { throw new IllegalStateException('query failed') }
+        }
+        manager.dataManager = failingDataManager
+
+        when:
+
+        streamEntitiesList('select e from test$TestEntity e')
+
+        then:
+
+        thrown(IllegalStateException)
+    }
+
+    def "serialization error of the first entity is thrown before streaming starts and closes the stream"() {
+        setup:
+
+        boolean closed = false
+        manager.dataManager = Mock(DataManager) {
+            loadStream(_) >> { Stream.of(new TestEntity(stringField: 'entity')).onClose { closed = true } }
+        }
+        manager.entitySerialization = Mock(EntitySerialization) {
+            toJson(*_) >> { throw new IllegalStateException('serialization failed') }
+        }
+
+        when:
+
+        streamEntitiesList('select e from test$TestEntity e')
+
+        then:
+
+        thrown(IllegalStateException)
+        closed
+    }
+
+    def "streamed list is written to the response"() {
+        setup:
+
+        def response = new MockHttpServletResponse()
+        def body = streamEntitiesList('select e from test$TestEntity e')
+
+        when:
+
+        def responseEntity = controller.createEntitiesListResponse(new EntitiesSearchResult(body, 3L), true, response)
+
+        then:
+
+        responseEntity == null
+        response.status == HttpStatus.OK.value()
+        response.getHeader('X-Total-Count') == '3'
+        new JsonParser().parse(response.contentAsString) == new JsonParser().parse(loadList('select e from test$TestEntity e'))
+    }
+
+    def "loaded list is returned in the response entity"() {
+        setup:
+
+        def response = new MockHttpServletResponse()
+        String json = loadList('select e from test$TestEntity e')
+
+        when:
+
+        def responseEntity = controller.createEntitiesListResponse(new EntitiesSearchResult(json, 3L), true, response)
+
+        then:
+
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getFirst('X-Total-Count') == '3'
+        responseEntity.body == json
+        !response.committed
+        response.contentAsString.isEmpty()
+    }
+
+    private String loadList(String query) {
+        manager._loadEntitiesList(query, null, null, null, 'stringField', null, false, false, null, metaClass, [:])
+    }
+
+    private String streamList(String query) {
+        def outputStream = new ByteArrayOutputStream()
+        streamEntitiesList(query).writeTo(outputStream)
+        return outputStream.toString('UTF-8')
+    }
+
+    private def streamEntitiesList(String query) {
+        manager._streamEntitiesList(query, null, null, null, 'stringField', null, false, false, null, metaClass, [:])
+    }
+}
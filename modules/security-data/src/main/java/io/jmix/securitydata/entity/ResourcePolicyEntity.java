@@ -16,11 +16,13 @@
 
 package io.jmix.securitydata.entity;
 
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.data.entity.StandardEntity;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 
+@PublishEntityChangedEvents
 @Table(name = "SEC_RESOURCE_POLICY")
 @Entity(name = "sec_ResourcePolicy")
 public class ResourcePolicyEntity extends StandardEntity {
@@ -18,6 +18,7 @@ package io.jmix.securitydata.entity;
 
 import io.jmix.core.DeletePolicy;
 import io.jmix.core.entity.annotation.OnDelete;
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.core.metamodel.annotation.Composition;
 import io.jmix.core.metamodel.annotation.InstanceName;
 import io.jmix.data.entity.StandardEntity;
@@ -29,6 +30,7 @@ import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import java.util.List;
 
+@PublishEntityChangedEvents
 @Table(name = "SEC_ROLE")
 @Entity(name = "sec_Role")
 public class RoleEntity extends StandardEntity {
@@ -16,11 +16,13 @@
 
 package io.jmix.securitydata.entity;
 
+import io.jmix.core.entity.annotation.PublishEntityChangedEvents;
 import io.jmix.data.entity.StandardEntity;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 
+@PublishEntityChangedEvents
 @Table(name = "SEC_ROW_LEVEL_POLICY")
 @Entity(name = "sec_RowLevelPolicy")
 public class RowLevelPolicyEntity extends StandardEntity {
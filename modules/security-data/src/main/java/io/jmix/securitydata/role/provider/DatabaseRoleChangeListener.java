@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.securitydata.role.provider;
+
+import io.jmix.data.event.EntityChangedEvent;
+import io.jmix.security.role.RolesChangedEvent;
+import io.jmix.securitydata.entity.ResourcePolicyEntity;
+import io.jmix.securitydata.entity.RoleEntity;
+import io.jmix.securitydata.entity.RowLevelPolicyEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes {@link RolesChangedEvent} after a transaction that has changed roles stored in the database
+ * or their policies is committed.
+ */
+@Component("sec_DatabaseRoleChangeListener")
+public class DatabaseRoleChangeListener {
+
+    @Autowired
+    protected ApplicationEventPublisher eventPublisher;
+
+    @TransactionalEventListener
+    protected void onRoleChanged(EntityChangedEvent<RoleEntity> event) {
+        eventPublisher.publishEvent(new RolesChangedEvent(this));
+    }
+
+    @TransactionalEventListener
+    protected void onResourcePolicyChanged(EntityChangedEvent<ResourcePolicyEntity> event) {
+        eventPublisher.publishEvent(new RolesChangedEvent(this));
+    }
+
+    @TransactionalEventListener
+    protected void onRowLevelPolicyChanged(EntityChangedEvent<RowLevelPolicyEntity> event) {
+        eventPublisher.publishEvent(new RolesChangedEvent(this));
+    }
+}
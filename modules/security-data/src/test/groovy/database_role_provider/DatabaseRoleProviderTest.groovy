@@ -19,6 +19,7 @@ package database_role_provider
 import io.jmix.core.DataManager
 import io.jmix.core.Metadata
 import io.jmix.core.SaveContext
+import io.jmix.security.impl.ConstraintScriptCache
 import io.jmix.security.model.ResourcePolicy
 import io.jmix.security.model.ResourcePolicyType
 import io.jmix.security.model.Role
@@ -41,6 +42,9 @@ class DatabaseRoleProviderTest extends SecurityDataSpecification {
     @Autowired
     Metadata metadata
 
+    @Autowired
+    ConstraintScriptCache constraintScriptCache
+
     def setup() {
         prepareTestData()
     }
@@ -92,6 +96,21 @@ class DatabaseRoleProviderTest extends SecurityDataSpecification {
         }
     }
 
+    def "compiled constraint scripts are removed when a policy is changed"() {
+        constraintScriptCache.createScript('{E} != null', [:])
+
+        when:
+        RowLevelPolicyEntity policy = dataManager.load(RowLevelPolicyEntity)
+                .query('select p from sec_RowLevelPolicy p where p.entityName = :entityName')
+                .parameter('entityName', 'test_Order')
+                .one()
+        policy.whereClause = 'where3'
+        dataManager.save(policy)
+
+        then:
+        constraintScriptCache.size() == 0
+    }
+
     private void prepareTestData() {
         RoleEntity role1 = metadata.create(RoleEntity)
         role1.code = 'role1'
@@ -26,13 +26,16 @@ public class SecurityProperties {
 
     String keyForSecurityTokenEncryption;
     boolean entityAttributePermissionChecking;
+    int constraintScriptCacheSize;
 
     public SecurityProperties(
             @DefaultValue("jmix") String keyForSecurityTokenEncryption,
-            boolean entityAttributePermissionChecking
+            boolean entityAttributePermissionChecking,
+            @DefaultValue("500") int constraintScriptCacheSize
     ) {
         this.keyForSecurityTokenEncryption = keyForSecurityTokenEncryption;
         this.entityAttributePermissionChecking = entityAttributePermissionChecking;
+        this.constraintScriptCacheSize = constraintScriptCacheSize;
     }
 
     /**
@@ -45,4 +48,11 @@ public class SecurityProperties {
     public boolean isEntityAttributePermissionChecking() {
         return entityAttributePermissionChecking;
     }
+
+    /**
+     * Maximum number of compiled in-memory constraint scripts kept in memory.
+     */
+    public int getConstraintScriptCacheSize() {
+        return constraintScriptCacheSize;
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.security.impl;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import io.jmix.security.SecurityProperties;
+import io.jmix.security.role.RolesChangedEvent;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Keeps Groovy scripts of in-memory constraints compiled into classes. A script is compiled once per distinct text,
+ * so it is recompiled only if the constraint definition changes. The number of compiled scripts is limited by
+ * {@link SecurityProperties#getConstraintScriptCacheSize()}, and all of them are dropped when roles are changed.
+ * <p>
+ * Each script is compiled by its own class loader, so the class of a script removed from the cache can be unloaded.
+ */
+@Component(ConstraintScriptCache.NAME)
+public class ConstraintScriptCache {
+
+    public static final String NAME = "sec_ConstraintScriptCache";
+
+    public static final String ENTITY_VARIABLE = "__entity__";
+
+    private static final Logger log = LoggerFactory.getLogger(ConstraintScriptCache.class);
+
+    protected final LoadingCache<String, Class<? extends Script>> scriptClasses;
+
+    @Autowired
+    public ConstraintScriptCache(SecurityProperties securityProperties) {
+        scriptClasses = CacheBuilder.newBuilder()
+                .maximumSize(securityProperties.getConstraintScriptCacheSize())
+                .build(CacheLoader.from(this::compile));
+    }
+
+    /**
+     * Creates a new instance of the compiled constraint script. Each instance has its own binding, so variables
+     * set by the script are not visible to other instances.
+     *
+     * @param groovyScript constraint script text, may contain {@code {E}} placeholder for the checked entity
+     * @param variables    variables to be bound to the script, the map is copied
+     * @return script instance, the checked entity should be set to {@link #ENTITY_VARIABLE} before the run
+     */
+    public Script createScript(String groovyScript, Map<String, Object> variables) {
+        Class<? extends Script> scriptClass;
+        try {
+            scriptClass = scriptClasses.getUnchecked(groovyScript);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+        Binding binding = new Binding();
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            binding.setVariable(entry.getKey(), entry.getValue());
+        }
+        return InvokerHelper.createScript(scriptClass, binding);
+    }
+
+    /**
+     * Removes all compiled scripts.
+     */
+    public void clear() {
+        scriptClasses.invalidateAll();
+    }
+
+    public long size() {
+        return scriptClasses.size();
+    }
+
+    @EventListener
+    protected void onRolesChanged(RolesChangedEvent event) {
+        log.debug("Roles have been changed, removing compiled constraint scripts");
+        clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<? extends Script> compile(String groovyScript) {
+        log.debug("Compiling constraint script: {}", groovyScript);
+        GroovyClassLoader classLoader = new GroovyClassLoader(ConstraintScriptCache.class.getClassLoader());
+        return (Class<? extends Script>) classLoader.parseClass(groovyScript.replace("{E}", ENTITY_VARIABLE));
+    }
+}
@@ -138,16 +138,8 @@ public class StandardPersistenceSecurity implements PersistenceSecurity {
 
     @Override
     public boolean filterByConstraints(Collection<Entity> entities) {
-        boolean filtered = false;
-        for (Iterator<Entity> iterator = entities.iterator(); iterator.hasNext(); ) {
-            Entity entity = iterator.next();
-            if (!isPermittedInMemory(entity)) {
-                //we ignore situations when the collection is immutable
-                iterator.remove();
-                filtered = true;
-            }
-        }
-        return filtered;
+        //we ignore situations when the collection is immutable
+        return ((StandardSecurity) security).filterPermitted(entities, this::isInMemoryReadConstraint);
     }
 
     @Override
@@ -373,10 +365,13 @@ public class StandardPersistenceSecurity implements PersistenceSecurity {
     }
 
     protected boolean isPermittedInMemory(Entity entity) {
-        return ((StandardSecurity) security).isPermitted(entity, constraint ->
-                constraint.getCheckType().memory()
-                        && (constraint.getOperationType() == ConstraintOperationType.READ
-                        || constraint.getOperationType() == ConstraintOperationType.ALL));
+        return ((StandardSecurity) security).isPermitted(entity, this::isInMemoryReadConstraint);
+    }
+
+    protected boolean isInMemoryReadConstraint(ConstraintData constraint) {
+        return constraint.getCheckType().memory()
+                && (constraint.getOperationType() == ConstraintOperationType.READ
+                || constraint.getOperationType() == ConstraintOperationType.ALL);
     }
 
     protected static class EntityId {
@@ -16,6 +16,8 @@
 
 package io.jmix.security.impl;
 
+import com.google.common.base.Suppliers;
+import groovy.lang.Script;
 import io.jmix.core.Entity;
 import io.jmix.core.ExtendedEntities;
 import io.jmix.core.Metadata;
@@ -38,12 +40,10 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import java.text.ParseException;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static io.jmix.core.security.ConstraintOperationType.ALL;
@@ -70,7 +70,8 @@ public class StandardSecurity implements Security {
     @Autowired
     protected DatatypeRegistry datatypeRegistry;
 
-    protected ScriptEngineManager scriptEngineManager = new ScriptEngineManager();
+    @Autowired
+    protected ConstraintScriptCache constraintScriptCache;
 
 //    private StandardUserSession getUserSession() {
 //        return (StandardUserSession) userSessionSource.getUserSession();
@@ -194,23 +195,64 @@ public class StandardSecurity implements Security {
 
     @Override
     public Object evaluateConstraintScript(Entity entity, String groovyScript) {
+        return evaluateConstraintScript(entity, groovyScript, createConstraintScriptContext());
+    }
+
+    /**
+     * Removes entities that do not satisfy in-memory constraints selected by the predicate. Constraints are
+     * resolved once per entity class and the script context is created once for the whole collection.
+     *
+     * @param entities  collection to filter, must be mutable
+     * @param predicate selects constraints to check
+     * @return true if at least one entity has been removed
+     */
+    public boolean filterPermitted(Collection<? extends Entity> entities, Predicate<ConstraintData> predicate) {
+        if (entities.isEmpty()) {
+            return false;
+        }
+        Map<MetaClass, List<ConstraintData>> constraintsByClass = new HashMap<>();
+        Supplier<Map<String, Object>> context = Suppliers.memoize(this::createConstraintScriptContext);
+        boolean filtered = false;
+        for (Iterator<? extends Entity> iterator = entities.iterator(); iterator.hasNext(); ) {
+            Entity entity = iterator.next();
+            List<ConstraintData> constraints = constraintsByClass.computeIfAbsent(metadata.getClass(entity),
+                    metaClass -> getConstraints(metaClass, predicate));
+            for (ConstraintData constraint : constraints) {
+                if (!isPermitted(entity, constraint, context)) {
+                    iterator.remove();
+                    filtered = true;
+                    break;
+                }
+            }
+        }
+        return filtered;
+    }
+
+    protected Map<String, Object> createConstraintScriptContext() {
         Map<String, Object> context = new HashMap<>();
-        context.put("__entity__", entity);
         context.put("parse", new MethodClosure(this, "parseValue"));
         //todo MG
 //        context.put("userSession", currentAuthentication.getUserSession());
         fillGroovyConstraintsContext(context);
-        ScriptEngine engine = scriptEngineManager.getEngineByName("groovy");
-        for (Map.Entry<String, Object> entry : context.entrySet()) {
-            engine.put(entry.getKey(), entry.getValue());
+        return context;
+    }
+
+    /**
+     * Evaluates the script in a new binding, so variables set by the script are not visible to other evaluations.
+     */
+    protected Object evaluateConstraintScript(Entity entity, String groovyScript, Map<String, Object> context) {
+        Script script;
+        try {
+            script = constraintScriptCache.createScript(groovyScript, context);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error compiling Groovy expression", e);
         }
-        Object result;
+        script.getBinding().setVariable(ConstraintScriptCache.ENTITY_VARIABLE, entity);
         try {
-            result = engine.eval(groovyScript.replace("{E}", "__entity__"));
-        } catch (ScriptException e) {
+            return script.run();
+        } catch (RuntimeException e) {
             throw new RuntimeException("Error evaluating Groovy expression", e);
         }
-        return result;
     }
 
     protected boolean isEntityAttrPermitted(MetaClass metaClass, MetaPropertyPath propertyPath, EntityAttrAccess access) {
@@ -223,8 +265,9 @@ public class StandardSecurity implements Security {
 
     protected boolean isPermitted(Entity entity, Predicate<ConstraintData> predicate) {
         List<ConstraintData> constraints = getConstraints(metadata.getClass(entity), predicate);
+        Supplier<Map<String, Object>> context = Suppliers.memoize(this::createConstraintScriptContext);
         for (ConstraintData constraint : constraints) {
-            if (!isPermitted(entity, constraint)) {
+            if (!isPermitted(entity, constraint, context)) {
                 return false;
             }
         }
@@ -232,19 +275,25 @@ public class StandardSecurity implements Security {
     }
 
     protected boolean isPermitted(Entity entity, ConstraintData constraint) {
-        String metaClassName = metadata.getClass(entity.getClass()).getName();
+        return isPermitted(entity, constraint, this::createConstraintScriptContext);
+    }
+
+    /**
+     * @param context supplies variables of the constraint script, shared by the checks of one collection
+     */
+    protected boolean isPermitted(Entity entity, ConstraintData constraint, Supplier<Map<String, Object>> context) {
         String groovyScript = constraint.getGroovyScript();
         if (constraint.getCheckType().memory() && StringUtils.isNotBlank(groovyScript)) {
             try {
-                Object o = evaluateConstraintScript(entity, groovyScript);
+                Object o = evaluateConstraintScript(entity, groovyScript, context.get());
                 if (Boolean.FALSE.equals(o)) {
                     log.trace("Entity does not match security constraint. Entity class [{}]. Entity [{}]. Constraint [{}].",
-                            metaClassName, EntityValues.getId(entity), constraint.getCheckType());
+                            metadata.getClass(entity).getName(), EntityValues.getId(entity), constraint.getCheckType());
                     return false;
                 }
             } catch (Exception e) {
                 log.error("An error occurred while applying constraint's Groovy script. The entity has been filtered out." +
-                        "Entity class [{}]. Entity [{}].", metaClassName, EntityValues.getId(entity), e);
+                        "Entity class [{}]. Entity [{}].", metadata.getClass(entity).getName(), EntityValues.getId(entity), e);
                 return false;
             }
         }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.security.role;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event that is published when roles or their resource and row-level policies are changed. Components that keep
+ * data derived from roles, e.g. compiled constraint scripts, should drop it on this event.
+ */
+public class RolesChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -2937462651862517345L;
+
+    /**
+     * @param source the component that has changed the roles
+     */
+    public RolesChangedEvent(Object source) {
+        super(source);
+    }
+}
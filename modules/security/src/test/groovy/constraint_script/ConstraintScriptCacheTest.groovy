@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package constraint_script
+
+import io.jmix.security.SecurityProperties
+import io.jmix.security.impl.ConstraintScriptCache
+import io.jmix.security.role.RolesChangedEvent
+import spock.lang.Specification
+
+class ConstraintScriptCacheTest extends Specification {
+
+    def "script is compiled once and each instance has its own binding"() {
+
+        def cache = createCache(10)
+
+        when:
+
+        def script1 = cache.createScript('{E}.number == "aaa"', [:])
+        script1.binding.setVariable(ConstraintScriptCache.ENTITY_VARIABLE, [number: 'aaa'])
+        def result1 = script1.run()
+
+        def script2 = cache.createScript('{E}.number == "aaa"', [:])
+        script2.binding.setVariable(ConstraintScriptCache.ENTITY_VARIABLE, [number: 'bbb'])
+        def result2 = script2.run()
+
+        then:
+
+        result1 == true
+        result2 == false
+        !script1.is(script2)
+        !script1.binding.is(script2.binding)
+        script1.getClass() == script2.getClass()
+        cache.size() == 1
+    }
+
+    def "variables set by a script are not visible to the next evaluation"() {
+
+        def cache = createCache(10)
+        def text = 'def result = !binding.hasVariable("seen"); seen = true; result'
+
+        when:
+
+        def result1 = cache.createScript(text, [limit: 1]).run()
+        def result2 = cache.createScript(text, [limit: 1]).run()
+
+        then:
+
+        result1 == true
+        result2 == true
+    }
+
+    def "script is recompiled after clear"() {
+
+        def cache = createCache(10)
+
+        when:
+
+        def script1 = cache.createScript('limit > 0', [limit: 1])
+        cache.clear()
+        def script2 = cache.createScript('limit > 0', [limit: 0])
+
+        then:
+
+        script1.run() == true
+        script2.run() == false
+        script1.getClass() != script2.getClass()
+    }
+
+    def "scripts are removed when roles are changed"() {
+
+        def cache = createCache(10)
+        cache.createScript('limit > 0', [limit: 1])
+
+        when:
+
+        cache.onRolesChanged(new RolesChangedEvent(this))
+
+        then:
+
+        cache.size() == 0
+    }
+
+    def "number of compiled scripts is limited"() {
+
+        def cache = createCache(2)
+
+        when:
+
+        (1..5).each { cache.createScript("limit > $it", [limit: 1]) }
+
+        then:
+
+        cache.size() <= 2
+    }
+
+    private static ConstraintScriptCache createCache(int size) {
+        return new ConstraintScriptCache(new SecurityProperties('jmix', false, size))
+    }
+}
@@ -20,9 +20,11 @@ import io.jmix.core.common.event.Subscription;
 import io.jmix.core.Entity;
 import io.jmix.core.LoadContext;
 import io.jmix.core.FetchPlan;
+import io.jmix.ui.screen.FrameOwner;
 import io.jmix.ui.screen.InstallSubject;
 import io.jmix.ui.screen.Subscribe;
 
+import javax.annotation.Nullable;
 import java.util.EventObject;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -79,6 +81,43 @@ public interface InstanceLoader<E extends Entity> extends DataLoader {
      */
     void setLoadDynamicAttributes(boolean loadDynamicAttributes);
 
+    /**
+     * Returns true if the loader loads data asynchronously.
+     */
+    boolean isAsync();
+
+    /**
+     * Set to true to load data asynchronously. In this mode, {@link #load()} returns immediately and data is loaded
+     * in a background thread. If {@code load()} is invoked again before the previous request is completed, the
+     * previous request is canceled and its result is ignored. The loaded entity is set to the container and
+     * {@link PostLoadEvent} is sent in the UI thread for the latest request only.
+     */
+    void setAsync(boolean async);
+
+    /**
+     * Returns the screen or fragment controller that owns the loader.
+     */
+    @Nullable
+    FrameOwner getFrameOwner();
+
+    /**
+     * Sets the screen or fragment controller that owns the loader. Asynchronous requests are bound to its screen
+     * and canceled when the screen is closed.
+     */
+    void setFrameOwner(@Nullable FrameOwner frameOwner);
+
+    /**
+     * Returns true if an asynchronous load is in progress.
+     */
+    boolean isLoading();
+
+    /**
+     * Cancels the asynchronous load in progress. Its result will not be set to the container.
+     *
+     * @return true if a load was in progress and has been canceled
+     */
+    boolean cancelLoad();
+
     /**
      * Returns a function which will be used to load data instead of standard implementation.
      */
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.ui.model.impl;
+
+import io.jmix.ui.executor.BackgroundTask;
+import io.jmix.ui.executor.BackgroundTaskHandler;
+import io.jmix.ui.executor.BackgroundWorker;
+import io.jmix.ui.executor.TaskLifeCycle;
+import io.jmix.ui.executor.UiBackgroundTaskProperties;
+import io.jmix.ui.screen.FrameOwner;
+import io.jmix.ui.screen.Screen;
+import io.jmix.ui.screen.UiControllerUtils;
+import org.springframework.context.ApplicationContext;
+
+import javax.annotation.Nullable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Executes asynchronous requests of a data loader in {@link BackgroundWorker} tasks.
+ * <p>
+ * A task is bound to the screen of the loader's frame owner, so it is canceled when the screen is closed.
+ * Each new request cancels the previous one, and only the result of the latest request is passed to the
+ * result handler.
+ *
+ * @param <V> type of the loaded data
+ */
+public class AsyncLoadSupport<V> {
+
+    protected ApplicationContext applicationContext;
+
+    protected BackgroundTaskHandler<V> taskHandler;
+    protected long requestNumber;
+
+    public AsyncLoadSupport(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    protected BackgroundWorker getBackgroundWorker() {
+        return applicationContext.getBean(BackgroundWorker.NAME, BackgroundWorker.class);
+    }
+
+    protected UiBackgroundTaskProperties getBackgroundTaskProperties() {
+        return applicationContext.getBean(UiBackgroundTaskProperties.class);
+    }
+
+    /**
+     * Cancels the request in progress and starts a new one.
+     *
+     * @param frameOwner    screen or fragment that owns the loader, or null if the task should not be bound to a screen
+     * @param loader        loads data in a background thread
+     * @param resultHandler receives the loaded data in the UI thread
+     */
+    public void execute(@Nullable FrameOwner frameOwner, Supplier<V> loader, Consumer<V> resultHandler) {
+        cancel();
+
+        long currentRequestNumber = requestNumber;
+        long timeoutSeconds = getBackgroundTaskProperties().getTimeoutSeconds();
+        Screen screen = frameOwner != null ? UiControllerUtils.getScreen(frameOwner) : null;
+
+        taskHandler = getBackgroundWorker().handle(new BackgroundTask<Void, V>(timeoutSeconds, screen) {
+            @Override
+            public V run(TaskLifeCycle<Void> taskLifeCycle) {
+                return loader.get();
+            }
+
+            @Override
+            public void done(V result) {
+                // the result is passed only if no other request has been made since this one
+                if (currentRequestNumber == requestNumber) {
+                    taskHandler = null;
+                    resultHandler.accept(result);
+                }
+            }
+
+            @Override
+            public void canceled() {
+                // the owner screen has been closed
+                if (currentRequestNumber == requestNumber) {
+                    taskHandler = null;
+                }
+            }
+
+            @Override
+            public boolean handleException(Exception ex) {
+                if (currentRequestNumber == requestNumber) {
+                    taskHandler = null;
+                }
+                return false;
+            }
+
+            @Override
+            public boolean handleTimeoutException() {
+                if (currentRequestNumber == requestNumber) {
+                    taskHandler = null;
+                }
+                return false;
+            }
+        });
+        taskHandler.execute();
+    }
+
+    /**
+     * Cancels the request in progress. Its result will not be passed to the result handler.
+     *
+     * @return true if a request was in progress and has been canceled
+     */
+    public boolean cancel() {
+        requestNumber++;
+        if (taskHandler != null) {
+            BackgroundTaskHandler<V> handler = taskHandler;
+            taskHandler = null;
+            return handler.cancel();
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a request is in progress
+     */
+    public boolean isRunning() {
+        return taskHandler != null;
+    }
+}
@@ -81,7 +81,7 @@ public class CollectionContainerImpl<E extends Entity>
     public List<E> getMutableItems() {
         return new ObservableList<>(collection, idMap,
                 (changeType, changes) -> {
-                    buildIdMap();
+                    updateIdMap(changeType, changes);
                     clearItemIfNotExists();
                     fireCollectionChanged(changeType, changes);
                 },
@@ -161,13 +161,14 @@ public class CollectionContainerImpl<E extends Entity>
                 fireItemChanged(prev);
             }
             replaceInCollection(idx, entity);
+            idMap.put(IndexKey.ofEntity(entity), idx);
             changeType = CollectionChangeType.SET_ITEM;
         } else {
             addToCollection(entity);
+            idMap.put(IndexKey.ofEntity(entity), collection.size() - 1);
             changeType = CollectionChangeType.ADD_ITEMS;
         }
         attachListener(entity);
-        buildIdMap();
         fireCollectionChanged(changeType, Collections.singletonList(entity));
     }
 
@@ -216,7 +217,11 @@ public class CollectionContainerImpl<E extends Entity>
             // instance has different hashCode based on id
             @SuppressWarnings("unchecked")
             E entity = (E) e.getItem();
-            idMap.put(IndexKey.ofEntity(entity), collection.indexOf(entity));
+            Integer idx = e.getPrevValue() != null ? idMap.remove(IndexKey.of(e.getPrevValue())) : null;
+            if (idx == null || idx >= collection.size() || collection.get(idx) != entity) {
+                idx = collection.indexOf(entity);
+            }
+            idMap.put(IndexKey.ofEntity(entity), idx);
         }
 
         super.itemPropertyChanged(e);
@@ -251,6 +256,47 @@ public class CollectionContainerImpl<E extends Entity>
         }
     }
 
+    /**
+     * Updates {@link #idMap} after a change of the collection. Appended items are added to the map, positions of
+     * items following the removed ones are shifted in a single pass. Other changes rebuild the map.
+     */
+    protected void updateIdMap(CollectionChangeType changeType, Collection<? extends E> changes) {
+        if (changeType == CollectionChangeType.ADD_ITEMS && isAppended(changes)) {
+            int idx = collection.size() - changes.size();
+            for (E entity : changes) {
+                idMap.put(IndexKey.ofEntity(entity), idx++);
+            }
+        } else if (changeType == CollectionChangeType.REMOVE_ITEMS && !changes.isEmpty()) {
+            int firstRemovedIdx = Integer.MAX_VALUE;
+            for (E entity : changes) {
+                Integer idx = idMap.remove(IndexKey.ofEntity(entity));
+                if (idx == null) {
+                    buildIdMap();
+                    return;
+                }
+                firstRemovedIdx = Math.min(firstRemovedIdx, idx);
+            }
+            for (int i = firstRemovedIdx; i < collection.size(); i++) {
+                idMap.put(IndexKey.ofEntity(collection.get(i)), i);
+            }
+        } else {
+            buildIdMap();
+        }
+    }
+
+    protected boolean isAppended(Collection<? extends E> changes) {
+        int idx = collection.size() - changes.size();
+        if (idx < 0) {
+            return false;
+        }
+        for (E entity : changes) {
+            if (collection.get(idx++) != entity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected void clearItemIfNotExists() {
         if (item != null) {
             int idx = getItemIndex(EntityValues.getId(item));
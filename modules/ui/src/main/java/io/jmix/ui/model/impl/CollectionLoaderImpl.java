@@ -22,6 +22,7 @@ import io.jmix.core.Entity;
 import io.jmix.core.*;
 import io.jmix.core.querycondition.Condition;
 import io.jmix.ui.model.*;
+import io.jmix.ui.screen.FrameOwner;
 import org.springframework.context.ApplicationContext;
 
 import javax.annotation.Nullable;
@@ -51,6 +52,9 @@ public class CollectionLoaderImpl<E extends Entity> implements CollectionLoader<
     protected Sort sort;
     protected Function<LoadContext<E>, List<E>> delegate;
     protected EventHub events = new EventHub();
+    protected boolean async;
+    protected FrameOwner frameOwner;
+    protected AsyncLoadSupport<List<E>> asyncLoadSupport;
 
     public CollectionLoaderImpl(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
@@ -96,13 +100,32 @@ public class CollectionLoaderImpl<E extends Entity> implements CollectionLoader<
             return;
         }
 
-        List<E> list;
+        // results of the previous asynchronous request are not needed anymore
+        cancelLoad();
+
+        if (async) {
+            loadAsync(loadContext);
+        } else {
+            setLoadedItems(loadList(loadContext));
+        }
+    }
+
+    protected void loadAsync(LoadContext<E> loadContext) {
+        if (asyncLoadSupport == null) {
+            asyncLoadSupport = new AsyncLoadSupport<>(applicationContext);
+        }
+        asyncLoadSupport.execute(frameOwner, () -> loadList(loadContext), this::setLoadedItems);
+    }
+
+    protected List<E> loadList(LoadContext<E> loadContext) {
         if (delegate == null) {
-            list = getDataManager().loadList(loadContext);
+            return getDataManager().loadList(loadContext);
         } else {
-            list = delegate.apply(loadContext);
+            return delegate.apply(loadContext);
         }
+    }
 
+    protected void setLoadedItems(List<E> list) {
         if (dataContext != null) {
             List<E> mergedList = new ArrayList<>(list.size());
             for (E entity : list) {
@@ -116,6 +139,16 @@ public class CollectionLoaderImpl<E extends Entity> implements CollectionLoader<
         sendPostLoadEvent(list);
     }
 
+    @Override
+    public boolean cancelLoad() {
+        return asyncLoadSupport != null && asyncLoadSupport.cancel();
+    }
+
+    @Override
+    public boolean isLoading() {
+        return asyncLoadSupport != null && asyncLoadSupport.isRunning();
+    }
+
     @Override
     public LoadContext<E> createLoadContext() {
         Class<E> entityClass = container.getEntityMetaClass().getJavaClass();
@@ -309,6 +342,27 @@ public class CollectionLoaderImpl<E extends Entity> implements CollectionLoader<
         }
     }
 
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Nullable
+    @Override
+    public FrameOwner getFrameOwner() {
+        return frameOwner;
+    }
+
+    @Override
+    public void setFrameOwner(@Nullable FrameOwner frameOwner) {
+        this.frameOwner = frameOwner;
+    }
+
     @Override
     public Function<LoadContext<E>, List<E>> getLoadDelegate() {
         return delegate;
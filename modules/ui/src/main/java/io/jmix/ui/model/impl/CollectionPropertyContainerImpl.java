@@ -64,7 +64,7 @@ public class CollectionPropertyContainerImpl<E extends Entity>
     @Override
     public List<E> getMutableItems() {
         return new ObservableList<>(collection, idMap, (changeType, changes) -> {
-            buildIdMap();
+            updateIdMap(changeType, changes);
             clearItemIfNotExists();
             updateMaster();
             fireCollectionChanged(changeType, changes);
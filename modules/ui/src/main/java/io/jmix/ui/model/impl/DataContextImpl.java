@@ -24,6 +24,7 @@ import io.jmix.core.entity.*;
 import io.jmix.core.impl.StandardSerialization;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.ui.model.CollectionChangeType;
 import io.jmix.ui.model.DataContext;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -71,6 +72,15 @@ public class DataContextImpl implements DataContext {
 
     protected Map<Entity, Entity> nullIdEntitiesMap = new IdentityHashMap<>();
 
+    // entity class -> entity key -> managed instances holding the entity in their collections -> collection properties
+    protected Map<Class<?>, Map<Object, Map<Entity, Set<String>>>> collectionReferrers = new HashMap<>();
+
+    // collections created by this context, changes in them are reflected in collectionReferrers
+    protected Set<Collection> trackedCollections = Sets.newIdentityHashSet();
+
+    // managed instances having collections not created by this context, they are checked on each remove
+    protected Set<Entity> untrackedCollectionOwners = Sets.newIdentityHashSet();
+
     public DataContextImpl(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
     }
@@ -261,14 +271,20 @@ public class DataContextImpl implements DataContext {
         mergeSystemState(srcEntity, dstEntity, isRoot);
 
         MetaClass metaClass = getMetadata().getClass(srcEntity.getClass());
+        // ordinals are valid for both entities only if they are instances of the same class
+        int[] ordinals = srcEntity.getClass() == dstEntity.getClass()
+                ? EntityValues.getAttributeOrdinals(srcEntity, metaClass)
+                : null;
 
+        int i = 0;
         for (MetaProperty property : metaClass.getProperties()) {
+            int ordinal = ordinals != null ? ordinals[i++] : -1;
             String propertyName = property.getName();
             if (!property.getRange().isClass()                                             // local
                     && (srcNew || entityStates.isLoaded(srcEntity, propertyName))          // loaded src
                     && (dstNew || entityStates.isLoaded(dstEntity, propertyName))) {       // loaded dst
 
-                Object value = EntityValues.getValue(srcEntity, propertyName);
+                Object value = getPropertyValue(srcEntity, property, ordinal);
 
                 // ignore null values in non-root source entities and do not try to assign IdProxy
                 if ((!isRoot && value == null)
@@ -276,17 +292,19 @@ public class DataContextImpl implements DataContext {
                     continue;
                 }
 
-                setPropertyValue(dstEntity, property, value);
+                setPropertyValue(dstEntity, property, ordinal, value, true);
             }
         }
 
+        i = 0;
         for (MetaProperty property : metaClass.getProperties()) {
+            int ordinal = ordinals != null ? ordinals[i++] : -1;
             String propertyName = property.getName();
             if (property.getRange().isClass()                                              // refs and collections
                     && (srcNew || entityStates.isLoaded(srcEntity, propertyName))          // loaded src
                     && (dstNew || entityStates.isLoaded(dstEntity, propertyName))) {       // loaded dst
 
-                Object value = EntityValues.getValue(srcEntity, propertyName);
+                Object value = getPropertyValue(srcEntity, property, ordinal);
 
                 // ignore null values in non-root source entities and do not try to assign IdProxy
                 if ((!isRoot && value == null)
@@ -295,7 +313,7 @@ public class DataContextImpl implements DataContext {
                 }
 
                 if (value == null) {
-                    setPropertyValue(dstEntity, property, null);
+                    setPropertyValue(dstEntity, property, ordinal, null, true);
                     continue;
                 }
 
@@ -311,7 +329,7 @@ public class DataContextImpl implements DataContext {
                     Entity srcRef = (Entity) value;
                     if (!mergedMap.containsKey(srcRef)) {
                         Entity managedRef = internalMerge(srcRef, mergedMap, false);
-                        setPropertyValue(dstEntity, property, managedRef, false);
+                        setPropertyValue(dstEntity, property, ordinal, managedRef, false);
                         if (getMetadataTools().isEmbedded(property)) {
                             EmbeddedPropertyChangeListener listener = new EmbeddedPropertyChangeListener(dstEntity);
                             managedRef.__getEntityEntry().addPropertyChangeListener(listener);
@@ -320,7 +338,7 @@ public class DataContextImpl implements DataContext {
                     } else {
                         Entity managedRef = mergedMap.get(srcRef);
                         if (managedRef != null) {
-                            setPropertyValue(dstEntity, property, managedRef, false);
+                            setPropertyValue(dstEntity, property, ordinal, managedRef, false);
                         } else {
                             // should never happen
                             log.debug("Instance was merged but managed instance is null: {}", srcRef);
@@ -336,8 +354,25 @@ public class DataContextImpl implements DataContext {
     }
 
     protected void setPropertyValue(Entity entity, MetaProperty property, @Nullable Object value, boolean checkEquals) {
+        setPropertyValue(entity, property, -1, value, checkEquals);
+    }
+
+    @Nullable
+    protected Object getPropertyValue(Entity entity, MetaProperty property, int ordinal) {
+        return ordinal >= 0 ? EntityValues.getValue(entity, ordinal) : EntityValues.getValue(entity, property.getName());
+    }
+
+    /**
+     * Sets the property value by the attribute ordinal if it is not negative, otherwise by the property name.
+     */
+    protected void setPropertyValue(Entity entity, MetaProperty property, int ordinal, @Nullable Object value,
+                                    boolean checkEquals) {
         if (!property.isReadOnly()) {
-            EntityValues.setValue(entity, property.getName(), value, checkEquals);
+            if (ordinal >= 0) {
+                EntityValues.setValue(entity, ordinal, value, checkEquals);
+            } else {
+                EntityValues.setValue(entity, property.getName(), value, checkEquals);
+            }
         } else {
             AnnotatedElement annotatedElement = property.getAnnotatedElement();
             if (annotatedElement instanceof Field) {
@@ -376,13 +411,13 @@ public class DataContextImpl implements DataContext {
                 Entity managedRef = internalMerge(entity, mergedMap, false);
                 managedRefs.add(managedRef);
             }
-            List<Entity> dstList = createObservableList(managedRefs, managedEntity);
+            List<Entity> dstList = createObservableList(managedRefs, managedEntity, property);
             setPropertyValue(managedEntity, property, dstList);
 
         } else {
             List<Entity> dstList = EntityValues.getValue(managedEntity, property.getName());
             if (dstList == null) {
-                dstList = createObservableList(managedEntity);
+                dstList = createObservableList(managedEntity, property);
                 setPropertyValue(managedEntity, property, dstList);
             }
             if (dstList.size() == 0) {
@@ -390,9 +425,10 @@ public class DataContextImpl implements DataContext {
                     dstList.add(internalMerge(srcRef, mergedMap, false));
                 }
             } else {
+                Set<Entity> existingRefs = new HashSet<>(dstList);
                 for (Entity srcRef : list) {
                     Entity managedRef = internalMerge(srcRef, mergedMap, false);
-                    if (!dstList.contains(managedRef)) {
+                    if (existingRefs.add(managedRef)) {
                         dstList.add(managedRef);
                     }
                 }
@@ -408,13 +444,13 @@ public class DataContextImpl implements DataContext {
                 Entity managedRef = internalMerge(entity, mergedMap, false);
                 managedRefs.add(managedRef);
             }
-            Set<Entity> dstSet = createObservableSet(managedRefs, managedEntity);
+            Set<Entity> dstSet = createObservableSet(managedRefs, managedEntity, property);
             setPropertyValue(managedEntity, property, dstSet);
 
         } else {
             Set<Entity> dstSet = EntityValues.getValue(managedEntity, property.getName());
             if (dstSet == null) {
-                dstSet = createObservableSet(managedEntity);
+                dstSet = createObservableSet(managedEntity, property);
                 setPropertyValue(managedEntity, property, dstSet);
             }
             if (dstSet.size() == 0) {
@@ -430,20 +466,157 @@ public class DataContextImpl implements DataContext {
         }
     }
 
-    protected List<Entity> createObservableList(Entity notifiedEntity) {
-        return createObservableList(new ArrayList<>(), notifiedEntity);
+    protected List<Entity> createObservableList(Entity notifiedEntity, MetaProperty property) {
+        return createObservableList(new ArrayList<>(), notifiedEntity, property);
+    }
+
+    protected List<Entity> createObservableList(List<Entity> list, Entity notifiedEntity, MetaProperty property) {
+        ObservableList<Entity> observableList = new ObservableList<>(list, (changeType, changes) -> {
+            collectionChanged(notifiedEntity, property.getName(), changeType, changes);
+            modified(notifiedEntity);
+        });
+        trackCollection(observableList, notifiedEntity, property.getName());
+        return observableList;
+    }
+
+    protected Set<Entity> createObservableSet(Entity notifiedEntity, MetaProperty property) {
+        return createObservableSet(new LinkedHashSet<>(), notifiedEntity, property);
+    }
+
+    protected ObservableSet<Entity> createObservableSet(Set<Entity> set, Entity notifiedEntity, MetaProperty property) {
+        ObservableSet<Entity> observableSet = new ObservableSet<>(set, (changeType, changes) -> {
+            collectionChanged(notifiedEntity, property.getName(), changeType, changes);
+            modified(notifiedEntity);
+        });
+        trackCollection(observableSet, notifiedEntity, property.getName());
+        return observableSet;
+    }
+
+    protected void trackCollection(Collection<Entity> collection, Entity owner, String propertyName) {
+        trackedCollections.add(collection);
+        for (Entity entity : collection) {
+            addCollectionReferrer(entity, owner, propertyName);
+        }
+    }
+
+    protected void collectionChanged(Entity owner, String propertyName, CollectionChangeType changeType,
+                                     Collection<? extends Entity> changes) {
+        if (changeType == CollectionChangeType.ADD_ITEMS || changeType == CollectionChangeType.SET_ITEM) {
+            for (Entity entity : changes) {
+                addCollectionReferrer(entity, owner, propertyName);
+            }
+        } else if (changeType == CollectionChangeType.REFRESH) {
+            // the collection can be refreshed by adding items in bulk, so index all its items
+            Collection<Entity> collection = EntityValues.getValue(owner, propertyName);
+            if (collection != null) {
+                for (Entity entity : collection) {
+                    addCollectionReferrer(entity, owner, propertyName);
+                }
+            }
+        } else if (changeType == CollectionChangeType.REMOVE_ITEMS) {
+            // a list can contain the same item more than once, so keep it while the collection still holds it
+            Collection<Entity> collection = EntityValues.getValue(owner, propertyName);
+            for (Entity entity : changes) {
+                if (collection == null || !collection.contains(entity)) {
+                    removeCollectionReferrer(entity, owner, propertyName);
+                }
+            }
+        }
+        // items replaced by SET_ITEM are not unregistered, the index may contain owners that no longer hold them
+    }
+
+    protected void addCollectionReferrer(@Nullable Entity entity, Entity owner, String propertyName) {
+        if (entity == null) {
+            return;
+        }
+        collectionReferrers.computeIfAbsent(entity.getClass(), aClass -> new HashMap<>())
+                .computeIfAbsent(makeKey(entity), key -> new IdentityHashMap<>())
+                .computeIfAbsent(owner, e -> new HashSet<>(2))
+                .add(propertyName);
+    }
+
+    /**
+     * Unregisters the given instance as an owner of collections.
+     */
+    protected void removeCollectionOwner(Entity owner) {
+        untrackedCollectionOwners.remove(owner);
+
+        MetaClass metaClass = getMetadata().getClass(owner.getClass());
+        for (MetaProperty metaProperty : metaClass.getProperties()) {
+            if (metaProperty.getRange().isClass()
+                    && metaProperty.getRange().getCardinality().isMany()
+                    && getEntityStates().isLoaded(owner, metaProperty.getName())) {
+                Collection<Entity> collection = EntityValues.getValue(owner, metaProperty.getName());
+                if (collection != null) {
+                    trackedCollections.remove(collection);
+                    for (Entity entity : collection) {
+                        removeCollectionReferrer(entity, owner);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void removeCollectionReferrer(@Nullable Entity entity, Entity owner) {
+        if (entity == null) {
+            return;
+        }
+        Map<Object, Map<Entity, Set<String>>> classReferrers = collectionReferrers.get(entity.getClass());
+        if (classReferrers != null) {
+            Object key = makeKey(entity);
+            Map<Entity, Set<String>> referrers = classReferrers.get(key);
+            if (referrers != null) {
+                referrers.remove(owner);
+                purgeCollectionReferrers(entity.getClass(), classReferrers, key, referrers);
+            }
+        }
     }
 
-    protected List<Entity> createObservableList(List<Entity> list, Entity notifiedEntity) {
-        return new ObservableList<>(list, (changeType, changes) -> modified(notifiedEntity));
+    protected void removeCollectionReferrer(@Nullable Entity entity, Entity owner, String propertyName) {
+        if (entity == null) {
+            return;
+        }
+        Map<Object, Map<Entity, Set<String>>> classReferrers = collectionReferrers.get(entity.getClass());
+        if (classReferrers != null) {
+            Object key = makeKey(entity);
+            Map<Entity, Set<String>> referrers = classReferrers.get(key);
+            if (referrers != null) {
+                Set<String> propertyNames = referrers.get(owner);
+                if (propertyNames != null) {
+                    propertyNames.remove(propertyName);
+                    if (propertyNames.isEmpty()) {
+                        referrers.remove(owner);
+                    }
+                }
+                purgeCollectionReferrers(entity.getClass(), classReferrers, key, referrers);
+            }
+        }
     }
 
-    protected Set<Entity> createObservableSet(Entity notifiedEntity) {
-        return createObservableSet(new LinkedHashSet<>(), notifiedEntity);
+    /**
+     * Removes the owners that are no longer managed by the context from the referrers of the given instance.
+     * The referrers of managed owners are kept, as the instance can be merged again and removed later.
+     */
+    protected void removeUnmanagedCollectionReferrers(Entity entity) {
+        Map<Object, Map<Entity, Set<String>>> classReferrers = collectionReferrers.get(entity.getClass());
+        if (classReferrers != null) {
+            Object key = makeKey(entity);
+            Map<Entity, Set<String>> referrers = classReferrers.get(key);
+            if (referrers != null) {
+                referrers.keySet().removeIf(owner -> find(owner) != owner);
+                purgeCollectionReferrers(entity.getClass(), classReferrers, key, referrers);
+            }
+        }
     }
 
-    protected ObservableSet<Entity> createObservableSet(Set<Entity> set, Entity notifiedEntity) {
-        return new ObservableSet<>(set, (changeType, changes) -> modified(notifiedEntity));
+    protected void purgeCollectionReferrers(Class<?> entityClass, Map<Object, Map<Entity, Set<String>>> classReferrers,
+                                            Object key, Map<Entity, Set<String>> referrers) {
+        if (referrers.isEmpty()) {
+            classReferrers.remove(key);
+            if (classReferrers.isEmpty()) {
+                collectionReferrers.remove(entityClass);
+            }
+        }
     }
 
     @Override
@@ -463,6 +636,7 @@ public class DataContextImpl implements DataContext {
             if (mergedEntity != null) {
                 entityMap.remove(makeKey(entity));
                 removeFromCollections(mergedEntity);
+                removeCollectionOwner(mergedEntity);
             }
         }
 
@@ -470,29 +644,43 @@ public class DataContextImpl implements DataContext {
     }
 
     protected void removeFromCollections(Entity entityToRemove) {
-        for (Map.Entry<Class<?>, Map<Object, Entity>> entry : content.entrySet()) {
-            Class<?> entityClass = entry.getKey();
+        Map<Entity, Set<String>> referrers = null;
+        Map<Object, Map<Entity, Set<String>>> classReferrers = collectionReferrers.get(entityToRemove.getClass());
+        if (classReferrers != null) {
+            referrers = classReferrers.remove(makeKey(entityToRemove));
+        }
+        if (referrers != null) {
+            for (Map.Entry<Entity, Set<String>> entry : referrers.entrySet()) {
+                Entity owner = entry.getKey();
+                if (find(owner) == owner) {
+                    for (String propertyName : entry.getValue()) {
+                        removeFromCollection(owner, propertyName, entityToRemove);
+                    }
+                }
+            }
+        }
 
-            MetaClass metaClass = getMetadata().getClass(entityClass);
+        for (Entity owner : new ArrayList<>(untrackedCollectionOwners)) {
+            MetaClass metaClass = getMetadata().getClass(owner.getClass());
             for (MetaProperty metaProperty : metaClass.getProperties()) {
                 if (metaProperty.getRange().isClass()
                         && metaProperty.getRange().getCardinality().isMany()
                         && metaProperty.getRange().asClass().getJavaClass().isAssignableFrom(entityToRemove.getClass())) {
-
-                    Map<Object, Entity> entityMap = entry.getValue();
-                    for (Entity entity : entityMap.values()) {
-                        if (getEntityStates().isLoaded(entity, metaProperty.getName())) {
-                            Collection collection = EntityValues.getValue(entity, metaProperty.getName());
-                            if (collection != null) {
-                                collection.remove(entityToRemove);
-                            }
-                        }
-                    }
+                    removeFromCollection(owner, metaProperty.getName(), entityToRemove);
                 }
             }
         }
     }
 
+    protected void removeFromCollection(Entity owner, String propertyName, Entity entityToRemove) {
+        if (getEntityStates().isLoaded(owner, propertyName)) {
+            Collection collection = EntityValues.getValue(owner, propertyName);
+            if (collection != null) {
+                collection.remove(entityToRemove);
+            }
+        }
+    }
+
     @Override
     public void evict(Entity entity) {
         checkNotNullArgument(entity, "entity is null");
@@ -503,6 +691,8 @@ public class DataContextImpl implements DataContext {
             if (mergedEntity != null) {
                 entityMap.remove(makeKey(entity));
                 removeListeners(entity);
+                removeCollectionOwner(mergedEntity);
+                removeUnmanagedCollectionReferrers(mergedEntity);
             }
             modifiedInstances.remove(entity);
             removedInstances.remove(entity);
@@ -527,6 +717,9 @@ public class DataContextImpl implements DataContext {
         for (Entity entity : getAll()) {
             evict(entity);
         }
+        collectionReferrers.clear();
+        trackedCollections.clear();
+        untrackedCollectionOwners.clear();
     }
 
     @Override
@@ -790,6 +983,21 @@ public class DataContextImpl implements DataContext {
         return "{" + object.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(object)) + "}";
     }
 
+    /**
+     * Registers a collection assigned to a managed instance outside of the context.
+     */
+    protected void collectionReplaced(Entity owner, String propertyName, Collection<?> collection) {
+        MetaProperty metaProperty = getMetadata().getClass(owner.getClass()).findProperty(propertyName);
+        if (metaProperty != null && metaProperty.getRange().isClass()) {
+            untrackedCollectionOwners.add(owner);
+            for (Object item : collection) {
+                if (item instanceof Entity) {
+                    addCollectionReferrer((Entity) item, owner, propertyName);
+                }
+            }
+        }
+    }
+
     protected class PropertyChangeListener implements EntityPropertyChangeListener {
         @Override
         public void propertyChanged(EntityPropertyChangeEvent e) {
@@ -801,6 +1009,27 @@ public class DataContextImpl implements DataContext {
                     entityMap.remove(e.getPrevValue());
                     entityMap.put(e.getValue(), (Entity) e.getItem());
                 }
+                Map<Object, Map<Entity, Set<String>>> classReferrers = collectionReferrers.get(e.getItem().getClass());
+                if (classReferrers != null) {
+                    Map<Entity, Set<String>> referrers = classReferrers.remove(
+                            e.getPrevValue() != null ? e.getPrevValue() : e.getItem());
+                    if (referrers != null) {
+                        classReferrers.put(e.getValue(), referrers);
+                    }
+                }
+            }
+
+            if (e.getPrevValue() instanceof Collection) {
+                trackedCollections.remove(e.getPrevValue());
+                Collection<?> value = e.getValue() instanceof Collection ? (Collection<?>) e.getValue() : null;
+                for (Object item : (Collection<?>) e.getPrevValue()) {
+                    if (item instanceof Entity && (value == null || !value.contains(item))) {
+                        removeCollectionReferrer((Entity) item, (Entity) e.getItem(), e.getProperty());
+                    }
+                }
+            }
+            if (e.getValue() instanceof Collection && !trackedCollections.contains(e.getValue())) {
+                collectionReplaced((Entity) e.getItem(), e.getProperty(), (Collection<?>) e.getValue());
             }
 
             if (!disableListeners) {
@@ -28,6 +28,7 @@ import io.jmix.ui.model.DataContext;
 import io.jmix.ui.model.HasLoader;
 import io.jmix.ui.model.InstanceContainer;
 import io.jmix.ui.model.InstanceLoader;
+import io.jmix.ui.screen.FrameOwner;
 import org.springframework.context.ApplicationContext;
 
 import javax.annotation.Nullable;
@@ -56,6 +57,9 @@ public class InstanceLoaderImpl<E extends Entity> implements InstanceLoader<E> {
     protected String fetchPlanName;
     protected Function<LoadContext<E>, E> delegate;
     protected EventHub events = new EventHub();
+    protected boolean async;
+    protected FrameOwner frameOwner;
+    protected AsyncLoadSupport<E> asyncLoadSupport;
 
     public InstanceLoaderImpl(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
@@ -89,30 +93,49 @@ public class InstanceLoaderImpl<E extends Entity> implements InstanceLoader<E> {
         if (container == null)
             throw new IllegalStateException("container is null");
 
-        E entity;
-
         LoadContext<E> loadContext = createLoadContext();
 
-        if (delegate == null) {
-            if (!needLoad())
-                return;
+        if (delegate == null && !needLoad())
+            return;
 
-            if (!sendPreLoadEvent(loadContext)) {
-                return;
-            }
+        if (!sendPreLoadEvent(loadContext)) {
+            return;
+        }
+
+        if (delegate != null) {
+            loadContext = createLoadContext();
+        }
+
+        // results of the previous asynchronous request are not needed anymore
+        cancelLoad();
+
+        if (async) {
+            loadAsync(loadContext);
+        } else {
+            setLoadedItem(loadEntity(loadContext));
+        }
+    }
 
-            entity = getDataManager().load(loadContext);
+    protected void loadAsync(LoadContext<E> loadContext) {
+        if (asyncLoadSupport == null) {
+            asyncLoadSupport = new AsyncLoadSupport<>(applicationContext);
+        }
+        asyncLoadSupport.execute(frameOwner, () -> loadEntity(loadContext), this::setLoadedItem);
+    }
 
+    protected E loadEntity(LoadContext<E> loadContext) {
+        if (delegate == null) {
+            E entity = getDataManager().load(loadContext);
             if (entity == null) {
                 throw new EntityAccessException(container.getEntityMetaClass(), entityId);
             }
+            return entity;
         } else {
-            if (!sendPreLoadEvent(loadContext)) {
-                return;
-            }
-            entity = delegate.apply(createLoadContext());
+            return delegate.apply(loadContext);
         }
+    }
 
+    protected void setLoadedItem(E entity) {
         if (dataContext != null) {
             entity = dataContext.merge(entity);
         }
@@ -121,6 +144,16 @@ public class InstanceLoaderImpl<E extends Entity> implements InstanceLoader<E> {
         sendPostLoadEvent(entity);
     }
 
+    @Override
+    public boolean cancelLoad() {
+        return asyncLoadSupport != null && asyncLoadSupport.cancel();
+    }
+
+    @Override
+    public boolean isLoading() {
+        return asyncLoadSupport != null && asyncLoadSupport.isRunning();
+    }
+
     protected boolean needLoad() {
         return entityId != null || !Strings.isNullOrEmpty(query);
     }
@@ -259,6 +292,27 @@ public class InstanceLoaderImpl<E extends Entity> implements InstanceLoader<E> {
         this.loadDynamicAttributes = loadDynamicAttributes;
     }
 
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Nullable
+    @Override
+    public FrameOwner getFrameOwner() {
+        return frameOwner;
+    }
+
+    @Override
+    public void setFrameOwner(@Nullable FrameOwner frameOwner) {
+        this.frameOwner = frameOwner;
+    }
+
     @Override
     public Function<LoadContext<E>, E> getLoadDelegate() {
         return delegate;
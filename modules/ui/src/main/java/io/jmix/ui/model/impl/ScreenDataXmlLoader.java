@@ -27,6 +27,7 @@ import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.querycondition.Condition;
 import io.jmix.core.querycondition.ConditionXmlLoader;
 import io.jmix.ui.model.*;
+import io.jmix.ui.screen.FrameOwner;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.dom4j.Element;
 import org.springframework.stereotype.Component;
@@ -62,6 +63,16 @@ public class ScreenDataXmlLoader {
     protected BeanLocator beanLocator;
 
     public void load(ScreenData screenData, Element element, @Nullable ScreenData hostScreenData) {
+        load(screenData, element, hostScreenData, null);
+    }
+
+    /**
+     * Loads data components from XML and binds the created loaders to the given screen or fragment controller.
+     *
+     * @param frameOwner controller that owns the screen data, asynchronous loads are canceled when its screen is closed
+     */
+    public void load(ScreenData screenData, Element element, @Nullable ScreenData hostScreenData,
+                     @Nullable FrameOwner frameOwner) {
         Preconditions.checkNotNullArgument(screenData, "screenData is null");
         Preconditions.checkNotNullArgument(element, "element is null");
 
@@ -96,6 +107,22 @@ public class ScreenDataXmlLoader {
                     break;
             }
         }
+
+        if (frameOwner != null) {
+            setFrameOwner(screenData, frameOwner);
+        }
+    }
+
+    protected void setFrameOwner(ScreenData screenData, FrameOwner frameOwner) {
+        for (String loaderId : screenData.getLoaderIds()) {
+            DataLoader loader = screenData.getLoader(loaderId);
+            // loaders provided by the host screen are already bound to it
+            if (loader instanceof CollectionLoader && ((CollectionLoader) loader).getFrameOwner() == null) {
+                ((CollectionLoader) loader).setFrameOwner(frameOwner);
+            } else if (loader instanceof InstanceLoader && ((InstanceLoader) loader).getFrameOwner() == null) {
+                ((InstanceLoader) loader).setFrameOwner(frameOwner);
+            }
+        }
     }
 
     protected void loadInstanceContainer(ScreenData screenData, Element element, @Nullable ScreenData hostScreenData) {
@@ -286,6 +313,7 @@ public class ScreenDataXmlLoader {
 
             loadSoftDeletion(element, loader);
             loadDynamicAttributes(element, loader);
+            loadAsync(element, loader);
             loadQuery(element, loader);
             loadEntityId(element, loader);
         }
@@ -313,6 +341,7 @@ public class ScreenDataXmlLoader {
             loadQuery(element, loader);
             loadSoftDeletion(element, loader);
             loadDynamicAttributes(element, loader);
+            loadAsync(element, loader);
             loadFirstResult(element, loader);
             loadMaxResults(element, loader);
             loadCacheable(element, loader);
@@ -449,6 +478,17 @@ public class ScreenDataXmlLoader {
         }
     }
 
+    protected void loadAsync(Element element, DataLoader loader) {
+        String asyncVal = element.attributeValue("async");
+        if (!Strings.isNullOrEmpty(asyncVal)) {
+            if (loader instanceof InstanceLoader) {
+                ((InstanceLoader) loader).setAsync(Boolean.parseBoolean(asyncVal));
+            } else if (loader instanceof CollectionLoader) {
+                ((CollectionLoader) loader).setAsync(Boolean.parseBoolean(asyncVal));
+            }
+        }
+    }
+
     protected void loadEntityId(Element element, InstanceLoader<Entity> loader) {
         String entityIdStr = element.attributeValue("entityId");
         if (Strings.isNullOrEmpty(entityIdStr)) {
@@ -108,7 +108,7 @@ public class FragmentLoader extends ContainerLoader<Fragment> implements Compone
         }
         ScreenDataXmlLoader screenDataXmlLoader = beanLocator.get(ScreenDataXmlLoader.class);
         ScreenData screenData = UiControllerUtils.getScreenData(resultComponent.getFrameOwner());
-        screenDataXmlLoader.load(screenData, dataEl, hostScreenData);
+        screenDataXmlLoader.load(screenData, dataEl, hostScreenData, resultComponent.getFrameOwner());
         ((ComponentLoaderContext) context).setScreenData(screenData);
     }
 
@@ -119,7 +119,7 @@ public class WindowLoader extends ContainerLoader<Window> implements ComponentRo
         if (dataEl != null) {
             ScreenDataXmlLoader screenDataXmlLoader = beanLocator.get(ScreenDataXmlLoader.class);
             ScreenData screenData = UiControllerUtils.getScreenData(window.getFrameOwner());
-            screenDataXmlLoader.load(screenData, dataEl, null);
+            screenDataXmlLoader.load(screenData, dataEl, null, window.getFrameOwner());
 
             ((ComponentLoaderContext) context).setScreenData(screenData);
         }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_components
+
+import io.jmix.ui.model.DataComponents
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataContextSpec
+import test_support.entity.sales.Product
+
+class CollectionContainerTest extends DataContextSpec {
+
+    @Autowired DataComponents factory
+
+    def "item indexes are kept after changes of mutable items"() {
+        def container = factory.createCollectionContainer(Product)
+
+        def products = (0..9).collect { new Product(name: "p$it") }
+        container.setItems(products)
+
+        when: "items are appended"
+
+        def p10 = new Product(name: 'p10')
+        def p11 = new Product(name: 'p11')
+        container.getMutableItems().addAll([p10, p11])
+
+        then:
+
+        container.getItemIndex(p10) == 10
+        container.getItemIndex(p11.id) == 11
+
+        when: "items are removed"
+
+        container.getMutableItems().remove(products[7])
+        container.getMutableItems().removeAll([products[2], products[4]])
+
+        then:
+
+        !container.containsItem(products[7])
+        !container.containsItem(products[2])
+        container.items.eachWithIndex { product, idx ->
+            assert container.getItemIndex(product) == idx
+            assert container.getItemOrNull(product.id).is(product)
+        }
+
+        when: "an item is inserted"
+
+        def p12 = new Product(name: 'p12')
+        container.getMutableItems().add(0, p12)
+
+        then:
+
+        container.items.eachWithIndex { product, idx ->
+            assert container.getItemIndex(product) == idx
+        }
+
+        when: "items are sorted"
+
+        container.getMutableItems().sort { a, b -> b.name <=> a.name }
+
+        then:
+
+        container.items.eachWithIndex { product, idx ->
+            assert container.getItemIndex(product) == idx
+        }
+    }
+
+    def "replaced item keeps its index"() {
+        def container = factory.createCollectionContainer(Product)
+
+        def products = (0..4).collect { new Product(name: "p$it") }
+        container.setItems(products)
+
+        when:
+
+        def replacement = new Product(id: products[3].id, name: 'replacement')
+        container.replaceItem(replacement)
+        def added = new Product(name: 'added')
+        container.replaceItem(added)
+
+        then:
+
+        container.getItemIndex(products[3].id) == 3
+        container.getItemOrNull(products[3].id).is(replacement)
+        container.getItemIndex(added) == 5
+    }
+}
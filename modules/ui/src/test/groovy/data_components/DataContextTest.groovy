@@ -465,6 +465,90 @@ class DataContextTest extends DataContextSpec {
         !order1_1.orderLines.contains(orderLine12_1)
     }
 
+    def "removed object is removed from collections changed after merge"() {
+
+        def dataContext = factory.createDataContext()
+
+        Order order1 = makeSaved(new Order(number: "111", orderLines: []))
+        Order order2 = makeSaved(new Order(number: "222", orderLines: []))
+        OrderLine orderLine1 = makeSaved(new OrderLine(quantity: 10))
+        OrderLine orderLine2 = makeSaved(new OrderLine(quantity: 20))
+
+        Order order1_1 = dataContext.merge(order1)
+        Order order2_1 = dataContext.merge(order2)
+        OrderLine orderLine1_1 = dataContext.merge(orderLine1)
+        OrderLine orderLine2_1 = dataContext.merge(orderLine2)
+
+        when: "an item is added to a collection created by the context"
+
+        order1_1.orderLines.add(orderLine1_1)
+        dataContext.remove(orderLine1_1)
+
+        then:
+
+        order1_1.orderLines.isEmpty()
+
+        when: "a collection is assigned outside of the context"
+
+        order2_1.orderLines = [orderLine2_1]
+        dataContext.remove(orderLine2_1)
+
+        then:
+
+        order2_1.orderLines.isEmpty()
+    }
+
+    def "collection referrers are unregistered on remove from collection, evict and clear"() {
+
+        def dataContext = factory.createDataContext()
+
+        Order order1 = makeSaved(new Order(number: "111", orderLines: []))
+        OrderLine orderLine11 = makeSaved(new OrderLine(quantity: 10))
+        OrderLine orderLine12 = makeSaved(new OrderLine(quantity: 20))
+        order1.orderLines.addAll([orderLine11, orderLine12])
+
+        Order order1_1 = dataContext.merge(order1)
+        OrderLine orderLine11_1 = order1_1.orderLines[0]
+        OrderLine orderLine12_1 = order1_1.orderLines[1]
+
+        expect:
+
+        dataContext.collectionReferrers[OrderLine].size() == 2
+
+        when: "an item is removed from the collection"
+
+        order1_1.orderLines.remove(orderLine11_1)
+
+        then:
+
+        dataContext.collectionReferrers[OrderLine].size() == 1
+        dataContext.collectionReferrers[OrderLine][orderLine12_1.id].keySet() == [order1_1] as Set
+
+        when: "the owner is evicted"
+
+        dataContext.evict(order1_1)
+
+        then:
+
+        dataContext.collectionReferrers.isEmpty()
+        dataContext.trackedCollections.isEmpty()
+
+        when: "the context is cleared"
+
+        Order order2_1 = dataContext.merge(makeSaved(new Order(number: "222", orderLines: [])))
+        order2_1.orderLines.add(orderLine12_1)
+        Order order3_1 = dataContext.merge(makeSaved(new Order(number: "333")))
+        order3_1.orderLines = [orderLine11_1]
+
+        dataContext.clear()
+
+        then:
+
+        dataContext.collectionReferrers.isEmpty()
+        dataContext.trackedCollections.isEmpty()
+        dataContext.untrackedCollectionOwners.isEmpty()
+    }
+
     def "system fields are preserved on merge"() {
 
         def dataContext = factory.createDataContext()
@@ -18,13 +18,20 @@ package data_components
 
 import io.jmix.core.DataManager
 import io.jmix.data.PersistenceTools
+import io.jmix.ui.executor.BackgroundTask
+import io.jmix.ui.executor.BackgroundTaskHandler
+import io.jmix.ui.executor.BackgroundWorker
 import io.jmix.ui.model.DataComponents
 import io.jmix.ui.model.InstanceContainer
 import io.jmix.ui.model.InstanceLoader
+import io.jmix.ui.model.impl.InstanceLoaderImpl
+import io.jmix.ui.screen.Screen
 import test_support.DataContextSpec
+import test_support.TestAsyncLoadSupport
 import test_support.entity.Foo
 
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
 import java.util.function.Consumer
 
 class InstanceLoaderTest extends DataContextSpec {
@@ -32,6 +39,7 @@ class InstanceLoaderTest extends DataContextSpec {
     @Autowired DataManager dataManager
     @Autowired DataComponents factory
     @Autowired PersistenceTools persistenceTools
+    @Autowired ApplicationContext applicationContext
 
     def "successful load"() {
         InstanceLoader<Foo> loader = factory.createInstanceLoader()
@@ -93,4 +101,104 @@ class InstanceLoaderTest extends DataContextSpec {
 
         persistenceTools.deleteRecord(foo)
     }
+
+    def "async load is bound to the owner screen and ignores the result of a canceled request"() {
+        InstanceLoaderImpl<Foo> loader = factory.createInstanceLoader()
+        InstanceContainer<Foo> container = factory.createInstanceContainer(Foo)
+        loader.setContainer(container)
+        loader.setEntityId(UUID.randomUUID())
+        loader.setAsync(true)
+
+        Screen screen = new Screen() {}
+        loader.setFrameOwner(screen)
+
+        List<BackgroundTask> tasks = []
+        BackgroundTaskHandler handler1 = Mock()
+        BackgroundTaskHandler handler2 = Mock()
+        BackgroundWorker backgroundWorker = Stub()
+        backgroundWorker.handle(_) >> { BackgroundTask task ->
+            tasks << task
+            tasks.size() == 1 ? handler1 : handler2
+        }
+        loader.asyncLoadSupport = new TestAsyncLoadSupport(applicationContext, backgroundWorker)
+
+        Consumer postLoadListener = Mock()
+        loader.addPostLoadListener(postLoadListener)
+
+        Foo foo1 = new Foo(name: 'foo1')
+        Foo foo2 = new Foo(name: 'foo2')
+
+        when: "the loader is reloaded before the first request is completed"
+
+        loader.load()
+        loader.load()
+
+        then:
+
+        tasks.size() == 2
+        tasks.every { it.ownerScreen.is(screen) }
+        1 * handler1.execute()
+        1 * handler1.cancel()
+        1 * handler2.execute()
+        0 * handler2.cancel()
+        loader.isLoading()
+
+        when: "the canceled request is completed"
+
+        tasks[0].done(foo1)
+
+        then:
+
+        container.getItemOrNull() == null
+        0 * postLoadListener.accept(_)
+        loader.isLoading()
+
+        when: "the latest request is completed"
+
+        tasks[1].done(foo2)
+
+        then:
+
+        container.getItem() == foo2
+        1 * postLoadListener.accept(_)
+        !loader.isLoading()
+    }
+
+    def "async load is stopped when the owner screen is closed"() {
+        InstanceLoaderImpl<Foo> loader = factory.createInstanceLoader()
+        InstanceContainer<Foo> container = factory.createInstanceContainer(Foo)
+        loader.setContainer(container)
+        loader.setEntityId(UUID.randomUUID())
+        loader.setAsync(true)
+
+        loader.setFrameOwner(new Screen() {})
+
+        BackgroundTask task = null
+        BackgroundTaskHandler handler = Mock()
+        BackgroundWorker backgroundWorker = Stub()
+        backgroundWorker.handle(_) >> { BackgroundTask t ->
+            task = t
+            handler
+        }
+        loader.asyncLoadSupport = new TestAsyncLoadSupport(applicationContext, backgroundWorker)
+
+        when:
+
+        loader.load()
+
+        then:
+
+        loader.isLoading()
+
+        when: "the background worker cancels the task of the closed screen"
+
+        task.canceled()
+
+        then:
+
+        !loader.isLoading()
+        container.getItemOrNull() == null
+        !loader.cancelLoad()
+        0 * handler.cancel()
+    }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test_support
+
+import io.jmix.ui.executor.BackgroundWorker
+import io.jmix.ui.model.impl.AsyncLoadSupport
+import org.springframework.context.ApplicationContext
+
+/**
+ * Runs asynchronous loads with the given worker instead of the Vaadin-based one.
+ */
+class TestAsyncLoadSupport<V> extends AsyncLoadSupport<V> {
+
+    BackgroundWorker backgroundWorker
+
+    TestAsyncLoadSupport(ApplicationContext applicationContext, BackgroundWorker backgroundWorker) {
+        super(applicationContext)
+        this.backgroundWorker = backgroundWorker
+    }
+
+    @Override
+    protected BackgroundWorker getBackgroundWorker() {
+        return backgroundWorker
+    }
+}